@@ -27,6 +27,7 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.LifecycleListener;
 import com.badlogic.gdx.Net;
 import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.files.FilePreferences;
 import com.badlogic.gdx.backends.headless.mock.audio.MockAudio;
 import com.badlogic.gdx.backends.headless.mock.graphics.MockGraphics;
 import com.badlogic.gdx.backends.headless.mock.input.MockInput;
@@ -54,6 +55,9 @@ public class HeadlessApplication implements Application {
 	protected ApplicationLogger applicationLogger;
 	private String preferencesdir;
 	private final long renderInterval;
+	private final boolean fixedTimeStep, manualStep;
+	private boolean disposed;
+	private volatile long frames, frameTime;
 
 	public HeadlessApplication(ApplicationListener listener) {
 		this(listener, null);
@@ -67,10 +71,11 @@ public class HeadlessApplication implements Application {
 		setApplicationLogger(new HeadlessApplicationLogger());
 		this.listener = listener;
 		this.files = new HeadlessFiles();
-		this.net = new HeadlessNet();
+		this.net = new HeadlessNet(config);
 		// the following elements are not applicable for headless applications
 		// they are only implemented as mock objects
 		this.graphics = new MockGraphics();
+		graphics.setFixedDeltaTime(config.fixedTimeStep);
 		this.audio = new MockAudio();
 		this.input = new MockInput();
 
@@ -84,8 +89,13 @@ public class HeadlessApplication implements Application {
 		Gdx.input = input;
 		
 		renderInterval = config.renderInterval > 0 ? (long)(config.renderInterval * 1000000000f) : (config.renderInterval < 0 ? -1 : 0);
-		
-		initialize();
+		fixedTimeStep = config.fixedTimeStep > 0;
+		manualStep = config.manualStep;
+
+		if (manualStep)
+			listener.create();
+		else
+			initialize();
 	}
 
 	private void initialize () {
@@ -106,14 +116,16 @@ public class HeadlessApplication implements Application {
 	}
 
 	void mainLoop () {
-		Array<LifecycleListener> lifecycleListeners = this.lifecycleListeners;
-
 		listener.create();
 
 		// unlike LwjglApplication, a headless application will eat up CPU in this while loop
 		// it is up to the implementation to call Thread.sleep as necessary
 		long t = TimeUtils.nanoTime() + renderInterval;
-		if (renderInterval >= 0f) {
+		if (fixedTimeStep && renderInterval >= 0) {
+			// The time step does not depend on the wall clock, so there is no need to wait.
+			while (running)
+				frame();
+		} else if (renderInterval >= 0f) {
 			while (running) {
 				final long n = TimeUtils.nanoTime();
 				if (t > n) {
@@ -124,16 +136,50 @@ public class HeadlessApplication implements Application {
 				} else
 					t = n + renderInterval;
 				
-				executeRunnables();
-				graphics.incrementFrameId();
-				listener.render();
-				graphics.updateTime();
-	
-				// If one of the runnables set running to false, for example after an exit().
-				if (!running) break;
+				frame();
 			}
 		}
 
+		shutdown();
+	}
+
+	private void frame () {
+		long start = TimeUtils.nanoTime();
+		executeRunnables();
+		graphics.incrementFrameId();
+		listener.render();
+		graphics.updateTime();
+		frameTime += TimeUtils.nanoTime() - start;
+		frames++;
+	}
+
+	/** Returns the number of frames run per second of real time spent running frames, excluding time spent waiting for the next
+	 * frame or between calls to {@link #step(int)}. With a {@link HeadlessApplicationConfiguration#fixedTimeStep}, multiplying
+	 * this by the time step gives how many times faster than real time the simulation runs. */
+	public double getFramesPerSecond () {
+		long frameTime = this.frameTime;
+		return frameTime == 0 ? 0 : frames * 1000000000.0 / frameTime;
+	}
+
+	/** Runs frames on the calling thread. The application must have been created with
+	 * {@link HeadlessApplicationConfiguration#manualStep} set. If a runnable calls {@link #exit()}, the frame is finished and the
+	 * application is disposed.
+	 * @return The number of frames run, which is less than the specified number if the application exited. */
+	public int step (int frames) {
+		if (!manualStep) throw new IllegalStateException("HeadlessApplicationConfiguration#manualStep must be true.");
+		if (disposed) return 0;
+		int count = 0;
+		while (count < frames && running) {
+			frame();
+			count++;
+		}
+		if (!running) shutdown();
+		return count;
+	}
+
+	private void shutdown () {
+		if (disposed) return;
+		disposed = true;
 		synchronized (lifecycleListeners) {
 			for (LifecycleListener listener : lifecycleListeners) {
 				listener.pause();
@@ -142,6 +188,7 @@ public class HeadlessApplication implements Application {
 		}
 		listener.pause();
 		listener.dispose();
+		FilePreferences.finishWriting();
 	}
 
 	public boolean executeRunnables () {
@@ -19,6 +19,17 @@ package com.badlogic.gdx.backends.headless;
 public class HeadlessApplicationConfiguration {
 	/** The minimum time (in seconds) between each call to the render method or negative to not call the render method at all. */
 	public float renderInterval = 1f / 60f;
+	/** If > 0, the time step (in seconds) returned by {@link com.badlogic.gdx.Graphics#getDeltaTime()} for every frame, and render
+	 * is called as fast as possible instead of every renderInterval. This makes a simulation independent of the wall clock, so it
+	 * is deterministic and can run faster than real time. {@link com.badlogic.gdx.Graphics#getFramesPerSecond()} reports the
+	 * number of frames run per real second. */
+	public float fixedTimeStep = 0;
+	/** If true, no thread is started and frames are only run by calling {@link HeadlessApplication#step(int)}, on the calling
+	 * thread. {@link com.badlogic.gdx.ApplicationListener#create()} is called by the HeadlessApplication constructor. */
+	public boolean manualStep = false;
 	/** Preferences directory for headless. Default is ".prefs/". */
 	public String preferencesDirectory = ".prefs/";
+	/** The maximum number of HTTP requests to execute at once. Default is 1, which executes requests in the order they were sent.
+	 * @see com.badlogic.gdx.net.NetJavaImpl#NetJavaImpl(int) */
+	public int maxNetThreads = 1;
 }
@@ -0,0 +1,375 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.backends.headless;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.ApplicationLogger;
+import com.badlogic.gdx.Audio;
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.LifecycleListener;
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.backends.headless.mock.audio.MockAudio;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGraphics;
+import com.badlogic.gdx.backends.headless.mock.input.MockInput;
+import com.badlogic.gdx.files.FilePreferences;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Clipboard;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/** Runs many {@link ApplicationListener} instances, eg game rooms on a server, on a fixed number of threads instead of a
+ * {@link HeadlessApplication} and thread for each.
+ * <p>
+ * The {@link Gdx} fields are set once to objects that delegate to the instance running on the current thread, so each listener
+ * sees its own {@link Application} (with its own {@link Application#postRunnable(Runnable) runnables}, lifecycle listeners and
+ * log level) and its own {@link Graphics#getDeltaTime() delta time} and frame id. Files, net, audio, input and preferences are
+ * shared. On other threads, eg network callbacks, logging with Gdx.app uses the {@link #setApplicationLogger(ApplicationLogger)
+ * logger} and {@link #setLogLevel(int) log level} of the host, while other Gdx.app and Gdx.graphics methods that depend on an
+ * instance throw an exception: keep a reference to the {@link HeadlessHostInstance} instead, which can be obtained with
+ * {@link #getCurrent()} in {@link ApplicationListener#create()}. A HeadlessHost can't be used in the same process as a
+ * {@link HeadlessApplication}.
+ * <p>
+ * An instance never runs on two threads at once. Instances are rendered every
+ * {@link HeadlessApplicationConfiguration#renderInterval}, or as often as possible with a
+ * {@link HeadlessApplicationConfiguration#fixedTimeStep}. When the threads are all busy, frames are run late rather than skipped.
+ * {@link HeadlessHostInstance#getLoad()} and {@link #getLoad()} report how busy the instances and threads are.
+ * <p>
+ * The host threads are daemon threads, so they don't keep the JVM running: the main thread should wait, eg by calling
+ * {@link #dispose()} when the server shuts down. */
+public class HeadlessHost {
+	static final ThreadLocal<HeadlessHostInstance> current = new ThreadLocal<HeadlessHostInstance>();
+
+	final int threads;
+	final ScheduledThreadPoolExecutor executor;
+	final HeadlessFiles files;
+	final HeadlessNet net;
+	final MockAudio audio;
+	final MockInput input;
+	final String preferencesDirectory;
+	private final ObjectMap<String, Preferences> preferences = new ObjectMap<String, Preferences>();
+	final Array<HeadlessHostInstance> instances = new Array<HeadlessHostInstance>();
+	ApplicationLogger applicationLogger = new HeadlessApplicationLogger();
+	int logLevel = Application.LOG_INFO;
+
+	/** @param threads The number of threads that run the instances.
+	 * @param config Provides the preferences directory and net settings shared by all instances. May be null. */
+	public HeadlessHost (int threads, HeadlessApplicationConfiguration config) {
+		if (threads < 1) throw new IllegalArgumentException("threads must be > 0: " + threads);
+		if (config == null) config = new HeadlessApplicationConfiguration();
+		this.threads = threads;
+		HeadlessNativesLoader.load();
+		files = new HeadlessFiles();
+		net = new HeadlessNet(config);
+		audio = new MockAudio();
+		input = new MockInput();
+		preferencesDirectory = config.preferencesDirectory;
+
+		executor = new ScheduledThreadPoolExecutor(threads, new ThreadFactory() {
+			int count;
+
+			public Thread newThread (Runnable runnable) {
+				Thread thread = new Thread(runnable, "HeadlessHost-" + count++);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+
+		Gdx.app = new ContextApplication();
+		Gdx.graphics = new ContextGraphics();
+		Gdx.files = files;
+		Gdx.net = net;
+		Gdx.audio = audio;
+		Gdx.input = input;
+	}
+
+	/** Creates an instance for the listener. {@link ApplicationListener#create()} is called on a host thread.
+	 * @param config Provides the render interval and fixed time step. May be null. */
+	public HeadlessHostInstance add (ApplicationListener listener, HeadlessApplicationConfiguration config) {
+		if (config == null) config = new HeadlessApplicationConfiguration();
+		if (config.manualStep) throw new IllegalArgumentException("manualStep is not supported by HeadlessHost.");
+		HeadlessHostInstance instance = new HeadlessHostInstance(this, listener, config);
+		synchronized (instances) {
+			if (executor.isShutdown()) throw new GdxRuntimeException("HeadlessHost has been disposed.");
+			instances.add(instance);
+		}
+		instance.start();
+		return instance;
+	}
+
+	void removed (HeadlessHostInstance instance) {
+		synchronized (instances) {
+			instances.removeValue(instance, true);
+			instances.notifyAll();
+		}
+	}
+
+	/** Returns the instance running on the current thread, or null. */
+	static public HeadlessHostInstance getCurrent () {
+		return current.get();
+	}
+
+	/** Returns a copy of the instances that have not exited. */
+	public Array<HeadlessHostInstance> getInstances () {
+		synchronized (instances) {
+			return new Array<HeadlessHostInstance>(instances);
+		}
+	}
+
+	/** Returns the fraction of the threads' time spent running instances over the last second, from 0 to 1. */
+	public float getLoad () {
+		float load = 0;
+		synchronized (instances) {
+			for (int i = 0, n = instances.size; i < n; i++)
+				load += instances.get(i).getLoad();
+		}
+		return Math.min(1, load / threads);
+	}
+
+	Preferences getPreferences (String name) {
+		synchronized (preferences) {
+			Preferences prefs = preferences.get(name);
+			if (prefs == null) {
+				prefs = new HeadlessPreferences(name, preferencesDirectory);
+				preferences.put(name, prefs);
+			}
+			return prefs;
+		}
+	}
+
+	/** Sets the logger used by instances added later, and by {@link Gdx#app} on threads that are not running an instance. */
+	public void setApplicationLogger (ApplicationLogger applicationLogger) {
+		this.applicationLogger = applicationLogger;
+	}
+
+	public ApplicationLogger getApplicationLogger () {
+		return applicationLogger;
+	}
+
+	/** Sets the log level used by {@link Gdx#app} on threads that are not running an instance. Default is
+	 * {@link Application#LOG_INFO}. */
+	public void setLogLevel (int logLevel) {
+		this.logLevel = logLevel;
+	}
+
+	public int getLogLevel () {
+		return logLevel;
+	}
+
+	/** Exits all instances, waits for them to be disposed and stops the threads. Can't be called on a host thread, since the
+	 * instance running on it could not exit.
+	 * @throws GdxRuntimeException if called on a host thread. */
+	public void dispose () {
+		if (current.get() != null) throw new GdxRuntimeException(
+			"HeadlessHost can't be disposed on a host thread, use HeadlessHostInstance#exit or dispose from another thread.");
+		synchronized (instances) {
+			for (int i = 0, n = instances.size; i < n; i++)
+				instances.get(i).exit();
+			while (instances.size > 0) {
+				try {
+					instances.wait();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+			executor.shutdown();
+		}
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		FilePreferences.finishWriting();
+	}
+
+	static HeadlessHostInstance currentInstance () {
+		HeadlessHostInstance instance = current.get();
+		if (instance == null) throw new GdxRuntimeException(
+			"No HeadlessHost instance is running on this thread: " + Thread.currentThread().getName());
+		return instance;
+	}
+
+	/** Delegates to the instance running on the current thread. On other threads, logging uses the host's logger and shared
+	 * objects are returned, so code such as the asynchronous preferences writer can report errors. */
+	class ContextApplication implements Application {
+		public ApplicationListener getApplicationListener () {
+			return currentInstance().getApplicationListener();
+		}
+
+		public Graphics getGraphics () {
+			return Gdx.graphics;
+		}
+
+		public Audio getAudio () {
+			return audio;
+		}
+
+		public Input getInput () {
+			return input;
+		}
+
+		public Files getFiles () {
+			return files;
+		}
+
+		public Net getNet () {
+			return net;
+		}
+
+		public void log (String tag, String message) {
+			HeadlessHostInstance instance = current.get();
+			if (instance != null)
+				instance.log(tag, message);
+			else if (logLevel >= LOG_INFO)
+				applicationLogger.log(tag, message);
+		}
+
+		public void log (String tag, String message, Throwable exception) {
+			HeadlessHostInstance instance = current.get();
+			if (instance != null)
+				instance.log(tag, message, exception);
+			else if (logLevel >= LOG_INFO)
+				applicationLogger.log(tag, message, exception);
+		}
+
+		public void error (String tag, String message) {
+			HeadlessHostInstance instance = current.get();
+			if (instance != null)
+				instance.error(tag, message);
+			else if (logLevel >= LOG_ERROR)
+				applicationLogger.error(tag, message);
+		}
+
+		public void error (String tag, String message, Throwable exception) {
+			HeadlessHostInstance instance = current.get();
+			if (instance != null)
+				instance.error(tag, message, exception);
+			else if (logLevel >= LOG_ERROR)
+				applicationLogger.error(tag, message, exception);
+		}
+
+		public void debug (String tag, String message) {
+			HeadlessHostInstance instance = current.get();
+			if (instance != null)
+				instance.debug(tag, message);
+			else if (logLevel >= LOG_DEBUG)
+				applicationLogger.debug(tag, message);
+		}
+
+		public void debug (String tag, String message, Throwable exception) {
+			HeadlessHostInstance instance = current.get();
+			if (instance != null)
+				instance.debug(tag, message, exception);
+			else if (logLevel >= LOG_DEBUG)
+				applicationLogger.debug(tag, message, exception);
+		}
+
+		public void setLogLevel (int logLevel) {
+			HeadlessHostInstance instance = current.get();
+			if (instance != null)
+				instance.setLogLevel(logLevel);
+			else
+				HeadlessHost.this.logLevel = logLevel;
+		}
+
+		public int getLogLevel () {
+			HeadlessHostInstance instance = current.get();
+			return instance != null ? instance.getLogLevel() : logLevel;
+		}
+
+		public void setApplicationLogger (ApplicationLogger applicationLogger) {
+			HeadlessHostInstance instance = current.get();
+			if (instance != null)
+				instance.setApplicationLogger(applicationLogger);
+			else
+				HeadlessHost.this.applicationLogger = applicationLogger;
+		}
+
+		public ApplicationLogger getApplicationLogger () {
+			HeadlessHostInstance instance = current.get();
+			return instance != null ? instance.getApplicationLogger() : applicationLogger;
+		}
+
+		public ApplicationType getType () {
+			return ApplicationType.HeadlessDesktop;
+		}
+
+		public int getVersion () {
+			return 0;
+		}
+
+		public long getJavaHeap () {
+			return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+		}
+
+		public long getNativeHeap () {
+			return getJavaHeap();
+		}
+
+		public Preferences getPreferences (String name) {
+			return HeadlessHost.this.getPreferences(name);
+		}
+
+		public Clipboard getClipboard () {
+			return null;
+		}
+
+		public void postRunnable (Runnable runnable) {
+			currentInstance().postRunnable(runnable);
+		}
+
+		public void exit () {
+			currentInstance().exit();
+		}
+
+		public void addLifecycleListener (LifecycleListener listener) {
+			currentInstance().addLifecycleListener(listener);
+		}
+
+		public void removeLifecycleListener (LifecycleListener listener) {
+			currentInstance().removeLifecycleListener(listener);
+		}
+	}
+
+	/** Delegates the frame timing to the graphics of the instance running on the current thread. */
+	static class ContextGraphics extends MockGraphics {
+		public long getFrameId () {
+			return currentInstance().graphics.getFrameId();
+		}
+
+		public float getDeltaTime () {
+			return currentInstance().graphics.getDeltaTime();
+		}
+
+		public float getRawDeltaTime () {
+			return currentInstance().graphics.getRawDeltaTime();
+		}
+
+		public int getFramesPerSecond () {
+			return currentInstance().graphics.getFramesPerSecond();
+		}
+	}
+}
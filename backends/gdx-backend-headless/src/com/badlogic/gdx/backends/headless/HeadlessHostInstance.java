@@ -0,0 +1,314 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.backends.headless;
+
+import java.util.concurrent.TimeUnit;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.ApplicationLogger;
+import com.badlogic.gdx.Audio;
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.LifecycleListener;
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGraphics;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Clipboard;
+
+/** An {@link ApplicationListener} run by a {@link HeadlessHost}. This is the {@link Application} seen through Gdx.app by the
+ * listener, and it can be used from any thread to {@link #postRunnable(Runnable) post runnables} to the listener. */
+public class HeadlessHostInstance implements Application {
+	final HeadlessHost host;
+	final ApplicationListener listener;
+	final MockGraphics graphics = new MockGraphics();
+	private final Array<Runnable> runnables = new Array<Runnable>();
+	private final Array<Runnable> executedRunnables = new Array<Runnable>();
+	private final Array<LifecycleListener> lifecycleListeners = new Array<LifecycleListener>();
+	private final long renderInterval;
+	private final boolean fixedTimeStep;
+	private volatile boolean running = true;
+	private boolean created, disposed;
+	private int logLevel = LOG_INFO;
+	private ApplicationLogger applicationLogger;
+	private long nextFrame;
+
+	private long windowStart, windowBusy;
+	private int windowFrames;
+	private volatile float load, frameTime;
+
+	private final Runnable task = new Runnable() {
+		public void run () {
+			runFrame();
+		}
+	};
+
+	HeadlessHostInstance (HeadlessHost host, ApplicationListener listener, HeadlessApplicationConfiguration config) {
+		this.host = host;
+		this.listener = listener;
+		applicationLogger = host.applicationLogger;
+		graphics.setFixedDeltaTime(config.fixedTimeStep);
+		fixedTimeStep = config.fixedTimeStep > 0;
+		renderInterval = config.renderInterval > 0 ? (long)(config.renderInterval * 1000000000f) : (config.renderInterval < 0 ? -1 : 0);
+	}
+
+	/** Runs create or a frame on a host thread, then schedules the next frame. */
+	void runFrame () {
+		long start = System.nanoTime();
+		HeadlessHost.current.set(this);
+		try {
+			if (!created) {
+				created = true;
+				windowStart = start;
+				nextFrame = start;
+				listener.create();
+				if (renderInterval < 0) running = false;
+			} else {
+				executeRunnables();
+				graphics.incrementFrameId();
+				listener.render();
+				graphics.updateTime();
+				windowFrames++;
+			}
+			if (!running) dispose();
+		} catch (Throwable ex) {
+			error("HeadlessHost", "Error running instance, exiting.", ex);
+			running = false;
+			try {
+				dispose();
+			} catch (Throwable ignored) {
+			}
+		} finally {
+			HeadlessHost.current.remove();
+		}
+
+		long end = System.nanoTime();
+		windowBusy += end - start;
+		if (end - windowStart >= 1000000000L) {
+			load = windowBusy / (float)(end - windowStart);
+			frameTime = windowFrames == 0 ? 0 : windowBusy / 1000000000f / windowFrames;
+			windowStart = end;
+			windowBusy = 0;
+			windowFrames = 0;
+		}
+
+		if (disposed) return;
+		if (fixedTimeStep)
+			host.executor.execute(task);
+		else {
+			// Frames that are late are run as soon as possible, without trying to catch up.
+			nextFrame = Math.max(nextFrame + renderInterval, end);
+			host.executor.schedule(task, nextFrame - end, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/** Called by {@link HeadlessHost#add(ApplicationListener, HeadlessApplicationConfiguration)} to start the instance. */
+	void start () {
+		host.executor.execute(task);
+	}
+
+	private boolean executeRunnables () {
+		synchronized (runnables) {
+			for (int i = runnables.size - 1; i >= 0; i--)
+				executedRunnables.add(runnables.get(i));
+			runnables.clear();
+		}
+		if (executedRunnables.size == 0) return false;
+		for (int i = executedRunnables.size - 1; i >= 0; i--)
+			executedRunnables.removeIndex(i).run();
+		return true;
+	}
+
+	private void dispose () {
+		if (disposed) return;
+		disposed = true;
+		try {
+			synchronized (lifecycleListeners) {
+				for (LifecycleListener listener : lifecycleListeners) {
+					listener.pause();
+					listener.dispose();
+				}
+			}
+			listener.pause();
+			listener.dispose();
+		} finally {
+			host.removed(this);
+		}
+	}
+
+	/** Returns the fraction of time this instance spent running on a host thread over the last second, from 0 to 1. */
+	public float getLoad () {
+		return load;
+	}
+
+	/** Returns the average time in seconds spent running a frame over the last second. */
+	public float getFrameTime () {
+		return frameTime;
+	}
+
+	/** Returns false once the instance has processed {@link #exit()}. */
+	public boolean isRunning () {
+		return running;
+	}
+
+	@Override
+	public ApplicationListener getApplicationListener () {
+		return listener;
+	}
+
+	/** Returns the graphics of this instance. Note Gdx.graphics delegates to the graphics of the instance running on the current
+	 * thread. */
+	@Override
+	public Graphics getGraphics () {
+		return graphics;
+	}
+
+	@Override
+	public Audio getAudio () {
+		return host.audio;
+	}
+
+	@Override
+	public Input getInput () {
+		return host.input;
+	}
+
+	@Override
+	public Files getFiles () {
+		return host.files;
+	}
+
+	@Override
+	public Net getNet () {
+		return host.net;
+	}
+
+	@Override
+	public ApplicationType getType () {
+		return ApplicationType.HeadlessDesktop;
+	}
+
+	@Override
+	public int getVersion () {
+		return 0;
+	}
+
+	@Override
+	public long getJavaHeap () {
+		return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+	}
+
+	@Override
+	public long getNativeHeap () {
+		return getJavaHeap();
+	}
+
+	/** Returns preferences shared by all instances of the host. */
+	@Override
+	public Preferences getPreferences (String name) {
+		return host.getPreferences(name);
+	}
+
+	@Override
+	public Clipboard getClipboard () {
+		return null;
+	}
+
+	@Override
+	public void postRunnable (Runnable runnable) {
+		synchronized (runnables) {
+			runnables.add(runnable);
+		}
+	}
+
+	@Override
+	public void debug (String tag, String message) {
+		if (logLevel >= LOG_DEBUG) getApplicationLogger().debug(tag, message);
+	}
+
+	@Override
+	public void debug (String tag, String message, Throwable exception) {
+		if (logLevel >= LOG_DEBUG) getApplicationLogger().debug(tag, message, exception);
+	}
+
+	@Override
+	public void log (String tag, String message) {
+		if (logLevel >= LOG_INFO) getApplicationLogger().log(tag, message);
+	}
+
+	@Override
+	public void log (String tag, String message, Throwable exception) {
+		if (logLevel >= LOG_INFO) getApplicationLogger().log(tag, message, exception);
+	}
+
+	@Override
+	public void error (String tag, String message) {
+		if (logLevel >= LOG_ERROR) getApplicationLogger().error(tag, message);
+	}
+
+	@Override
+	public void error (String tag, String message, Throwable exception) {
+		if (logLevel >= LOG_ERROR) getApplicationLogger().error(tag, message, exception);
+	}
+
+	@Override
+	public void setLogLevel (int logLevel) {
+		this.logLevel = logLevel;
+	}
+
+	@Override
+	public int getLogLevel () {
+		return logLevel;
+	}
+
+	@Override
+	public void setApplicationLogger (ApplicationLogger applicationLogger) {
+		this.applicationLogger = applicationLogger;
+	}
+
+	@Override
+	public ApplicationLogger getApplicationLogger () {
+		return applicationLogger;
+	}
+
+	/** Exits the instance after its next frame. */
+	@Override
+	public void exit () {
+		postRunnable(new Runnable() {
+			@Override
+			public void run () {
+				running = false;
+			}
+		});
+	}
+
+	@Override
+	public void addLifecycleListener (LifecycleListener listener) {
+		synchronized (lifecycleListeners) {
+			lifecycleListeners.add(listener);
+		}
+	}
+
+	@Override
+	public void removeLifecycleListener (LifecycleListener listener) {
+		synchronized (lifecycleListeners) {
+			lifecycleListeners.removeValue(listener, true);
+		}
+	}
+}
@@ -35,7 +35,15 @@ import com.badlogic.gdx.net.SocketHints;
  * @author Jon Renner */
 public class HeadlessNet implements Net {
 
-	NetJavaImpl netJavaImpl = new NetJavaImpl();
+	NetJavaImpl netJavaImpl;
+
+	public HeadlessNet () {
+		this(new HeadlessApplicationConfiguration());
+	}
+
+	public HeadlessNet (HeadlessApplicationConfiguration config) {
+		netJavaImpl = new NetJavaImpl(config.maxNetThreads);
+	}
 
 	@Override
 	public void sendHttpRequest (HttpRequest httpRequest, HttpResponseListener httpResponseListener) {
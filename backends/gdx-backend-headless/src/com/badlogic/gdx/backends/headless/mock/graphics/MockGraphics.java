@@ -31,6 +31,7 @@ import com.badlogic.gdx.graphics.glutils.GLVersion;
 public class MockGraphics implements Graphics {
 	long frameId = -1;
 	float deltaTime = 0;
+	float fixedDeltaTime;
 	long frameStart = 0;
 	int frames = 0;
 	int fps;
@@ -93,12 +94,13 @@ public class MockGraphics implements Graphics {
 
 	@Override
 	public float getRawDeltaTime() {
-		return 0;
+		return deltaTime;
 	}
 
+	/** Returns the number of frames run in the last second of real time. */
 	@Override
 	public int getFramesPerSecond() {
-		return 0;
+		return fps;
 	}
 
 	@Override
@@ -201,9 +203,16 @@ public class MockGraphics implements Graphics {
 		return false;
 	}
 
+	/** If > 0, the delta time is always this value rather than the time since the last frame.
+	 * @param fixedDeltaTime The time step in seconds. */
+	public void setFixedDeltaTime (float fixedDeltaTime) {
+		this.fixedDeltaTime = fixedDeltaTime;
+		if (fixedDeltaTime > 0) deltaTime = fixedDeltaTime;
+	}
+
 	public void updateTime () {
 		long time = System.nanoTime();
-		deltaTime = (time - lastTime) / 1000000000.0f;
+		deltaTime = fixedDeltaTime > 0 ? fixedDeltaTime : (time - lastTime) / 1000000000.0f;
 		lastTime = time;
 
 		if (time - frameStart >= 1000000000) {
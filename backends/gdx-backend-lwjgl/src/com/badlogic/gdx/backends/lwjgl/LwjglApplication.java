@@ -32,6 +32,7 @@ import com.badlogic.gdx.Input;
 import com.badlogic.gdx.LifecycleListener;
 import com.badlogic.gdx.Net;
 import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.files.FilePreferences;
 import com.badlogic.gdx.backends.lwjgl.audio.OpenALAudio;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Clipboard;
@@ -245,6 +246,7 @@ public class LwjglApplication implements Application {
 		listener.dispose();
 		Display.destroy();
 		if (audio != null) audio.dispose();
+		FilePreferences.finishWriting();
 		if (graphics.config.forceExit) System.exit(-1);
 	}
 
@@ -55,6 +55,8 @@ public class Lwjgl3ApplicationConfiguration extends Lwjgl3WindowConfiguration {
 
 	int idleFPS = 60;
 
+	int maxNetThreads = 1;
+
 	String preferencesDirectory = ".prefs/";
 	Files.FileType preferencesFileType = FileType.External;
 
@@ -87,6 +89,7 @@ public class Lwjgl3ApplicationConfiguration extends Lwjgl3WindowConfiguration {
 		samples = config.samples;
 		transparentFramebuffer = config.transparentFramebuffer;
 		idleFPS = config.idleFPS;
+		maxNetThreads = config.maxNetThreads;
 		preferencesDirectory = config.preferencesDirectory;
 		preferencesFileType = config.preferencesFileType;
 		hdpiMode = config.hdpiMode;
@@ -197,6 +200,13 @@ public class Lwjgl3ApplicationConfiguration extends Lwjgl3WindowConfiguration {
 		this.idleFPS = fps;
 	}
 
+	/** Sets the maximum number of HTTP requests to execute at once. Default is 1, which executes requests in the order they were
+	 * sent.
+	 * @see com.badlogic.gdx.net.NetJavaImpl#NetJavaImpl(int) */
+	public void setMaxNetThreads (int maxNetThreads) {
+		this.maxNetThreads = maxNetThreads;
+	}
+
 	/**
 	 * Sets the directory where {@link Preferences} will be stored, as well as
 	 * the file type to be used to store them. Defaults to "$USER_HOME/.prefs/"
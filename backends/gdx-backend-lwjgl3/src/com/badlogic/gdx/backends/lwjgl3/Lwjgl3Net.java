@@ -35,7 +35,15 @@ import com.badlogic.gdx.utils.SharedLibraryLoader;
  * @author acoppes */
 public class Lwjgl3Net implements Net {
 
-	NetJavaImpl netJavaImpl = new NetJavaImpl();
+	NetJavaImpl netJavaImpl;
+
+	public Lwjgl3Net () {
+		this(new Lwjgl3ApplicationConfiguration());
+	}
+
+	public Lwjgl3Net (Lwjgl3ApplicationConfiguration config) {
+		netJavaImpl = new NetJavaImpl(config.maxNetThreads);
+	}
 
 	@Override
 	public void sendHttpRequest (HttpRequest httpRequest, HttpResponseListener httpResponseListener) {
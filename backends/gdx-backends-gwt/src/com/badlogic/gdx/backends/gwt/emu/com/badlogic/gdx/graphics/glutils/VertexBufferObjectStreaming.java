@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.FloatBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.utils.BufferUtils;
+
+/** <p>
+ * A {@link VertexData} implementation for vertices that are replaced every time they are drawn, such as the vertices of the
+ * batches.
+ * <p>
+ * WebGL can't allocate the storage of a buffer without data, so unlike the desktop version the vertices are not appended behind
+ * the previous upload. Each upload replaces the storage with glBufferData(), which the browser treats as orphaning. Those
+ * uploads are counted by {@link #getOrphans()}.
+ * <p>
+ * If the OpenGL ES context was lost you can call {@link #invalidate()} to recreate a new OpenGL vertex buffer object.
+ * <p>
+ * VertexBufferObjectStreaming must be disposed via the {@link #dispose()} method when no longer needed */
+public class VertexBufferObjectStreaming implements VertexData {
+	/** The default number of times the vertices fit in the OpenGL buffer before it is orphaned. */
+	static public final int DEFAULT_SEGMENTS = 4;
+
+	final VertexAttributes attributes;
+	final FloatBuffer buffer;
+	final int capacity;
+	int bufferHandle;
+	boolean isDirty = false;
+	boolean isBound = false;
+	ShaderProgram boundShader;
+	int[] boundLocations;
+	int orphans;
+
+	/** Constructs a new interleaved VertexBufferObjectStreaming with {@link #DEFAULT_SEGMENTS} segments.
+	 *
+	 * @param numVertices the maximum number of vertices
+	 * @param attributes the {@link VertexAttribute}s. */
+	public VertexBufferObjectStreaming (int numVertices, VertexAttribute... attributes) {
+		this(numVertices, DEFAULT_SEGMENTS, new VertexAttributes(attributes));
+	}
+
+	/** Constructs a new interleaved VertexBufferObjectStreaming.
+	 *
+	 * @param numVertices the maximum number of vertices
+	 * @param segments ignored, each upload replaces the storage, at least 1
+	 * @param attributes the {@link VertexAttributes}. */
+	public VertexBufferObjectStreaming (int numVertices, int segments, VertexAttributes attributes) {
+		if (segments < 1) throw new IllegalArgumentException("segments must be >= 1: " + segments);
+		this.attributes = attributes;
+		buffer = BufferUtils.newFloatBuffer(attributes.vertexSize / 4 * numVertices);
+		buffer.flip();
+		capacity = attributes.vertexSize * numVertices;
+		bufferHandle = Gdx.gl20.glGenBuffer();
+	}
+
+	@Override
+	public VertexAttributes getAttributes () {
+		return attributes;
+	}
+
+	@Override
+	public int getNumVertices () {
+		return buffer.limit() * 4 / attributes.vertexSize;
+	}
+
+	@Override
+	public int getNumMaxVertices () {
+		return buffer.capacity() * 4 / attributes.vertexSize;
+	}
+
+	/** Returns the staging buffer, it is uploaded on the next bind. */
+	@Override
+	public FloatBuffer getBuffer () {
+		isDirty = true;
+		return buffer;
+	}
+
+	@Override
+	public void setVertices (float[] vertices, int offset, int count) {
+		BufferUtils.copy(vertices, buffer, count, offset);
+		buffer.position(0);
+		buffer.limit(count);
+		bufferChanged();
+	}
+
+	@Override
+	public void updateVertices (int targetOffset, float[] vertices, int sourceOffset, int count) {
+		final int pos = buffer.position();
+		buffer.position(targetOffset);
+		BufferUtils.copy(vertices, sourceOffset, count, buffer);
+		buffer.position(pos);
+		bufferChanged();
+	}
+
+	private void bufferChanged () {
+		isDirty = true;
+		if (isBound) upload(Gdx.gl20);
+	}
+
+	/** Replaces the storage of the OpenGL buffer, which must be bound, with the staging buffer. */
+	private void upload (GL20 gl) {
+		gl.glBufferData(GL20.GL_ARRAY_BUFFER, buffer.limit() * 4, buffer, GL20.GL_STREAM_DRAW);
+		orphans++;
+		isDirty = false;
+	}
+
+	private void setAttributePointers (ShaderProgram shader, int[] locations) {
+		final int numAttributes = attributes.size();
+		for (int i = 0; i < numAttributes; i++) {
+			final VertexAttribute attribute = attributes.get(i);
+			final int location = locations == null ? shader.getAttributeLocation(attribute.alias) : locations[i];
+			if (location < 0) continue;
+			shader.enableVertexAttribute(location);
+			shader.setVertexAttribute(location, attribute.numComponents, attribute.type, attribute.normalized, attributes.vertexSize,
+				attribute.offset);
+		}
+	}
+
+	/** Binds this VertexBufferObjectStreaming for rendering via glDrawArrays or glDrawElements.
+	 *
+	 * @param shader the shader */
+	@Override
+	public void bind (ShaderProgram shader) {
+		bind(shader, null);
+	}
+
+	@Override
+	public void bind (ShaderProgram shader, int[] locations) {
+		final GL20 gl = Gdx.gl20;
+		gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, bufferHandle);
+		if (isDirty) upload(gl);
+		setAttributePointers(shader, locations);
+		boundShader = shader;
+		boundLocations = locations;
+		isBound = true;
+	}
+
+	/** Unbinds this VertexBufferObjectStreaming.
+	 *
+	 * @param shader the shader */
+	@Override
+	public void unbind (ShaderProgram shader) {
+		unbind(shader, null);
+	}
+
+	@Override
+	public void unbind (ShaderProgram shader, int[] locations) {
+		final int numAttributes = attributes.size();
+		if (locations == null) {
+			for (int i = 0; i < numAttributes; i++)
+				shader.disableVertexAttribute(attributes.get(i).alias);
+		} else {
+			for (int i = 0; i < numAttributes; i++) {
+				final int location = locations[i];
+				if (location >= 0) shader.disableVertexAttribute(location);
+			}
+		}
+		Gdx.gl20.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+		boundShader = null;
+		boundLocations = null;
+		isBound = false;
+	}
+
+	/** Invalidates the VertexBufferObjectStreaming so a new OpenGL buffer handle is created. Use this in case of a context loss. */
+	@Override
+	public void invalidate () {
+		bufferHandle = Gdx.gl20.glGenBuffer();
+		isDirty = true;
+	}
+
+	/** Disposes of all resources this VertexBufferObjectStreaming uses. */
+	@Override
+	public void dispose () {
+		GL20 gl = Gdx.gl20;
+		gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+		gl.glDeleteBuffer(bufferHandle);
+		bufferHandle = 0;
+	}
+
+	/** Returns the VBO handle
+	 * @return the VBO handle */
+	public int getBufferHandle () {
+		return bufferHandle;
+	}
+
+	/** @return the size in bytes of the vertices, the storage is never larger */
+	public int getCapacity () {
+		return capacity;
+	}
+
+	/** @return how many times the storage of the OpenGL buffer was replaced */
+	public int getOrphans () {
+		return orphans;
+	}
+}
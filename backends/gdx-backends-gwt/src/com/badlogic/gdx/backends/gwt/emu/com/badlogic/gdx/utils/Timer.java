@@ -39,11 +39,27 @@ public class Timer {
 	}
 
 	private final Array<Task> tasks = new Array(false, 8);
+	private final Array<Task> due = new Array(false, 8);
+	private final boolean threaded;
+	private long manualNanos;
+	private boolean manualStopped;
 
 	public Timer () {
+		this(true);
+	}
+
+	/** @param threaded If false, the timer is updated by calling {@link #update(float)} rather than by the timer thread. */
+	public Timer (boolean threaded) {
+		this.threaded = threaded;
 		start();
 	}
 
+	/** Returns the current time of this timer in milliseconds, which for a timer that is not threaded is the sum of the deltas
+	 * passed to {@link #update(float)}. */
+	public long timeMillis () {
+		return threaded ? TimeUtils.nanoTime() / 1000000 : manualNanos / 1000000;
+	}
+
 	/** Schedules a task to occur once as soon as possible, but not sooner than the start of the next frame. */
 	public Task postTask (Task task) {
 		return scheduleTask(task, 0, 0, 0);
@@ -62,18 +78,22 @@ public class Timer {
 	/** Schedules a task to occur once after the specified delay and then a number of additional times at the specified interval. */
 	public Task scheduleTask (Task task, float delaySeconds, float intervalSeconds, int repeatCount) {
 		if (task.repeatCount != CANCELLED) throw new IllegalArgumentException("The same task may not be scheduled twice.");
-		task.executeTimeMillis = TimeUtils.nanoTime() / 1000000 + (long)(delaySeconds * 1000);
+		task.executeTimeMillis = timeMillis() + (long)(delaySeconds * 1000);
 		task.intervalMillis = (long)(intervalSeconds * 1000);
 		task.repeatCount = repeatCount;
 		synchronized (tasks) {
 			tasks.add(task);
 		}
-		wake();
+		if (threaded) wake();
 		return task;
 	}
 
 	/** Stops the timer, tasks will not be executed and time that passes will not be applied to the task delays. */
 	public void stop () {
+		if (!threaded) {
+			manualStopped = true;
+			return;
+		}
 		synchronized (instances) {
 			instances.removeValue(this, true);
 		}
@@ -81,6 +101,10 @@ public class Timer {
 
 	/** Starts the timer if it was stopped. */
 	public void start () {
+		if (!threaded) {
+			manualStopped = false;
+			return;
+		}
 		synchronized (instances) {
 			if (instances.contains(this, true)) return;
 			instances.add(this);
@@ -111,7 +135,10 @@ public class Timer {
 						// Set cancelled before run so it may be rescheduled in run.
 						task.repeatCount = CANCELLED;
 					}
-					Gdx.app.postRunnable(task);
+					if (threaded)
+						Gdx.app.postRunnable(task);
+					else
+						due.add(task);
 				}
 				if (task.repeatCount == CANCELLED) {
 					tasks.removeIndex(i);
@@ -127,6 +154,21 @@ public class Timer {
 		return waitMillis;
 	}
 
+	/** Advances the time of a timer that is not threaded and runs the tasks that are due on the calling thread.
+	 * @param delta The time in seconds since the last update. */
+	public void update (float delta) {
+		if (threaded) throw new IllegalStateException("update can only be called on a timer that is not threaded.");
+		if (manualStopped) return;
+		manualNanos += (long)(delta * 1000000000.0);
+		update(timeMillis(), 0);
+		try {
+			for (int i = 0, n = due.size; i < n; i++)
+				due.get(i).run();
+		} finally {
+			due.clear();
+		}
+	}
+
 	/** Adds the specified delay to all tasks. */
 	public void delay (long delayMillis) {
 		synchronized (tasks) {
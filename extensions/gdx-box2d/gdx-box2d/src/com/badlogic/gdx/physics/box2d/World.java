@@ -46,6 +46,7 @@ import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.LongMap;
 import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Profiler;
 import com.badlogic.gdx.utils.SharedLibraryLoader;
 
 /** The world class manages all physics entities, dynamic simulation, and asynchronous queries. The world also contains efficient
@@ -686,7 +687,12 @@ b2ContactFilter defaultFilter;
 	 * @param velocityIterations for the velocity constraint solver.
 	 * @param positionIterations for the position constraint solver. */
 	public void step (float timeStep, int velocityIterations, int positionIterations) {
-		jniStep(addr, timeStep, velocityIterations, positionIterations);
+		Profiler.begin("World.step");
+		try {
+			jniStep(addr, timeStep, velocityIterations, positionIterations);
+		} finally {
+			Profiler.end();
+		}
 	}
 
 	private native void jniStep (long addr, float timeStep, int velocityIterations, int positionIterations); /*
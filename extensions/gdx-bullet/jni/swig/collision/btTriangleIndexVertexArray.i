@@ -163,6 +163,9 @@ import java.nio.ShortBuffer;
 		if (posAttr == null)
 			throw new com.badlogic.gdx.utils.GdxRuntimeException("Mesh doesn't have a position attribute");
 		
+		if (mesh.hasIntIndices())
+			throw new com.badlogic.gdx.utils.GdxRuntimeException("Mesh must have short indices");
+		
 		set(tag, mesh.getVerticesBuffer(), mesh.getVertexSize(), mesh.getNumVertices(), posAttr.offset, mesh.getIndicesBuffer(), offset, count);
 	}
 
@@ -42,12 +42,14 @@ import com.badlogic.gdx.graphics.g2d.freetype.FreeType.GlyphSlot;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeType.Library;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeType.SizeMetrics;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeType.Stroker;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeGlyphAtlas.AtlasGlyph;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.BufferUtils;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntSet;
 import com.badlogic.gdx.utils.StreamUtils;
 
 /** Generates {@link BitmapFont} and {@link BitmapFontData} instances from TrueType, OTF, and other FreeType supported fonts.
@@ -197,8 +199,9 @@ public class FreeTypeFontGenerator implements Disposable {
 		generateData(parameter, data);
 		if (updateTextureRegions)
 			parameter.packer.updateTextureRegions(data.regions, parameter.minFilter, parameter.magFilter, parameter.genMipMaps);
-		BitmapFont font = new BitmapFont(data, data.regions, true);
-		font.setOwnsTexture(parameter.packer == null);
+		BitmapFont font = parameter.atlas != null ? new FreeTypeGlyphAtlas.AtlasFont(data, data.regions, true)
+			: new BitmapFont(data, data.regions, true);
+		font.setOwnsTexture(parameter.packer == null && parameter.atlas == null);
 		return font;
 	}
 
@@ -315,11 +318,12 @@ public class FreeTypeFontGenerator implements Disposable {
 
 	/** Generates a new {@link BitmapFontData} instance, expert usage only. Throws a GdxRuntimeException if something went wrong.
 	 * @param parameter configures how the font is generated */
-	public FreeTypeBitmapFontData generateData (FreeTypeFontParameter parameter, FreeTypeBitmapFontData data) {
+	public synchronized FreeTypeBitmapFontData generateData (FreeTypeFontParameter parameter, FreeTypeBitmapFontData data) {
 		parameter = parameter == null ? new FreeTypeFontParameter() : parameter;
 		char[] characters = parameter.characters.toCharArray();
 		int charactersLength = characters.length;
-		boolean incremental = parameter.incremental;
+		FreeTypeGlyphAtlas atlas = parameter.atlas;
+		boolean incremental = parameter.incremental || atlas != null;
 		int flags = getLoadingFlags(parameter);
 
 		setPixelSizes(0, parameter.size);
@@ -377,7 +381,10 @@ public class FreeTypeFontGenerator implements Disposable {
 
 		PixmapPacker packer = parameter.packer;
 
-		if (packer == null) {
+		if (atlas != null) {
+			data.atlas = atlas;
+			data.regions = atlas.regions;
+		} else if (packer == null) {
 			// Create a packer.
 			int size;
 			PackStrategy packStrategy;
@@ -487,7 +494,9 @@ public class FreeTypeFontGenerator implements Disposable {
 		}
 
 		// Generate texture regions.
-		if (ownsAtlas) {
+		if (atlas != null)
+			atlas.uploadPages();
+		else if (ownsAtlas) {
 			data.regions = new Array();
 			packer.updateTextureRegions(data.regions, parameter.minFilter, parameter.magFilter, parameter.genMipMaps);
 		}
@@ -509,6 +518,31 @@ public class FreeTypeFontGenerator implements Disposable {
 	Glyph createGlyph (char c, FreeTypeBitmapFontData data, FreeTypeFontParameter parameter, Stroker stroker, float baseLine,
 		PixmapPacker packer) {
 
+		Glyph glyph = parameter.atlas != null ? new AtlasGlyph() : new Glyph();
+		Pixmap mainPixmap = rasterizeGlyph(c, parameter, stroker, baseLine, glyph);
+		if (mainPixmap == null) return null;
+
+		if (parameter.atlas != null)
+			parameter.atlas.pack(data, (AtlasGlyph)glyph, mainPixmap);
+		else {
+			Rectangle rect = packer.pack(mainPixmap);
+			glyph.page = packer.getPages().size - 1; // Glyph is always packed into the last page for now.
+			glyph.srcX = (int)rect.x;
+			glyph.srcY = (int)rect.y;
+
+			// If a page was added, create a new texture region for the incrementally added glyph.
+			if (parameter.incremental && data.regions != null && data.regions.size <= glyph.page)
+				packer.updateTextureRegions(data.regions, parameter.minFilter, parameter.magFilter, parameter.genMipMaps);
+		}
+
+		mainPixmap.dispose();
+
+		return glyph;
+	}
+
+	/** Renders the glyph for the character and sets its metrics, but not its position in a texture.
+	 * @return The glyph image, or null if glyph was not found. */
+	Pixmap rasterizeGlyph (char c, FreeTypeFontParameter parameter, Stroker stroker, float baseLine, Glyph glyph) {
 		boolean missing = face.getCharIndex(c) == 0 && c != 0;
 		if (missing) return null;
 
@@ -599,7 +633,6 @@ public class FreeTypeFontGenerator implements Disposable {
 		}
 
 		GlyphMetrics metrics = slot.getMetrics();
-		Glyph glyph = new Glyph();
 		glyph.id = c;
 		glyph.width = mainPixmap.getWidth();
 		glyph.height = mainPixmap.getHeight();
@@ -625,19 +658,9 @@ public class FreeTypeFontGenerator implements Disposable {
 			}
 		}
 
-		Rectangle rect = packer.pack(mainPixmap);
-		glyph.page = packer.getPages().size - 1; // Glyph is always packed into the last page for now.
-		glyph.srcX = (int)rect.x;
-		glyph.srcY = (int)rect.y;
-
-		// If a page was added, create a new texture region for the incrementally added glyph.
-		if (parameter.incremental && data.regions != null && data.regions.size <= glyph.page)
-			packer.updateTextureRegions(data.regions, parameter.minFilter, parameter.magFilter, parameter.genMipMaps);
-
-		mainPixmap.dispose();
 		mainGlyph.dispose();
 
-		return glyph;
+		return mainPixmap;
 	}
 
 	/** Cleans up all resources of the generator. Call this if you no longer use the generator. */
@@ -681,52 +704,110 @@ public class FreeTypeFontGenerator implements Disposable {
 		FreeTypeFontParameter parameter;
 		Stroker stroker;
 		PixmapPacker packer;
+		FreeTypeGlyphAtlas atlas;
 		Array<Glyph> glyphs;
 		private boolean dirty;
+		/** Characters the font doesn't have, so they aren't rasterized in the background again. */
+		private IntSet missingChars;
 
 		@Override
 		public Glyph getGlyph (char ch) {
 			Glyph glyph = super.getGlyph(ch);
 			if (glyph == null && generator != null) {
-				generator.setPixelSizes(0, parameter.size);
-				float baseline = ((flipped ? -ascent : ascent) + capHeight) / scaleY;
-				glyph = generator.createGlyph(ch, this, parameter, stroker, baseline, packer);
-				if (glyph == null) return missingGlyph;
-
-				setGlyphRegion(glyph, regions.get(glyph.page));
-				setGlyph(ch, glyph);
-				glyphs.add(glyph);
-				dirty = true;
-
-				Face face = generator.face;
-				if (parameter.kerning) {
-					int glyphIndex = face.getCharIndex(ch);
-					for (int i = 0, n = glyphs.size; i < n; i++) {
-						Glyph other = glyphs.get(i);
-						int otherIndex = face.getCharIndex(other.id);
-
-						int kerning = face.getKerning(glyphIndex, otherIndex, 0);
-						if (kerning != 0) glyph.setKerning(other.id, FreeType.toInt(kerning));
-
-						kerning = face.getKerning(otherIndex, glyphIndex, 0);
-						if (kerning != 0) other.setKerning(ch, FreeType.toInt(kerning));
-					}
+				if (atlas != null && atlas.isAsync()) {
+					if (missingChars == null || !missingChars.contains(ch)) atlas.request(this, ch);
+					return missingGlyph;
+				}
+				synchronized (generator) {
+					generator.setPixelSizes(0, parameter.size);
+					float baseline = ((flipped ? -ascent : ascent) + capHeight) / scaleY;
+					glyph = generator.createGlyph(ch, this, parameter, stroker, baseline, packer);
+					if (glyph == null) return missingGlyph;
+					addGlyph(ch, glyph);
 				}
 			}
+			if (glyph instanceof AtlasGlyph) ((AtlasGlyph)glyph).lastUsed = Gdx.graphics.getFrameId();
 			return glyph;
 		}
 
+		private void addGlyph (char ch, Glyph glyph) {
+			setGlyphRegion(glyph, regions.get(glyph.page));
+			setGlyph(ch, glyph);
+			glyphs.add(glyph);
+			dirty = true;
+
+			Face face = generator.face;
+			if (parameter.kerning) {
+				int glyphIndex = face.getCharIndex(ch);
+				for (int i = 0, n = glyphs.size; i < n; i++) {
+					Glyph other = glyphs.get(i);
+					int otherIndex = face.getCharIndex(other.id);
+
+					int kerning = face.getKerning(glyphIndex, otherIndex, 0);
+					if (kerning != 0) glyph.setKerning(other.id, FreeType.toInt(kerning));
+
+					kerning = face.getKerning(otherIndex, glyphIndex, 0);
+					if (kerning != 0) other.setKerning(ch, FreeType.toInt(kerning));
+				}
+			}
+		}
+
+		/** Called on the atlas' background thread.
+		 * @return null if the glyph was not found or the font was disposed. */
+		Pixmap rasterizeGlyph (char ch, Glyph glyph) {
+			synchronized (generator) {
+				if (parameter == null) return null; // Disposed.
+				generator.setPixelSizes(0, parameter.size);
+				float baseline = ((flipped ? -ascent : ascent) + capHeight) / scaleY;
+				return generator.rasterizeGlyph(ch, parameter, stroker, baseline, glyph);
+			}
+		}
+
+		/** Called by the atlas on the rendering thread with a glyph rasterized in the background.
+		 * @param pixmap May be null if the font doesn't have the glyph. */
+		void addRasterizedGlyph (char ch, AtlasGlyph glyph, Pixmap pixmap) {
+			if (pixmap == null) {
+				if (missingChars == null) missingChars = new IntSet();
+				missingChars.add(ch);
+				return;
+			}
+			if (super.getGlyph(ch) != null) return;
+			synchronized (generator) {
+				atlas.pack(this, glyph, pixmap);
+				addGlyph(ch, glyph);
+			}
+			glyphsVersion++; // Layouts may have the missing glyph in its place.
+		}
+
+		/** Called by the atlas when the glyph's space is needed for another glyph. */
+		void removeEvictedGlyph (Glyph glyph) {
+			setGlyph(glyph.id, null);
+			glyphs.removeValue(glyph, true);
+			glyphsVersion++;
+		}
+
 		public void getGlyphs (GlyphRun run, CharSequence str, int start, int end, Glyph lastGlyph) {
 			if (packer != null) packer.setPackToTexture(true); // All glyphs added after this are packed directly to the texture.
 			super.getGlyphs(run, str, start, end, lastGlyph);
 			if (dirty) {
 				dirty = false;
-				packer.updateTextureRegions(regions, parameter.minFilter, parameter.magFilter, parameter.genMipMaps);
+				if (atlas != null)
+					atlas.uploadPages();
+				else
+					packer.updateTextureRegions(regions, parameter.minFilter, parameter.magFilter, parameter.genMipMaps);
 			}
 		}
 
 		@Override
 		public void dispose () {
+			if (atlas != null) {
+				atlas.remove(this);
+				synchronized (generator) {
+					parameter = null;
+					if (stroker != null) stroker.dispose();
+				}
+				return;
+			}
 			if (stroker != null) stroker.dispose();
 			if (packer != null) packer.dispose();
 		}
@@ -813,5 +894,9 @@ public class FreeTypeFontGenerator implements Disposable {
 		 * modified after creating a font. If a PixmapPacker is not specified, the font glyph page textures will use
 		 * {@link FreeTypeFontGenerator#getMaxTextureSize()}. */
 		public boolean incremental;
+		/** The optional atlas to rasterize glyphs into on demand, which can be shared by fonts of any size and face. Implies
+		 * {@link #incremental}. The packer is not used if an atlas is set.
+		 * @see FreeTypeGlyphAtlas */
+		public FreeTypeGlyphAtlas atlas;
 	}
 }
@@ -0,0 +1,456 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.g2d.freetype;
+
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Blending;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout.GlyphRun;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeBitmapFontData;
+import com.badlogic.gdx.graphics.glutils.PixmapTextureData;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+/** A glyph texture atlas shared by any number of incremental {@link FreeTypeBitmapFontData fonts} of any size, set using
+ * {@link FreeTypeFontGenerator.FreeTypeFontParameter#atlas}. Glyphs are rasterized when they are first needed and packed into
+ * shelves of similar height. When the atlas is full, the glyphs that have not been looked up or drawn for the longest time are
+ * evicted and their space is reused. If every glyph that could make room was used within the
+ * {@link #setEvictionAge(int) eviction age}, eg when one frame uses more glyphs than fit, a page is added beyond the maximum
+ * instead. Only the rows of a page that changed are uploaded to the texture.
+ * <p>
+ * Glyphs are marked as drawn by the {@link BitmapFontCache caches} of fonts created with
+ * {@link FreeTypeFontGenerator#generateFont(FreeTypeFontGenerator.FreeTypeFontParameter)}, so text that is laid out once and
+ * drawn every frame (eg by a {@link com.badlogic.gdx.scenes.scene2d.ui.Label}) keeps its glyphs. Text that isn't drawn for longer
+ * than the {@link #setEvictionAge(int) eviction age} may show other glyphs when it is drawn again, so {@link #update()} should be
+ * called each frame and text laid out again when it returns true. Evicted glyphs are rasterized again the next time they are
+ * looked up.
+ * <p>
+ * If {@link #setAsync(boolean) async} is true, glyphs are rasterized on a background thread and glyphs that are not yet available
+ * are drawn as the font's missing glyph. They are added to the atlas by {@link #update()}.
+ * <p>
+ * The atlas owns the page textures, so it must be disposed after all the fonts using it are disposed. */
+public class FreeTypeGlyphAtlas implements Disposable {
+	/** Shelf heights are rounded up to a multiple of this, so glyphs of similar height can share shelves and evicted space. */
+	static private final int shelfStep = 4;
+
+	final Array<TextureRegion> regions = new Array();
+	private final Array<Page> pages = new Array();
+	private final int pageWidth, pageHeight, maxPages, padding;
+	private final TextureFilter minFilter, magFilter;
+	private int evictionAge = 60;
+	private int evictions, lastEvictions;
+
+	private AsyncExecutor executor;
+	private final Array<PendingGlyph> pending = new Array(), finished = new Array();
+
+	/** Creates an atlas with up to two 1024x1024 pages. */
+	public FreeTypeGlyphAtlas () {
+		this(1024, 1024, 2, TextureFilter.Nearest, TextureFilter.Nearest);
+	}
+
+	/** @param maxPages The number of pages before glyphs are evicted. More pages are only added when no glyph can be evicted. */
+	public FreeTypeGlyphAtlas (int pageWidth, int pageHeight, int maxPages, TextureFilter minFilter, TextureFilter magFilter) {
+		if (maxPages < 1) throw new IllegalArgumentException("maxPages must be > 0: " + maxPages);
+		this.pageWidth = pageWidth;
+		this.pageHeight = pageHeight;
+		this.maxPages = maxPages;
+		this.minFilter = minFilter;
+		this.magFilter = magFilter;
+		padding = 1;
+	}
+
+	/** If true, glyphs are rasterized on a background thread. Default is false. */
+	public void setAsync (boolean async) {
+		if (async) {
+			if (executor == null) executor = new AsyncExecutor(1);
+		} else if (executor != null) {
+			executor.dispose();
+			executor = null;
+		}
+	}
+
+	public boolean isAsync () {
+		return executor != null;
+	}
+
+	/** Sets the number of frames a glyph must not have been looked up or drawn before it can be evicted. Default is 60. */
+	public void setEvictionAge (int frames) {
+		evictionAge = frames;
+	}
+
+	/** Returns the number of glyphs evicted since the atlas was created. */
+	public int getEvictions () {
+		return evictions;
+	}
+
+	/** Returns the texture regions for the pages, shared by all fonts using this atlas. */
+	public Array<TextureRegion> getRegions () {
+		return regions;
+	}
+
+	/** Adds glyphs rasterized in the background and uploads changed page rows. Must be called on the rendering thread.
+	 * @return true if glyphs were added or evicted since the last call, in which case text should be laid out again. */
+	public boolean update () {
+		boolean changed = evictions != lastEvictions;
+		lastEvictions = evictions;
+		if (executor != null) {
+			synchronized (finished) {
+				for (int i = 0, n = finished.size; i < n; i++) {
+					PendingGlyph pendingGlyph = finished.get(i);
+					pendingGlyph.data.addRasterizedGlyph(pendingGlyph.ch, pendingGlyph.glyph, pendingGlyph.pixmap);
+					if (pendingGlyph.pixmap != null) pendingGlyph.pixmap.dispose();
+					changed = true;
+				}
+				finished.clear();
+			}
+		}
+		uploadPages();
+		return changed;
+	}
+
+	/** Uploads the changed rows of each page to its texture. */
+	void uploadPages () {
+		for (int i = 0, n = pages.size; i < n; i++)
+			pages.get(i).upload();
+	}
+
+	/** Returns true if the glyph is queued for background rasterization. */
+	boolean request (final FreeTypeBitmapFontData data, final char ch) {
+		if (executor == null) return false;
+		final PendingGlyph pendingGlyph;
+		synchronized (finished) {
+			for (int i = 0, n = pending.size; i < n; i++) {
+				PendingGlyph other = pending.get(i);
+				if (other.data == data && other.ch == ch) return true;
+			}
+			pendingGlyph = new PendingGlyph();
+			pendingGlyph.data = data;
+			pendingGlyph.ch = ch;
+			pending.add(pendingGlyph);
+		}
+		executor.submit(new AsyncTask<Void>() {
+			public Void call () {
+				pendingGlyph.glyph = new AtlasGlyph();
+				pendingGlyph.pixmap = data.rasterizeGlyph(ch, pendingGlyph.glyph);
+				synchronized (finished) {
+					if (pending.removeValue(pendingGlyph, true)) // Not removed, so the font wasn't disposed.
+						finished.add(pendingGlyph);
+					else if (pendingGlyph.pixmap != null) //
+						pendingGlyph.pixmap.dispose();
+				}
+				return null;
+			}
+		});
+		return true;
+	}
+
+	/** Packs the pixmap and sets the glyph's page and source position, evicting glyphs or adding a page if necessary.
+	 * @throws GdxRuntimeException if the glyph is larger than a page. */
+	void pack (FreeTypeBitmapFontData data, AtlasGlyph glyph, Pixmap pixmap) {
+		int width = pixmap.getWidth() + padding, height = pixmap.getHeight() + padding;
+		if (width > pageWidth || height > pageHeight) throw new GdxRuntimeException("Glyph doesn't fit in an atlas page: " + glyph.id);
+		int shelfHeight = (height + shelfStep - 1) / shelfStep * shelfStep;
+
+		Slot slot = allocate(width, shelfHeight, false);
+		if (slot == null) slot = evict(width, shelfHeight);
+		if (slot == null) slot = allocate(width, shelfHeight, true); // All glyphs are in use, a new page always fits the glyph.
+
+		slot.glyph = glyph;
+		slot.data = data;
+		glyph.slot = slot;
+		glyph.page = slot.shelf.page.index;
+		glyph.srcX = slot.x;
+		glyph.srcY = slot.shelf.y;
+
+		Page page = slot.shelf.page;
+		Pixmap image = page.image;
+		image.setBlending(Blending.None);
+		if (slot.used) { // Clear what remains of an evicted glyph.
+			image.setColor(0, 0, 0, 0);
+			image.fillRectangle(slot.x, slot.shelf.y, slot.width, slot.shelf.height);
+		}
+		slot.used = true;
+		image.drawPixmap(pixmap, slot.x, slot.shelf.y);
+		page.setDirty(slot.shelf.y, slot.shelf.y + slot.shelf.height);
+	}
+
+	/** @param force If true, a page is added even if there are already {@link #maxPages}. */
+	private Slot allocate (int width, int shelfHeight, boolean force) {
+		for (int i = 0, n = pages.size; i < n; i++) {
+			Slot slot = pages.get(i).allocate(width, shelfHeight);
+			if (slot != null) return slot;
+		}
+		if (pages.size >= maxPages && !force) return null;
+		Page page = new Page(pages.size);
+		pages.add(page);
+		regions.add(new TextureRegion(page.texture));
+		return page.allocate(width, shelfHeight);
+	}
+
+	/** Evicts the least recently used glyph in a slot large enough for the new glyph. */
+	private Slot evict (int width, int shelfHeight) {
+		long maxFrame = Gdx.graphics.getFrameId() - evictionAge;
+		Slot best = null;
+		for (int i = 0, n = pages.size; i < n; i++) {
+			Array<Shelf> shelves = pages.get(i).shelves;
+			for (int ii = 0, nn = shelves.size; ii < nn; ii++) {
+				Shelf shelf = shelves.get(ii);
+				if (shelf.height < shelfHeight || shelf.height > shelfHeight * 2) continue;
+				Array<Slot> slots = shelf.slots;
+				for (int iii = 0, nnn = slots.size; iii < nnn; iii++) {
+					Slot slot = slots.get(iii);
+					if (slot.width < width || slot.glyph == null || slot.glyph.id == 0) continue; // Never evict the missing glyph.
+					long lastUsed = slot.glyph.lastUsed;
+					if (lastUsed <= maxFrame && (best == null || lastUsed < best.glyph.lastUsed)) best = slot;
+				}
+			}
+		}
+		if (best == null) return null;
+		best.data.removeEvictedGlyph(best.glyph);
+		best.glyph.slot = null;
+		best.glyph = null;
+		best.data = null;
+		evictions++;
+		return best;
+	}
+
+	/** Frees the slots of all glyphs of the specified font, called when the font is disposed. */
+	void remove (FreeTypeBitmapFontData data) {
+		for (int i = 0, n = pages.size; i < n; i++) {
+			Array<Shelf> shelves = pages.get(i).shelves;
+			for (int ii = 0, nn = shelves.size; ii < nn; ii++) {
+				Array<Slot> slots = shelves.get(ii).slots;
+				for (int iii = 0, nnn = slots.size; iii < nnn; iii++) {
+					Slot slot = slots.get(iii);
+					if (slot.data != data) continue;
+					slot.glyph.slot = null;
+					slot.glyph = null;
+					slot.data = null;
+				}
+			}
+		}
+		synchronized (finished) {
+			for (int i = pending.size - 1; i >= 0; i--)
+				if (pending.get(i).data == data) pending.removeIndex(i);
+			for (int i = finished.size - 1; i >= 0; i--) {
+				PendingGlyph pendingGlyph = finished.get(i);
+				if (pendingGlyph.data != data) continue;
+				if (pendingGlyph.pixmap != null) pendingGlyph.pixmap.dispose();
+				finished.removeIndex(i);
+			}
+		}
+	}
+
+	/** Disposes the page textures. The fonts using the atlas must not be used after this is called. */
+	public void dispose () {
+		setAsync(false);
+		for (int i = 0, n = pages.size; i < n; i++)
+			pages.get(i).texture.dispose();
+		pages.clear();
+		regions.clear();
+		synchronized (finished) {
+			for (int i = 0, n = finished.size; i < n; i++)
+				if (finished.get(i).pixmap != null) finished.get(i).pixmap.dispose();
+			finished.clear();
+			pending.clear();
+		}
+	}
+
+	/** A glyph packed in the atlas, which remembers the frame it was last looked up or drawn for eviction. */
+	static class AtlasGlyph extends Glyph {
+		Slot slot;
+		long lastUsed;
+	}
+
+	/** A font whose caches mark the glyphs they draw as used, so glyphs of text that isn't laid out again aren't evicted. */
+	static class AtlasFont extends BitmapFont {
+		AtlasFont (BitmapFontData data, Array<TextureRegion> pageRegions, boolean integer) {
+			super(data, pageRegions, integer);
+		}
+
+		public BitmapFontCache newFontCache () {
+			return new AtlasFontCache(this, usesIntegerPositions());
+		}
+	}
+
+	static class AtlasFontCache extends BitmapFontCache {
+		private long markedFrame = -1;
+
+		AtlasFontCache (BitmapFont font, boolean integer) {
+			super(font, integer);
+		}
+
+		public void draw (Batch spriteBatch) {
+			markUsed();
+			super.draw(spriteBatch);
+		}
+
+		public void draw (Batch spriteBatch, int start, int end) {
+			markUsed();
+			super.draw(spriteBatch, start, end);
+		}
+
+		public void clear () {
+			super.clear();
+			markedFrame = -1;
+		}
+
+		/** Marks the glyphs of all the layouts as used, at most once per frame. */
+		private void markUsed () {
+			long frame = Gdx.graphics.getFrameId();
+			if (frame == markedFrame) return;
+			markedFrame = frame;
+			Array<GlyphLayout> layouts = getLayouts();
+			for (int i = 0, n = layouts.size; i < n; i++) {
+				Array<GlyphRun> runs = layouts.get(i).runs;
+				for (int ii = 0, nn = runs.size; ii < nn; ii++) {
+					Array<Glyph> glyphs = runs.get(ii).glyphs;
+					for (int iii = 0, nnn = glyphs.size; iii < nnn; iii++) {
+						Glyph glyph = glyphs.get(iii);
+						if (glyph instanceof AtlasGlyph) ((AtlasGlyph)glyph).lastUsed = frame;
+					}
+				}
+			}
+		}
+	}
+
+	static class PendingGlyph {
+		FreeTypeBitmapFontData data;
+		char ch;
+		AtlasGlyph glyph;
+		Pixmap pixmap;
+	}
+
+	static class Slot {
+		final Shelf shelf;
+		final int x, width;
+		AtlasGlyph glyph;
+		FreeTypeBitmapFontData data;
+		/** True once a glyph was packed into the slot, so the slot must be cleared before it is reused. */
+		boolean used;
+
+		Slot (Shelf shelf, int x, int width) {
+			this.shelf = shelf;
+			this.x = x;
+			this.width = width;
+		}
+	}
+
+	static class Shelf {
+		final Page page;
+		final int y, height;
+		int usedWidth;
+		final Array<Slot> slots = new Array();
+
+		Shelf (Page page, int y, int height) {
+			this.page = page;
+			this.y = y;
+			this.height = height;
+		}
+	}
+
+	class Page {
+		final int index;
+		final Pixmap image;
+		final Texture texture;
+		final Array<Shelf> shelves = new Array();
+		int usedHeight;
+		boolean dirty;
+		int dirtyTop, dirtyBottom;
+
+		Page (int index) {
+			this.index = index;
+			image = new Pixmap(pageWidth, pageHeight, Format.RGBA8888);
+			image.setBlending(Blending.None);
+			image.setColor(0, 0, 0, 0);
+			image.fill();
+			texture = new Texture(new PixmapTextureData(image, image.getFormat(), false, false, true)) {
+				public void dispose () {
+					super.dispose();
+					image.dispose();
+				}
+			};
+			texture.setFilter(minFilter, magFilter);
+		}
+
+		Slot allocate (int width, int shelfHeight) {
+			// Reuse a free slot or the end of a shelf of the same height.
+			for (int i = 0, n = shelves.size; i < n; i++) {
+				Shelf shelf = shelves.get(i);
+				if (shelf.height < shelfHeight || shelf.height > shelfHeight * 2) continue;
+				Array<Slot> slots = shelf.slots;
+				for (int ii = 0, nn = slots.size; ii < nn; ii++) {
+					Slot slot = slots.get(ii);
+					if (slot.glyph == null && slot.width >= width) return slot;
+				}
+				if (shelf.height == shelfHeight && pageWidth - shelf.usedWidth >= width) return addSlot(shelf, width);
+			}
+			if (pageHeight - usedHeight < shelfHeight) return null;
+			Shelf shelf = new Shelf(this, usedHeight, shelfHeight);
+			usedHeight += shelfHeight;
+			shelves.add(shelf);
+			return addSlot(shelf, width);
+		}
+
+		private Slot addSlot (Shelf shelf, int width) {
+			Slot slot = new Slot(shelf, shelf.usedWidth, width);
+			shelf.usedWidth += width;
+			shelf.slots.add(slot);
+			return slot;
+		}
+
+		void setDirty (int top, int bottom) {
+			if (dirty) {
+				dirtyTop = Math.min(dirtyTop, top);
+				dirtyBottom = Math.max(dirtyBottom, bottom);
+			} else {
+				dirtyTop = top;
+				dirtyBottom = bottom;
+				dirty = true;
+			}
+		}
+
+		void upload () {
+			if (!dirty) return;
+			dirty = false;
+			ByteBuffer pixels = image.getPixels();
+			int position = pixels.position();
+			pixels.position(dirtyTop * pageWidth * 4);
+			texture.bind();
+			Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 1);
+			Gdx.gl.glTexSubImage2D(texture.glTarget, 0, 0, dirtyTop, pageWidth, dirtyBottom - dirtyTop, image.getGLFormat(),
+				image.getGLType(), pixels);
+			pixels.position(position);
+		}
+	}
+}
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tools.g3d;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g3d.loader.G3dModelLoader;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelData;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMesh;
+import com.badlogic.gdx.graphics.g3d.utils.MeshOptimizer;
+import com.badlogic.gdx.tools.FileProcessor;
+import com.badlogic.gdx.utils.BaseJsonReader;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.JsonWriter.OutputType;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.UBJsonReader;
+
+/** Optimizes the meshes of G3DJ and G3DB model files offline with a {@link MeshOptimizer}, so the work is not needed at load
+ * time. Only the mesh vertices and indices are changed, the rest of the file is written as it was read. */
+public class G3dMeshOptimizer {
+	static class G3dFileProcessor extends FileProcessor {
+		final MeshOptimizer optimizer;
+
+		G3dFileProcessor (MeshOptimizer optimizer) {
+			this.optimizer = optimizer;
+			addInputSuffix(".g3dj");
+			addInputSuffix(".g3db");
+		}
+
+		@Override
+		protected void processFile (Entry entry) throws Exception {
+			System.out.println("Processing " + entry.inputFile);
+			FileHandle input = new FileHandle(entry.inputFile);
+			boolean binary = input.extension().equalsIgnoreCase("g3db");
+			BaseJsonReader reader = binary ? new UBJsonReader() : new JsonReader();
+			ModelData data = new G3dModelLoader(reader).parseModel(input);
+			optimizer.resetStatistics();
+			optimizer.optimize(data);
+
+			// Store the optimized vertices and indices in the original file's values.
+			JsonValue json = reader.parse(input);
+			JsonValue meshes = json.get("meshes");
+			if (meshes != null) {
+				int meshIndex = 0;
+				for (JsonValue mesh = meshes.child; mesh != null; mesh = mesh.next, meshIndex++) {
+					ModelMesh modelMesh = data.meshes.get(meshIndex);
+					setValues(mesh.require("vertices"), modelMesh.vertices);
+					int partIndex = 0;
+					for (JsonValue part = mesh.require("parts").child; part != null; part = part.next, partIndex++)
+						setValues(part.require("indices"), modelMesh.parts[partIndex].indices);
+				}
+			}
+
+			FileHandle output = new FileHandle(entry.outputFile);
+			if (binary) {
+				DataOutputStream stream = new DataOutputStream(output.write(false, 8192));
+				try {
+					write(stream, json);
+				} finally {
+					StreamUtils.closeQuietly(stream);
+				}
+			} else
+				output.writeString(json.prettyPrint(OutputType.json, 130), false, "UTF-8");
+			System.out.println(optimizer);
+		}
+
+		@Override
+		protected void processDir (Entry entryDir, ArrayList<Entry> value) throws Exception {
+			if (!entryDir.outputDir.exists()) {
+				if (!entryDir.outputDir.mkdirs())
+					throw new Exception("Couldn't create output directory '" + entryDir.outputDir + "'");
+			}
+		}
+	}
+
+	/** Sets the values of an array, removing the values past the end. The values can't be more than the array has. */
+	static void setValues (JsonValue array, float[] values) {
+		JsonValue child = array.child;
+		for (int i = 0; i < values.length; i++, child = child.next)
+			child.set(Double.parseDouble(Float.toString(values[i])), null); // Avoid printing float rounding errors.
+		truncate(array, values.length);
+	}
+
+	/** Sets the values of an array to the unsigned values, removing the values past the end. */
+	static void setValues (JsonValue array, short[] values) {
+		JsonValue child = array.child;
+		for (int i = 0; i < values.length; i++, child = child.next)
+			child.set(values[i] & 0xffff, null);
+		truncate(array, values.length);
+	}
+
+	static private void truncate (JsonValue array, int size) {
+		if (size == 0)
+			array.child = null;
+		else {
+			JsonValue last = array.child;
+			for (int i = 1; i < size; i++)
+				last = last.next;
+			last.next = null;
+		}
+		array.size = size;
+	}
+
+	/** Writes the value in the UBJSON format read by {@link UBJsonReader} with {@link UBJsonReader#oldFormat} set, which is the
+	 * format of the G3DB files written by fbx-conv. Numeric arrays are written as typed arrays of floats, shorts or ints. */
+	static void write (DataOutputStream output, JsonValue value) throws IOException {
+		if (value.name != null) writeString(output, value.name);
+		if (value.isArray() && value.child != null && isNumeric(value)) {
+			// Indices are unsigned shorts, which G3dModelLoader reads back as shorts.
+			long maxShort = "indices".equals(value.name) ? 0xffff : Short.MAX_VALUE;
+			boolean floats = false, shorts = true;
+			for (JsonValue child = value.child; child != null; child = child.next) {
+				if (child.isDouble()) floats = true;
+				long longValue = child.asLong();
+				if (longValue < Short.MIN_VALUE || longValue > maxShort) shorts = false;
+			}
+			output.writeByte('[');
+			output.writeByte('$');
+			output.writeByte(floats ? 'd' : shorts ? 'i' : 'I');
+			output.writeByte('#');
+			output.writeByte('l');
+			output.writeInt(value.size);
+			for (JsonValue child = value.child; child != null; child = child.next) {
+				if (floats)
+					output.writeFloat(child.asFloat());
+				else if (shorts)
+					output.writeShort((int)child.asLong());
+				else
+					output.writeInt((int)child.asLong());
+			}
+		} else if (value.isObject() || value.isArray()) {
+			output.writeByte(value.isObject() ? '{' : '[');
+			for (JsonValue child = value.child; child != null; child = child.next)
+				write(output, child);
+			output.writeByte(value.isObject() ? '}' : ']');
+		} else if (value.isString()) {
+			output.writeByte('S');
+			writeString(output, value.asString());
+		} else if (value.isDouble()) {
+			output.writeByte('d');
+			output.writeFloat(value.asFloat());
+		} else if (value.isLong()) {
+			long longValue = value.asLong();
+			if (longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE) {
+				output.writeByte('I');
+				output.writeInt((int)longValue);
+			} else {
+				output.writeByte('L');
+				output.writeLong(longValue);
+			}
+		} else if (value.isBoolean())
+			output.writeByte(value.asBoolean() ? 'T' : 'F');
+		else
+			output.writeByte('Z');
+	}
+
+	/** Writes the size and bytes of a string, as used for names and after the 'S' type. */
+	static private void writeString (DataOutputStream output, String value) throws IOException {
+		byte[] bytes = value.getBytes("UTF-8");
+		if (bytes.length < 256) {
+			output.writeByte('i');
+			output.writeByte(bytes.length);
+		} else {
+			output.writeByte('l');
+			output.writeInt(bytes.length);
+		}
+		output.write(bytes);
+	}
+
+	static private boolean isNumeric (JsonValue array) {
+		for (JsonValue child = array.child; child != null; child = child.next)
+			if (!child.isNumber()) return false;
+		return true;
+	}
+
+	/** Optimizes the model files in the input directory, or the input file, and writes them to the output directory. */
+	public static void process (String input, String outputDirectory, MeshOptimizer optimizer) throws Exception {
+		GdxNativesLoader.load();
+		G3dFileProcessor processor = new G3dFileProcessor(optimizer);
+		processor.setRecursive(true);
+		processor.process(new File(input), new File(outputDirectory));
+	}
+
+	public static void main (String[] args) throws Exception {
+		if (args.length < 2 || args.length > 3) {
+			System.out.println("G3dMeshOptimizer <input-file-or-dir> <output-dir> [cache-size]");
+			System.exit(-1);
+		}
+		MeshOptimizer optimizer = new MeshOptimizer();
+		if (args.length == 3) optimizer.cacheSize = Integer.parseInt(args[2]);
+		process(args[0], args[1], optimizer);
+	}
+}
@@ -57,6 +57,7 @@ import com.badlogic.gdx.utils.Logger;
 import com.badlogic.gdx.utils.ObjectIntMap;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.ObjectSet;
+import com.badlogic.gdx.utils.Profiler;
 import com.badlogic.gdx.utils.TimeUtils;
 import com.badlogic.gdx.utils.UBJsonReader;
 import com.badlogic.gdx.utils.async.AsyncExecutor;
@@ -397,6 +398,7 @@ public class AssetManager implements Disposable {
 	/** Updates the AssetManager, keeping it loading any assets in the preload queue.
 	 * @return true if all loading is finished. */
 	public synchronized boolean update () {
+		Profiler.begin("AssetManager.update");
 		try {
 			if (tasks.size() == 0) {
 				// loop until we have a new task ready to be processed
@@ -410,6 +412,8 @@ public class AssetManager implements Disposable {
 		} catch (Throwable t) {
 			handleTaskError(t);
 			return loadQueue.size == 0;
+		} finally {
+			Profiler.end();
 		}
 	}
 
@@ -18,6 +18,7 @@ package com.badlogic.gdx.assets.loaders;
 
 import java.util.Iterator;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetLoaderParameters;
 import com.badlogic.gdx.assets.AssetManager;
@@ -27,6 +28,7 @@ import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.graphics.g3d.model.data.ModelData;
 import com.badlogic.gdx.graphics.g3d.model.data.ModelMaterial;
 import com.badlogic.gdx.graphics.g3d.model.data.ModelTexture;
+import com.badlogic.gdx.graphics.g3d.utils.MeshOptimizer;
 import com.badlogic.gdx.graphics.g3d.utils.TextureProvider;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
@@ -51,7 +53,18 @@ public abstract class ModelLoader<P extends ModelLoader.ModelParameters> extends
 	/** Directly load the model on the calling thread. The model with not be managed by an {@link AssetManager}. */
 	public Model loadModel (final FileHandle fileHandle, TextureProvider textureProvider, P parameters) {
 		final ModelData data = loadModelData(fileHandle, parameters);
-		return data == null ? null : new Model(data, textureProvider);
+		if (data == null) return null;
+		optimizeMeshes(fileHandle.path(), data, parameters);
+		return new Model(data, textureProvider);
+	}
+
+	/** Optimizes the meshes of the model data with a {@link MeshOptimizer} if {@link ModelParameters#optimizeMeshes} is set, and
+	 * logs the statistics at debug level. */
+	protected void optimizeMeshes (String fileName, ModelData data, P parameters) {
+		if (!(parameters != null ? parameters.optimizeMeshes : defaultParameters.optimizeMeshes)) return;
+		MeshOptimizer optimizer = new MeshOptimizer();
+		optimizer.optimize(data);
+		if (Gdx.app != null) Gdx.app.debug("ModelLoader", "Optimized " + fileName + ": " + optimizer);
 	}
 
 	/** Directly load the model on the calling thread. The model with not be managed by an {@link AssetManager}. */
@@ -74,6 +87,7 @@ public abstract class ModelLoader<P extends ModelLoader.ModelParameters> extends
 		final Array<AssetDescriptor> deps = new Array();
 		ModelData data = loadModelData(file, parameters);
 		if (data == null) return deps;
+		optimizeMeshes(fileName, data, parameters);
 
 		ObjectMap.Entry<String, ModelData> item = new ObjectMap.Entry<String, ModelData>();
 		item.key = fileName;
@@ -127,6 +141,9 @@ public abstract class ModelLoader<P extends ModelLoader.ModelParameters> extends
 
 	static public class ModelParameters extends AssetLoaderParameters<Model> {
 		public TextureLoader.TextureParameter textureParameter;
+		/** Whether to remove duplicate vertices and reorder the triangles and vertices of the meshes for the vertex cache, see
+		 * {@link MeshOptimizer}. */
+		public boolean optimizeMeshes;
 
 		public ModelParameters() {
 			textureParameter = new TextureLoader.TextureParameter();
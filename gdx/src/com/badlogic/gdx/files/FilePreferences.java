@@ -0,0 +1,388 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.files;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+/** {@link Preferences} stored in a file, used by the desktop and headless backends.
+ * <p>
+ * The file is written to a temporary file which then replaces the preferences file, so a crash while writing never leaves a
+ * partially written file. By default {@link #flush()} writes the file before returning and throws if writing fails. With
+ * {@link #setAsync(boolean)} flush instead returns immediately and the file is written on a background thread, coalescing multiple
+ * flushes before the write starts into a single write of the latest values. Backends call {@link #finishWriting()} on exit so no
+ * asynchronous writes are lost.
+ * <p>
+ * The file uses a compact line based format, one escaped key=value pair per line. Files in the XML format of
+ * {@link Properties#storeToXML(java.io.OutputStream, String)} written by older versions are read, and {@link #setWriteXml(boolean)}
+ * can be used to keep writing that format. */
+public class FilePreferences implements Preferences {
+	static private final String HEADER = "#libgdx preferences 1";
+	static private final Object writeLock = new Object();
+	static private int pendingWrites;
+	static private ExecutorService writer;
+
+	private final Properties properties = new Properties();
+	private final FileHandle file;
+	private boolean async, writeXml;
+	/** True if a write is queued that has not yet taken a snapshot of the properties. Guarded by {@link #writeLock}. */
+	private boolean writeQueued;
+
+	public FilePreferences (FileHandle file) {
+		this.file = file;
+		File javaFile = file.file();
+		File tempFile = tempFile(javaFile);
+		// The temporary file is complete if the preferences file was deleted but not yet replaced.
+		if (!javaFile.exists() && tempFile.exists()) javaFile = tempFile;
+		if (!javaFile.exists()) return;
+		try {
+			read(new FileHandle(javaFile).readBytes());
+		} catch (Throwable t) {
+			t.printStackTrace();
+		}
+	}
+
+	private void read (byte[] bytes) throws IOException {
+		int start = 0;
+		while (start < bytes.length && (bytes[start] == ' ' || bytes[start] == '\t' || bytes[start] == '\r' || bytes[start] == '\n'))
+			start++;
+		InputStream input = new ByteArrayInputStream(bytes, start, bytes.length - start);
+		if (start < bytes.length && bytes[start] == '<') {
+			properties.loadFromXML(input);
+			return;
+		}
+		String text = new String(bytes, start, bytes.length - start, "UTF-8");
+		if (!text.startsWith(HEADER)) throw new GdxRuntimeException("Unknown preferences format: " + file);
+		int lineStart = text.indexOf('\n') + 1;
+		while (lineStart > 0 && lineStart < text.length()) {
+			int lineEnd = text.indexOf('\n', lineStart);
+			if (lineEnd == -1) lineEnd = text.length();
+			int equals = lineStart;
+			while (equals < lineEnd && text.charAt(equals) != '=')
+				equals += text.charAt(equals) == '\\' ? 2 : 1;
+			if (equals < lineEnd) properties.put(unescape(text, lineStart, equals), unescape(text, equals + 1, lineEnd));
+			lineStart = lineEnd + 1;
+		}
+	}
+
+	/** If true, {@link #flush()} writes the file on a background thread. Write errors are then not thrown by flush, they are logged
+	 * with {@link Gdx#app} or printed if there is no application. If false, the file is written before flush returns and flush
+	 * throws if writing fails. Default is false. */
+	public void setAsync (boolean async) {
+		this.async = async;
+	}
+
+	/** If true, the file is written in the XML format used by older versions rather than the compact format. Default is false. */
+	public void setWriteXml (boolean writeXml) {
+		this.writeXml = writeXml;
+	}
+
+	@Override
+	public Preferences putBoolean (String key, boolean val) {
+		properties.put(key, Boolean.toString(val));
+		return this;
+	}
+
+	@Override
+	public Preferences putInteger (String key, int val) {
+		properties.put(key, Integer.toString(val));
+		return this;
+	}
+
+	@Override
+	public Preferences putLong (String key, long val) {
+		properties.put(key, Long.toString(val));
+		return this;
+	}
+
+	@Override
+	public Preferences putFloat (String key, float val) {
+		properties.put(key, Float.toString(val));
+		return this;
+	}
+
+	@Override
+	public Preferences putString (String key, String val) {
+		properties.put(key, val);
+		return this;
+	}
+
+	@Override
+	public Preferences put (Map<String, ?> vals) {
+		for (Entry<String, ?> val : vals.entrySet()) {
+			if (val.getValue() instanceof Boolean) putBoolean(val.getKey(), (Boolean)val.getValue());
+			if (val.getValue() instanceof Integer) putInteger(val.getKey(), (Integer)val.getValue());
+			if (val.getValue() instanceof Long) putLong(val.getKey(), (Long)val.getValue());
+			if (val.getValue() instanceof String) putString(val.getKey(), (String)val.getValue());
+			if (val.getValue() instanceof Float) putFloat(val.getKey(), (Float)val.getValue());
+		}
+		return this;
+	}
+
+	@Override
+	public boolean getBoolean (String key) {
+		return getBoolean(key, false);
+	}
+
+	@Override
+	public int getInteger (String key) {
+		return getInteger(key, 0);
+	}
+
+	@Override
+	public long getLong (String key) {
+		return getLong(key, 0);
+	}
+
+	@Override
+	public float getFloat (String key) {
+		return getFloat(key, 0);
+	}
+
+	@Override
+	public String getString (String key) {
+		return getString(key, "");
+	}
+
+	@Override
+	public boolean getBoolean (String key, boolean defValue) {
+		return Boolean.parseBoolean(properties.getProperty(key, Boolean.toString(defValue)));
+	}
+
+	@Override
+	public int getInteger (String key, int defValue) {
+		return Integer.parseInt(properties.getProperty(key, Integer.toString(defValue)));
+	}
+
+	@Override
+	public long getLong (String key, long defValue) {
+		return Long.parseLong(properties.getProperty(key, Long.toString(defValue)));
+	}
+
+	@Override
+	public float getFloat (String key, float defValue) {
+		return Float.parseFloat(properties.getProperty(key, Float.toString(defValue)));
+	}
+
+	@Override
+	public String getString (String key, String defValue) {
+		return properties.getProperty(key, defValue);
+	}
+
+	@Override
+	public Map<String, ?> get () {
+		Map<String, Object> map = new HashMap<String, Object>();
+		for (Entry<Object, Object> val : properties.entrySet()) {
+			if (val.getValue() instanceof Boolean)
+				map.put((String)val.getKey(), (Boolean)Boolean.parseBoolean((String)val.getValue()));
+			if (val.getValue() instanceof Integer) map.put((String)val.getKey(), (Integer)Integer.parseInt((String)val.getValue()));
+			if (val.getValue() instanceof Long) map.put((String)val.getKey(), (Long)Long.parseLong((String)val.getValue()));
+			if (val.getValue() instanceof String) map.put((String)val.getKey(), (String)val.getValue());
+			if (val.getValue() instanceof Float) map.put((String)val.getKey(), (Float)Float.parseFloat((String)val.getValue()));
+		}
+
+		return map;
+	}
+
+	@Override
+	public boolean contains (String key) {
+		return properties.containsKey(key);
+	}
+
+	@Override
+	public void clear () {
+		properties.clear();
+	}
+
+	@Override
+	public void remove (String key) {
+		properties.remove(key);
+	}
+
+	/** Writes the preferences before returning, or on a background thread if {@link #setAsync(boolean) async} is true. When writing
+	 * asynchronously, errors are logged rather than thrown. */
+	@Override
+	public void flush () {
+		if (!async) {
+			try {
+				write();
+			} catch (Exception ex) {
+				throw new GdxRuntimeException("Error writing preferences: " + file, ex);
+			}
+			return;
+		}
+		synchronized (writeLock) {
+			// A queued write will see the current values.
+			if (writeQueued) return;
+			writeQueued = true;
+			pendingWrites++;
+			if (writer == null) writer = newWriter();
+		}
+		writer.execute(new Runnable() {
+			public void run () {
+				try {
+					synchronized (writeLock) {
+						writeQueued = false;
+					}
+					write();
+				} catch (Throwable ex) {
+					if (Gdx.app != null)
+						Gdx.app.error("Preferences", "Error writing preferences: " + file, ex);
+					else
+						ex.printStackTrace();
+				} finally {
+					synchronized (writeLock) {
+						pendingWrites--;
+						writeLock.notifyAll();
+					}
+				}
+			}
+		});
+	}
+
+	private void write () throws IOException {
+		Properties snapshot = (Properties)properties.clone();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		if (writeXml)
+			snapshot.storeToXML(bytes, null);
+		else
+			writeCompact(snapshot, bytes);
+
+		File javaFile = file.file();
+		File parent = javaFile.getAbsoluteFile().getParentFile();
+		if (parent != null) parent.mkdirs();
+		File tempFile = tempFile(javaFile);
+		FileOutputStream output = new FileOutputStream(tempFile);
+		try {
+			bytes.writeTo(output);
+			output.flush();
+			output.getFD().sync();
+		} finally {
+			StreamUtils.closeQuietly(output);
+		}
+		if (!tempFile.renameTo(javaFile)) {
+			// Some platforms can't rename over an existing file. Reading uses the temporary file if the preferences file is missing.
+			javaFile.delete();
+			if (!tempFile.renameTo(javaFile)) throw new IOException("Unable to rename: " + tempFile + " -> " + javaFile);
+		}
+	}
+
+	static private void writeCompact (Properties properties, ByteArrayOutputStream output) throws UnsupportedEncodingException {
+		Object[] keys = properties.keySet().toArray();
+		Arrays.sort(keys);
+		StringBuilder buffer = new StringBuilder(keys.length * 32 + 32);
+		buffer.append(HEADER).append('\n');
+		for (Object key : keys) {
+			escape((String)key, true, buffer);
+			buffer.append('=');
+			escape(properties.getProperty((String)key), false, buffer);
+			buffer.append('\n');
+		}
+		byte[] bytes = buffer.toString().getBytes("UTF-8");
+		output.write(bytes, 0, bytes.length);
+	}
+
+	static private void escape (String value, boolean key, StringBuilder buffer) {
+		for (int i = 0, n = value.length(); i < n; i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '\\':
+				buffer.append("\\\\");
+				break;
+			case '\n':
+				buffer.append("\\n");
+				break;
+			case '\r':
+				buffer.append("\\r");
+				break;
+			case '=':
+				if (key) buffer.append('\\');
+				buffer.append(c);
+				break;
+			default:
+				buffer.append(c);
+			}
+		}
+	}
+
+	static private String unescape (String text, int start, int end) {
+		StringBuilder buffer = null;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c == '\r' && i == end - 1) break;
+			if (c != '\\' || i == end - 1) {
+				if (buffer != null) buffer.append(c);
+				continue;
+			}
+			if (buffer == null) buffer = new StringBuilder(end - start).append(text, start, i);
+			c = text.charAt(++i);
+			buffer.append(c == 'n' ? '\n' : c == 'r' ? '\r' : c);
+		}
+		if (buffer != null) return buffer.toString();
+		if (end > start && text.charAt(end - 1) == '\r') end--;
+		return text.substring(start, end);
+	}
+
+	static private File tempFile (File file) {
+		return new File(file.getPath() + ".tmp");
+	}
+
+	static private ExecutorService newWriter () {
+		// The thread is not a daemon so the JVM doesn't exit during a write, and it ends when idle.
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(0, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+			new ThreadFactory() {
+				public Thread newThread (Runnable runnable) {
+					return new Thread(runnable, "Preferences-Writer");
+				}
+			});
+		return executor;
+	}
+
+	/** Blocks until all preferences flushed asynchronously have been written. */
+	static public void finishWriting () {
+		synchronized (writeLock) {
+			while (pendingWrites > 0) {
+				try {
+					writeLock.wait();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+}
@@ -17,6 +17,7 @@
 package com.badlogic.gdx.graphics;
 
 import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.nio.ShortBuffer;
 import java.util.HashMap;
 import java.util.Map;
@@ -26,12 +27,14 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.VertexAttributes.Usage;
 import com.badlogic.gdx.graphics.glutils.IndexArray;
 import com.badlogic.gdx.graphics.glutils.IndexBufferObject;
+import com.badlogic.gdx.graphics.glutils.IndexBufferObjectInt;
 import com.badlogic.gdx.graphics.glutils.IndexBufferObjectSubData;
 import com.badlogic.gdx.graphics.glutils.IndexData;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.graphics.glutils.VertexArray;
 import com.badlogic.gdx.graphics.glutils.VertexBufferObject;
 import com.badlogic.gdx.graphics.glutils.VertexBufferObjectSubData;
+import com.badlogic.gdx.graphics.glutils.VertexBufferObjectStreaming;
 import com.badlogic.gdx.graphics.glutils.VertexBufferObjectWithVAO;
 import com.badlogic.gdx.graphics.glutils.VertexData;
 import com.badlogic.gdx.math.Matrix3;
@@ -66,7 +69,7 @@ import com.badlogic.gdx.utils.GdxRuntimeException;
  * @author mzechner, Dave Clayton <contact@redskyforge.com>, Xoppa */
 public class Mesh implements Disposable {
 	public enum VertexDataType {
-		VertexArray, VertexBufferObject, VertexBufferObjectSubData, VertexBufferObjectWithVAO
+		VertexArray, VertexBufferObject, VertexBufferObjectSubData, VertexBufferObjectWithVAO, VertexBufferObjectStreaming
 	}
 
 	/** list of all meshes **/
@@ -133,6 +136,23 @@ public class Mesh implements Disposable {
 		addManagedMesh(Gdx.app, this);
 	}
 
+	/** Creates a new Mesh with the given attributes, optionally with 32-bit indices. Int indices are drawn with
+	 * {@link GL20#GL_UNSIGNED_INT} and allow more than 32767 vertices, OpenGL ES 2.0 requires the OES_element_index_uint extension
+	 * for this.
+	 * 
+	 * @param isStatic whether this mesh is static or not. Allows for internal optimizations.
+	 * @param maxVertices the maximum number of vertices this mesh can hold
+	 * @param maxIndices the maximum number of indices this mesh can hold
+	 * @param intIndices whether to store the indices as ints rather than shorts
+	 * @param attributes the {@link VertexAttributes}. */
+	public Mesh (boolean isStatic, int maxVertices, int maxIndices, boolean intIndices, VertexAttributes attributes) {
+		vertices = makeVertexBuffer(isStatic, maxVertices, attributes);
+		indices = intIndices ? new IndexBufferObjectInt(isStatic, maxIndices) : new IndexBufferObject(isStatic, maxIndices);
+		isVertexArray = false;
+
+		addManagedMesh(Gdx.app, this);
+	}
+
 	private VertexData makeVertexBuffer (boolean isStatic, int maxVertices, VertexAttributes vertexAttributes) {
 		if (Gdx.gl30 != null) {
 			return new VertexBufferObjectWithVAO(isStatic, maxVertices, vertexAttributes);
@@ -177,6 +197,11 @@ public class Mesh implements Disposable {
 			indices = new IndexBufferObjectSubData(isStatic, maxIndices);
 			isVertexArray = false;
 			break;
+		case VertexBufferObjectStreaming:
+			vertices = new VertexBufferObjectStreaming(maxVertices, VertexBufferObjectStreaming.DEFAULT_SEGMENTS, attributes);
+			indices = new IndexBufferObjectSubData(isStatic, maxIndices);
+			isVertexArray = false;
+			break;
 		case VertexArray:
 		default:
 			vertices = new VertexArray(maxVertices, attributes);
@@ -296,6 +321,27 @@ public class Mesh implements Disposable {
 		return this;
 	}
 
+	/** Sets the indices of this Mesh, which must have int indices.
+	 * 
+	 * @param indices the indices
+	 * @return the mesh for invocation chaining. */
+	public Mesh setIndices (int[] indices) {
+		return setIndices(indices, 0, indices.length);
+	}
+
+	/** Sets the indices of this Mesh, which must have int indices.
+	 * 
+	 * @param indices the indices
+	 * @param offset the offset into the indices array
+	 * @param count the number of indices to copy
+	 * @return the mesh for invocation chaining. */
+	public Mesh setIndices (int[] indices, int offset, int count) {
+		if (!hasIntIndices()) throw new GdxRuntimeException("Mesh has short indices, use setIndices(short[], int, int)");
+		((IndexBufferObjectInt)this.indices).setIndices(indices, offset, count);
+
+		return this;
+	}
+
 	/** Copies the indices from the Mesh to the short array. The short array must be large enough to hold all the Mesh's indices.
 	 * @param indices the array to copy the indices to */
 	public void getIndices (short[] indices) {
@@ -339,6 +385,33 @@ public class Mesh implements Disposable {
 		getIndicesBuffer().position(pos);
 	}
 
+	/** Copies the indices from the Mesh to the int array, for both short and int indices. The int array must be large enough to
+	 * hold destOffset + count indices.
+	 * @param srcOffset the zero-based offset of the first index to fetch
+	 * @param count the total amount of indices to copy, or -1 for all remaining indices
+	 * @param indices the array to copy the indices to
+	 * @param destOffset the offset in the indices array to start copying */
+	public void getIndices (int srcOffset, int count, int[] indices, int destOffset) {
+		int max = getNumIndices();
+		if (count < 0) count = max - srcOffset;
+		if (srcOffset < 0 || srcOffset >= max || srcOffset + count > max)
+			throw new IllegalArgumentException("Invalid range specified, offset: " + srcOffset + ", count: " + count + ", max: "
+				+ max);
+		if ((indices.length - destOffset) < count)
+			throw new IllegalArgumentException("not enough room in indices array, has " + indices.length + " ints, needs " + count);
+		if (hasIntIndices()) {
+			IntBuffer buffer = getIntIndicesBuffer();
+			int pos = buffer.position();
+			buffer.position(srcOffset);
+			buffer.get(indices, destOffset, count);
+			buffer.position(pos);
+		} else {
+			ShortBuffer buffer = getIndicesBuffer();
+			for (int i = 0; i < count; i++)
+				indices[destOffset + i] = buffer.get(srcOffset + i) & 0xffff;
+		}
+	}
+
 	/** @return the number of defined indices */
 	public int getNumIndices () {
 		return indices.getNumIndices();
@@ -359,6 +432,16 @@ public class Mesh implements Disposable {
 		return indices.getNumMaxIndices();
 	}
 
+	/** @return whether the indices of this mesh are stored as ints, see {@link #getIntIndicesBuffer()} */
+	public boolean hasIntIndices () {
+		return indices instanceof IndexBufferObjectInt;
+	}
+
+	/** @return the type of the indices, {@link GL20#GL_UNSIGNED_INT} or {@link GL20#GL_UNSIGNED_SHORT} */
+	public int getIndexType () {
+		return hasIntIndices() ? GL20.GL_UNSIGNED_INT : GL20.GL_UNSIGNED_SHORT;
+	}
+
 	/** @return the size of a single vertex in bytes */
 	public int getVertexSize () {
 		return vertices.getAttributes().vertexSize;
@@ -509,7 +592,10 @@ public class Mesh implements Disposable {
 						+ count + ", offset: " + offset + ", max: " + indices.getNumMaxIndices() + ")");
 				}
 				
-				Gdx.gl20.glDrawElements(primitiveType, count, GL20.GL_UNSIGNED_SHORT, offset * 2);
+				if (hasIntIndices())
+					Gdx.gl20.glDrawElements(primitiveType, count, GL20.GL_UNSIGNED_INT, offset * 4);
+				else
+					Gdx.gl20.glDrawElements(primitiveType, count, GL20.GL_UNSIGNED_SHORT, offset * 2);
 			} else {
 				Gdx.gl20.glDrawArrays(primitiveType, offset, count);
 			}
@@ -637,7 +723,8 @@ public class Mesh implements Disposable {
 			throw new GdxRuntimeException("Invalid part specified ( offset=" + offset + ", count=" + count + ", max=" + max + " )");
 
 		final FloatBuffer verts = vertices.getBuffer();
-		final ShortBuffer index = indices.getBuffer();
+		final ShortBuffer index = hasIntIndices() ? null : indices.getBuffer();
+		final IntBuffer intIndex = hasIntIndices() ? getIntIndicesBuffer() : null;
 		final VertexAttribute posAttrib = getVertexAttribute(Usage.Position);
 		final int posoff = posAttrib.offset / 4;
 		final int vertexSize = vertices.getAttributes().vertexSize / 4;
@@ -647,7 +734,7 @@ public class Mesh implements Disposable {
 		case 1:
 			if (numIndices > 0) {
 				for (int i = offset; i < end; i++) {
-					final int idx = index.get(i) * vertexSize + posoff;
+					final int idx = (index != null ? index.get(i) : intIndex.get(i)) * vertexSize + posoff;
 					tmpV.set(verts.get(idx), 0, 0);
 					if (transform != null) tmpV.mul(transform);
 					out.ext(tmpV);
@@ -664,7 +751,7 @@ public class Mesh implements Disposable {
 		case 2:
 			if (numIndices > 0) {
 				for (int i = offset; i < end; i++) {
-					final int idx = index.get(i) * vertexSize + posoff;
+					final int idx = (index != null ? index.get(i) : intIndex.get(i)) * vertexSize + posoff;
 					tmpV.set(verts.get(idx), verts.get(idx + 1), 0);
 					if (transform != null) tmpV.mul(transform);
 					out.ext(tmpV);
@@ -681,7 +768,7 @@ public class Mesh implements Disposable {
 		case 3:
 			if (numIndices > 0) {
 				for (int i = offset; i < end; i++) {
-					final int idx = index.get(i) * vertexSize + posoff;
+					final int idx = (index != null ? index.get(i) : intIndex.get(i)) * vertexSize + posoff;
 					tmpV.set(verts.get(idx), verts.get(idx + 1), verts.get(idx + 2));
 					if (transform != null) tmpV.mul(transform);
 					out.ext(tmpV);
@@ -712,7 +799,8 @@ public class Mesh implements Disposable {
 		if (offset < 0 || count < 1 || offset + count > numIndices) throw new GdxRuntimeException("Not enough indices");
 
 		final FloatBuffer verts = vertices.getBuffer();
-		final ShortBuffer index = indices.getBuffer();
+		final ShortBuffer index = hasIntIndices() ? null : indices.getBuffer();
+		final IntBuffer intIndex = hasIntIndices() ? getIntIndicesBuffer() : null;
 		final VertexAttribute posAttrib = getVertexAttribute(Usage.Position);
 		final int posoff = posAttrib.offset / 4;
 		final int vertexSize = vertices.getAttributes().vertexSize / 4;
@@ -723,7 +811,7 @@ public class Mesh implements Disposable {
 		switch (posAttrib.numComponents) {
 		case 1:
 			for (int i = offset; i < end; i++) {
-				final int idx = index.get(i) * vertexSize + posoff;
+				final int idx = (index != null ? index.get(i) : intIndex.get(i)) * vertexSize + posoff;
 				tmpV.set(verts.get(idx), 0, 0);
 				if (transform != null) tmpV.mul(transform);
 				final float r = tmpV.sub(centerX, centerY, centerZ).len2();
@@ -732,7 +820,7 @@ public class Mesh implements Disposable {
 			break;
 		case 2:
 			for (int i = offset; i < end; i++) {
-				final int idx = index.get(i) * vertexSize + posoff;
+				final int idx = (index != null ? index.get(i) : intIndex.get(i)) * vertexSize + posoff;
 				tmpV.set(verts.get(idx), verts.get(idx + 1), 0);
 				if (transform != null) tmpV.mul(transform);
 				final float r = tmpV.sub(centerX, centerY, centerZ).len2();
@@ -741,7 +829,7 @@ public class Mesh implements Disposable {
 			break;
 		case 3:
 			for (int i = offset; i < end; i++) {
-				final int idx = index.get(i) * vertexSize + posoff;
+				final int idx = (index != null ? index.get(i) : intIndex.get(i)) * vertexSize + posoff;
 				tmpV.set(verts.get(idx), verts.get(idx + 1), verts.get(idx + 2));
 				if (transform != null) tmpV.mul(transform);
 				final float r = tmpV.sub(centerX, centerY, centerZ).len2();
@@ -809,11 +897,18 @@ public class Mesh implements Disposable {
 		return calculateRadius(center.x, center.y, center.z, 0, getNumIndices(), null);
 	}
 
-	/** @return the backing shortbuffer holding the indices. Does not have to be a direct buffer on Android! */
+	/** @return the backing shortbuffer holding the indices. Does not have to be a direct buffer on Android! Not available when the
+	 *         mesh {@link #hasIntIndices()}. */
 	public ShortBuffer getIndicesBuffer () {
 		return indices.getBuffer();
 	}
 
+	/** @return the backing intbuffer holding the indices of a mesh with int indices */
+	public IntBuffer getIntIndicesBuffer () {
+		if (!hasIntIndices()) throw new GdxRuntimeException("Mesh has short indices, use getIndicesBuffer()");
+		return ((IndexBufferObjectInt)indices).getIntBuffer();
+	}
+
 	private static void addManagedMesh (Application app, Mesh mesh) {
 		Array<Mesh> managedResources = meshes.get(app);
 		if (managedResources == null) managedResources = new Array<Mesh>();
@@ -1057,18 +1152,18 @@ public class Mesh implements Disposable {
 		}
 
 		int numIndices = getNumIndices();
-		short[] indices = null;
+		int[] indices = null;
 		if (numIndices > 0) {
-			indices = new short[numIndices];
-			getIndices(indices);
+			indices = new int[numIndices];
+			getIndices(0, numIndices, indices, 0);
 			if (removeDuplicates || newVertexSize != vertexSize) {
 				float[] tmp = new float[vertices.length];
 				int size = 0;
 				for (int i = 0; i < numIndices; i++) {
 					final int idx1 = indices[i] * vertexSize;
-					short newIndex = -1;
+					int newIndex = -1;
 					if (removeDuplicates) {
-						for (short j = 0; j < size && newIndex < 0; j++) {
+						for (int j = 0; j < size && newIndex < 0; j++) {
 							final int idx2 = j * newVertexSize;
 							boolean found = true;
 							for (int k = 0; k < checks.length && found; k++) {
@@ -1083,7 +1178,7 @@ public class Mesh implements Disposable {
 						final int idx = size * newVertexSize;
 						for (int j = 0; j < checks.length; j++)
 							tmp[idx + j] = vertices[idx1 + checks[j]];
-						indices[i] = (short)size;
+						indices[i] = size;
 						size++;
 					}
 				}
@@ -1092,13 +1187,19 @@ public class Mesh implements Disposable {
 			}
 		}
 
-		Mesh result;
-		if (attrs == null)
-			result = new Mesh(isStatic, numVertices, indices == null ? 0 : indices.length, getVertexAttributes());
-		else
-			result = new Mesh(isStatic, numVertices, indices == null ? 0 : indices.length, attrs);
+		Mesh result = new Mesh(isStatic, numVertices, indices == null ? 0 : indices.length, hasIntIndices(),
+			attrs == null ? getVertexAttributes() : new VertexAttributes(attrs));
 		result.setVertices(vertices, 0, numVertices * newVertexSize);
-		if (indices != null) result.setIndices(indices);
+		if (indices != null) {
+			if (result.hasIntIndices())
+				result.setIndices(indices);
+			else {
+				short[] shortIndices = new short[indices.length];
+				for (int i = 0; i < indices.length; i++)
+					shortIndices[i] = (short)indices[i];
+				result.setIndices(shortIndices);
+			}
+		}
 		return result;
 	}
 
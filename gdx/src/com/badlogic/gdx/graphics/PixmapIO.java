@@ -23,6 +23,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.zip.Adler32;
 import java.util.zip.CRC32;
 import java.util.zip.CheckedOutputStream;
 import java.util.zip.Deflater;
@@ -31,10 +32,14 @@ import java.util.zip.InflaterInputStream;
 
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.ByteArray;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
 
 /** Writes Pixmaps to various formats.
  * @author mzechner
@@ -55,13 +60,21 @@ public class PixmapIO {
 		return CIM.read(file);
 	}
 
-	/** Writes the pixmap as a PNG with compression. See {@link PNG} to configure the compression level, more efficiently flip the
-	 * pixmap vertically, and to write out multiple PNGs with minimal allocation. */
+	/** Executor used by {@link #writePNG(FileHandle, Pixmap)} for large pixmaps, created when first needed and never disposed. */
+	static private AsyncExecutor pngExecutor;
+
+	/** Writes the pixmap as a PNG with compression. Large pixmaps are compressed using multiple threads, which are shared by all
+	 * calls. See {@link PNG} to configure the compression level, more efficiently flip the pixmap vertically, and to write out
+	 * multiple PNGs with minimal allocation. */
 	static public void writePNG (FileHandle file, Pixmap pixmap) {
 		try {
 			PNG writer = new PNG((int)(pixmap.getWidth() * pixmap.getHeight() * 1.5f)); // Guess at deflated size.
 			try {
 				writer.setFlipY(false);
+				if (pixmap.getWidth() * pixmap.getHeight() >= 512 * 512) {
+					int threads = Runtime.getRuntime().availableProcessors();
+					if (threads > 1) writer.setExecutor(getPNGExecutor(threads), threads);
+				}
 				writer.write(file, pixmap);
 			} finally {
 				writer.dispose();
@@ -71,6 +84,11 @@ public class PixmapIO {
 		}
 	}
 
+	static synchronized private AsyncExecutor getPNGExecutor (int threads) {
+		if (pngExecutor == null) pngExecutor = new AsyncExecutor(threads);
+		return pngExecutor;
+	}
+
 	/** @author mzechner */
 	static private class CIM {
 		static private final int BUFFER_SIZE = 32000;
@@ -181,15 +199,34 @@ public class PixmapIO {
 		static private final int IHDR = 0x49484452, IDAT = 0x49444154, IEND = 0x49454E44;
 		static private final byte COLOR_ARGB = 6;
 		static private final byte COMPRESSION_DEFLATE = 0;
-		static private final byte FILTER_NONE = 0;
+		static private final byte FILTER_NONE = 0, FILTER_SUB = 1, FILTER_UP = 2, FILTER_AVERAGE = 3, FILTER_PAETH = 4;
 		static private final byte INTERLACE_NONE = 0;
-		static private final byte PAETH = 4;
+		/** Uncompressed bytes per block when compressing in parallel. */
+		static private final int BLOCK_SIZE = 128 * 1024;
+		/** Size of the deflate window, the maximum useful size of a dictionary. */
+		static private final int WINDOW_SIZE = 32 * 1024;
+		static private final boolean syncFlush;
+		static {
+			boolean supported;
+			try {
+				Deflater.class.getMethod("deflate", byte[].class, int.class, int.class, int.class);
+				supported = true;
+			} catch (Exception ex) {
+				supported = false;
+			}
+			syncFlush = supported;
+		}
 
 		private final ChunkBuffer buffer;
 		private final Deflater deflater;
 		private ByteArray lineOutBytes, curLineBytes, prevLineBytes;
-		private boolean flipY = true;
+		private boolean flipY = true, adaptiveFilter;
 		private int lastLineLen;
+		private int compression = Deflater.DEFAULT_COMPRESSION;
+		private int threads = 1;
+		private AsyncExecutor executor;
+		private boolean ownsExecutor;
+		private final Array<Block> blocks = new Array();
 
 		public PNG () {
 			this(128 * 128);
@@ -208,6 +245,38 @@ public class PixmapIO {
 		/** Sets the deflate compression level. Default is {@link Deflater#DEFAULT_COMPRESSION}. */
 		public void setCompression (int level) {
 			deflater.setLevel(level);
+			compression = level;
+		}
+
+		/** If true, each row is filtered with the PNG filter that is expected to compress best, which usually results in smaller
+		 * files but takes longer. If false, the Paeth filter is used for all rows. Default is false. */
+		public void setAdaptiveFilter (boolean adaptiveFilter) {
+			this.adaptiveFilter = adaptiveFilter;
+		}
+
+		/** Sets the number of threads used to filter and compress images. When more than 1, images larger than 128KB are split into
+		 * blocks of rows that are compressed independently and concatenated into a single deflate stream, using the end of the
+		 * previous block as the dictionary. The output is slightly larger than with a single thread. Threads are only used if
+		 * {@link Deflater} supports SYNC_FLUSH (Java 7, Android API 19). The threads are created when first needed and kept until
+		 * this PNG is disposed, so the same PNG should be used to write many images. Default is 1. */
+		public void setThreads (int threads) {
+			if (threads < 1) throw new IllegalArgumentException("threads must be > 0: " + threads);
+			if (threads == this.threads) return;
+			this.threads = threads;
+			disposeExecutor();
+		}
+
+		/** Uses the executor to compress with the specified number of threads. The executor is not disposed by this PNG. */
+		void setExecutor (AsyncExecutor executor, int threads) {
+			disposeExecutor();
+			this.threads = threads;
+			this.executor = executor;
+		}
+
+		private void disposeExecutor () {
+			if (ownsExecutor) executor.dispose();
+			ownsExecutor = false;
+			executor = null;
 		}
 
 		public void write (FileHandle file, Pixmap pixmap) throws IOException {
@@ -221,7 +290,6 @@ public class PixmapIO {
 
 		/** Writes the pixmap to the stream without closing the stream. */
 		public void write (OutputStream output, Pixmap pixmap) throws IOException {
-			DeflaterOutputStream deflaterOutput = new DeflaterOutputStream(buffer, deflater);
 			DataOutputStream dataOutput = new DataOutputStream(output);
 			dataOutput.write(SIGNATURE);
 
@@ -235,17 +303,31 @@ public class PixmapIO {
 			buffer.writeByte(INTERLACE_NONE);
 			buffer.endChunk(dataOutput);
 
+			int rowsPerBlock = Math.max(1, BLOCK_SIZE / (pixmap.getWidth() * 4 + 1));
+			if (threads > 1 && syncFlush && pixmap.getHeight() > rowsPerBlock)
+				writeParallel(dataOutput, pixmap, rowsPerBlock);
+			else
+				writeSerial(dataOutput, pixmap);
+
+			buffer.writeInt(IEND);
+			buffer.endChunk(dataOutput);
+
+			output.flush();
+		}
+
+		private void writeSerial (DataOutputStream dataOutput, Pixmap pixmap) throws IOException {
+			DeflaterOutputStream deflaterOutput = new DeflaterOutputStream(buffer, deflater);
 			buffer.writeInt(IDAT);
 			deflater.reset();
 
 			int lineLen = pixmap.getWidth() * 4;
 			byte[] lineOut, curLine, prevLine;
 			if (lineOutBytes == null) {
-				lineOut = (lineOutBytes = new ByteArray(lineLen)).items;
+				lineOut = (lineOutBytes = new ByteArray(lineLen + 1)).items;
 				curLine = (curLineBytes = new ByteArray(lineLen)).items;
 				prevLine = (prevLineBytes = new ByteArray(lineLen)).items;
 			} else {
-				lineOut = lineOutBytes.ensureCapacity(lineLen);
+				lineOut = lineOutBytes.ensureCapacity(lineLen + 1);
 				curLine = curLineBytes.ensureCapacity(lineLen);
 				prevLine = prevLineBytes.ensureCapacity(lineLen);
 				for (int i = 0, n = lastLineLen; i < n; i++)
@@ -257,45 +339,9 @@ public class PixmapIO {
 			int oldPosition = pixels.position();
 			boolean rgba8888 = pixmap.getFormat() == Format.RGBA8888;
 			for (int y = 0, h = pixmap.getHeight(); y < h; y++) {
-				int py = flipY ? (h - y - 1) : y;
-				if (rgba8888) {
-					pixels.position(py * lineLen);
-					pixels.get(curLine, 0, lineLen);
-				} else {
-					for (int px = 0, x = 0; px < pixmap.getWidth(); px++) {
-						int pixel = pixmap.getPixel(px, py);
-						curLine[x++] = (byte)((pixel >> 24) & 0xff);
-						curLine[x++] = (byte)((pixel >> 16) & 0xff);
-						curLine[x++] = (byte)((pixel >> 8) & 0xff);
-						curLine[x++] = (byte)(pixel & 0xff);
-					}
-				}
-
-				lineOut[0] = (byte)(curLine[0] - prevLine[0]);
-				lineOut[1] = (byte)(curLine[1] - prevLine[1]);
-				lineOut[2] = (byte)(curLine[2] - prevLine[2]);
-				lineOut[3] = (byte)(curLine[3] - prevLine[3]);
-
-				for (int x = 4; x < lineLen; x++) {
-					int a = curLine[x - 4] & 0xff;
-					int b = prevLine[x] & 0xff;
-					int c = prevLine[x - 4] & 0xff;
-					int p = a + b - c;
-					int pa = p - a;
-					if (pa < 0) pa = -pa;
-					int pb = p - b;
-					if (pb < 0) pb = -pb;
-					int pc = p - c;
-					if (pc < 0) pc = -pc;
-					if (pa <= pb && pa <= pc)
-						c = a;
-					else if (pb <= pc) //
-						c = b;
-					lineOut[x] = (byte)(curLine[x] - c);
-				}
-
-				deflaterOutput.write(PAETH);
-				deflaterOutput.write(lineOut, 0, lineLen);
+				readLine(pixmap, pixels, rgba8888, flipY ? (h - y - 1) : y, curLine);
+				filterLine(curLine, prevLine, lineLen, lineOut, 0, adaptiveFilter);
+				deflaterOutput.write(lineOut, 0, lineLen + 1);
 
 				byte[] temp = curLine;
 				curLine = prevLine;
@@ -304,17 +350,277 @@ public class PixmapIO {
 			pixels.position(oldPosition);
 			deflaterOutput.finish();
 			buffer.endChunk(dataOutput);
+		}
 
-			buffer.writeInt(IEND);
-			buffer.endChunk(dataOutput);
+		/** Compresses blocks of rows on the executor threads and writes each block as an IDAT chunk, in order. */
+		private void writeParallel (DataOutputStream dataOutput, Pixmap pixmap, int rowsPerBlock) throws IOException {
+			if (executor == null) {
+				executor = new AsyncExecutor(threads);
+				ownsExecutor = true;
+			}
 
-			output.flush();
+			int height = pixmap.getHeight();
+			int blockCount = (height + rowsPerBlock - 1) / rowsPerBlock;
+			int inFlight = Math.min(blockCount, threads * 2);
+			while (blocks.size < inFlight)
+				blocks.add(new Block());
+			AsyncResult[] results = new AsyncResult[inFlight];
+
+			ByteBuffer pixels = pixmap.getPixels();
+			int lineLen = pixmap.getWidth() * 4;
+			int dictionaryRows = Math.min((WINDOW_SIZE + lineLen) / (lineLen + 1), rowsPerBlock);
+			int submitted = 0, written = 0;
+			try {
+				for (; submitted < inFlight; submitted++) {
+					Block block = blocks.get(submitted);
+					block.set(pixmap, pixels, flipY, adaptiveFilter, compression, submitted * rowsPerBlock,
+						Math.min(height, (submitted + 1) * rowsPerBlock), dictionaryRows, submitted == blockCount - 1);
+					results[submitted] = executor.submit(block);
+				}
+
+				long adler = 1;
+				for (; written < blockCount; written++) {
+					int index = written % inFlight;
+					results[index].get();
+					Block block = blocks.get(index);
+
+					buffer.writeInt(IDAT);
+					if (written == 0) {
+						// zlib header.
+						int level = compression == Deflater.DEFAULT_COMPRESSION ? 6 : compression;
+						int flags = (level < 2 ? 0 : level < 6 ? 1 : level == 6 ? 2 : 3) << 6;
+						flags += (31 - ((0x78 << 8) | flags) % 31) % 31;
+						buffer.writeByte(0x78);
+						buffer.writeByte(flags);
+					}
+					buffer.write(block.output.items, 0, block.output.size);
+					adler = combineAdler32(adler, block.adler, block.length);
+					if (written == blockCount - 1) buffer.writeInt((int)adler);
+					buffer.endChunk(dataOutput);
+
+					if (submitted < blockCount) {
+						block.set(pixmap, pixels, flipY, adaptiveFilter, compression, submitted * rowsPerBlock,
+							Math.min(height, (submitted + 1) * rowsPerBlock), dictionaryRows, submitted == blockCount - 1);
+						results[index] = executor.submit(block);
+						submitted++;
+					}
+				}
+			} finally {
+				// Blocks must not be reused while they are still being compressed.
+				for (; written < submitted; written++) {
+					try {
+						results[written % inFlight].get();
+					} catch (Exception ignored) {
+					}
+				}
+			}
 		}
 
 		/** Disposal will happen automatically in {@link #finalize()} but can be done explicitly if desired. */
 		@SuppressWarnings("javadoc")
 		public void dispose () {
 			deflater.end();
+			disposeExecutor();
+			for (int i = 0, n = blocks.size; i < n; i++)
+				blocks.get(i).deflater.end();
+			blocks.clear();
+		}
+
+		/** Reads the RGBA8888 pixels of a row of the pixmap. */
+		static void readLine (Pixmap pixmap, ByteBuffer pixels, boolean rgba8888, int y, byte[] line) {
+			if (rgba8888) {
+				int lineLen = pixmap.getWidth() * 4;
+				pixels.position(y * lineLen);
+				pixels.get(line, 0, lineLen);
+			} else {
+				for (int px = 0, x = 0; px < pixmap.getWidth(); px++) {
+					int pixel = pixmap.getPixel(px, y);
+					line[x++] = (byte)((pixel >> 24) & 0xff);
+					line[x++] = (byte)((pixel >> 16) & 0xff);
+					line[x++] = (byte)((pixel >> 8) & 0xff);
+					line[x++] = (byte)(pixel & 0xff);
+				}
+			}
+		}
+
+		/** Writes the filter type followed by the filtered row to the output. If adaptive, the filter with the smallest sum of
+		 * absolute differences is chosen, otherwise Paeth is used. */
+		static void filterLine (byte[] curLine, byte[] prevLine, int lineLen, byte[] out, int offset, boolean adaptive) {
+			byte filter = FILTER_PAETH;
+			if (adaptive) {
+				int none = 0, sub = 0, up = 0, average = 0, paeth = 0;
+				for (int x = 0; x < lineLen; x++) {
+					int value = curLine[x];
+					int a = x < 4 ? 0 : curLine[x - 4] & 0xff;
+					int b = prevLine[x] & 0xff;
+					int c = x < 4 ? 0 : prevLine[x - 4] & 0xff;
+					none += Math.abs((byte)value);
+					sub += Math.abs((byte)(value - a));
+					up += Math.abs((byte)(value - b));
+					average += Math.abs((byte)(value - ((a + b) >> 1)));
+					paeth += Math.abs((byte)(value - paethPredictor(a, b, c)));
+				}
+				int best = paeth;
+				if (none < best) {
+					best = none;
+					filter = FILTER_NONE;
+				}
+				if (sub < best) {
+					best = sub;
+					filter = FILTER_SUB;
+				}
+				if (up < best) {
+					best = up;
+					filter = FILTER_UP;
+				}
+				if (average < best) filter = FILTER_AVERAGE;
+			}
+
+			out[offset++] = filter;
+			switch (filter) {
+			case FILTER_NONE:
+				System.arraycopy(curLine, 0, out, offset, lineLen);
+				break;
+			case FILTER_SUB:
+				for (int x = 0; x < 4; x++)
+					out[offset + x] = curLine[x];
+				for (int x = 4; x < lineLen; x++)
+					out[offset + x] = (byte)(curLine[x] - curLine[x - 4]);
+				break;
+			case FILTER_UP:
+				for (int x = 0; x < lineLen; x++)
+					out[offset + x] = (byte)(curLine[x] - prevLine[x]);
+				break;
+			case FILTER_AVERAGE:
+				for (int x = 0; x < 4; x++)
+					out[offset + x] = (byte)(curLine[x] - ((prevLine[x] & 0xff) >> 1));
+				for (int x = 4; x < lineLen; x++)
+					out[offset + x] = (byte)(curLine[x] - (((curLine[x - 4] & 0xff) + (prevLine[x] & 0xff)) >> 1));
+				break;
+			default:
+				for (int x = 0; x < 4; x++)
+					out[offset + x] = (byte)(curLine[x] - prevLine[x]);
+				for (int x = 4; x < lineLen; x++)
+					out[offset + x] = (byte)(curLine[x] - paethPredictor(curLine[x - 4] & 0xff, prevLine[x] & 0xff, prevLine[x - 4] & 0xff));
+			}
+		}
+
+		static private int paethPredictor (int a, int b, int c) {
+			int p = a + b - c;
+			int pa = p - a;
+			if (pa < 0) pa = -pa;
+			int pb = p - b;
+			if (pb < 0) pb = -pb;
+			int pc = p - c;
+			if (pc < 0) pc = -pc;
+			if (pa <= pb && pa <= pc) return a;
+			if (pb <= pc) return b;
+			return c;
+		}
+
+		/** Returns the Adler-32 checksum of two concatenated sequences of bytes from the checksums of each sequence.
+		 * @param length2 The length of the second sequence. */
+		static long combineAdler32 (long adler1, long adler2, long length2) {
+			final long base = 65521;
+			long remainder = length2 % base;
+			long sum1 = adler1 & 0xffff;
+			long sum2 = (remainder * sum1) % base;
+			sum1 += (adler2 & 0xffff) + base - 1;
+			sum2 += ((adler1 >> 16) & 0xffff) + ((adler2 >> 16) & 0xffff) + base - remainder;
+			if (sum1 >= base) sum1 -= base;
+			if (sum1 >= base) sum1 -= base;
+			if (sum2 >= base << 1) sum2 -= base << 1;
+			if (sum2 >= base) sum2 -= base;
+			return sum1 | (sum2 << 16);
+		}
+
+		/** Filters and compresses a block of rows to a raw deflate stream that can be concatenated with the streams of the other
+		 * blocks. Buffers are reused for the next block. */
+		static class Block implements AsyncTask<Void> {
+			Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+			int deflaterLevel = Deflater.DEFAULT_COMPRESSION;
+			final Adler32 adler32 = new Adler32();
+			final ByteArray input = new ByteArray(), output = new ByteArray(), curLine = new ByteArray(), prevLine = new ByteArray();
+			Pixmap pixmap;
+			ByteBuffer pixels;
+			boolean flipY, adaptiveFilter, last;
+			int compression, startRow, endRow, dictionaryRows;
+			/** Checksum and length of the uncompressed block, set by {@link #call()}. */
+			long adler;
+			int length;
+
+			void set (Pixmap pixmap, ByteBuffer pixels, boolean flipY, boolean adaptiveFilter, int compression, int startRow,
+				int endRow, int dictionaryRows, boolean last) {
+				this.pixmap = pixmap;
+				// Each block needs its own position in the pixels.
+				this.pixels = pixels.duplicate();
+				this.flipY = flipY;
+				this.adaptiveFilter = adaptiveFilter;
+				this.compression = compression;
+				this.startRow = startRow;
+				this.endRow = endRow;
+				this.dictionaryRows = dictionaryRows;
+				this.last = last;
+			}
+
+			public Void call () {
+				int height = pixmap.getHeight(), lineLen = pixmap.getWidth() * 4, rowLen = lineLen + 1;
+				boolean rgba8888 = pixmap.getFormat() == Format.RGBA8888;
+
+				// The rows before the block are filtered again to be used as the dictionary.
+				int firstRow = Math.max(0, startRow - dictionaryRows);
+				byte[] input = this.input.setSize((endRow - firstRow) * rowLen);
+				byte[] curLine = this.curLine.setSize(lineLen), prevLine = this.prevLine.setSize(lineLen);
+				if (firstRow == 0) {
+					for (int i = 0; i < lineLen; i++)
+						prevLine[i] = 0;
+				} else
+					readLine(pixmap, pixels, rgba8888, flipY ? height - firstRow : firstRow - 1, prevLine);
+				for (int y = firstRow, offset = 0; y < endRow; y++, offset += rowLen) {
+					readLine(pixmap, pixels, rgba8888, flipY ? height - y - 1 : y, curLine);
+					filterLine(curLine, prevLine, lineLen, input, offset, adaptiveFilter);
+					byte[] temp = curLine;
+					curLine = prevLine;
+					prevLine = temp;
+				}
+				pixmap = null;
+				pixels = null;
+
+				int start = (startRow - firstRow) * rowLen;
+				length = (endRow - startRow) * rowLen;
+				adler32.reset();
+				adler32.update(input, start, length);
+				adler = adler32.getValue();
+
+				if (deflaterLevel != compression) {
+					// A new deflater is used rather than changing the level, which could emit a block before the dictionary is used.
+					deflater.end();
+					deflater = new Deflater(compression, true);
+					deflaterLevel = compression;
+				}
+				Deflater deflater = this.deflater;
+				deflater.reset();
+				int dictionaryLength = Math.min(start, WINDOW_SIZE);
+				if (dictionaryLength > 0) deflater.setDictionary(input, start - dictionaryLength, dictionaryLength);
+				deflater.setInput(input, start, length);
+				if (last) deflater.finish();
+
+				ByteArray output = this.output;
+				output.size = 0;
+				output.ensureCapacity(length / 2 + 64);
+				while (true) {
+					int available = output.items.length - output.size;
+					if (last)
+						output.size += deflater.deflate(output.items, output.size, available);
+					else {
+						// Sync flush ends the block on a byte boundary without marking it as the final block.
+						output.size += deflater.deflate(output.items, output.size, available, Deflater.SYNC_FLUSH);
+					}
+					if (last ? deflater.finished() : output.size < output.items.length) break;
+					output.ensureCapacity(Math.max(output.items.length >> 1, 64));
+				}
+				return null;
+			}
 		}
 
 		static class ChunkBuffer extends DataOutputStream {
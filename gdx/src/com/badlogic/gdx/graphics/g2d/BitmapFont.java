@@ -458,6 +458,9 @@ public class BitmapFont implements Disposable {
 		public final Glyph[][] glyphs = new Glyph[PAGES][];
 		/** The glyph to display for characters not in the font. May be null. */
 		public Glyph missingGlyph;
+		/** Incremented by fonts that replace or remove glyphs after they were looked up, eg when a glyph rasterized in the
+		 * background replaces the missing glyph. {@link GlyphLayout} doesn't reuse glyphs looked up before the last change. */
+		public int glyphsVersion;
 
 		/** The width of the space character. */
 		public float spaceXadvance;
@@ -39,6 +39,8 @@ public class BitmapFontCache {
 	private boolean integer;
 	private final Array<GlyphLayout> layouts = new Array();
 	private final Array<GlyphLayout> pooledLayouts = new Array();
+	/** Layouts from a previous {@link #clear()}, in reverse order, reused so similar text can be relayed out incrementally. */
+	private final Array<GlyphLayout> reusableLayouts = new Array();
 	private int glyphCount;
 	private float x, y;
 	private final Color color = new Color(1, 1, 1, 1);
@@ -287,11 +289,15 @@ public class BitmapFontCache {
 		setColors(color);
 	}
 
-	/** Removes all glyphs in the cache. */
+	/** Removes all glyphs in the cache. The layouts returned by the addText and setText methods are kept by the cache and reused
+	 * for the next text added, so changing text that shares a prefix with the previous text doesn't require a full relayout. */
 	public void clear () {
 		x = 0;
 		y = 0;
-		Pools.freeAll(pooledLayouts, true);
+		Pools.freeAll(reusableLayouts, true);
+		reusableLayouts.clear();
+		for (int i = pooledLayouts.size - 1; i >= 0; i--)
+			reusableLayouts.add(pooledLayouts.get(i));
 		pooledLayouts.clear();
 		layouts.clear();
 		for (int i = 0, n = idx.length; i < n; i++) {
@@ -499,7 +505,7 @@ public class BitmapFontCache {
 	 * @return The glyph layout for the cached string (the layout's height is the distance from y to the baseline). */
 	public GlyphLayout addText (CharSequence str, float x, float y, int start, int end, float targetWidth, int halign,
 		boolean wrap, String truncate) {
-		GlyphLayout layout = Pools.obtain(GlyphLayout.class);
+		GlyphLayout layout = reusableLayouts.size > 0 ? reusableLayouts.pop() : Pools.obtain(GlyphLayout.class);
 		pooledLayouts.add(layout);
 		layout.setText(font, str, start, end, color, targetWidth, halign, wrap, truncate);
 		addText(layout, x, y);
@@ -22,12 +22,17 @@ import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
 import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
 import com.badlogic.gdx.utils.Align;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.CharArray;
 import com.badlogic.gdx.utils.FloatArray;
 import com.badlogic.gdx.utils.Pool;
 import com.badlogic.gdx.utils.Pool.Poolable;
 import com.badlogic.gdx.utils.Pools;
 
 /** Stores {@link GlyphRun runs} of glyphs for a piece of text. The text may contain newlines and color markup tags.
+ * <p>
+ * When text is set that is a single line without markup, wrapping or truncation and the previous text set on this layout was
+ * also such a line for the same font and color, only the glyphs after the characters the two texts have in common are looked
+ * up again. This makes frequently changing labels such as timers and scores cheap to relayout.
  * @author Nathan Sweet
  * @author davebaol
  * @author Alexander Dorokhov */
@@ -37,6 +42,13 @@ public class GlyphLayout implements Poolable {
 
 	private final Array<Color> colorStack = new Array(4);
 
+	// State for incremental relayout, valid when lastFontData is not null.
+	private BitmapFontData lastFontData;
+	private float lastScaleX;
+	private int lastGlyphsVersion;
+	private final Color lastColor = new Color();
+	private final CharArray lastText = new CharArray();
+
 	/** Creates an empty GlyphLayout. */
 	public GlyphLayout () {
 	}
@@ -88,6 +100,12 @@ public class GlyphLayout implements Poolable {
 			wrap = false; // Avoid one line per character, which is very inefficient.
 
 		boolean markupEnabled = fontData.markupEnabled;
+		int glyphsVersion = fontData.glyphsVersion; // Before any glyphs are looked up, which may change it.
+
+		boolean single = !wrap && isSingleLine(str, start, end, markupEnabled);
+		if (single && setTextIncremental(fontData, str, start, end, color, targetWidth, halign)) return;
+		lastFontData = null;
+		int textStart = start, textEnd = end;
 
 		Pool<GlyphRun> glyphRunPool = Pools.get(GlyphRun.class);
 		Array<GlyphRun> runs = this.runs;
@@ -303,6 +321,79 @@ public class GlyphLayout implements Poolable {
 
 		this.width = width;
 		this.height = fontData.capHeight - lines * fontData.down - blankLines * fontData.down * fontData.blankLineScale;
+
+		if (single && runs.size == 1 && runs.first().glyphs.size == textEnd - textStart)
+			storeLastText(fontData, glyphsVersion, str, textStart, textEnd, runs.first().color);
+	}
+
+	/** Returns true if the text has no newlines and, when markup is enabled, no square brackets. */
+	private boolean isSingleLine (CharSequence str, int start, int end, boolean markupEnabled) {
+		for (int i = start; i < end; i++) {
+			char ch = str.charAt(i);
+			if (ch == '\n' || (ch == '[' && markupEnabled)) return false;
+		}
+		return true;
+	}
+
+	/** Relayouts the single run from the previous text, keeping the glyphs for the characters both texts start with.
+	 * @return false if the previous layout can't be reused. */
+	private boolean setTextIncremental (BitmapFontData fontData, CharSequence str, int start, int end, Color color,
+		float targetWidth, int halign) {
+		if (lastFontData != fontData || lastGlyphsVersion != fontData.glyphsVersion || lastScaleX != fontData.scaleX
+			|| !lastColor.equals(color) || runs.size != 1) return false;
+		int glyphsVersion = fontData.glyphsVersion;
+
+		// Find the number of leading characters shared with the previous text, each of which has exactly one glyph.
+		char[] lastChars = lastText.items;
+		int common = 0, n = Math.min(lastText.size, end - start);
+		while (common < n && lastChars[common] == str.charAt(start + common))
+			common++;
+		if (common == 0) return false;
+
+		GlyphRun run = runs.first();
+		run.glyphs.truncate(common);
+		run.xAdvances.truncate(common);
+		run.width = 0;
+		fontData.getGlyphs(run, str, start + common, end, run.glyphs.peek());
+		if (run.glyphs.size != end - start) // Missing glyphs, the next relayout can't map characters to glyphs.
+			lastFontData = null;
+		else {
+			lastGlyphsVersion = glyphsVersion;
+			lastText.size = common;
+			for (int i = start + common; i < end; i++)
+				lastText.add(str.charAt(i));
+		}
+
+		float[] xAdvances = run.xAdvances.items;
+		float runWidth = 0;
+		for (int i = 0, nn = run.xAdvances.size; i < nn; i++)
+			runWidth += xAdvances[i];
+		run.width = runWidth;
+		run.x = 0;
+		run.y = 0;
+
+		// Align to center or right of targetWidth.
+		if ((halign & Align.left) == 0) {
+			float shift = targetWidth - runWidth;
+			if ((halign & Align.center) != 0) shift /= 2;
+			run.x = shift;
+		}
+
+		this.width = runWidth;
+		this.height = fontData.capHeight;
+		return true;
+	}
+
+	private void storeLastText (BitmapFontData fontData, int glyphsVersion, CharSequence str, int start, int end, Color color) {
+		lastFontData = fontData;
+		lastGlyphsVersion = glyphsVersion;
+		lastScaleX = fontData.scaleX;
+		lastColor.set(color);
+		CharArray lastText = this.lastText;
+		lastText.clear();
+		lastText.ensureCapacity(end - start);
+		for (int i = start; i < end; i++)
+			lastText.add(str.charAt(i));
 	}
 
 	/** @param truncate May be empty string. */
@@ -475,6 +566,7 @@ public class GlyphLayout implements Poolable {
 	public void reset () {
 		Pools.get(GlyphRun.class).freeAll(runs);
 		runs.clear();
+		lastFontData = null;
 
 		width = 0;
 		height = 0;
@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.graphics.g2d;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.CharArray;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/** Caches {@link GlyphLayout layouts} by font, text, color, target width, alignment, wrapping and truncation, so text that is
+ * laid out repeatedly with the same parameters is only laid out once. Layouts made before the font's
+ * {@link BitmapFontData#glyphsVersion glyphs changed} are not returned. The least recently used layout is evicted when the cache
+ * is full and reused for the next layout, which avoids allocation and, for text similar to the evicted text, allows an
+ * incremental relayout.
+ * <p>
+ * Layouts returned by this cache are owned by it and must not be modified or freed. A returned layout is only valid until a
+ * later call to a get method evicts it. */
+public class GlyphLayoutCache {
+	private final int maxSize;
+	private final ObjectMap<Key, Key> entries;
+	private final Key lookup = new Key();
+	/** Most recently used entry, the head of a doubly linked list through {@link Key#previous} and {@link Key#next}. */
+	private Key head, tail;
+	private int hits, misses;
+
+	/** Creates a cache that holds up to 256 layouts. */
+	public GlyphLayoutCache () {
+		this(256);
+	}
+
+	public GlyphLayoutCache (int maxSize) {
+		if (maxSize < 1) throw new IllegalArgumentException("maxSize must be > 0: " + maxSize);
+		this.maxSize = maxSize;
+		entries = new ObjectMap(maxSize * 2);
+	}
+
+	/** Returns a layout for the whole string using the font's current color and no alignment or wrapping.
+	 * @see #get(BitmapFont, CharSequence, int, int, Color, float, int, boolean, String) */
+	public GlyphLayout get (BitmapFont font, CharSequence str) {
+		return get(font, str, 0, str.length(), font.getColor(), 0, Align.left, false, null);
+	}
+
+	/** Returns a layout for the whole string with no truncation.
+	 * @see #get(BitmapFont, CharSequence, int, int, Color, float, int, boolean, String) */
+	public GlyphLayout get (BitmapFont font, CharSequence str, Color color, float targetWidth, int halign, boolean wrap) {
+		return get(font, str, 0, str.length(), color, targetWidth, halign, wrap, null);
+	}
+
+	/** Returns a cached layout for the specified parameters, laying out the text if it is not cached. The parameters are the same
+	 * as for {@link GlyphLayout#setText(BitmapFont, CharSequence, int, int, Color, float, int, boolean, String)}. */
+	public GlyphLayout get (BitmapFont font, CharSequence str, int start, int end, Color color, float targetWidth, int halign,
+		boolean wrap, String truncate) {
+		Key lookup = this.lookup;
+		lookup.set(font, str, start, end, color, targetWidth, halign, wrap, truncate);
+		Key entry = entries.get(lookup);
+		lookup.str = null;
+		if (entry != null) {
+			hits++;
+			moveToHead(entry);
+			return entry.layout;
+		}
+		misses++;
+
+		if (entries.size >= maxSize) {
+			// Reuse the least recently used entry.
+			entry = tail;
+			entries.remove(entry);
+			unlink(entry);
+		} else
+			entry = new Key();
+		entry.set(font, str, start, end, color, targetWidth, halign, wrap, truncate);
+		entry.storeText();
+		entry.layout.setText(font, str, start, end, color, targetWidth, halign, wrap, truncate);
+		entries.put(entry, entry);
+		moveToHead(entry);
+		return entry.layout;
+	}
+
+	/** Removes all layouts from the cache. */
+	public void clear () {
+		for (Key entry = head; entry != null; entry = entry.next)
+			entry.layout.reset();
+		entries.clear();
+		head = null;
+		tail = null;
+	}
+
+	/** Returns the number of layouts in the cache. */
+	public int getSize () {
+		return entries.size;
+	}
+
+	public int getMaxSize () {
+		return maxSize;
+	}
+
+	/** Returns the number of get calls that returned a cached layout since the last {@link #resetStatistics()}. */
+	public int getHits () {
+		return hits;
+	}
+
+	/** Returns the number of get calls that required a layout since the last {@link #resetStatistics()}. */
+	public int getMisses () {
+		return misses;
+	}
+
+	public void resetStatistics () {
+		hits = 0;
+		misses = 0;
+	}
+
+	private void moveToHead (Key entry) {
+		if (head == entry) return;
+		unlink(entry);
+		entry.next = head;
+		if (head != null) head.previous = entry;
+		head = entry;
+		if (tail == null) tail = entry;
+	}
+
+	private void unlink (Key entry) {
+		if (entry.previous != null) entry.previous.next = entry.next;
+		if (entry.next != null) entry.next.previous = entry.previous;
+		if (head == entry) head = entry.next;
+		if (tail == entry) tail = entry.previous;
+		entry.previous = null;
+		entry.next = null;
+	}
+
+	/** A cache entry, which is also used as the key for lookups. For lookups the text is referenced, for entries in the cache it
+	 * is copied. */
+	static private class Key {
+		BitmapFontData fontData;
+		int glyphsVersion;
+		float scaleX, scaleY;
+		int color, halign;
+		float targetWidth;
+		boolean wrap;
+		String truncate;
+		CharSequence str;
+		int start, end;
+		final CharArray text = new CharArray();
+		int hashCode;
+
+		final GlyphLayout layout = new GlyphLayout();
+		Key previous, next;
+
+		void set (BitmapFont font, CharSequence str, int start, int end, Color color, float targetWidth, int halign, boolean wrap,
+			String truncate) {
+			fontData = font.data;
+			glyphsVersion = fontData.glyphsVersion;
+			scaleX = fontData.scaleX;
+			scaleY = fontData.scaleY;
+			this.color = Color.rgba8888(color);
+			this.targetWidth = targetWidth;
+			this.halign = halign;
+			this.wrap = wrap;
+			this.truncate = truncate;
+			this.str = str;
+			this.start = start;
+			this.end = end;
+
+			int h = 31 + System.identityHashCode(fontData);
+			h = 31 * h + glyphsVersion;
+			h = 31 * h + Float.floatToIntBits(scaleX);
+			h = 31 * h + this.color;
+			h = 31 * h + Float.floatToIntBits(targetWidth);
+			h = 31 * h + halign;
+			for (int i = start; i < end; i++)
+				h = 31 * h + str.charAt(i);
+			hashCode = h;
+		}
+
+		/** Copies the referenced text so the key remains valid after the text changes. */
+		void storeText () {
+			CharArray text = this.text;
+			text.clear();
+			text.ensureCapacity(end - start);
+			for (int i = start; i < end; i++)
+				text.add(str.charAt(i));
+			str = null;
+		}
+
+		int length () {
+			return str != null ? end - start : text.size;
+		}
+
+		char charAt (int index) {
+			return str != null ? str.charAt(start + index) : text.items[index];
+		}
+
+		public int hashCode () {
+			return hashCode;
+		}
+
+		public boolean equals (Object object) {
+			if (this == object) return true;
+			if (!(object instanceof Key)) return false;
+			Key other = (Key)object;
+			if (hashCode != other.hashCode || fontData != other.fontData || glyphsVersion != other.glyphsVersion
+				|| scaleX != other.scaleX || scaleY != other.scaleY || color != other.color || targetWidth != other.targetWidth || halign != other.halign || wrap != other.wrap)
+				return false;
+			if (truncate == null ? other.truncate != null : !truncate.equals(other.truncate)) return false;
+			int length = length();
+			if (length != other.length()) return false;
+			for (int i = 0; i < length; i++)
+				if (charAt(i) != other.charAt(i)) return false;
+			return true;
+		}
+	}
+}
@@ -16,11 +16,14 @@
 
 package com.badlogic.gdx.graphics.g2d;
 
+import java.nio.Buffer;
 import java.util.Arrays;
 import java.util.Comparator;
 
+import com.badlogic.gdx.Application.ApplicationType;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Pixmap.Blending;
 import com.badlogic.gdx.graphics.Pixmap.Format;
@@ -256,7 +259,7 @@ public class PixmapPacker implements Disposable {
 			Gdx.gl.glTexSubImage2D(page.texture.glTarget, 0, rectX, rectY, rectWidth, rectHeight, image.getGLFormat(),
 				image.getGLType(), image.getPixels());
 		} else
-			page.dirty = true;
+			page.setDirty(rectY - 1, rectY + rectHeight + 1);
 
 		page.image.setBlending(Blending.None);
 
@@ -448,6 +451,8 @@ public class PixmapPacker implements Disposable {
 		Texture texture;
 		final Array<String> addedRects = new Array();
 		boolean dirty;
+		/** The range of pixmap rows that have changed since the texture was last updated, valid when dirty is true. */
+		int dirtyTop, dirtyBottom;
 
 		/** Creates a new page filled with the color provided by the {@link PixmapPacker#getTransparentColor()} */
 		public Page (PixmapPacker packer) {
@@ -471,13 +476,29 @@ public class PixmapPacker implements Disposable {
 			return texture;
 		}
 
-		/** Creates the texture if it has not been created, else reuploads the entire page pixmap to the texture if the pixmap has
-		 * changed since this method was last called.
-		 * @return true if the texture was created or reuploaded. */
+		void setDirty (int top, int bottom) {
+			top = Math.max(top, 0);
+			bottom = Math.min(bottom, image.getHeight());
+			if (dirty) {
+				dirtyTop = Math.min(dirtyTop, top);
+				dirtyBottom = Math.max(dirtyBottom, bottom);
+			} else {
+				dirtyTop = top;
+				dirtyBottom = bottom;
+				dirty = true;
+			}
+		}
+
+		/** Creates the texture if it has not been created, else uploads the rows of the page pixmap that have changed since this
+		 * method was last called. If the texture uses mipmaps or on WebGL, the entire page pixmap is reuploaded.
+		 * @return true if the texture was created or updated. */
 		public boolean updateTexture (TextureFilter minFilter, TextureFilter magFilter, boolean useMipMaps) {
 			if (texture != null) {
 				if (!dirty) return false;
-				texture.load(texture.getTextureData());
+				if (texture.getTextureData().useMipMaps() || Gdx.app.getType() == ApplicationType.WebGL)
+					texture.load(texture.getTextureData());
+				else
+					uploadDirtyRows();
 			} else {
 				texture = new Texture(new PixmapTextureData(image, image.getFormat(), useMipMaps, false, true)) {
 					@Override
@@ -491,6 +512,20 @@ public class PixmapPacker implements Disposable {
 			dirty = false;
 			return true;
 		}
+
+		/** Uploads only the changed rows, rather than the whole page, so adding a small image to a large page is cheap. */
+		private void uploadDirtyRows () {
+			int width = image.getWidth(), rows = dirtyBottom - dirtyTop;
+			if (rows <= 0) return;
+			Buffer pixels = image.getPixels();
+			int bytesPerPixel = pixels.capacity() / (width * image.getHeight());
+			int position = pixels.position();
+			pixels.position(dirtyTop * width * bytesPerPixel);
+			texture.bind();
+			Gdx.gl.glPixelStorei(GL20.GL_UNPACK_ALIGNMENT, 1);
+			Gdx.gl.glTexSubImage2D(texture.glTarget, 0, 0, dirtyTop, width, rows, image.getGLFormat(), image.getGLType(), pixels);
+			pixels.position(position);
+		}
 	}
 
 	/** Choose the page and location for each rectangle.
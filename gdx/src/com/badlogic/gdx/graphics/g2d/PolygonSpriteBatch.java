@@ -129,7 +129,7 @@ public class PolygonSpriteBatch implements PolygonBatch {
 
 		Mesh.VertexDataType vertexDataType = Mesh.VertexDataType.VertexArray;
 		if (Gdx.gl30 != null) {
-			vertexDataType = VertexDataType.VertexBufferObjectWithVAO;
+			vertexDataType = VertexDataType.VertexBufferObjectStreaming;
 		}
 		mesh = new Mesh(vertexDataType, false, maxVertices, maxTriangles * 3,
 			new VertexAttribute(Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
@@ -29,6 +29,7 @@ import com.badlogic.gdx.math.Affine2;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.utils.NumberUtils;
+import com.badlogic.gdx.utils.Profiler;
 
 /** Draws batched quads using indices.
  * @see Batch
@@ -98,7 +99,7 @@ public class SpriteBatch implements Batch {
 		// 32767 is max vertex index, so 32767 / 4 vertices per sprite = 8191 sprites max.
 		if (size > 8191) throw new IllegalArgumentException("Can't have more than 8191 sprites per batch: " + size);
 
-		VertexDataType vertexDataType = (Gdx.gl30 != null) ? VertexDataType.VertexBufferObjectWithVAO : defaultVertexDataType;
+		VertexDataType vertexDataType = (Gdx.gl30 != null) ? VertexDataType.VertexBufferObjectStreaming : defaultVertexDataType;
 
 		mesh = new Mesh(vertexDataType, false, size * 4, size * 6,
 			new VertexAttribute(Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
@@ -950,29 +951,34 @@ public class SpriteBatch implements Batch {
 	@Override
 	public void flush () {
 		if (idx == 0) return;
+		Profiler.begin("SpriteBatch.flush");
+		try {
+			renderCalls++;
+			totalRenderCalls++;
+			int spritesInBatch = idx / 20;
+			if (spritesInBatch > maxSpritesInBatch) maxSpritesInBatch = spritesInBatch;
+			int count = spritesInBatch * 6;
+
+			lastTexture.bind();
+			Mesh mesh = this.mesh;
+			mesh.setVertices(vertices, 0, idx);
+			mesh.getIndicesBuffer().position(0);
+			mesh.getIndicesBuffer().limit(count);
+
+			if (blendingDisabled) {
+				Gdx.gl.glDisable(GL20.GL_BLEND);
+			} else {
+				Gdx.gl.glEnable(GL20.GL_BLEND);
+				if (blendSrcFunc != -1)
+					Gdx.gl.glBlendFuncSeparate(blendSrcFunc, blendDstFunc, blendSrcFuncAlpha, blendDstFuncAlpha);
+			}
 
-		renderCalls++;
-		totalRenderCalls++;
-		int spritesInBatch = idx / 20;
-		if (spritesInBatch > maxSpritesInBatch) maxSpritesInBatch = spritesInBatch;
-		int count = spritesInBatch * 6;
-
-		lastTexture.bind();
-		Mesh mesh = this.mesh;
-		mesh.setVertices(vertices, 0, idx);
-		mesh.getIndicesBuffer().position(0);
-		mesh.getIndicesBuffer().limit(count);
+			mesh.render(customShader != null ? customShader : shader, GL20.GL_TRIANGLES, 0, count);
 
-		if (blendingDisabled) {
-			Gdx.gl.glDisable(GL20.GL_BLEND);
-		} else {
-			Gdx.gl.glEnable(GL20.GL_BLEND);
-			if (blendSrcFunc != -1) Gdx.gl.glBlendFuncSeparate(blendSrcFunc, blendDstFunc, blendSrcFuncAlpha, blendDstFuncAlpha);
+			idx = 0;
+		} finally {
+			Profiler.end();
 		}
-
-		mesh.render(customShader != null ? customShader : shader, GL20.GL_TRIANGLES, 0, count);
-
-		idx = 0;
 	}
 
 	@Override
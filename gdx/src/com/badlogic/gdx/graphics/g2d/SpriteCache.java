@@ -176,8 +176,8 @@ public class SpriteCache implements Disposable {
 	}
 
 	/** Starts the redefinition of an existing cache, allowing the add and {@link #endCache()} methods to be called. If this is not
-	 * the last cache created, it cannot have more entries added to it than when it was first created. To do that, use
-	 * {@link #clear()} and then {@link #begin()}. */
+	 * the last cache created, it cannot have more entries added to it than when it was first created or than were reserved with
+	 * {@link #endCache(int)}. To do that, use {@link #clear()} and then {@link #begin()}. */
 	public void beginCache (int cacheID) {
 		if (drawing) throw new IllegalStateException("end must be called before beginCache");
 		if (currentCache != null) throw new IllegalStateException("endCache must be called before begin.");
@@ -185,19 +185,47 @@ public class SpriteCache implements Disposable {
 			Cache oldCache = caches.removeIndex(cacheID);
 			mesh.getVerticesBuffer().limit(oldCache.offset);
 			beginCache();
+			currentCache.reservedCount = oldCache.reservedCount;
 			return;
 		}
 		currentCache = caches.get(cacheID);
 		mesh.getVerticesBuffer().position(currentCache.offset);
 	}
 
-	/** Ends the definition of a cache, returning the cache ID to be used with {@link #draw(int)}. */
+	/** Ends the definition of a cache, returning the cache ID to be used with {@link #draw(int)}. If the cache is redefined, the
+	 * space reserved for it with {@link #endCache(int)} is kept. */
 	public int endCache () {
 		if (currentCache == null) throw new IllegalStateException("beginCache must be called before endCache.");
+		int verticesPerImage = mesh.getNumIndices() > 0 ? 4 : 6;
+		return endCache(currentCache.reservedCount / (verticesPerImage * VERTEX_SIZE));
+	}
+
+	/** Ends the definition of a cache, returning the cache ID to be used with {@link #draw(int)}. Space is reserved for at least
+	 * the specified number of images, so the cache can later be redefined with {@link #beginCache(int)} to contain up to that many
+	 * images even if it is not the last cache created.
+	 * <p>
+	 * The reservation of the last cache created is replaced each time it is redefined, so passing 0 releases the space it doesn't
+	 * use. The space reserved for other caches can't be changed and is only released by {@link #clear()}.
+	 * @throws GdxRuntimeException if there is not enough space, or if the cache is not the last cache created and more images are
+	 *            reserved than when it was first created. */
+	public int endCache (int reservedImages) {
+		if (currentCache == null) throw new IllegalStateException("beginCache must be called before endCache.");
+		if (reservedImages < 0) throw new IllegalArgumentException("reservedImages must be >= 0: " + reservedImages);
 		Cache cache = currentCache;
 		int cacheCount = mesh.getVerticesBuffer().position() - cache.offset;
+		int verticesPerImage = mesh.getNumIndices() > 0 ? 4 : 6;
+		int reservedCount = reservedImages * verticesPerImage * VERTEX_SIZE;
 		if (cache.textures == null) {
 			// New cache.
+			cache.reservedCount = reservedCount;
+			if (reservedCount > cacheCount) {
+				FloatBuffer vertices = mesh.getVerticesBuffer();
+				if (cache.offset + reservedCount > vertices.limit()) throw new GdxRuntimeException(
+					"Not enough space to reserve " + reservedImages + " images, available: "
+						+ (vertices.limit() - cache.offset) / (verticesPerImage * VERTEX_SIZE));
+				vertices.position(cache.offset + reservedCount);
+				cacheCount = reservedCount;
+			}
 			cache.maxCount = cacheCount;
 			cache.textureCount = textures.size;
 			cache.textures = textures.toArray(Texture.class);
@@ -213,6 +241,11 @@ public class SpriteCache implements Disposable {
 					"If a cache is not the last created, it cannot be redefined with more entries than when it was first created: "
 						+ cacheCount + " (" + cache.maxCount + " max)");
 			}
+			if (reservedCount > cache.maxCount) {
+				throw new GdxRuntimeException(
+					"If a cache is not the last created, it cannot reserve more space than when it was first created: "
+						+ reservedImages + " images (" + cache.maxCount / (verticesPerImage * VERTEX_SIZE) + " max)");
+			}
 
 			cache.textureCount = textures.size;
 
@@ -965,6 +998,8 @@ public class SpriteCache implements Disposable {
 		final int id;
 		final int offset;
 		int maxCount;
+		/** The space reserved with {@link SpriteCache#endCache(int)}, kept when the cache is redefined. */
+		int reservedCount;
 		int textureCount;
 		Texture[] textures;
 		int[] counts;
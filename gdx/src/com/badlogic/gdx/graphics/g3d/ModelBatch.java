@@ -31,6 +31,7 @@ import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.FlushablePool;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Profiler;
 
 /** Batches {@link Renderable} instances, fetches {@link Shader}s for them, sorts them and then renders them. Fetching the shaders
  * is done using a {@link ShaderProvider}, which defaults to {@link DefaultShaderProvider}. Sorting the renderables is done using
@@ -195,20 +196,25 @@ public class ModelBatch implements Disposable {
 	/** Flushes the batch, causing all {@link Renderable}s in the batch to be rendered. Can only be called after the call to
 	 * {@link #begin(Camera)} and before the call to {@link #end()}. */
 	public void flush () {
-		sorter.sort(camera, renderables);
-		Shader currentShader = null;
-		for (int i = 0; i < renderables.size; i++) {
-			final Renderable renderable = renderables.get(i);
-			if (currentShader != renderable.shader) {
-				if (currentShader != null) currentShader.end();
-				currentShader = renderable.shader;
-				currentShader.begin(camera, context);
+		Profiler.begin("ModelBatch.flush");
+		try {
+			sorter.sort(camera, renderables);
+			Shader currentShader = null;
+			for (int i = 0; i < renderables.size; i++) {
+				final Renderable renderable = renderables.get(i);
+				if (currentShader != renderable.shader) {
+					if (currentShader != null) currentShader.end();
+					currentShader = renderable.shader;
+					currentShader.begin(camera, context);
+				}
+				currentShader.render(renderable);
 			}
-			currentShader.render(renderable);
+			if (currentShader != null) currentShader.end();
+			renderablesPool.flush();
+			renderables.clear();
+		} finally {
+			Profiler.end();
 		}
-		if (currentShader != null) currentShader.end();
-		renderablesPool.flush();
-		renderables.clear();
 	}
 
 	/** End rendering one or more {@link Renderable}s. Must be called after a call to {@link #begin(Camera)}. This will flush the
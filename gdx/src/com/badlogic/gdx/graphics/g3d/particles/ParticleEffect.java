@@ -24,6 +24,7 @@ import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.TimeUtils;
 
 /** It's a set of particles controllers. It can be updated, rendered, transformed which means the changes will be applied on all
  * the particles controllers.
@@ -31,6 +32,7 @@ import com.badlogic.gdx.utils.Disposable;
 public class ParticleEffect implements Disposable, ResourceData.Configurable {
 	private Array<ParticleController> controllers;
 	private BoundingBox bounds;
+	long updateTime;
 
 	public ParticleEffect () {
 		controllers = new Array<ParticleController>(true, 3, ParticleController.class);
@@ -67,13 +69,23 @@ public class ParticleEffect implements Disposable, ResourceData.Configurable {
 	}
 
 	public void update () {
+		long start = TimeUtils.nanoTime();
 		for (int i = 0, n = controllers.size; i < n; i++)
 			controllers.get(i).update();
+		updateTime = TimeUtils.nanoTime() - start;
 	}
 
 	public void update (float deltaTime) {
+		long start = TimeUtils.nanoTime();
 		for (int i = 0, n = controllers.size; i < n; i++)
 			controllers.get(i).update(deltaTime);
+		updateTime = TimeUtils.nanoTime() - start;
+	}
+
+	/** Returns the time in nanoseconds the last update of the controllers took. When the effect was updated by a
+	 * {@link ParticleSystem} on multiple threads, this is the sum of the time taken by each controller. */
+	public long getUpdateTime () {
+		return updateTime;
 	}
 
 	public void draw () {
@@ -16,6 +16,8 @@
 
 package com.badlogic.gdx.graphics.g3d.particles;
 
+import java.util.Arrays;
+
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.g3d.particles.renderers.ParticleControllerRenderData;
 import com.badlogic.gdx.math.Matrix4;
@@ -144,6 +146,114 @@ public abstract class ParticleSorter {
 		}
 	}
 
+	/** This class will sort all the particles using the distance from camera, quantized to 16 bits and sorted with a radix sort in
+	 * linear time. Particles closer together than 1/65535 of the depth range of all particles may be drawn in either order.
+	 * <p>
+	 * The sort starts from the order of the previous frame and is stable, so particles at about the same depth keep their
+	 * relative order between frames instead of flickering. When that order is still correct, eg when the camera and particles
+	 * barely moved, no sorting is done. */
+	public static class RadixDistance extends ParticleSorter {
+		private float[] distances;
+		private int[] keys, keys2, order, order2, particleOffsets;
+		private final int[] counts = new int[512];
+		private int currentSize, previousCount;
+
+		@Override
+		public void ensureCapacity (int capacity) {
+			if (currentSize < capacity) {
+				distances = new float[capacity];
+				keys = new int[capacity];
+				keys2 = new int[capacity];
+				int[] newOrder = new int[capacity];
+				if (order != null) System.arraycopy(order, 0, newOrder, 0, previousCount);
+				order = newOrder;
+				order2 = new int[capacity];
+				particleOffsets = new int[capacity];
+				currentSize = capacity;
+			}
+		}
+
+		@Override
+		public <T extends ParticleControllerRenderData> int[] sort (Array<T> renderData) {
+			float[] val = camera.view.val;
+			float cx = val[Matrix4.M20], cy = val[Matrix4.M21], cz = val[Matrix4.M22];
+			float[] distances = this.distances;
+			float min = Float.POSITIVE_INFINITY, max = Float.NEGATIVE_INFINITY;
+			int count = 0;
+			for (ParticleControllerRenderData data : renderData) {
+				float[] positions = data.positionChannel.data;
+				int stride = data.positionChannel.strideSize;
+				for (int i = count, k = 0, c = count + data.controller.particles.size; i < c; ++i, k += stride) {
+					float distance = cx * positions[k + ParticleChannels.XOffset] + cy * positions[k + ParticleChannels.YOffset] + cz
+						* positions[k + ParticleChannels.ZOffset];
+					distances[i] = distance;
+					if (distance < min) min = distance;
+					if (distance > max) max = distance;
+				}
+				count += data.controller.particles.size;
+			}
+
+			// Start from the previous order, without particles that no longer exist and with new particles at the end.
+			int[] previousOrder = this.order, order = this.order2, keys = this.keys;
+			int n = 0;
+			for (int i = 0, previous = previousCount; i < previous; i++) {
+				int particle = previousOrder[i];
+				if (particle < count) order[n++] = particle;
+			}
+			for (int particle = previousCount; particle < count; particle++)
+				order[n++] = particle;
+			previousCount = count;
+
+			float scale = max > min ? 65535 / (max - min) : 0;
+			boolean sorted = true;
+			for (int i = 0, previous = 0; i < count; i++) {
+				int key = (int)((distances[order[i]] - min) * scale);
+				keys[i] = key;
+				if (key < previous) sorted = false;
+				previous = key;
+			}
+
+			if (!sorted) {
+				int[] counts = this.counts, keys2 = this.keys2, order2 = previousOrder;
+				Arrays.fill(counts, 0);
+				for (int i = 0; i < count; i++) {
+					int key = keys[i];
+					counts[key & 0xff]++;
+					counts[256 + (key >>> 8)]++;
+				}
+				for (int pass = 0, shift = 0; pass < 2; pass++, shift += 8) {
+					int offset = pass << 8;
+					if (counts[offset + (keys[0] >>> shift & 0xff)] == count) continue;
+					for (int i = offset, total = 0; i < offset + 256; i++) {
+						int c = counts[i];
+						counts[i] = total;
+						total += c;
+					}
+					for (int i = 0; i < count; i++) {
+						int key = keys[i], index = counts[offset + (key >>> shift & 0xff)]++;
+						keys2[index] = key;
+						order2[index] = order[i];
+					}
+					int[] temp = keys;
+					keys = keys2;
+					keys2 = temp;
+					temp = order;
+					order = order2;
+					order2 = temp;
+				}
+				this.keys = keys;
+				this.keys2 = keys2;
+			}
+			this.order2 = order == previousOrder ? this.order2 : previousOrder;
+			this.order = order;
+
+			int[] particleOffsets = this.particleOffsets;
+			for (int i = 0; i < count; i++)
+				particleOffsets[order[i]] = i;
+			return particleOffsets;
+		}
+	}
+
 	protected Camera camera;
 
 	/** @return an array of offsets where each particle should be put in the resulting mesh (also if more than one mesh will be
@@ -16,14 +16,25 @@
 
 package com.badlogic.gdx.graphics.g3d.particles;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g3d.Renderable;
 import com.badlogic.gdx.graphics.g3d.RenderableProvider;
 import com.badlogic.gdx.graphics.g3d.particles.batches.ParticleBatch;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
 
 /** Singleton class which manages the particle effects. It's a utility class to ease particle batches management and particle
  * effects update.
+ * <p>
+ * When an executor is {@link #setExecutor(AsyncExecutor, int) set}, the controllers of all effects are updated on its threads.
+ * Drawing always happens on the calling thread in the order the effects were added, so the batches receive the same render
+ * data as with a serial update. Controllers share {@link com.badlogic.gdx.math.MathUtils#random}, so random values are not
+ * reproducible with a parallel update.
  * @author inferno */
 public final class ParticleSystem implements RenderableProvider {
 	private static ParticleSystem instance;
@@ -37,6 +48,14 @@ public final class ParticleSystem implements RenderableProvider {
 	private Array<ParticleBatch<?>> batches;
 	private Array<ParticleEffect> effects;
 
+	private AsyncExecutor executor;
+	private int tasks;
+	private final Array<ParticleController> controllers = new Array<ParticleController>();
+	private long[] controllerTimes = new long[0];
+	private final Array<UpdateTask> updateTasks = new Array<UpdateTask>();
+	private final Array<AsyncResult<Void>> results = new Array<AsyncResult<Void>>();
+	private long updateTime;
+
 	public ParticleSystem () {
 		batches = new Array<ParticleBatch<?>>();
 		effects = new Array<ParticleEffect>();
@@ -59,30 +78,105 @@ public final class ParticleSystem implements RenderableProvider {
 		effects.clear();
 	}
 
+	/** Sets the executor used to update the controllers of the effects in parallel.
+	 * @param executor May be null to update the effects on the calling thread.
+	 * @param tasks The number of tasks the controllers are split into for each update, usually the number of threads of the
+	 *           executor. */
+	public void setExecutor (AsyncExecutor executor, int tasks) {
+		this.executor = executor;
+		this.tasks = tasks;
+	}
+
 	/** Updates the simulation of all effects */
 	public void update () {
-		for (ParticleEffect effect : effects) {
-			effect.update();
-		}
+		update(Gdx.graphics.getDeltaTime());
 	}
 
 	public void updateAndDraw () {
-		for (ParticleEffect effect : effects) {
-			effect.update();
-			effect.draw();
-		}		
+		updateAndDraw(Gdx.graphics.getDeltaTime());
 	}
 
 	public void update (float deltaTime) {
-		for (ParticleEffect effect : effects) {
-			effect.update(deltaTime);
+		long start = TimeUtils.nanoTime();
+		if (executor != null && tasks > 1)
+			updateParallel(deltaTime);
+		else {
+			for (ParticleEffect effect : effects) {
+				effect.update(deltaTime);
+			}
 		}
+		updateTime = TimeUtils.nanoTime() - start;
 	}
-	public void updateAndDraw(float deltaTime) {
+
+	public void updateAndDraw (float deltaTime) {
+		if (executor != null && tasks > 1) {
+			update(deltaTime);
+			draw();
+			return;
+		}
+		long start = TimeUtils.nanoTime();
 		for (ParticleEffect effect : effects) {
 			effect.update(deltaTime);
 			effect.draw();
 		}
+		updateTime = TimeUtils.nanoTime() - start;
+	}
+
+	private void updateParallel (float deltaTime) {
+		Array<ParticleController> controllers = this.controllers;
+		for (ParticleEffect effect : effects)
+			controllers.addAll(effect.getControllers());
+		int n = controllers.size;
+		long[] times = controllerTimes;
+		if (times.length < n) controllerTimes = times = new long[n];
+
+		// Split the controllers into runs of about equal cost, estimated from the time each took last update.
+		long totalCost = 0;
+		for (int i = 0; i < n; i++)
+			totalCost += Math.max(times[i], 1);
+		int taskCount = Math.min(tasks, n);
+		while (updateTasks.size < taskCount)
+			updateTasks.add(new UpdateTask());
+		long cost = 0;
+		for (int t = 0, i = 0; t < taskCount; t++) {
+			int start = i;
+			long end = totalCost * (t + 1) / taskCount;
+			// Each remaining task gets at least one controller.
+			while (i < n - (taskCount - t - 1) && (cost < end || i == start))
+				cost += Math.max(times[i++], 1);
+			if (t == taskCount - 1) i = n;
+			UpdateTask task = updateTasks.get(t);
+			task.start = start;
+			task.end = i;
+			task.deltaTime = deltaTime;
+			results.add(executor.submit(task));
+		}
+		// Wait for every task before rethrowing, so no task still uses the controllers.
+		GdxRuntimeException error = null;
+		for (int i = 0, r = results.size; i < r; i++) {
+			try {
+				results.get(i).get();
+			} catch (GdxRuntimeException ex) {
+				if (error == null) error = ex;
+			}
+		}
+		results.clear();
+		controllers.clear();
+		if (error != null) throw error;
+
+		for (int i = 0, e = 0, count = effects.size; e < count; e++) {
+			ParticleEffect effect = effects.get(e);
+			long time = 0;
+			for (int c = 0, cn = effect.getControllers().size; c < cn; c++)
+				time += times[i++];
+			effect.updateTime = time;
+		}
+	}
+
+	/** Returns the time in nanoseconds the last update of all effects took.
+	 * @see ParticleEffect#getUpdateTime() */
+	public long getUpdateTime () {
+		return updateTime;
 	}
 
 	/** Must be called one time per frame before any particle effect drawing operation will occur. */
@@ -113,4 +207,23 @@ public final class ParticleSystem implements RenderableProvider {
 	public Array<ParticleBatch<?>> getBatches () {
 		return batches;
 	}
+
+	/** Updates a run of the controllers, recording the time each took. */
+	private class UpdateTask implements AsyncTask<Void> {
+		int start, end;
+		float deltaTime;
+
+		public Void call () {
+			Array<ParticleController> controllers = ParticleSystem.this.controllers;
+			long[] times = controllerTimes;
+			long time = TimeUtils.nanoTime();
+			for (int i = start; i < end; i++) {
+				controllers.get(i).update(deltaTime);
+				long now = TimeUtils.nanoTime();
+				times[i] = now - time;
+				time = now;
+			}
+			return null;
+		}
+	}
 }
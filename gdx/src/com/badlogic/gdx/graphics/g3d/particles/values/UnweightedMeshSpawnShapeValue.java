@@ -26,7 +26,7 @@ import com.badlogic.gdx.math.Vector3;
  * @author Inferno */
 public final class UnweightedMeshSpawnShapeValue extends MeshSpawnShapeValue {
 	private float[] vertices;
-	private short[] indices;
+	private int[] indices;
 	private int positionOffset, vertexSize, vertexCount, triangleCount;
 
 	public UnweightedMeshSpawnShapeValue (UnweightedMeshSpawnShapeValue value) {
@@ -44,8 +44,8 @@ public final class UnweightedMeshSpawnShapeValue extends MeshSpawnShapeValue {
 		positionOffset = mesh.getVertexAttribute(Usage.Position).offset / 4;
 		int indicesCount = mesh.getNumIndices();
 		if (indicesCount > 0) {
-			indices = new short[indicesCount];
-			mesh.getIndices(indices);
+			indices = new int[indicesCount];
+			mesh.getIndices(0, indicesCount, indices, 0);
 			triangleCount = indices.length / 3;
 		} else
 			indices = null;
@@ -55,8 +55,8 @@ public final class WeightMeshSpawnShapeValue extends MeshSpawnShapeValue {
 		float[] vertices = new float[vertexCount * vertexSize];
 		mesh.getVertices(vertices);
 		if (indicesCount > 0) {
-			short[] indices = new short[indicesCount];
-			mesh.getIndices(indices);
+			int[] indices = new int[indicesCount];
+			mesh.getIndices(0, indicesCount, indices, 0);
 
 			// Calculate the Area
 			for (int i = 0; i < indicesCount; i += 3) {
@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelCache;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.RenderableProvider;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Pool;
+
+/** Provides the renderables of a {@link ModelInstance} at the level of detail of a {@link ModelLod} that fits the size of the
+ * instance on the screen. The size is that of the bounding sphere of the model, transformed by {@link ModelInstance#transform}
+ * and projected by the {@link #camera}, relative to the height of the viewport. Pass this to a {@link ModelBatch} or
+ * {@link ModelCache} instead of the instance, after the camera is updated. A {@link ModelCache} keeps the level that was picked
+ * when the cache was built.
+ * <p>
+ * The nodes of the instance must use parts of the model of the {@link ModelLod}, parts it has no levels for are rendered as is. */
+public class LodRenderableProvider implements RenderableProvider {
+	static private final MeshPart[] noLevels = {};
+	static private final Vector3 tmp = new Vector3();
+
+	public final ModelInstance instance;
+	public final ModelLod lod;
+	public Camera camera;
+	/** Multiplies the screen size before the level is picked. Less than 1 switches to lower levels of detail sooner. */
+	public float bias = 1;
+	/** Below this screen size the instance isn't rendered at all. */
+	public float minScreenSize;
+	/** The screen size and the level of the last {@link #getRenderables(Array, Pool)}, the level is -1 if nothing was rendered. */
+	public float screenSize;
+	public int level;
+
+	private final ObjectMap<NodePart, MeshPart[]> nodePartLevels = new ObjectMap();
+
+	public LodRenderableProvider (ModelInstance instance, ModelLod lod, Camera camera) {
+		if (instance.model != lod.model) throw new IllegalArgumentException("The instance must be of the model of the lod.");
+		this.instance = instance;
+		this.lod = lod;
+		this.camera = camera;
+	}
+
+	/** @return the height of the bounding sphere of the model on the screen, relative to the height of the camera's viewport. */
+	public float calculateScreenSize (Camera camera) {
+		Matrix4 transform = instance.transform;
+		float scale = Math.max(transform.getScaleXSquared(), Math.max(transform.getScaleYSquared(), transform.getScaleZSquared()));
+		float radius = lod.radius * (float)Math.sqrt(scale);
+		float[] projection = camera.projection.val;
+		// An orthographic projection doesn't depend on the distance.
+		if (projection[Matrix4.M33] == 1) return radius * projection[Matrix4.M11];
+		float distance = tmp.set(lod.center).mul(transform).dst(camera.position);
+		if (distance <= radius) return Float.POSITIVE_INFINITY;
+		return radius * projection[Matrix4.M11] / distance;
+	}
+
+	@Override
+	public void getRenderables (Array<Renderable> renderables, Pool<Renderable> pool) {
+		screenSize = calculateScreenSize(camera) * bias;
+		if (screenSize < minScreenSize) {
+			level = -1;
+			return;
+		}
+		level = lod.getLevel(screenSize);
+		for (Node node : instance.nodes)
+			getRenderables(node, renderables, pool);
+	}
+
+	private void getRenderables (Node node, Array<Renderable> renderables, Pool<Renderable> pool) {
+		for (NodePart nodePart : node.parts) {
+			if (!nodePart.enabled) continue;
+			Renderable renderable = instance.getRenderable(pool.obtain(), node, nodePart);
+			if (level > 0) {
+				MeshPart[] levels = nodePartLevels.get(nodePart);
+				if (levels == null) {
+					levels = lod.getLevels(nodePart.meshPart);
+					if (levels == null) levels = noLevels;
+					nodePartLevels.put(nodePart, levels);
+				}
+				if (levels.length > 0) renderable.meshPart.set(levels[level]);
+			}
+			renderables.add(renderable);
+		}
+		for (Node child : node.getChildren())
+			getRenderables(child, renderables, pool);
+	}
+}
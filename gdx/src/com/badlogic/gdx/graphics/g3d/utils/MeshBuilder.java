@@ -42,6 +42,7 @@ import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.FloatArray;
 import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.IntIntMap;
 import com.badlogic.gdx.utils.NumberUtils;
 import com.badlogic.gdx.utils.Pool;
@@ -51,9 +52,15 @@ import com.badlogic.gdx.utils.ShortArray;
  * call {@link #begin(VertexAttributes)} or {@link #begin(VertexAttributes, int)}. To use mesh parts you must call
  * {@link #part(String, int)} before you start building the part. The MeshPart itself is only valid after the call to
  * {@link #end()}.
+ * <p>
+ * A mesh can have at most 32768 vertices, unless {@link #setIntIndices(boolean) int indices} are enabled. Then a mesh created by
+ * {@link #end()} with more vertices has int indices. The short indices passed to the {@link MeshPartBuilder} methods are resolved
+ * to the most recent vertex with the same lower 16 bits, so a part can have any number of vertices as long as every short index
+ * refers to one of the last 65536 vertices.
  * @author Xoppa */
 public class MeshBuilder implements MeshPartBuilder {
 	private final static ShortArray tmpIndices = new ShortArray();
+	private final static IntArray tmpIntIndices = new IntArray();
 	private final static FloatArray tmpVertices = new FloatArray();
 
 	private final VertexInfo vertTmp1 = new VertexInfo();
@@ -68,7 +75,7 @@ public class MeshBuilder implements MeshPartBuilder {
 	/** The vertices to construct, no size checking is done */
 	private FloatArray vertices = new FloatArray();
 	/** The indices to construct, no size checking is done */
-	private ShortArray indices = new ShortArray();
+	private IntArray indices = new IntArray();
 	/** The size (in number of floats) of each vertex */
 	private int stride;
 	/** The current vertex index, used for indexing */
@@ -108,6 +115,7 @@ public class MeshBuilder implements MeshPartBuilder {
 	private float[] vertex;
 
 	private boolean vertexTransformationEnabled = false;
+	private boolean intIndices = false;
 	private final Matrix4 positionTransform = new Matrix4();
 	private final Matrix3 normalTransform = new Matrix3();
 	private final BoundingBox bounds = new BoundingBox();
@@ -242,9 +250,19 @@ public class MeshBuilder implements MeshPartBuilder {
 				+ vertices.size);
 		if (mesh.getMaxIndices() < indices.size)
 			throw new GdxRuntimeException("Mesh can't hold enough indices: " + mesh.getMaxIndices() + " < " + indices.size);
+		if (!mesh.hasIntIndices() && vindex > Short.MAX_VALUE + 1)
+			throw new GdxRuntimeException("Mesh needs int indices for " + vindex + " vertices");
 
 		mesh.setVertices(vertices.items, 0, vertices.size);
-		mesh.setIndices(indices.items, 0, indices.size);
+		if (mesh.hasIntIndices())
+			mesh.setIndices(indices.items, 0, indices.size);
+		else {
+			tmpIndices.clear();
+			tmpIndices.ensureCapacity(indices.size);
+			for (int i = 0; i < indices.size; i++)
+				tmpIndices.add((short)indices.items[i]);
+			mesh.setIndices(tmpIndices.items, 0, tmpIndices.size);
+		}
 
 		for (MeshPart p : parts)
 			p.mesh = mesh;
@@ -257,9 +275,10 @@ public class MeshBuilder implements MeshPartBuilder {
 		return mesh;
 	}
 
-	/** End building the mesh and returns the mesh */
+	/** End building the mesh and returns the mesh, which has int indices if it has more than 32768 vertices, see
+	 * {@link #setIntIndices(boolean)}. */
 	public Mesh end () {
-		return end(new Mesh(true, vertices.size / stride, indices.size, attributes));
+		return end(new Mesh(true, vertices.size / stride, indices.size, vindex > Short.MAX_VALUE + 1, attributes));
 	}
 
 	/** Clears the data being built up until now, including the vertices, indices and all parts. Must be called in between the call
@@ -275,6 +294,18 @@ public class MeshBuilder implements MeshPartBuilder {
 		this.part = null;
 	}
 
+	/** Sets whether meshes with more than 32768 vertices can be built. Such meshes have int indices, see
+	 * {@link Mesh#hasIntIndices()}. They need OpenGL ES 3.0 or the OES_element_index_uint extension, and can't be used by code
+	 * that reads the indices as shorts, such as {@link Mesh#getIndicesBuffer()}. When false, adding more vertices throws an
+	 * exception. Default is false. */
+	public void setIntIndices (boolean intIndices) {
+		this.intIndices = intIndices;
+	}
+
+	public boolean isIntIndices () {
+		return intIndices;
+	}
+
 	/** @return the size in number of floats of one vertex, multiply by four to get the size in bytes. */
 	public int getFloatsPerVertex () {
 		return stride;
@@ -308,11 +339,23 @@ public class MeshBuilder implements MeshPartBuilder {
 		return indices.size;
 	}
 
-	/** Get a copy of the indices built so far.
+	/** Get a copy of the indices built so far, truncated to shorts.
 	 * @param out The short array to receive the copy of the indices, must be at least `destOffset` + {@link #getNumIndices()} in
 	 *           size.
 	 * @param destOffset The offset (number of shorts) in the out array where to start copying */
 	public void getIndices (short[] out, int destOffset) {
+		if (attributes == null) throw new GdxRuntimeException("Must be called in between #begin and #end");
+		if ((destOffset < 0) || (destOffset > out.length - indices.size))
+			throw new GdxRuntimeException("Array to small or offset out of range");
+		for (int i = 0; i < indices.size; i++)
+			out[destOffset + i] = (short)indices.items[i];
+	}
+
+	/** Get a copy of the indices built so far.
+	 * @param out The int array to receive the copy of the indices, must be at least `destOffset` + {@link #getNumIndices()} in
+	 *           size.
+	 * @param destOffset The offset (number of ints) in the out array where to start copying */
+	public void getIndices (int[] out, int destOffset) {
 		if (attributes == null) throw new GdxRuntimeException("Must be called in between #begin and #end");
 		if ((destOffset < 0) || (destOffset > out.length - indices.size))
 			throw new GdxRuntimeException("Array to small or offset out of range");
@@ -322,7 +365,7 @@ public class MeshBuilder implements MeshPartBuilder {
 	/** Provides direct access to the indices array being built, use with care. The size of the array might be bigger, do not rely
 	 * on the length of the array. Instead use {@link #getNumIndices()} to calculate the usable size of the array. Must be called
 	 * in between the call to #begin and #end. */
-	protected short[] getIndices () {
+	protected int[] getIndices () {
 		return indices.items;
 	}
 
@@ -461,11 +504,18 @@ public class MeshBuilder implements MeshPartBuilder {
 		ensureRectangleIndices(numRectangles);
 	}
 
-	private short lastIndex = -1;
+	private int lastIndex = -1;
 
 	@Override
 	public short lastIndex () {
-		return lastIndex;
+		return (short)lastIndex;
+	}
+
+	/** Resolves a short index to the most recent vertex with the same lower 16 bits. */
+	private int resolve (final short index) {
+		if (lastIndex < 0x10000) return index & 0xffff;
+		final int result = (lastIndex & ~0xffff) | (index & 0xffff);
+		return result > lastIndex ? result - 0x10000 : result;
 	}
 
 	private final static Vector3 vTmp = new Vector3();
@@ -499,9 +549,10 @@ public class MeshBuilder implements MeshPartBuilder {
 	}
 
 	private final void addVertex (final float[] values, final int offset) {
+		if (vindex > Short.MAX_VALUE && !intIndices) throw new GdxRuntimeException("Too many vertices used");
 		final int o = vertices.size;
 		vertices.addAll(values, offset, stride);
-		lastIndex = (short)(vindex++);
+		lastIndex = vindex++;
 
 		if (vertexTransformationEnabled) {
 			transformPosition(vertices.items, o + posOffset, posSize, positionTransform);
@@ -537,8 +588,6 @@ public class MeshBuilder implements MeshPartBuilder {
 
 	@Override
 	public short vertex (Vector3 pos, Vector3 nor, Color col, Vector2 uv) {
-		if (vindex > Short.MAX_VALUE) throw new GdxRuntimeException("Too many vertices used");
-
 		vertex[posOffset] = pos.x;
 		if (posSize > 1) vertex[posOffset + 1] = pos.y;
 		if (posSize > 2) vertex[posOffset + 2] = pos.z;
@@ -567,7 +616,7 @@ public class MeshBuilder implements MeshPartBuilder {
 		}
 
 		addVertex(vertex, 0);
-		return lastIndex;
+		return (short)lastIndex;
 	}
 
 	@Override
@@ -575,7 +624,7 @@ public class MeshBuilder implements MeshPartBuilder {
 		final int n = values.length - stride;
 		for (int i = 0; i <= n; i += stride)
 			addVertex(values, i);
-		return lastIndex;
+		return (short)lastIndex;
 	}
 
 	@Override
@@ -586,56 +635,56 @@ public class MeshBuilder implements MeshPartBuilder {
 
 	@Override
 	public void index (final short value) {
-		indices.add(value);
+		indices.add(resolve(value));
 	}
 
 	@Override
 	public void index (final short value1, final short value2) {
 		ensureIndices(2);
-		indices.add(value1);
-		indices.add(value2);
+		indices.add(resolve(value1));
+		indices.add(resolve(value2));
 	}
 
 	@Override
 	public void index (final short value1, final short value2, final short value3) {
 		ensureIndices(3);
-		indices.add(value1);
-		indices.add(value2);
-		indices.add(value3);
+		indices.add(resolve(value1));
+		indices.add(resolve(value2));
+		indices.add(resolve(value3));
 	}
 
 	@Override
 	public void index (final short value1, final short value2, final short value3, final short value4) {
 		ensureIndices(4);
-		indices.add(value1);
-		indices.add(value2);
-		indices.add(value3);
-		indices.add(value4);
+		indices.add(resolve(value1));
+		indices.add(resolve(value2));
+		indices.add(resolve(value3));
+		indices.add(resolve(value4));
 	}
 
 	@Override
 	public void index (short value1, short value2, short value3, short value4, short value5, short value6) {
 		ensureIndices(6);
-		indices.add(value1);
-		indices.add(value2);
-		indices.add(value3);
-		indices.add(value4);
-		indices.add(value5);
-		indices.add(value6);
+		indices.add(resolve(value1));
+		indices.add(resolve(value2));
+		indices.add(resolve(value3));
+		indices.add(resolve(value4));
+		indices.add(resolve(value5));
+		indices.add(resolve(value6));
 	}
 
 	@Override
 	public void index (short value1, short value2, short value3, short value4, short value5, short value6, short value7,
 		short value8) {
 		ensureIndices(8);
-		indices.add(value1);
-		indices.add(value2);
-		indices.add(value3);
-		indices.add(value4);
-		indices.add(value5);
-		indices.add(value6);
-		indices.add(value7);
-		indices.add(value8);
+		indices.add(resolve(value1));
+		indices.add(resolve(value2));
+		indices.add(resolve(value3));
+		indices.add(resolve(value4));
+		indices.add(resolve(value5));
+		indices.add(resolve(value6));
+		indices.add(resolve(value7));
+		indices.add(resolve(value8));
 	}
 
 	@Override
@@ -747,18 +796,30 @@ public class MeshBuilder implements MeshPartBuilder {
 		tmpVertices.size = numFloats;
 		mesh.getVertices(tmpVertices.items);
 
-		tmpIndices.clear();
-		tmpIndices.ensureCapacity(numIndices);
-		tmpIndices.size = numIndices;
-		mesh.getIndices(indexOffset, numIndices, tmpIndices.items, 0);
+		tmpIntIndices.clear();
+		tmpIntIndices.ensureCapacity(numIndices);
+		tmpIntIndices.size = numIndices;
+		mesh.getIndices(indexOffset, numIndices, tmpIntIndices.items, 0);
 
-		addMesh(tmpVertices.items, tmpIndices.items, 0, numIndices);
+		addMesh(tmpVertices.items, tmpIntIndices.items, 0, numIndices);
 	}
 
 	private static IntIntMap indicesMap = null;
 
+	/** The short indices are unsigned, so they can refer to up to 65536 vertices. */
 	@Override
 	public void addMesh (float[] vertices, short[] indices, int indexOffset, int numIndices) {
+		tmpIntIndices.clear();
+		tmpIntIndices.ensureCapacity(numIndices);
+		tmpIntIndices.size = numIndices;
+		final int[] intIndices = tmpIntIndices.items;
+		for (int i = 0; i < numIndices; i++)
+			intIndices[i] = indices[indexOffset + i] & 0xffff;
+		addMesh(vertices, intIndices, 0, numIndices);
+	}
+
+	/** Adds the specified vertices referenced by the int indices, see {@link #addMesh(float[], short[], int, int)}. */
+	public void addMesh (float[] vertices, int[] indices, int indexOffset, int numIndices) {
 		if (indicesMap == null)
 			indicesMap = new IntIntMap(numIndices);
 		else {
@@ -775,13 +836,13 @@ public class MeshBuilder implements MeshPartBuilder {
 				addVertex(vertices, sidx * stride);
 				indicesMap.put(sidx, didx = lastIndex);
 			}
-			index((short)didx);
+			this.indices.add(didx);
 		}
 	}
 
 	@Override
 	public void addMesh (float[] vertices, short[] indices) {
-		final short offset = (short)(lastIndex + 1);
+		final int offset = lastIndex + 1;
 
 		final int numVertices = vertices.length / stride;
 		ensureVertices(numVertices);
@@ -790,7 +851,7 @@ public class MeshBuilder implements MeshPartBuilder {
 
 		ensureIndices(indices.length);
 		for (int i = 0; i < indices.length; ++i)
-			index((short)(indices[i] + offset));
+			this.indices.add((indices[i] & 0xffff) + offset);
 	}
 
 	
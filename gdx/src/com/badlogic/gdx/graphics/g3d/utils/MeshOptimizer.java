@@ -0,0 +1,441 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelData;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMesh;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMeshPart;
+import com.badlogic.gdx.utils.NumberUtils;
+
+/** Optimizes the meshes of {@link ModelData} for rendering. Exporters often produce indices in an order that makes poor use of
+ * the GPU's post-transform vertex cache, so vertices are processed several times. The optimizer:
+ * <ol>
+ * <li>removes duplicate vertices,
+ * <li>reorders the triangles of each part for the vertex cache, using Tom Forsyth's linear-speed vertex cache optimization,
+ * <li>optionally reorders clusters of triangles so the outward facing ones are drawn first, reducing overdraw,
+ * <li>and reorders the vertices in the order they are first used, improving vertex fetch locality. Unused vertices are removed.
+ * </ol>
+ * The average cache miss ratio (ACMR), the number of vertices processed per triangle for a FIFO cache of {@link #cacheSize},
+ * is collected before and after optimizing. Use {@link #toString()} to report it.
+ * @see com.badlogic.gdx.assets.loaders.ModelLoader.ModelParameters#optimizeMeshes */
+public class MeshOptimizer {
+	static private final float CACHE_DECAY_POWER = 1.5f;
+	static private final float LAST_TRIANGLE_SCORE = 0.75f;
+	static private final float VALENCE_BOOST_SCALE = 2f;
+	static private final float VALENCE_BOOST_POWER = 0.5f;
+	static private final int MAX_VALENCE_SCORES = 32;
+
+	/** The number of vertices in the vertex cache that is optimized for, at least 4. */
+	public int cacheSize = 32;
+	public boolean removeDuplicates = true;
+	public boolean reorderTriangles = true;
+	/** Whether to sort clusters of triangles, drawing those that face away from the center of the mesh first. This reduces
+	 * overdraw for mostly convex meshes at the cost of a slightly higher ACMR. Requires {@link #reorderTriangles}. */
+	public boolean reduceOverdraw = true;
+	public boolean reorderVertices = true;
+
+	/** Statistics for the meshes optimized since creation or {@link #resetStatistics()}. Only triangle parts count for the cache
+	 * misses. */
+	public int triangles, verticesBefore, verticesAfter, cacheMissesBefore, cacheMissesAfter;
+
+	private float[] cacheScores, valenceScores;
+
+	public void optimize (ModelData data) {
+		for (int i = 0, n = data.meshes.size; i < n; i++)
+			optimize(data.meshes.get(i));
+	}
+
+	public void optimize (ModelMesh mesh) {
+		if (cacheSize < 4) throw new IllegalArgumentException("cacheSize must be >= 4: " + cacheSize);
+		VertexAttributes attributes = new VertexAttributes(mesh.attributes);
+		int vertexSize = attributes.vertexSize / 4;
+		float[] vertices = mesh.vertices;
+		int vertexCount = vertices.length / vertexSize;
+		ModelMeshPart[] parts = mesh.parts;
+		int[][] partIndices = new int[parts.length][];
+		for (int p = 0; p < parts.length; p++) {
+			short[] indices = parts[p].indices;
+			int[] ints = partIndices[p] = new int[indices.length];
+			for (int i = 0; i < indices.length; i++)
+				ints[i] = indices[i] & 0xffff;
+			if (parts[p].primitiveType == GL20.GL_TRIANGLES) {
+				triangles += indices.length / 3;
+				cacheMissesBefore += countCacheMisses(ints, 0, ints.length, vertexCount, cacheSize);
+			}
+		}
+		verticesBefore += vertexCount;
+
+		if (removeDuplicates) {
+			int[] remap = findDuplicates(vertices, vertexSize, vertexCount);
+			for (int[] indices : partIndices)
+				for (int i = 0; i < indices.length; i++)
+					indices[i] = remap[indices[i]];
+		}
+
+		if (reorderTriangles) {
+			VertexAttribute position = attributes.findByUsage(Usage.Position);
+			for (int p = 0; p < parts.length; p++) {
+				if (parts[p].primitiveType != GL20.GL_TRIANGLES) continue;
+				int[] indices = partIndices[p] = reorderTriangles(partIndices[p], vertexCount);
+				if (reduceOverdraw && position != null && position.numComponents == 3)
+					partIndices[p] = sortClusters(indices, vertices, vertexSize, position.offset / 4, vertexCount);
+			}
+		}
+
+		// Assign new vertex indices, dropping unused vertices.
+		int[] newIndices = new int[vertexCount];
+		Arrays.fill(newIndices, -1);
+		int newCount = 0;
+		if (reorderVertices) {
+			for (int[] indices : partIndices)
+				for (int i = 0; i < indices.length; i++)
+					if (newIndices[indices[i]] == -1) newIndices[indices[i]] = newCount++;
+		} else {
+			// Keep the order of the used vertices.
+			for (int[] indices : partIndices)
+				for (int i = 0; i < indices.length; i++)
+					newIndices[indices[i]] = -2;
+			for (int i = 0; i < vertexCount; i++)
+				if (newIndices[i] == -2) newIndices[i] = newCount++;
+		}
+		if (newCount < vertexCount || reorderVertices) {
+			float[] newVertices = new float[newCount * vertexSize];
+			for (int i = 0; i < vertexCount; i++)
+				if (newIndices[i] != -1) System.arraycopy(vertices, i * vertexSize, newVertices, newIndices[i] * vertexSize, vertexSize);
+			mesh.vertices = newVertices;
+		}
+		verticesAfter += newCount;
+
+		for (int p = 0; p < parts.length; p++) {
+			int[] indices = partIndices[p];
+			short[] shorts = parts[p].indices;
+			for (int i = 0; i < indices.length; i++)
+				shorts[i] = (short)newIndices[indices[i]];
+			if (parts[p].primitiveType == GL20.GL_TRIANGLES)
+				cacheMissesAfter += countCacheMisses(shorts, 0, shorts.length, newCount, cacheSize);
+		}
+	}
+
+	/** @return for each vertex the index of the first vertex with the same values. */
+	private int[] findDuplicates (float[] vertices, int vertexSize, int vertexCount) {
+		int[] remap = new int[vertexCount];
+		int mask = Integer.highestOneBit(Math.max(vertexCount * 2, 2) - 1) * 2 - 1;
+		int[] table = new int[mask + 1];
+		Arrays.fill(table, -1);
+		for (int v = 0; v < vertexCount; v++) {
+			int offset = v * vertexSize, hash = 0;
+			for (int i = 0; i < vertexSize; i++)
+				hash = hash * 31 + NumberUtils.floatToIntBits(vertices[offset + i]);
+			hash ^= hash >>> 16;
+			while (true) {
+				int slot = hash & mask, other = table[slot];
+				if (other == -1) {
+					table[slot] = v;
+					remap[v] = v;
+					break;
+				}
+				if (equals(vertices, other * vertexSize, offset, vertexSize)) {
+					remap[v] = other;
+					break;
+				}
+				hash++;
+			}
+		}
+		return remap;
+	}
+
+	static private boolean equals (float[] vertices, int offset1, int offset2, int vertexSize) {
+		for (int i = 0; i < vertexSize; i++)
+			if (NumberUtils.floatToIntBits(vertices[offset1 + i]) != NumberUtils.floatToIntBits(vertices[offset2 + i])) return false;
+		return true;
+	}
+
+	private float vertexScore (int cachePosition, int activeTriangles) {
+		if (activeTriangles == 0) return -1; // No triangles left to use this vertex.
+		float score = cachePosition < 0 ? 0 : cacheScores[cachePosition];
+		if (activeTriangles < MAX_VALENCE_SCORES) return score + valenceScores[activeTriangles];
+		return score + VALENCE_BOOST_SCALE * (float)Math.pow(activeTriangles, -VALENCE_BOOST_POWER);
+	}
+
+	private void computeScores () {
+		if (cacheScores != null && cacheScores.length == cacheSize) return;
+		cacheScores = new float[cacheSize];
+		for (int i = 0; i < cacheSize; i++) {
+			// The vertices of the last triangle get a fixed score, so it doesn't matter which of its edges is used next.
+			if (i < 3)
+				cacheScores[i] = LAST_TRIANGLE_SCORE;
+			else
+				cacheScores[i] = (float)Math.pow(1 - (i - 3) / (float)(cacheSize - 3), CACHE_DECAY_POWER);
+		}
+		valenceScores = new float[MAX_VALENCE_SCORES];
+		for (int i = 1; i < MAX_VALENCE_SCORES; i++)
+			valenceScores[i] = VALENCE_BOOST_SCALE * (float)Math.pow(i, -VALENCE_BOOST_POWER);
+	}
+
+	/** Greedily emits the triangle with the highest score, where vertices score higher the more recently they were used and the
+	 * fewer triangles still use them.
+	 * @return the reordered triangle indices. */
+	private int[] reorderTriangles (int[] indices, int vertexCount) {
+		computeScores();
+		int triangleCount = indices.length / 3, cacheSize = this.cacheSize;
+		if (triangleCount == 0) return indices;
+
+		// The triangles using each vertex, the first activeTriangles of them are not emitted yet.
+		int[] activeTriangles = new int[vertexCount];
+		for (int i = 0, n = triangleCount * 3; i < n; i++)
+			activeTriangles[indices[i]]++;
+		int[] triangleOffsets = new int[vertexCount];
+		for (int v = 1; v < vertexCount; v++)
+			triangleOffsets[v] = triangleOffsets[v - 1] + activeTriangles[v - 1];
+		int[] vertexTriangles = new int[triangleCount * 3];
+		int[] fill = new int[vertexCount];
+		for (int i = 0, n = triangleCount * 3; i < n; i++) {
+			int v = indices[i];
+			vertexTriangles[triangleOffsets[v] + fill[v]++] = i / 3;
+		}
+
+		int[] cachePositions = new int[vertexCount];
+		Arrays.fill(cachePositions, -1);
+		float[] vertexScores = new float[vertexCount];
+		for (int v = 0; v < vertexCount; v++)
+			vertexScores[v] = vertexScore(-1, activeTriangles[v]);
+		float[] triangleScores = new float[triangleCount];
+		boolean[] emitted = new boolean[triangleCount];
+		int bestTriangle = 0;
+		for (int t = 0; t < triangleCount; t++) {
+			int i = t * 3;
+			triangleScores[t] = vertexScores[indices[i]] + vertexScores[indices[i + 1]] + vertexScores[indices[i + 2]];
+			if (triangleScores[t] > triangleScores[bestTriangle]) bestTriangle = t;
+		}
+
+		int[] cache = new int[cacheSize + 3], newCache = new int[cacheSize + 3];
+		int cacheCount = 0, nextUnemitted = 0;
+		int[] output = new int[triangleCount * 3];
+		for (int out = 0; out < output.length;) {
+			if (bestTriangle == -1) {
+				// No triangle uses a cached vertex, continue with the next triangle not emitted yet.
+				while (emitted[nextUnemitted])
+					nextUnemitted++;
+				bestTriangle = nextUnemitted;
+			}
+			emitted[bestTriangle] = true;
+			int i = bestTriangle * 3;
+			int newCount = 0;
+			for (int c = 0; c < 3; c++) {
+				int v = indices[i + c];
+				output[out++] = v;
+				newCache[newCount++] = v;
+				// Remove the triangle from the vertex's active triangles.
+				int offset = triangleOffsets[v], last = offset + --activeTriangles[v];
+				for (int j = offset; j <= last; j++) {
+					if (vertexTriangles[j] == bestTriangle) {
+						vertexTriangles[j] = vertexTriangles[last];
+						vertexTriangles[last] = bestTriangle;
+						break;
+					}
+				}
+			}
+
+			// The triangle's vertices move to the front of the cache.
+			for (int c = 0; c < cacheCount; c++) {
+				int v = cache[c];
+				if (v != newCache[0] && v != newCache[1] && v != newCache[2]) newCache[newCount++] = v;
+			}
+			for (int c = 0; c < newCount; c++) {
+				int v = newCache[c];
+				cachePositions[v] = c < cacheSize ? c : -1;
+				vertexScores[v] = vertexScore(cachePositions[v], activeTriangles[v]);
+			}
+
+			// Update the scores of the affected triangles and find the best one.
+			bestTriangle = -1;
+			float bestScore = -1;
+			for (int c = 0; c < newCount; c++) {
+				int v = newCache[c];
+				for (int j = triangleOffsets[v], n = j + activeTriangles[v]; j < n; j++) {
+					int t = vertexTriangles[j], ti = t * 3;
+					float score = vertexScores[indices[ti]] + vertexScores[indices[ti + 1]] + vertexScores[indices[ti + 2]];
+					triangleScores[t] = score;
+					if (score > bestScore) {
+						bestScore = score;
+						bestTriangle = t;
+					}
+				}
+			}
+
+			int[] temp = cache;
+			cache = newCache;
+			newCache = temp;
+			cacheCount = Math.min(newCount, cacheSize);
+		}
+		return output;
+	}
+
+	/** Splits the triangles into clusters where the vertex cache starts over, then sorts the clusters by how much they face away
+	 * from the center of the mesh, so that the outside is drawn first and occludes the inside.
+	 * @return the reordered triangle indices. */
+	private int[] sortClusters (int[] indices, float[] vertices, int vertexSize, int positionOffset, int vertexCount) {
+		int triangleCount = indices.length / 3;
+		if (triangleCount < 2) return indices;
+
+		// Start a cluster at each triangle whose vertices all miss the cache.
+		int[] clusterStarts = new int[triangleCount + 1];
+		int clusterCount = 0;
+		int[] cacheTimes = new int[vertexCount];
+		int misses = 0;
+		for (int t = 0; t < triangleCount; t++) {
+			int triangleMisses = 0;
+			for (int c = 0; c < 3; c++) {
+				int v = indices[t * 3 + c];
+				if (cacheTimes[v] == 0 || misses - cacheTimes[v] >= cacheSize) {
+					cacheTimes[v] = ++misses;
+					triangleMisses++;
+				}
+			}
+			if (triangleMisses == 3 || t == 0) clusterStarts[clusterCount++] = t;
+		}
+		clusterStarts[clusterCount] = triangleCount;
+		if (clusterCount == 1) return indices;
+
+		// Area weighted centroid and normal of each cluster and the mesh.
+		float[] centroids = new float[clusterCount * 3], normals = new float[clusterCount * 3];
+		float meshX = 0, meshY = 0, meshZ = 0, meshArea = 0;
+		for (int cluster = 0; cluster < clusterCount; cluster++) {
+			float cx = 0, cy = 0, cz = 0, nx = 0, ny = 0, nz = 0, area = 0;
+			for (int t = clusterStarts[cluster], end = clusterStarts[cluster + 1]; t < end; t++) {
+				int a = indices[t * 3] * vertexSize + positionOffset;
+				int b = indices[t * 3 + 1] * vertexSize + positionOffset;
+				int c = indices[t * 3 + 2] * vertexSize + positionOffset;
+				float ax = vertices[a], ay = vertices[a + 1], az = vertices[a + 2];
+				float ux = vertices[b] - ax, uy = vertices[b + 1] - ay, uz = vertices[b + 2] - az;
+				float vx = vertices[c] - ax, vy = vertices[c + 1] - ay, vz = vertices[c + 2] - az;
+				float crossX = uy * vz - uz * vy, crossY = uz * vx - ux * vz, crossZ = ux * vy - uy * vx;
+				float triangleArea = (float)Math.sqrt(crossX * crossX + crossY * crossY + crossZ * crossZ);
+				cx += (ax + vertices[b] + vertices[c]) / 3 * triangleArea;
+				cy += (ay + vertices[b + 1] + vertices[c + 1]) / 3 * triangleArea;
+				cz += (az + vertices[b + 2] + vertices[c + 2]) / 3 * triangleArea;
+				nx += crossX;
+				ny += crossY;
+				nz += crossZ;
+				area += triangleArea;
+			}
+			meshX += cx;
+			meshY += cy;
+			meshZ += cz;
+			meshArea += area;
+			if (area > 0) {
+				cx /= area;
+				cy /= area;
+				cz /= area;
+			}
+			float length = (float)Math.sqrt(nx * nx + ny * ny + nz * nz);
+			if (length > 0) {
+				nx /= length;
+				ny /= length;
+				nz /= length;
+			}
+			centroids[cluster * 3] = cx;
+			centroids[cluster * 3 + 1] = cy;
+			centroids[cluster * 3 + 2] = cz;
+			normals[cluster * 3] = nx;
+			normals[cluster * 3 + 1] = ny;
+			normals[cluster * 3 + 2] = nz;
+		}
+		if (meshArea > 0) {
+			meshX /= meshArea;
+			meshY /= meshArea;
+			meshZ /= meshArea;
+		}
+
+		// Sort by descending key, packing the key's sortable bits with the cluster index.
+		long[] keys = new long[clusterCount];
+		for (int cluster = 0; cluster < clusterCount; cluster++) {
+			int i = cluster * 3;
+			float key = (centroids[i] - meshX) * normals[i] + (centroids[i + 1] - meshY) * normals[i + 1]
+				+ (centroids[i + 2] - meshZ) * normals[i + 2];
+			int bits = NumberUtils.floatToIntBits(-key);
+			bits ^= (bits >> 31) & 0x7fffffff;
+			keys[cluster] = (long)bits << 32 | cluster;
+		}
+		Arrays.sort(keys);
+
+		int[] output = new int[indices.length];
+		int out = 0;
+		for (int k = 0; k < clusterCount; k++) {
+			int cluster = (int)keys[k];
+			int start = clusterStarts[cluster] * 3, count = clusterStarts[cluster + 1] * 3 - start;
+			System.arraycopy(indices, start, output, out, count);
+			out += count;
+		}
+		return output;
+	}
+
+	/** @return the average number of vertices processed per triangle before optimizing, between 0.5 and 3. */
+	public float getAcmrBefore () {
+		return triangles == 0 ? 0 : cacheMissesBefore / (float)triangles;
+	}
+
+	/** @return the average number of vertices processed per triangle after optimizing, between 0.5 and 3. */
+	public float getAcmrAfter () {
+		return triangles == 0 ? 0 : cacheMissesAfter / (float)triangles;
+	}
+
+	public void resetStatistics () {
+		triangles = 0;
+		verticesBefore = 0;
+		verticesAfter = 0;
+		cacheMissesBefore = 0;
+		cacheMissesAfter = 0;
+	}
+
+	/** @return the statistics, eg "1000 triangles, vertices: 3000 -> 520, ACMR: 3.0 -> 0.71". */
+	public String toString () {
+		return triangles + " triangles, vertices: " + verticesBefore + " -> " + verticesAfter + ", ACMR: " + getAcmrBefore() + " -> "
+			+ getAcmrAfter();
+	}
+
+	/** Counts the vertices a FIFO vertex cache of the given size processes for the triangle indices.
+	 * @param vertexCount the number of vertices, greater than the largest index. */
+	static public int countCacheMisses (short[] indices, int offset, int count, int vertexCount, int cacheSize) {
+		// A vertex is in the cache if less than cacheSize vertices were added to it since the vertex was added.
+		int[] cacheTimes = new int[vertexCount];
+		int misses = 0;
+		for (int i = offset, n = offset + count; i < n; i++) {
+			int v = indices[i] & 0xffff;
+			if (cacheTimes[v] == 0 || misses - cacheTimes[v] >= cacheSize) cacheTimes[v] = ++misses;
+		}
+		return misses;
+	}
+
+	/** @see #countCacheMisses(short[], int, int, int, int) */
+	static public int countCacheMisses (int[] indices, int offset, int count, int vertexCount, int cacheSize) {
+		int[] cacheTimes = new int[vertexCount];
+		int misses = 0;
+		for (int i = offset, n = offset + count; i < n; i++) {
+			int v = indices[i];
+			if (cacheTimes[v] == 0 || misses - cacheTimes[v] >= cacheSize) cacheTimes[v] = ++misses;
+		}
+		return misses;
+	}
+}
@@ -100,7 +100,8 @@ public interface MeshPartBuilder {
 	/** Add a vertex, returns the index. Use {@link #getAttributes} to check which values are available. */
 	public short vertex (final VertexInfo info);
 
-	/** @return The index of the last added vertex. */
+	/** @return The index of the last added vertex. Parts with more than 32768 vertices only get the lower 16 bits of the index,
+	 *         which is enough for the index methods as long as they refer to one of the last 65536 vertices. */
 	public short lastIndex ();
 
 	/** Add an index, MeshPartBuilder expects all meshes to be indexed. */
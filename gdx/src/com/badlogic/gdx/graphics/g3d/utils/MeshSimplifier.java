@@ -0,0 +1,539 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.NumberUtils;
+
+/** Reduces the number of triangles of indexed triangle meshes by collapsing edges, in the order of the error given by the quadric
+ * error metrics of Garland and Heckbert. A collapse moves a vertex onto one of its neighbors, so the result only uses vertices of
+ * the source and keeps all of their attributes. This makes it suitable for levels of detail that share the vertices of the
+ * source, see {@link ModelLod}.
+ * <p>
+ * Vertices with the same position but different attributes, eg on a texture seam, are collapsed along the seam together so the
+ * seam stays closed. Vertices on the border of the mesh are only collapsed along the border, or not at all with
+ * {@link #lockBorders}. Other vertices with a complex topology are kept, so the target number of indices may not be reached. */
+public class MeshSimplifier {
+	static private final int MANIFOLD = 0, BORDER = 1, SEAM = 2, LOCKED = 3;
+	/** The weight of the quadrics that keep border and seam edges in place, relative to the quadrics of the triangles. */
+	static private final float EDGE_WEIGHT = 10;
+	static private final int QUADRIC_SIZE = 11;
+
+	/** The maximum distance the surface may move, relative to the largest dimension of the mesh. Simplifying stops before the
+	 * target is reached when no more edges can be collapsed within this error. */
+	public float maxError = 0.02f;
+	/** Whether to keep all vertices on the border of the mesh, eg so adjacent meshes keep fitting together. */
+	public boolean lockBorders;
+	/** The error of the last simplification, relative to the largest dimension of the mesh. */
+	public float resultError;
+
+	private float[] positions;
+	private int[] remap, wedge, kind, openIn, openOut, collapseRemap;
+	private double[] quadrics;
+	private int[] edgeOffsets, edgeTargets, triangleOffsets, triangleList;
+	private boolean[] locked;
+	private int[] candidates;
+	private float[] candidateErrors;
+
+	/** @see #simplify(float[], int, int, int[], int, int, int, int[]) */
+	public int simplify (float[] vertices, int vertexSize, int positionOffset, short[] indices, int offset, int count,
+		int targetCount, short[] output) {
+		int[] ints = new int[count];
+		for (int i = 0; i < count; i++)
+			ints[i] = indices[offset + i] & 0xffff;
+		int resultCount = simplify(vertices, vertexSize, positionOffset, ints, 0, count, targetCount, ints);
+		for (int i = 0; i < resultCount; i++)
+			output[i] = (short)ints[i];
+		return resultCount;
+	}
+
+	/** Simplifies the triangles given by the indices until at most the target number of indices remain, or no more edges can be
+	 * collapsed within {@link #maxError}. The resulting error is stored in {@link #resultError}.
+	 * @param vertexSize the number of floats per vertex.
+	 * @param positionOffset the offset in floats of the 3 component position in a vertex.
+	 * @param output receives the simplified indices, it may be the indices array. It must hold at least count indices.
+	 * @return the number of indices written to the output, a multiple of 3. */
+	public int simplify (float[] vertices, int vertexSize, int positionOffset, int[] indices, int offset, int count,
+		int targetCount, int[] output) {
+		if (count % 3 != 0) throw new IllegalArgumentException("count must be a multiple of 3: " + count);
+		int[] result = new int[count];
+		System.arraycopy(indices, offset, result, 0, count);
+		int resultCount = count;
+		float error = 0;
+		if (count > targetCount) {
+			int vertexCount = vertices.length / vertexSize;
+			setup(vertices, vertexSize, positionOffset, vertexCount, result, count);
+			float maxErrorSquared = maxError * maxError;
+			while (resultCount > targetCount) {
+				buildAdjacency(result, resultCount, vertexCount);
+				int candidateCount = pickCollapses(result, resultCount);
+				if (candidateCount == 0) break;
+				long[] order = sortCandidates(candidateCount);
+				int triangleGoal = (resultCount - targetCount + 2) / 3;
+				// Leave collapses with a much larger error than needed for this pass to later passes, where they may be cheaper.
+				float limit = Math.min(maxErrorSquared,
+					candidateErrors[(int)order[Math.min(triangleGoal / 2, candidateCount - 1)]] * 1.5f);
+				float passError = performCollapses(result, order, candidateCount, triangleGoal, limit);
+				if (passError < 0 && limit < maxErrorSquared) passError = performCollapses(result, order, candidateCount,
+					triangleGoal, maxErrorSquared);
+				if (passError < 0) break;
+				error = Math.max(error, passError);
+				resultCount = applyCollapses(result, resultCount, vertexCount);
+			}
+			positions = null;
+			remap = wedge = kind = openIn = openOut = collapseRemap = null;
+			quadrics = null;
+			edgeOffsets = edgeTargets = triangleOffsets = triangleList = candidates = null;
+			locked = null;
+			candidateErrors = null;
+		}
+		resultError = (float)Math.sqrt(error);
+		System.arraycopy(result, 0, output, 0, resultCount);
+		return resultCount;
+	}
+
+	private void setup (float[] vertices, int vertexSize, int positionOffset, int vertexCount, int[] indices, int count) {
+		weldDuplicates(vertices, vertexSize, vertexCount, indices, count);
+
+		// Scale the positions to the unit cube, so errors are relative to the size of the mesh.
+		float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, minZ = Float.MAX_VALUE;
+		float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE, maxZ = -Float.MAX_VALUE;
+		for (int i = 0; i < count; i++) {
+			int p = indices[i] * vertexSize + positionOffset;
+			float x = vertices[p], y = vertices[p + 1], z = vertices[p + 2];
+			minX = Math.min(minX, x);
+			minY = Math.min(minY, y);
+			minZ = Math.min(minZ, z);
+			maxX = Math.max(maxX, x);
+			maxY = Math.max(maxY, y);
+			maxZ = Math.max(maxZ, z);
+		}
+		float extent = Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ));
+		float scale = extent > 0 ? 1 / extent : 1;
+		float[] positions = this.positions = new float[vertexCount * 3];
+		for (int i = 0; i < count; i++) {
+			int v = indices[i], p = v * vertexSize + positionOffset;
+			positions[v * 3] = (vertices[p] - minX) * scale;
+			positions[v * 3 + 1] = (vertices[p + 1] - minY) * scale;
+			positions[v * 3 + 2] = (vertices[p + 2] - minZ) * scale;
+		}
+
+		// Find the vertices with equal positions, linking them in a ring through wedge.
+		int[] remap = this.remap = new int[vertexCount], wedge = this.wedge = new int[vertexCount];
+		Arrays.fill(remap, -1);
+		int mask = Integer.highestOneBit(Math.max(vertexCount * 2, 2) - 1) * 2 - 1;
+		int[] table = new int[mask + 1];
+		Arrays.fill(table, -1);
+		for (int i = 0; i < count; i++) {
+			int v = indices[i];
+			if (remap[v] != -1) continue;
+			int p = v * vertexSize + positionOffset;
+			int hash = NumberUtils.floatToIntBits(vertices[p]);
+			hash = hash * 31 + NumberUtils.floatToIntBits(vertices[p + 1]);
+			hash = hash * 31 + NumberUtils.floatToIntBits(vertices[p + 2]);
+			hash ^= hash >>> 16;
+			while (true) {
+				int slot = hash & mask, other = table[slot];
+				if (other == -1) {
+					table[slot] = v;
+					remap[v] = v;
+					wedge[v] = v;
+					break;
+				}
+				int o = other * vertexSize + positionOffset;
+				if (vertices[o] == vertices[p] && vertices[o + 1] == vertices[p + 1] && vertices[o + 2] == vertices[p + 2]) {
+					remap[v] = other;
+					wedge[v] = wedge[other];
+					wedge[other] = v;
+					break;
+				}
+				hash++;
+			}
+		}
+
+		collapseRemap = new int[vertexCount];
+		for (int v = 0; v < vertexCount; v++)
+			collapseRemap[v] = v;
+		locked = new boolean[vertexCount];
+		candidates = new int[count * 2];
+		candidateErrors = new float[count];
+
+		edgeOffsets = null;
+		buildAdjacency(indices, count, vertexCount);
+		classifyVertices(indices, count, vertexCount);
+		computeQuadrics(indices, count, vertexCount);
+	}
+
+	/** Replaces the indices of vertices with equal values by the index of the first of them, so their triangles are connected. */
+	static private void weldDuplicates (float[] vertices, int vertexSize, int vertexCount, int[] indices, int count) {
+		int[] remap = new int[vertexCount];
+		Arrays.fill(remap, -1);
+		int mask = Integer.highestOneBit(Math.max(vertexCount * 2, 2) - 1) * 2 - 1;
+		int[] table = new int[mask + 1];
+		Arrays.fill(table, -1);
+		for (int i = 0; i < count; i++) {
+			int v = indices[i];
+			if (remap[v] == -1) {
+				int offset = v * vertexSize, hash = 0;
+				for (int j = 0; j < vertexSize; j++)
+					hash = hash * 31 + NumberUtils.floatToIntBits(vertices[offset + j]);
+				hash ^= hash >>> 16;
+				while (remap[v] == -1) {
+					int slot = hash & mask, other = table[slot];
+					if (other == -1) {
+						table[slot] = v;
+						remap[v] = v;
+					} else {
+						int otherOffset = other * vertexSize, j = 0;
+						while (j < vertexSize && vertices[offset + j] == vertices[otherOffset + j])
+							j++;
+						if (j == vertexSize) remap[v] = other;
+					}
+					hash++;
+				}
+			}
+			indices[i] = remap[v];
+		}
+	}
+
+	/** Builds the half-edges leaving each vertex, and the triangles using each position. */
+	private void buildAdjacency (int[] indices, int count, int vertexCount) {
+		int[] edgeOffsets = this.edgeOffsets, triangleOffsets = this.triangleOffsets;
+		if (edgeOffsets == null) {
+			edgeOffsets = this.edgeOffsets = new int[vertexCount + 1];
+			triangleOffsets = this.triangleOffsets = new int[vertexCount + 1];
+			edgeTargets = new int[count];
+			triangleList = new int[count];
+		} else {
+			Arrays.fill(edgeOffsets, 0);
+			Arrays.fill(triangleOffsets, 0);
+		}
+		int[] remap = this.remap, edgeTargets = this.edgeTargets, triangleList = this.triangleList;
+		for (int i = 0; i < count; i++) {
+			edgeOffsets[indices[i] + 1]++;
+			triangleOffsets[remap[indices[i]] + 1]++;
+		}
+		for (int v = 0; v < vertexCount; v++) {
+			edgeOffsets[v + 1] += edgeOffsets[v];
+			triangleOffsets[v + 1] += triangleOffsets[v];
+		}
+		// Fill using the start offsets, which are restored afterward.
+		for (int i = 0; i < count; i++) {
+			int v = indices[i], next = indices[i - i % 3 + (i + 1) % 3];
+			edgeTargets[edgeOffsets[v]++] = next;
+			triangleList[triangleOffsets[remap[v]]++] = i / 3;
+		}
+		for (int v = vertexCount; v > 0; v--) {
+			edgeOffsets[v] = edgeOffsets[v - 1];
+			triangleOffsets[v] = triangleOffsets[v - 1];
+		}
+		edgeOffsets[0] = 0;
+		triangleOffsets[0] = 0;
+	}
+
+	private boolean hasEdge (int from, int to) {
+		int[] edgeTargets = this.edgeTargets;
+		for (int i = edgeOffsets[from], n = edgeOffsets[from + 1]; i < n; i++)
+			if (edgeTargets[i] == to) return true;
+		return false;
+	}
+
+	/** Finds the half-edges without an opposite half-edge and classifies the vertices by them. openOut and openIn store the other
+	 * vertex of the open edge leaving and entering a vertex, -1 if there is none, or the vertex itself if there are several. */
+	private void classifyVertices (int[] indices, int count, int vertexCount) {
+		int[] openIn = this.openIn = new int[vertexCount], openOut = this.openOut = new int[vertexCount];
+		Arrays.fill(openIn, -1);
+		Arrays.fill(openOut, -1);
+		int[] edgeOffsets = this.edgeOffsets, edgeTargets = this.edgeTargets;
+		for (int from = 0; from < vertexCount; from++) {
+			for (int i = edgeOffsets[from], n = edgeOffsets[from + 1]; i < n; i++) {
+				int to = edgeTargets[i];
+				if (hasEdge(to, from)) continue;
+				openOut[from] = openOut[from] == -1 ? to : from;
+				openIn[to] = openIn[to] == -1 ? from : to;
+			}
+		}
+
+		int[] remap = this.remap, wedge = this.wedge, kind = this.kind = new int[vertexCount];
+		for (int v = 0; v < vertexCount; v++) {
+			if (remap[v] == -1) continue;
+			int in = openIn[v], out = openOut[v];
+			if (wedge[v] == v) {
+				if (in == -1 && out == -1)
+					kind[v] = MANIFOLD;
+				else if (in != -1 && out != -1 && in != v && out != v)
+					kind[v] = lockBorders ? LOCKED : BORDER;
+				else
+					kind[v] = LOCKED;
+			} else if (wedge[wedge[v]] == v) {
+				// A seam has one open edge in and out of each of the two vertices, connecting to the same positions.
+				int w = wedge[v], inW = openIn[w], outW = openOut[w];
+				if (in != -1 && out != -1 && in != v && out != v && inW != -1 && outW != -1 && inW != w && outW != w
+					&& remap[in] == remap[outW] && remap[out] == remap[inW])
+					kind[v] = SEAM;
+				else
+					kind[v] = LOCKED;
+			} else
+				kind[v] = LOCKED;
+		}
+	}
+
+	/** Sums the quadrics of the planes of the triangles around each position, weighted by area, and of planes perpendicular to
+	 * the border and seam edges. */
+	private void computeQuadrics (int[] indices, int count, int vertexCount) {
+		double[] quadrics = this.quadrics = new double[vertexCount * QUADRIC_SIZE];
+		float[] positions = this.positions;
+		int[] remap = this.remap;
+		for (int i = 0; i < count; i += 3) {
+			int p0 = indices[i] * 3, p1 = indices[i + 1] * 3, p2 = indices[i + 2] * 3;
+			float ux = positions[p1] - positions[p0], uy = positions[p1 + 1] - positions[p0 + 1], uz = positions[p1 + 2]
+				- positions[p0 + 2];
+			float vx = positions[p2] - positions[p0], vy = positions[p2 + 1] - positions[p0 + 1], vz = positions[p2 + 2]
+				- positions[p0 + 2];
+			float nx = uy * vz - uz * vy, ny = uz * vx - ux * vz, nz = ux * vy - uy * vx;
+			float length = (float)Math.sqrt(nx * nx + ny * ny + nz * nz);
+			if (length == 0) continue;
+			nx /= length;
+			ny /= length;
+			nz /= length;
+			float d = -(nx * positions[p0] + ny * positions[p0 + 1] + nz * positions[p0 + 2]);
+			float area = length * 0.5f;
+			for (int k = 0; k < 3; k++)
+				addPlane(remap[indices[i + k]], nx, ny, nz, d, area);
+		}
+
+		for (int i = 0; i < count; i++) {
+			int i0 = indices[i], i1 = indices[i - i % 3 + (i + 1) % 3], i2 = indices[i - i % 3 + (i + 2) % 3];
+			if (hasEdge(i1, i0)) continue;
+			// The plane through the edge, perpendicular to the triangle.
+			int p0 = i0 * 3, p1 = i1 * 3, p2 = i2 * 3;
+			float ex = positions[p1] - positions[p0], ey = positions[p1 + 1] - positions[p0 + 1], ez = positions[p1 + 2]
+				- positions[p0 + 2];
+			float length = (float)Math.sqrt(ex * ex + ey * ey + ez * ez);
+			if (length == 0) continue;
+			ex /= length;
+			ey /= length;
+			ez /= length;
+			float vx = positions[p2] - positions[p0], vy = positions[p2 + 1] - positions[p0 + 1], vz = positions[p2 + 2]
+				- positions[p0 + 2];
+			float dot = vx * ex + vy * ey + vz * ez;
+			float nx = vx - ex * dot, ny = vy - ey * dot, nz = vz - ez * dot;
+			float nLength = (float)Math.sqrt(nx * nx + ny * ny + nz * nz);
+			if (nLength == 0) continue;
+			nx /= nLength;
+			ny /= nLength;
+			nz /= nLength;
+			float d = -(nx * positions[p0] + ny * positions[p0 + 1] + nz * positions[p0 + 2]);
+			addPlane(remap[i0], nx, ny, nz, d, length * EDGE_WEIGHT);
+			addPlane(remap[i1], nx, ny, nz, d, length * EDGE_WEIGHT);
+		}
+	}
+
+	private void addPlane (int position, double a, double b, double c, double d, double weight) {
+		double[] q = quadrics;
+		int i = position * QUADRIC_SIZE;
+		q[i] += a * a * weight;
+		q[i + 1] += b * b * weight;
+		q[i + 2] += c * c * weight;
+		q[i + 3] += a * b * weight;
+		q[i + 4] += a * c * weight;
+		q[i + 5] += b * c * weight;
+		q[i + 6] += a * d * weight;
+		q[i + 7] += b * d * weight;
+		q[i + 8] += c * d * weight;
+		q[i + 9] += d * d * weight;
+		q[i + 10] += weight;
+	}
+
+	/** @return the mean squared distance of the vertex to the planes of the position's quadric. */
+	private float quadricError (int position, int vertex) {
+		double[] q = quadrics;
+		int i = position * QUADRIC_SIZE, p = vertex * 3;
+		double x = positions[p], y = positions[p + 1], z = positions[p + 2];
+		double rx = q[i] * x + q[i + 3] * y + q[i + 4] * z + q[i + 6];
+		double ry = q[i + 3] * x + q[i + 1] * y + q[i + 5] * z + q[i + 7];
+		double rz = q[i + 4] * x + q[i + 5] * y + q[i + 2] * z + q[i + 8];
+		double error = rx * x + ry * y + rz * z + q[i + 6] * x + q[i + 7] * y + q[i + 8] * z + q[i + 9];
+		double weight = q[i + 10];
+		return (float)(Math.abs(error) / (weight > 0 ? weight : 1));
+	}
+
+	private boolean canCollapse (int from, int to) {
+		int[] remap = this.remap;
+		if (remap[from] == remap[to]) return false;
+		int[] openIn = this.openIn, openOut = this.openOut;
+		switch (kind[from]) {
+		case MANIFOLD:
+			return true;
+		case BORDER: {
+			int toKind = kind[to];
+			return (toKind == BORDER || toKind == LOCKED) && (openOut[from] == to || openIn[from] == to);
+		}
+		case SEAM: {
+			if (kind[to] != SEAM || (openOut[from] != to && openIn[from] != to)) return false;
+			int from2 = wedge[from], to2 = wedge[to];
+			return openOut[from2] == to2 || openIn[from2] == to2;
+		}
+		}
+		return false;
+	}
+
+	/** Stores the cheapest allowed collapse of each half-edge in the candidates.
+	 * @return the number of candidates. */
+	private int pickCollapses (int[] indices, int count) {
+		int[] candidates = this.candidates, remap = this.remap;
+		float[] candidateErrors = this.candidateErrors;
+		int candidateCount = 0;
+		for (int i = 0; i < count; i++) {
+			int i0 = indices[i], i1 = indices[i - i % 3 + (i + 1) % 3];
+			if (i1 < i0 && hasEdge(i1, i0)) continue; // Pick each edge once.
+			boolean forward = canCollapse(i0, i1), backward = canCollapse(i1, i0);
+			if (!forward && !backward) continue;
+			float forwardError = forward ? quadricError(remap[i0], i1) : Float.MAX_VALUE;
+			float backwardError = backward ? quadricError(remap[i1], i0) : Float.MAX_VALUE;
+			if (backwardError < forwardError) {
+				candidates[candidateCount * 2] = i1;
+				candidates[candidateCount * 2 + 1] = i0;
+				candidateErrors[candidateCount++] = backwardError;
+			} else {
+				candidates[candidateCount * 2] = i0;
+				candidates[candidateCount * 2 + 1] = i1;
+				candidateErrors[candidateCount++] = forwardError;
+			}
+		}
+		return candidateCount;
+	}
+
+	/** @return the candidate indices in the low bits, sorted by increasing error. */
+	private long[] sortCandidates (int candidateCount) {
+		long[] order = new long[candidateCount];
+		for (int i = 0; i < candidateCount; i++)
+			order[i] = (long)NumberUtils.floatToIntBits(candidateErrors[i]) << 32 | i; // Positive floats sort as their bits.
+		Arrays.sort(order);
+		return order;
+	}
+
+	/** Collapses the candidates in order of their error, at most once around each position.
+	 * @return the largest error of the collapses, or -1 if no edge was collapsed. */
+	private float performCollapses (int[] indices, long[] order, int candidateCount, int triangleGoal, float limit) {
+		int[] candidates = this.candidates, remap = this.remap, wedge = this.wedge, collapseRemap = this.collapseRemap;
+		boolean[] locked = this.locked;
+		double[] quadrics = this.quadrics;
+		float maxError = -1;
+		int triangles = 0;
+		for (int c = 0; c < candidateCount; c++) {
+			int candidate = (int)order[c];
+			float error = candidateErrors[candidate];
+			if (error > limit) break;
+			int i0 = candidates[candidate * 2], i1 = candidates[candidate * 2 + 1];
+			int r0 = remap[i0], r1 = remap[i1];
+			if (locked[r0] || locked[r1] || flips(indices, r0, r1, i1)) continue;
+
+			collapseRemap[i0] = i1;
+			if (kind[i0] == SEAM) collapseRemap[wedge[i0]] = wedge[i1];
+			for (int i = 0; i < QUADRIC_SIZE; i++)
+				quadrics[r1 * QUADRIC_SIZE + i] += quadrics[r0 * QUADRIC_SIZE + i];
+
+			locked[r0] = true;
+			locked[r1] = true;
+
+			maxError = Math.max(maxError, error);
+			triangles += kind[i0] == BORDER ? 1 : 2;
+			if (triangles >= triangleGoal) break;
+		}
+		return maxError;
+	}
+
+	/** @return true if moving the position onto the vertex flips the normal of a triangle around the position that remains. The
+	 * collapses performed earlier in the pass are taken into account. */
+	private boolean flips (int[] indices, int position, int otherPosition, int vertex) {
+		int[] remap = this.remap, collapseRemap = this.collapseRemap, triangleList = this.triangleList;
+		float[] positions = this.positions;
+		float tx = positions[vertex * 3], ty = positions[vertex * 3 + 1], tz = positions[vertex * 3 + 2];
+		for (int t = triangleOffsets[position], n = triangleOffsets[position + 1]; t < n; t++) {
+			int triangle = triangleList[t] * 3;
+			int v0 = collapseRemap[indices[triangle]], v1 = collapseRemap[indices[triangle + 1]];
+			int v2 = collapseRemap[indices[triangle + 2]];
+			int r0 = remap[v0], r1 = remap[v1], r2 = remap[v2];
+			// Skip the triangles removed by this collapse or an earlier one.
+			if (r0 == otherPosition || r1 == otherPosition || r2 == otherPosition || r0 == r1 || r1 == r2 || r0 == r2) continue;
+			int p0, p1, p2;
+			if (r0 == position) {
+				p0 = v0 * 3;
+				p1 = v1 * 3;
+				p2 = v2 * 3;
+			} else if (r1 == position) {
+				p0 = v1 * 3;
+				p1 = v2 * 3;
+				p2 = v0 * 3;
+			} else {
+				p0 = v2 * 3;
+				p1 = v0 * 3;
+				p2 = v1 * 3;
+			}
+			float ux = positions[p1] - positions[p0], uy = positions[p1 + 1] - positions[p0 + 1], uz = positions[p1 + 2]
+				- positions[p0 + 2];
+			float vx = positions[p2] - positions[p0], vy = positions[p2 + 1] - positions[p0 + 1], vz = positions[p2 + 2]
+				- positions[p0 + 2];
+			float nx = uy * vz - uz * vy, ny = uz * vx - ux * vz, nz = ux * vy - uy * vx;
+			ux = positions[p1] - tx;
+			uy = positions[p1 + 1] - ty;
+			uz = positions[p1 + 2] - tz;
+			vx = positions[p2] - tx;
+			vy = positions[p2 + 1] - ty;
+			vz = positions[p2 + 2] - tz;
+			float mx = uy * vz - uz * vy, my = uz * vx - ux * vz, mz = ux * vy - uy * vx;
+			if (nx * mx + ny * my + nz * mz <= 0) return true;
+		}
+		return false;
+	}
+
+	/** Remaps the indices of the collapsed vertices and removes the triangles that became degenerate.
+	 * @return the number of remaining indices. */
+	private int applyCollapses (int[] indices, int count, int vertexCount) {
+		int[] remap = this.remap, collapseRemap = this.collapseRemap;
+		int resultCount = 0;
+		for (int i = 0; i < count; i += 3) {
+			int a = collapseRemap[indices[i]], b = collapseRemap[indices[i + 1]], c = collapseRemap[indices[i + 2]];
+			int ra = remap[a], rb = remap[b], rc = remap[c];
+			if (ra == rb || rb == rc || ra == rc) continue;
+			indices[resultCount++] = a;
+			indices[resultCount++] = b;
+			indices[resultCount++] = c;
+		}
+
+		// Follow the open edges past the collapsed vertices.
+		int[] openIn = this.openIn, openOut = this.openOut;
+		for (int v = 0; v < vertexCount; v++) {
+			int out = openOut[v];
+			if (out != -1 && out != v) {
+				int target = collapseRemap[out];
+				openOut[v] = target == v ? openOut[out] : target;
+			}
+			int in = openIn[v];
+			if (in != -1 && in != v) {
+				int target = collapseRemap[in];
+				openIn[v] = target == v ? openIn[in] : target;
+			}
+		}
+
+		Arrays.fill(locked, false);
+		return resultCount;
+	}
+}
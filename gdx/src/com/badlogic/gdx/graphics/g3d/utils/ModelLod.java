@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelCache;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.utils.Array;
+
+/** Levels of detail for the parts of a {@link Model}, generated with a {@link MeshSimplifier}. Level 0 is the model itself, each
+ * next level has fewer triangles. The parts of the other levels use new meshes, which are added to the model so they are
+ * disposed with it. Use a {@link LodRenderableProvider} to render a {@link ModelInstance} of the model at the level that fits
+ * its size on the screen.
+ * <p>
+ * Only indexed {@link GL20#GL_TRIANGLES} parts with a 3 component position are simplified, other parts are the same at all
+ * levels. The vertices and indices are read back from the meshes, which requires their data to be kept in memory. Create the
+ * levels once per model, not per instance.
+ * <p>
+ * The new meshes get int indices when they have more than 32768 vertices, see {@link MeshBuilder#setIntIndices(boolean)}. A
+ * part of a level uses no more vertices than the part at level 0, so a {@link ModelCache} can merge it whenever it can merge
+ * the original part.
+ * @see #ModelLod(Model, MeshSimplifier, float...) */
+public class ModelLod {
+	public final Model model;
+	/** For each level, the {@link LodRenderableProvider#screenSize screen size} at or below which it is used, see
+	 * {@link #getLevel(float)}. Level 0 is used at any larger size. Defaults to the triangle ratio of each level. */
+	public final float[] screenSizes;
+	/** For each level, the largest error of its parts. The error of a part is the sum of the {@link MeshSimplifier#resultError}
+	 * of each simplification up to that level. Each of those is relative to the largest dimension of the triangles it simplified,
+	 * so the sum is relative to the size of the part rather than of its mesh. */
+	public final float[] errors;
+	/** The bounding sphere of the model, used to calculate its size on the screen. */
+	public final Vector3 center = new Vector3();
+	public float radius;
+
+	private final Array<MeshPart> parts = new Array();
+	private final Array<MeshPart[]> levels = new Array();
+
+	/** @see #ModelLod(Model, MeshSimplifier, float...) */
+	public ModelLod (Model model, float... ratios) {
+		this(model, new MeshSimplifier(), ratios);
+	}
+
+	/** Generates the levels of detail of the model.
+	 * @param simplifier its {@link MeshSimplifier#maxError} limits how much each level can differ from the previous one.
+	 * @param ratios for each level after level 0, the ratio of the triangles of the model to keep, decreasing and between 0 and 1.
+	 *           The ratio isn't reached when simplifying would exceed the error. */
+	public ModelLod (Model model, MeshSimplifier simplifier, float... ratios) {
+		this.model = model;
+		int levelCount = ratios.length + 1;
+		screenSizes = new float[levelCount];
+		errors = new float[levelCount];
+		screenSizes[0] = Float.POSITIVE_INFINITY;
+		for (int i = 0; i < ratios.length; i++) {
+			float ratio = ratios[i];
+			if (ratio <= 0 || ratio >= screenSizes[i] || ratio >= 1)
+				throw new IllegalArgumentException("ratios must be decreasing and between 0 and 1: " + Arrays.toString(ratios));
+			screenSizes[i + 1] = ratio;
+		}
+
+		BoundingBox bounds = model.calculateBoundingBox(new BoundingBox());
+		bounds.getCenter(center);
+		radius = bounds.getDimensions(new Vector3()).len() * 0.5f;
+
+		// The new meshes are added to the model, only simplify those it had before.
+		for (int i = 0, n = model.meshes.size; i < n; i++)
+			generate(model.meshes.get(i), simplifier, ratios);
+	}
+
+	private void generate (Mesh mesh, MeshSimplifier simplifier, float[] ratios) {
+		VertexAttribute position = mesh.getVertexAttribute(Usage.Position);
+		if (mesh.getNumIndices() == 0 || position == null || position.numComponents != 3) return;
+		Array<MeshPart> parts = new Array();
+		for (MeshPart part : model.meshParts)
+			if (part.mesh == mesh && part.primitiveType == GL20.GL_TRIANGLES && part.size >= 3) parts.add(part);
+		if (parts.size == 0) return;
+
+		int vertexSize = mesh.getVertexSize() / 4, vertexCount = mesh.getNumVertices();
+		float[] vertices = mesh.getVertices(new float[vertexCount * vertexSize]);
+		int[] indices = new int[mesh.getNumIndices()];
+		mesh.getIndices(0, -1, indices, 0);
+
+		// Simplify each level from the previous one. A level with no fewer triangles shares the previous level's indices.
+		int levelCount = ratios.length + 1;
+		int[][][] partIndices = new int[parts.size][levelCount][];
+		int indexCount = 0;
+		for (int p = 0; p < parts.size; p++) {
+			MeshPart part = parts.get(p);
+			int[] source = new int[part.size - part.size % 3];
+			System.arraycopy(indices, part.offset, source, 0, source.length);
+			partIndices[p][0] = source;
+			float error = 0;
+			for (int level = 1; level < levelCount; level++) {
+				int[] output = new int[source.length];
+				int count = simplifier.simplify(vertices, vertexSize, position.offset / 4, source, 0, source.length,
+					Math.round(part.size * ratios[level - 1] / 3) * 3, output);
+				if (count < source.length) {
+					source = new int[count];
+					System.arraycopy(output, 0, source, 0, count);
+					indexCount += count;
+					error += simplifier.resultError;
+				}
+				partIndices[p][level] = source;
+				errors[level] = Math.max(errors[level], error);
+			}
+		}
+		if (indexCount == 0) return;
+
+		// Copy the vertices used by the levels to the new mesh.
+		int[] newIndices = new int[vertexCount];
+		Arrays.fill(newIndices, -1);
+		int newCount = 0;
+		for (int[][] levels : partIndices) {
+			for (int level = 1; level < levelCount; level++) {
+				int[] levelIndices = levels[level];
+				if (levelIndices == levels[level - 1]) continue;
+				for (int i = 0; i < levelIndices.length; i++)
+					if (newIndices[levelIndices[i]] == -1) newIndices[levelIndices[i]] = newCount++;
+			}
+		}
+		float[] newVertices = new float[newCount * vertexSize];
+		for (int v = 0; v < vertexCount; v++)
+			if (newIndices[v] != -1) System.arraycopy(vertices, v * vertexSize, newVertices, newIndices[v] * vertexSize, vertexSize);
+		boolean intIndices = newCount > Short.MAX_VALUE + 1;
+		Mesh lodMesh = new Mesh(true, newCount, indexCount, intIndices, mesh.getVertexAttributes());
+		lodMesh.setVertices(newVertices);
+
+		int[] lodIndices = new int[indexCount];
+		int offset = 0;
+		for (int p = 0; p < parts.size; p++) {
+			MeshPart part = parts.get(p);
+			MeshPart[] partLevels = new MeshPart[levelCount];
+			partLevels[0] = part;
+			for (int level = 1; level < levelCount; level++) {
+				int[] levelIndices = partIndices[p][level];
+				if (levelIndices == partIndices[p][level - 1]) {
+					partLevels[level] = partLevels[level - 1];
+					continue;
+				}
+				for (int i = 0; i < levelIndices.length; i++)
+					lodIndices[offset + i] = newIndices[levelIndices[i]];
+				MeshPart levelPart = new MeshPart(part.id, lodMesh, offset, levelIndices.length, GL20.GL_TRIANGLES);
+				// Keep the bounds of the part, so sorting and culling are the same at all levels.
+				levelPart.center.set(part.center);
+				levelPart.halfExtents.set(part.halfExtents);
+				levelPart.radius = part.radius;
+				partLevels[level] = levelPart;
+				offset += levelIndices.length;
+			}
+			this.parts.add(part);
+			levels.add(partLevels);
+		}
+		if (intIndices)
+			lodMesh.setIndices(lodIndices, 0, offset);
+		else {
+			short[] shorts = new short[offset];
+			for (int i = 0; i < offset; i++)
+				shorts[i] = (short)lodIndices[i];
+			lodMesh.setIndices(shorts);
+		}
+		model.meshes.add(lodMesh);
+		model.manageDisposable(lodMesh);
+	}
+
+	public int getLevelCount () {
+		return screenSizes.length;
+	}
+
+	/** @return the highest level whose {@link #screenSizes screen size} is at or above the size. */
+	public int getLevel (float screenSize) {
+		float[] screenSizes = this.screenSizes;
+		int level = 0;
+		while (level + 1 < screenSizes.length && screenSize <= screenSizes[level + 1])
+			level++;
+		return level;
+	}
+
+	/** @param part a part of the model, or a copy of it such as those of the {@link ModelInstance} node parts.
+	 * @return the part for each level, starting with the model's part at level 0, or null if the part has no levels of detail. */
+	public MeshPart[] getLevels (MeshPart part) {
+		for (int i = 0, n = parts.size; i < n; i++)
+			if (parts.get(i).equals(part)) return levels.get(i);
+		return null;
+	}
+}
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+
+import com.badlogic.gdx.Application.ApplicationType;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** <p>
+ * An {@link IndexData} implementation that stores 32-bit indices in an OpenGL index buffer, to be drawn with
+ * {@link GL20#GL_UNSIGNED_INT}. Use it for meshes with more vertices than a short index can address. OpenGL ES 2.0 and WebGL 1
+ * require the OES_element_index_uint extension for this, OpenGL ES 3.0 and desktop OpenGL always support it, see
+ * {@link #isSupported()}.
+ * </p>
+ * 
+ * <p>
+ * The short based methods of {@link IndexData} widen the indices as unsigned values. The indices can't be accessed as a
+ * ShortBuffer, use {@link #getIntBuffer()} instead of {@link #getBuffer()}.
+ * </p>
+ * 
+ * <p>
+ * IndexBufferObjectInts must be disposed via the {@link #dispose()} method when no longer needed
+ * </p> */
+public class IndexBufferObjectInt implements IndexData {
+	final IntBuffer buffer;
+	final ByteBuffer byteBuffer;
+	int bufferHandle;
+	boolean isDirty = true;
+	boolean isBound = false;
+	final int usage;
+
+	// used to work around bug: https://android-review.googlesource.com/#/c/73175/
+	private final boolean empty;
+
+	/** Creates a new IndexBufferObjectInt.
+	 * 
+	 * @param isStatic whether the index buffer is static
+	 * @param maxIndices the maximum number of indices this buffer can hold
+	 * @throws GdxRuntimeException if int indices are not {@link #isSupported() supported}. */
+	public IndexBufferObjectInt (boolean isStatic, int maxIndices) {
+		if (!isSupported())
+			throw new GdxRuntimeException("Int indices require OpenGL ES 3.0 or the OES_element_index_uint extension");
+		empty = maxIndices == 0;
+		if (empty) {
+			maxIndices = 1; // avoid allocating a zero-sized buffer because of bug in Android's ART < Android 5.0
+		}
+
+		byteBuffer = BufferUtils.newUnsafeByteBuffer(maxIndices * 4);
+		buffer = byteBuffer.asIntBuffer();
+		buffer.flip();
+		byteBuffer.flip();
+		bufferHandle = Gdx.gl20.glGenBuffer();
+		usage = isStatic ? GL20.GL_STATIC_DRAW : GL20.GL_DYNAMIC_DRAW;
+	}
+
+	/** @return whether int indices can be drawn. WebGL only allows them once the extension is enabled, which this does. */
+	static public boolean isSupported () {
+		if (Gdx.gl30 != null) return true;
+		ApplicationType type = Gdx.app.getType();
+		if (type == ApplicationType.Desktop || type == ApplicationType.HeadlessDesktop) return true;
+		return Gdx.graphics.supportsExtension("OES_element_index_uint");
+	}
+
+	/** @return the number of indices currently stored in this buffer */
+	public int getNumIndices () {
+		return empty ? 0 : buffer.limit();
+	}
+
+	/** @return the maximum number of indices this IndexBufferObjectInt can store. */
+	public int getNumMaxIndices () {
+		return empty ? 0 : buffer.capacity();
+	}
+
+	/** Sets the indices of this IndexBufferObjectInt, discarding the old indices. This can be called in between calls to
+	 * {@link #bind()} and {@link #unbind()}. The index data will be updated instantly.
+	 * 
+	 * @param indices the index data
+	 * @param offset the offset to start copying the data from
+	 * @param count the number of ints to copy */
+	public void setIndices (int[] indices, int offset, int count) {
+		buffer.clear();
+		buffer.put(indices, offset, count);
+		buffer.flip();
+		bufferChanged();
+	}
+
+	/** Copies the remaining indices of the specified buffer, discarding the old indices.
+	 * @param indices the index data to copy */
+	public void setIndices (IntBuffer indices) {
+		int pos = indices.position();
+		buffer.clear();
+		buffer.put(indices);
+		buffer.flip();
+		indices.position(pos);
+		bufferChanged();
+	}
+
+	/** Widens the unsigned short indices to ints. */
+	public void setIndices (short[] indices, int offset, int count) {
+		buffer.clear();
+		for (int i = offset, n = offset + count; i < n; i++)
+			buffer.put(indices[i] & 0xffff);
+		buffer.flip();
+		bufferChanged();
+	}
+
+	/** Widens the remaining unsigned short indices of the specified buffer to ints. */
+	public void setIndices (ShortBuffer indices) {
+		int pos = indices.position();
+		buffer.clear();
+		while (indices.hasRemaining())
+			buffer.put(indices.get() & 0xffff);
+		buffer.flip();
+		indices.position(pos);
+		bufferChanged();
+	}
+
+	/** Update (a portion of) the indices.
+	 * @param targetOffset offset in indices buffer
+	 * @param indices the index data
+	 * @param offset the offset to start copying the data from
+	 * @param count the number of ints to copy */
+	public void updateIndices (int targetOffset, int[] indices, int offset, int count) {
+		final int pos = buffer.position();
+		buffer.position(targetOffset);
+		buffer.put(indices, offset, count);
+		buffer.position(pos);
+		bufferChanged();
+	}
+
+	/** Widens the unsigned short indices to ints. */
+	public void updateIndices (int targetOffset, short[] indices, int offset, int count) {
+		final int pos = buffer.position();
+		buffer.position(targetOffset);
+		for (int i = offset, n = offset + count; i < n; i++)
+			buffer.put(indices[i] & 0xffff);
+		buffer.position(pos);
+		bufferChanged();
+	}
+
+	private void bufferChanged () {
+		isDirty = true;
+		byteBuffer.position(0);
+		byteBuffer.limit(buffer.limit() << 2);
+		if (isBound) {
+			Gdx.gl20.glBufferData(GL20.GL_ELEMENT_ARRAY_BUFFER, byteBuffer.limit(), byteBuffer, usage);
+			isDirty = false;
+		}
+	}
+
+	/** Not supported, the indices are ints.
+	 * @throws GdxRuntimeException always, use {@link #getIntBuffer()} instead. */
+	public ShortBuffer getBuffer () {
+		throw new GdxRuntimeException("IndexBufferObjectInt stores int indices, use getIntBuffer()");
+	}
+
+	/** Returns the underlying IntBuffer. If you modify the buffer contents they will be uploaded on the call to {@link #bind()}.
+	 * If you need immediate uploading use {@link #setIndices(int[], int, int)}.
+	 * 
+	 * @return the underlying int buffer. */
+	public IntBuffer getIntBuffer () {
+		isDirty = true;
+		return buffer;
+	}
+
+	/** Binds this IndexBufferObjectInt for rendering with glDrawElements. */
+	public void bind () {
+		if (bufferHandle == 0) throw new GdxRuntimeException("No buffer allocated!");
+
+		Gdx.gl20.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, bufferHandle);
+		if (isDirty) {
+			byteBuffer.limit(buffer.limit() * 4);
+			Gdx.gl20.glBufferData(GL20.GL_ELEMENT_ARRAY_BUFFER, byteBuffer.limit(), byteBuffer, usage);
+			isDirty = false;
+		}
+		isBound = true;
+	}
+
+	/** Unbinds this IndexBufferObjectInt. */
+	public void unbind () {
+		Gdx.gl20.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, 0);
+		isBound = false;
+	}
+
+	/** Invalidates the IndexBufferObjectInt so a new OpenGL buffer handle is created. Use this in case of a context loss. */
+	public void invalidate () {
+		bufferHandle = Gdx.gl20.glGenBuffer();
+		isDirty = true;
+	}
+
+	/** Disposes this IndexBufferObjectInt and all its associated OpenGL resources. */
+	public void dispose () {
+		Gdx.gl20.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, 0);
+		Gdx.gl20.glDeleteBuffer(bufferHandle);
+		bufferHandle = 0;
+
+		BufferUtils.disposeUnsafeByteBuffer(byteBuffer);
+	}
+}
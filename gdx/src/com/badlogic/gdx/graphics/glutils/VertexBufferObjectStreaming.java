@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.graphics.glutils;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.utils.BufferUtils;
+
+/** <p>
+ * A {@link VertexData} implementation for vertices that are replaced every time they are drawn, such as the vertices of the
+ * batches.
+ * <p>
+ * The OpenGL buffer object is several times larger than the vertices. Each upload is appended behind the previous one with
+ * glBufferSubData() and the attribute pointers are offset to the uploaded region, so the driver never has to wait for a draw
+ * call that still reads a region to finish. When the buffer is full its storage is orphaned with glBufferData() and writing
+ * starts over at the beginning, the driver keeps the old storage alive until the pending draw calls are done.
+ * <p>
+ * The vertices are uploaded when they are set while bound, or on the next bind. If OpenGL ES 3.0 is available a vertex array
+ * object is used.
+ * <p>
+ * If the OpenGL ES context was lost you can call {@link #invalidate()} to recreate a new OpenGL vertex buffer object.
+ * <p>
+ * VertexBufferObjectStreaming must be disposed via the {@link #dispose()} method when no longer needed */
+public class VertexBufferObjectStreaming implements VertexData {
+	/** The default number of times the vertices fit in the OpenGL buffer before it is orphaned. */
+	static public final int DEFAULT_SEGMENTS = 4;
+
+	final static IntBuffer tmpHandle = BufferUtils.newIntBuffer(1);
+
+	final VertexAttributes attributes;
+	final FloatBuffer buffer;
+	final ByteBuffer byteBuffer;
+	final int capacity;
+	int bufferHandle;
+	int vaoHandle = -1;
+	boolean allocated;
+	int writeOffset, drawOffset;
+	boolean isDirty = false;
+	boolean isBound = false;
+	ShaderProgram boundShader;
+	int[] boundLocations;
+	int orphans;
+
+	/** Constructs a new interleaved VertexBufferObjectStreaming with {@link #DEFAULT_SEGMENTS} segments.
+	 * 
+	 * @param numVertices the maximum number of vertices
+	 * @param attributes the {@link VertexAttribute}s. */
+	public VertexBufferObjectStreaming (int numVertices, VertexAttribute... attributes) {
+		this(numVertices, DEFAULT_SEGMENTS, new VertexAttributes(attributes));
+	}
+
+	/** Constructs a new interleaved VertexBufferObjectStreaming.
+	 * 
+	 * @param numVertices the maximum number of vertices
+	 * @param segments how many times the maximum number of vertices fit in the OpenGL buffer, at least 1
+	 * @param attributes the {@link VertexAttributes}. */
+	public VertexBufferObjectStreaming (int numVertices, int segments, VertexAttributes attributes) {
+		if (segments < 1) throw new IllegalArgumentException("segments must be >= 1: " + segments);
+		this.attributes = attributes;
+		byteBuffer = BufferUtils.newUnsafeByteBuffer(attributes.vertexSize * numVertices);
+		buffer = byteBuffer.asFloatBuffer();
+		buffer.flip();
+		byteBuffer.flip();
+		capacity = byteBuffer.capacity() * segments;
+		createBufferObject();
+	}
+
+	private void createBufferObject () {
+		bufferHandle = Gdx.gl20.glGenBuffer();
+		allocated = false;
+		writeOffset = 0;
+		drawOffset = 0;
+		if (Gdx.gl30 != null) {
+			tmpHandle.clear();
+			Gdx.gl30.glGenVertexArrays(1, tmpHandle);
+			vaoHandle = tmpHandle.get();
+		}
+	}
+
+	@Override
+	public VertexAttributes getAttributes () {
+		return attributes;
+	}
+
+	@Override
+	public int getNumVertices () {
+		return buffer.limit() * 4 / attributes.vertexSize;
+	}
+
+	@Override
+	public int getNumMaxVertices () {
+		return byteBuffer.capacity() / attributes.vertexSize;
+	}
+
+	/** Returns the staging buffer, it is uploaded as a new region of the OpenGL buffer on the next bind. */
+	@Override
+	public FloatBuffer getBuffer () {
+		isDirty = true;
+		return buffer;
+	}
+
+	@Override
+	public void setVertices (float[] vertices, int offset, int count) {
+		BufferUtils.copy(vertices, byteBuffer, count, offset);
+		buffer.position(0);
+		buffer.limit(count);
+		bufferChanged();
+	}
+
+	@Override
+	public void updateVertices (int targetOffset, float[] vertices, int sourceOffset, int count) {
+		final int pos = byteBuffer.position();
+		byteBuffer.position(targetOffset * 4);
+		BufferUtils.copy(vertices, sourceOffset, count, byteBuffer);
+		byteBuffer.position(pos);
+		bufferChanged();
+	}
+
+	private void bufferChanged () {
+		isDirty = true;
+		if (isBound) {
+			upload(Gdx.gl20);
+			setAttributePointers(boundShader, boundLocations);
+		}
+	}
+
+	/** Appends the staging buffer to the OpenGL buffer, which must be bound. Orphans the storage when the vertices don't fit
+	 * behind the previous upload. */
+	private void upload (GL20 gl) {
+		int size = buffer.limit() * 4;
+		byteBuffer.limit(size);
+		if (!allocated || writeOffset + size > capacity) {
+			gl.glBufferData(GL20.GL_ARRAY_BUFFER, capacity, null, GL20.GL_STREAM_DRAW);
+			if (allocated) orphans++;
+			allocated = true;
+			writeOffset = 0;
+		}
+		if (size > 0) gl.glBufferSubData(GL20.GL_ARRAY_BUFFER, writeOffset, size, byteBuffer);
+		drawOffset = writeOffset;
+		writeOffset += size;
+		isDirty = false;
+	}
+
+	private void setAttributePointers (ShaderProgram shader, int[] locations) {
+		final int numAttributes = attributes.size();
+		for (int i = 0; i < numAttributes; i++) {
+			final VertexAttribute attribute = attributes.get(i);
+			final int location = locations == null ? shader.getAttributeLocation(attribute.alias) : locations[i];
+			if (location < 0) continue;
+			shader.enableVertexAttribute(location);
+			shader.setVertexAttribute(location, attribute.numComponents, attribute.type, attribute.normalized, attributes.vertexSize,
+				drawOffset + attribute.offset);
+		}
+	}
+
+	/** Binds this VertexBufferObjectStreaming for rendering via glDrawArrays or glDrawElements. The attribute pointers start at
+	 * the most recently uploaded vertices, so indices are relative to the first vertex as usual.
+	 * 
+	 * @param shader the shader */
+	@Override
+	public void bind (ShaderProgram shader) {
+		bind(shader, null);
+	}
+
+	@Override
+	public void bind (ShaderProgram shader, int[] locations) {
+		final GL20 gl = Gdx.gl20;
+		if (vaoHandle != -1) Gdx.gl30.glBindVertexArray(vaoHandle);
+		gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, bufferHandle);
+		if (isDirty) upload(gl);
+		setAttributePointers(shader, locations);
+		boundShader = shader;
+		boundLocations = locations;
+		isBound = true;
+	}
+
+	/** Unbinds this VertexBufferObjectStreaming.
+	 * 
+	 * @param shader the shader */
+	@Override
+	public void unbind (ShaderProgram shader) {
+		unbind(shader, null);
+	}
+
+	@Override
+	public void unbind (ShaderProgram shader, int[] locations) {
+		final int numAttributes = attributes.size();
+		if (locations == null) {
+			for (int i = 0; i < numAttributes; i++)
+				shader.disableVertexAttribute(attributes.get(i).alias);
+		} else {
+			for (int i = 0; i < numAttributes; i++) {
+				final int location = locations[i];
+				if (location >= 0) shader.disableVertexAttribute(location);
+			}
+		}
+		if (vaoHandle != -1) Gdx.gl30.glBindVertexArray(0);
+		Gdx.gl20.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+		boundShader = null;
+		boundLocations = null;
+		isBound = false;
+	}
+
+	/** Invalidates the VertexBufferObjectStreaming so a new OpenGL buffer handle is created. Use this in case of a context loss. */
+	@Override
+	public void invalidate () {
+		createBufferObject();
+		isDirty = true;
+	}
+
+	/** Disposes of all resources this VertexBufferObjectStreaming uses. */
+	@Override
+	public void dispose () {
+		GL20 gl = Gdx.gl20;
+		gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+		gl.glDeleteBuffer(bufferHandle);
+		bufferHandle = 0;
+		if (vaoHandle != -1) {
+			tmpHandle.clear();
+			tmpHandle.put(vaoHandle);
+			tmpHandle.flip();
+			Gdx.gl30.glDeleteVertexArrays(1, tmpHandle);
+			vaoHandle = -1;
+		}
+		BufferUtils.disposeUnsafeByteBuffer(byteBuffer);
+	}
+
+	/** Returns the VBO handle
+	 * @return the VBO handle */
+	public int getBufferHandle () {
+		return bufferHandle;
+	}
+
+	/** @return the size in bytes of the OpenGL buffer */
+	public int getCapacity () {
+		return capacity;
+	}
+
+	/** @return how many times the storage of the OpenGL buffer was orphaned because it was full */
+	public int getOrphans () {
+		return orphans;
+	}
+}
@@ -127,9 +127,11 @@ public class AtlasTmxMapLoader extends BaseTmxMapLoader<AtlasTmxMapLoader.AtlasT
 			if (parameter != null) {
 				convertObjectToTileSpace = parameter.convertObjectToTileSpace;
 				flipY = parameter.flipY;
+				chunkSize = parameter.chunkSize;
 			} else {
 				convertObjectToTileSpace = false;
 				flipY = true;
+				chunkSize = 0;
 			}
 
 			FileHandle tmxFile = resolve(fileName);
@@ -193,9 +195,11 @@ public class AtlasTmxMapLoader extends BaseTmxMapLoader<AtlasTmxMapLoader.AtlasT
 		if (parameter != null) {
 			convertObjectToTileSpace = parameter.convertObjectToTileSpace;
 			flipY = parameter.flipY;
+			chunkSize = parameter.chunkSize;
 		} else {
 			convertObjectToTileSpace = false;
 			flipY = true;
+			chunkSize = 0;
 		}
 
 		try {
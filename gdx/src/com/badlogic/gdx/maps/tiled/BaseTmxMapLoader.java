@@ -23,6 +23,7 @@ import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
 import com.badlogic.gdx.maps.tiled.objects.TiledMapTileMapObject;
 import com.badlogic.gdx.math.Polygon;
 import com.badlogic.gdx.math.Polyline;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Base64Coder;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.StreamUtils;
@@ -51,6 +52,9 @@ public abstract class BaseTmxMapLoader<P extends AssetLoaderParameters<TiledMap>
 		/** Whether to flip all Y coordinates so that Y positive is down. All LibGDX renderers require flipped Y coordinates, and
 		 * thus flipY set to true. This parameter is included for non-rendering related purposes of TMX files, or custom renderers. */
 		public boolean flipY = true;
+		/** If > 0, tile layers are loaded as {@link ChunkedTiledMapTileLayer} with chunks of this many tiles squared, which uses far
+		 * less memory for large maps. Infinite maps are always loaded as chunked layers, using the Tiled chunk size if this is 0. **/
+		public int chunkSize = 0;
 	}
 
 	protected static final int FLAG_FLIP_HORIZONTALLY = 0x80000000;
@@ -62,6 +66,7 @@ public abstract class BaseTmxMapLoader<P extends AssetLoaderParameters<TiledMap>
 	protected Element root;
 	protected boolean convertObjectToTileSpace;
 	protected boolean flipY = true;
+	protected int chunkSize;
 
 	protected int mapTileWidth;
 	protected int mapTileHeight;
@@ -117,6 +122,11 @@ public abstract class BaseTmxMapLoader<P extends AssetLoaderParameters<TiledMap>
 			int height = element.getIntAttribute("height", 0);
 			int tileWidth = map.getProperties().get("tilewidth", Integer.class);
 			int tileHeight = map.getProperties().get("tileheight", Integer.class);
+			Element data = element.getChildByName("data");
+			if (chunkSize > 0 || (data != null && data.getChildByName("chunk") != null)) {
+				loadChunkedTileLayer(map, parentLayers, element, width, height, tileWidth, tileHeight);
+				return;
+			}
 			TiledMapTileLayer layer = new TiledMapTileLayer(width, height, tileWidth, tileHeight);
 
 			loadBasicLayerInfo(layer, element);
@@ -147,6 +157,40 @@ public abstract class BaseTmxMapLoader<P extends AssetLoaderParameters<TiledMap>
 		}
 	}
 
+	/** Loads a tile layer as a {@link ChunkedTiledMapTileLayer}, which is required for the chunks of infinite maps. For infinite
+	 * maps, tile (0, 0) of the layer is the tile at the layer's startx and starty attributes. */
+	protected void loadChunkedTileLayer (TiledMap map, MapLayers parentLayers, Element element, int width, int height,
+		int tileWidth, int tileHeight) {
+		Element data = element.getChildByName("data");
+		Array<Element> chunkElements = data.getChildrenByName("chunk");
+		int size = chunkSize;
+		if (size <= 0) size = chunkElements.size > 0 ? chunkElements.first().getIntAttribute("width", 16) : 64;
+		ChunkedTiledMapTileLayer layer = new ChunkedTiledMapTileLayer(width, height, tileWidth, tileHeight, size,
+			map.getTileSets());
+		loadBasicLayerInfo(layer, element);
+
+		String encoding = data.getAttribute("encoding", null);
+		String compression = data.getAttribute("compression", null);
+		if (chunkElements.size == 0)
+			layer.setTileIds(0, 0, width, height, getTileIds(element, width, height), flipY);
+		else {
+			int startX = element.getIntAttribute("startx", 0), startY = element.getIntAttribute("starty", 0);
+			for (Element chunk : chunkElements) {
+				int chunkWidth = chunk.getIntAttribute("width"), chunkHeight = chunk.getIntAttribute("height");
+				int[] ids = decodeTileIds(chunk.getText(), encoding, compression, chunkWidth, chunkHeight);
+				int x = chunk.getIntAttribute("x") - startX, y = chunk.getIntAttribute("y") - startY;
+				if (flipY) y = height - y - chunkHeight;
+				layer.setTileIds(x, y, chunkWidth, chunkHeight, ids, flipY);
+			}
+		}
+
+		Element properties = element.getChildByName("properties");
+		if (properties != null) {
+			loadProperties(layer.getProperties(), properties);
+		}
+		parentLayers.add(layer);
+	}
+
 	protected void loadObjectGroup (TiledMap map, MapLayers parentLayers, Element element) {
 		if (element.getName().equals("objectgroup")) {
 			MapLayer layer = new MapLayer();
@@ -380,13 +424,20 @@ public abstract class BaseTmxMapLoader<P extends AssetLoaderParameters<TiledMap>
 
 	static public int[] getTileIds (Element element, int width, int height) {
 		Element data = element.getChildByName("data");
-		String encoding = data.getAttribute("encoding", null);
+		return decodeTileIds(data.getText(), data.getAttribute("encoding", null), data.getAttribute("compression", null), width,
+			height);
+	}
+
+	/** Decodes the text of a layer's data element, or of a chunk element of an infinite map.
+	 * @param encoding The encoding attribute of the data element.
+	 * @param compression The compression attribute of the data element, may be null. */
+	static public int[] decodeTileIds (String text, String encoding, String compression, int width, int height) {
 		if (encoding == null) { // no 'encoding' attribute means that the encoding is XML
 			throw new GdxRuntimeException("Unsupported encoding (XML) for TMX Layer Data");
 		}
 		int[] ids = new int[width * height];
 		if (encoding.equals("csv")) {
-			String[] array = data.getText().split(",");
+			String[] array = text.split(",");
 			for (int i = 0; i < array.length; i++)
 				ids[i] = (int)Long.parseLong(array[i].trim());
 		} else {
@@ -394,8 +445,7 @@ public abstract class BaseTmxMapLoader<P extends AssetLoaderParameters<TiledMap>
 				if (encoding.equals("base64")) {
 					InputStream is = null;
 					try {
-						String compression = data.getAttribute("compression", null);
-						byte[] bytes = Base64Coder.decode(data.getText());
+						byte[] bytes = Base64Coder.decode(text);
 						if (compression == null)
 							is = new ByteArrayInputStream(bytes);
 						else if (compression.equals("gzip"))
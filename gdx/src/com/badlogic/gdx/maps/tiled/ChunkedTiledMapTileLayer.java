@@ -0,0 +1,375 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.maps.tiled;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+/** @brief Tile layer that stores tiles in square chunks of packed ints rather than a {@link Cell} per tile.
+ *
+ * Each int is a Tiled global tile id with the Tiled flip flags in the high bits, so a tile costs 4 bytes and chunks without tiles
+ * cost nothing. {@link #getCell(int, int)} decodes the tile into a new cell, and changes to that cell are stored back in the layer.
+ * Renderers use {@link #getSharedCell(int, int)} instead, which decodes into a single cell owned by the layer to avoid the
+ * allocation.
+ *
+ * When {@link #setStreaming(boolean) streaming} is enabled, chunks outside the area last passed to
+ * {@link #setVisibleArea(int, int, int, int)} are run-length encoded and released on a background thread, and decoded again in the
+ * background when they come back into view. Tiles of chunks that are not loaded are returned as null until loading finishes. The
+ * orthogonal, isometric, staggered and hexagonal renderers set the visible area each frame. The
+ * {@link com.badlogic.gdx.maps.tiled.renderers.OrthoCachedTiledMapRenderer} reads all tiles into its cache, so it should not be
+ * used with streaming. */
+public class ChunkedTiledMapTileLayer extends TiledMapTileLayer implements Disposable {
+	public static final int FLAG_FLIP_HORIZONTALLY = 0x80000000;
+	public static final int FLAG_FLIP_VERTICALLY = 0x40000000;
+	public static final int FLAG_FLIP_DIAGONALLY = 0x20000000;
+	public static final int MASK_CLEAR = 0xE0000000;
+
+	/** Maps the 3 Tiled flip flags to the flips and rotation of a cell, see {@link #getCell(int, int)}. */
+	static private final boolean[] flipsH = new boolean[8], flipsV = new boolean[8];
+	static private final int[] rotations = new int[8];
+	/** Maps a canonical cell transform, rotation * 2 + flip, to the Tiled flip flags. */
+	static private final int[] flags = new int[8];
+	static {
+		for (int i = 0; i < 8; i++) {
+			boolean h = (i & 4) != 0, v = (i & 2) != 0, d = (i & 1) != 0;
+			// Same as BaseTmxMapLoader#createTileLayerCell.
+			if (d) {
+				if (h && v) {
+					flipsH[i] = true;
+					rotations[i] = Cell.ROTATE_270;
+				} else if (h)
+					rotations[i] = Cell.ROTATE_270;
+				else if (v)
+					rotations[i] = Cell.ROTATE_90;
+				else {
+					flipsV[i] = true;
+					rotations[i] = Cell.ROTATE_270;
+				}
+			} else {
+				flipsH[i] = h;
+				flipsV[i] = v;
+			}
+			flags[canonical(flipsH[i], flipsV[i], rotations[i])] = (h ? FLAG_FLIP_HORIZONTALLY : 0)
+				| (v ? FLAG_FLIP_VERTICALLY : 0) | (d ? FLAG_FLIP_DIAGONALLY : 0);
+		}
+	}
+
+	private final TiledMapTileSets tileSets;
+	private final int chunkSize, chunksX, chunksY;
+	private final Chunk[] chunks;
+	private final Cell sharedCell = new Cell();
+
+	private boolean streaming;
+	private int margin = 1;
+	private int visibleX1, visibleY1, visibleX2 = -1, visibleY2 = -1;
+	private AsyncExecutor executor;
+	private final Array<Chunk> finished = new Array();
+
+	/** @param width layer width in tiles
+	 * @param height layer height in tiles
+	 * @param tileWidth tile width in pixels
+	 * @param tileHeight tile height in pixels
+	 * @param chunkSize chunk width and height in tiles
+	 * @param tileSets the tile sets used to look up tiles by id */
+	public ChunkedTiledMapTileLayer (int width, int height, int tileWidth, int tileHeight, int chunkSize,
+		TiledMapTileSets tileSets) {
+		super(width, height, tileWidth, tileHeight, false);
+		if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be > 0: " + chunkSize);
+		this.chunkSize = chunkSize;
+		this.tileSets = tileSets;
+		chunksX = (width + chunkSize - 1) / chunkSize;
+		chunksY = (height + chunkSize - 1) / chunkSize;
+		chunks = new Chunk[chunksX * chunksY];
+	}
+
+	public int getChunkSize () {
+		return chunkSize;
+	}
+
+	/** @return the Tiled global tile id including the flip flags at (x, y), or 0 if there is no tile or its chunk isn't loaded. */
+	public int getTileId (int x, int y) {
+		if (x < 0 || x >= getWidth()) return 0;
+		if (y < 0 || y >= getHeight()) return 0;
+		Chunk chunk = chunks[(y / chunkSize) * chunksX + x / chunkSize];
+		if (chunk == null) return 0;
+		int[] tiles = chunk.tiles;
+		if (tiles == null) return 0;
+		return tiles[(y % chunkSize) * chunkSize + x % chunkSize];
+	}
+
+	/** Sets the Tiled global tile id including the flip flags at (x, y). If the chunk isn't loaded, it is loaded first. */
+	public void setTileId (int x, int y, int id) {
+		if (x < 0 || x >= getWidth()) return;
+		if (y < 0 || y >= getHeight()) return;
+		int index = (y / chunkSize) * chunksX + x / chunkSize;
+		Chunk chunk = chunks[index];
+		if (chunk == null) {
+			if (id == 0) return;
+			chunks[index] = chunk = new Chunk();
+			chunk.tiles = new int[chunkSize * chunkSize];
+		} else if (chunk.tiles == null) {
+			// Load synchronously, the background result is discarded because the chunk is modified.
+			chunk.tiles = decodeRuns(chunk.stored, chunkSize * chunkSize);
+		}
+		chunk.tiles[(y % chunkSize) * chunkSize + x % chunkSize] = id;
+		chunk.stored = null;
+		chunk.modified++;
+	}
+
+	/** Sets the tiles of an area from Tiled global tile ids, stored in rows of width ids.
+	 * @param flipY If true, the first row of ids is the top row of the area, as in Tiled, else it is the bottom row. */
+	public void setTileIds (int x, int y, int width, int height, int[] ids, boolean flipY) {
+		for (int row = 0; row < height; row++)
+			for (int col = 0; col < width; col++)
+				setTileId(x + col, flipY ? y + height - 1 - row : y + row, ids[row * width + col]);
+	}
+
+	/** @return a new cell describing the tile at (x, y), or null if there is no tile. Changes to the cell are stored in the layer,
+	 *         overwriting the tile at (x, y). */
+	@Override
+	public Cell getCell (int x, int y) {
+		int id = getTileId(x, y);
+		if (id == 0) return null;
+		TiledMapTile tile = tileSets.getTile(id & ~MASK_CLEAR);
+		if (tile == null) return null;
+		LayerCell cell = new LayerCell(x, y);
+		decode(cell, tile, id);
+		cell.store = true;
+		return cell;
+	}
+
+	/** Same as {@link #getCell(int, int)}, but returns a cell owned by the layer that is only valid until the next call and is not
+	 * stored in the layer when changed. This doesn't allocate, so it is meant for renderers, which use each cell immediately. */
+	public Cell getSharedCell (int x, int y) {
+		int id = getTileId(x, y);
+		if (id == 0) return null;
+		TiledMapTile tile = tileSets.getTile(id & ~MASK_CLEAR);
+		if (tile == null) return null;
+		return decode(sharedCell, tile, id);
+	}
+
+	static private Cell decode (Cell cell, TiledMapTile tile, int id) {
+		int index = id >>> 29;
+		cell.setTile(tile);
+		cell.setFlipHorizontally(flipsH[index]);
+		cell.setFlipVertically(flipsV[index]);
+		cell.setRotation(rotations[index]);
+		return cell;
+	}
+
+	/** Stores the cell's tile id, flips and rotation. The cell itself is not kept. The tile must be in the layer's tile sets. */
+	@Override
+	public void setCell (int x, int y, Cell cell) {
+		if (cell == null || cell.getTile() == null) {
+			setTileId(x, y, 0);
+			return;
+		}
+		int id = cell.getTile().getId() & ~MASK_CLEAR;
+		id |= flags[canonical(cell.getFlipHorizontally(), cell.getFlipVertically(), cell.getRotation())];
+		setTileId(x, y, id);
+	}
+
+	/** Renderers flip the region, then rotate it. A vertical flip is a horizontal flip plus a half turn, so any combination can be
+	 * expressed as a rotation and a horizontal flip. */
+	static private int canonical (boolean flipH, boolean flipV, int rotation) {
+		int r = (rotation + (flipV ? 2 : 0)) & 3;
+		return r * 2 + (flipH != flipV ? 1 : 0);
+	}
+
+	/** If true, chunks outside the visible area are released and reloaded on a background thread. Default is false. */
+	public void setStreaming (boolean streaming) {
+		this.streaming = streaming;
+		if (streaming) {
+			if (executor == null) executor = new AsyncExecutor(1);
+		}
+	}
+
+	public boolean isStreaming () {
+		return streaming;
+	}
+
+	/** Sets the number of chunks around the visible area that are kept loaded. Default is 1. */
+	public void setMargin (int chunks) {
+		margin = chunks;
+	}
+
+	/** Sets the tiles that are visible, loading and releasing chunks if streaming. Must be called on the rendering thread.
+	 * @param x2 The last visible column, exclusive.
+	 * @param y2 The last visible row, exclusive. */
+	public void setVisibleArea (int x1, int y1, int x2, int y2) {
+		if (!streaming) return;
+		applyFinished();
+
+		int cx1 = Math.max(0, x1 / chunkSize - margin), cy1 = Math.max(0, y1 / chunkSize - margin);
+		int cx2 = Math.min(chunksX - 1, (x2 - 1) / chunkSize + margin), cy2 = Math.min(chunksY - 1, (y2 - 1) / chunkSize + margin);
+		if (cx1 == visibleX1 && cy1 == visibleY1 && cx2 == visibleX2 && cy2 == visibleY2) return;
+		visibleX1 = cx1;
+		visibleY1 = cy1;
+		visibleX2 = cx2;
+		visibleY2 = cy2;
+
+		for (int cy = 0; cy < chunksY; cy++) {
+			for (int cx = 0; cx < chunksX; cx++) {
+				final Chunk chunk = chunks[cy * chunksX + cx];
+				if (chunk == null || chunk.busy) continue;
+				// Keep one more chunk loaded than required, so moving back and forth over a chunk border doesn't thrash.
+				boolean visible = cx >= cx1 && cx <= cx2 && cy >= cy1 && cy <= cy2;
+				boolean near = cx >= cx1 - 1 && cx <= cx2 + 1 && cy >= cy1 - 1 && cy <= cy2 + 1;
+				if (visible && chunk.tiles == null)
+					submit(chunk, true);
+				else if (!near && chunk.tiles != null) {
+					if (chunk.stored != null)
+						chunk.tiles = null; // Unmodified since it was loaded, the stored tiles are still valid.
+					else
+						submit(chunk, false);
+				}
+			}
+		}
+	}
+
+	private void submit (final Chunk chunk, final boolean load) {
+		chunk.busy = true;
+		final int modified = chunk.modified;
+		final int[] tiles = chunk.tiles;
+		final int[] stored = chunk.stored;
+		final int size = chunkSize * chunkSize;
+		executor.submit(new AsyncTask<Void>() {
+			public Void call () {
+				int[] result = load ? decodeRuns(stored, size) : encodeRuns(tiles);
+				synchronized (finished) {
+					chunk.result = result;
+					chunk.resultModified = modified;
+					finished.add(chunk);
+				}
+				return null;
+			}
+		});
+	}
+
+	private void applyFinished () {
+		synchronized (finished) {
+			for (int i = 0, n = finished.size; i < n; i++) {
+				Chunk chunk = finished.get(i);
+				chunk.busy = false;
+				if (chunk.resultModified != chunk.modified) continue; // Modified while busy, discard the result.
+				if (chunk.tiles == null)
+					chunk.tiles = chunk.result; // Loaded.
+				else {
+					chunk.stored = chunk.result; // Released.
+					chunk.tiles = null;
+				}
+				chunk.result = null;
+			}
+			if (finished.size > 0) visibleX2 = -1; // Rescan, a chunk may have finished that now needs to be loaded or released.
+			finished.clear();
+		}
+	}
+
+	/** Returns the number of chunks that have tiles in memory. */
+	public int getLoadedChunks () {
+		int count = 0;
+		for (Chunk chunk : chunks)
+			if (chunk != null && chunk.tiles != null) count++;
+		return count;
+	}
+
+	/** Stops background loading. The layer can still be used, but chunks that are not loaded are loaded synchronously when
+	 * modified. */
+	public void dispose () {
+		streaming = false;
+		if (executor != null) {
+			executor.dispose();
+			executor = null;
+		}
+		applyFinished();
+	}
+
+	/** Run-length encodes tiles as pairs of count and id, which is very compact for typical tile maps. */
+	static int[] encodeRuns (int[] tiles) {
+		IntArray runs = new IntArray(64);
+		for (int i = 0, n = tiles.length; i < n;) {
+			int id = tiles[i], count = 1;
+			while (i + count < n && tiles[i + count] == id)
+				count++;
+			runs.add(count);
+			runs.add(id);
+			i += count;
+		}
+		return runs.toArray();
+	}
+
+	static int[] decodeRuns (int[] runs, int size) {
+		int[] tiles = new int[size];
+		if (runs == null) return tiles;
+		for (int i = 0, n = runs.length, index = 0; i < n; i += 2) {
+			int count = runs[i], id = runs[i + 1];
+			for (int end = index + count; index < end; index++)
+				tiles[index] = id;
+		}
+		return tiles;
+	}
+
+	/** A cell which stores its tile, flips and rotation in the layer when they are changed. */
+	private class LayerCell extends Cell {
+		final int x, y;
+		/** False while the cell is decoded from the layer. */
+		boolean store;
+
+		LayerCell (int x, int y) {
+			this.x = x;
+			this.y = y;
+		}
+
+		public Cell setTile (TiledMapTile tile) {
+			super.setTile(tile);
+			if (store) setCell(x, y, this);
+			return this;
+		}
+
+		public Cell setFlipHorizontally (boolean flipHorizontally) {
+			super.setFlipHorizontally(flipHorizontally);
+			if (store) setCell(x, y, this);
+			return this;
+		}
+
+		public Cell setFlipVertically (boolean flipVertically) {
+			super.setFlipVertically(flipVertically);
+			if (store) setCell(x, y, this);
+			return this;
+		}
+
+		public Cell setRotation (int rotation) {
+			super.setRotation(rotation);
+			if (store) setCell(x, y, this);
+			return this;
+		}
+	}
+
+	static private class Chunk {
+		/** Packed tile ids, or null if the chunk is not loaded. */
+		volatile int[] tiles;
+		/** Run-length encoded tiles, or null if the chunk was modified since it was last released. */
+		int[] stored;
+		boolean busy;
+		int modified;
+		int[] result;
+		int resultModified;
+	}
+}
@@ -19,6 +19,9 @@ package com.badlogic.gdx.maps.tiled;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.maps.Map;
+import com.badlogic.gdx.maps.MapGroupLayer;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapLayers;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 
@@ -53,5 +56,16 @@ public class TiledMap extends Map {
 				resource.dispose();
 			}
 		}
+		disposeLayers(getLayers());
+	}
+
+	/** Stops background loading of {@link ChunkedTiledMapTileLayer chunked layers}. */
+	private void disposeLayers (MapLayers layers) {
+		for (MapLayer layer : layers) {
+			if (layer instanceof ChunkedTiledMapTileLayer)
+				((ChunkedTiledMapTileLayer)layer).dispose();
+			else if (layer instanceof MapGroupLayer) //
+				disposeLayers(((MapGroupLayer)layer).getLayers());
+		}
 	}
 }
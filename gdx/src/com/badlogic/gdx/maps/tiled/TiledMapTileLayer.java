@@ -56,12 +56,20 @@ public class TiledMapTileLayer extends MapLayer {
 	 * @param tileWidth tile width in pixels
 	 * @param tileHeight tile height in pixels */
 	public TiledMapTileLayer (int width, int height, int tileWidth, int tileHeight) {
+		this(width, height, tileWidth, tileHeight, true);
+	}
+
+	/** Creates TiledMap layer
+	 * 
+	 * @param allocateCells false if a subclass stores the cells itself, overriding {@link #getCell(int, int)} and
+	 *           {@link #setCell(int, int, Cell)}. */
+	protected TiledMapTileLayer (int width, int height, int tileWidth, int tileHeight, boolean allocateCells) {
 		super();
 		this.width = width;
 		this.height = height;
 		this.tileWidth = tileWidth;
 		this.tileHeight = tileHeight;
-		this.cells = new Cell[width][height];
+		if (allocateCells) this.cells = new Cell[width][height];
 	}
 
 	/** @param x X coordinate
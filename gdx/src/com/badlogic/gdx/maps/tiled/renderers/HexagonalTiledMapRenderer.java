@@ -21,6 +21,7 @@ import static com.badlogic.gdx.graphics.g2d.Batch.*;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.ChunkedTiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTile;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
@@ -118,6 +119,9 @@ public class HexagonalTiledMapRenderer extends BatchTiledMapRenderer {
 
 		final float layerHexLength = hexSideLength * unitScale;
 
+		final ChunkedTiledMapTileLayer chunkedLayer = layer instanceof ChunkedTiledMapTileLayer ? (ChunkedTiledMapTileLayer)layer
+			: null;
+
 		if (staggerAxisX) {
 			final float tileWidthLowerCorner = (layerTileWidth - layerHexLength) / 2;
 			final float tileWidthUpperCorner = (layerTileWidth + layerHexLength) / 2;
@@ -131,18 +135,20 @@ public class HexagonalTiledMapRenderer extends BatchTiledMapRenderer {
 			final int col2 = Math.min(layerWidth,
 				(int)((viewBounds.x + viewBounds.width + tileWidthUpperCorner - layerOffsetY) / tileWidthUpperCorner));
 
+			if (chunkedLayer != null) chunkedLayer.setVisibleArea(col1, row1, col2, row2);
+
 			// depending on the stagger index either draw all even before the odd or vice versa
 			final int colA = (staggerIndexEven == (col1 % 2 == 0)) ? col1 + 1 : col1;
 			final int colB = (staggerIndexEven == (col1 % 2 == 0)) ? col1 : col1 + 1;
 
 			for (int row = row2 - 1; row >= row1; row--) {
 				for (int col = colA; col < col2; col += 2) {
-					renderCell(layer.getCell(col, row), tileWidthUpperCorner * col + layerOffsetX,
-						layerTileHeight50 + (layerTileHeight * row) + layerOffsetY, color);
+					renderCell(chunkedLayer != null ? chunkedLayer.getSharedCell(col, row) : layer.getCell(col, row),
+						tileWidthUpperCorner * col + layerOffsetX, layerTileHeight50 + (layerTileHeight * row) + layerOffsetY, color);
 				}
 				for (int col = colB; col < col2; col += 2) {
-					renderCell(layer.getCell(col, row), tileWidthUpperCorner * col + layerOffsetX,
-						layerTileHeight * row + layerOffsetY, color);
+					renderCell(chunkedLayer != null ? chunkedLayer.getSharedCell(col, row) : layer.getCell(col, row),
+						tileWidthUpperCorner * col + layerOffsetX, layerTileHeight * row + layerOffsetY, color);
 				}
 			}
 		} else {
@@ -158,6 +164,8 @@ public class HexagonalTiledMapRenderer extends BatchTiledMapRenderer {
 			final int col2 = Math.min(layerWidth,
 				(int)((viewBounds.x + viewBounds.width + layerTileWidth - layerOffsetY) / layerTileWidth));
 
+			if (chunkedLayer != null) chunkedLayer.setVisibleArea(col1, row1, col2, row2);
+
 			float shiftX = 0;
 			for (int row = row2 - 1; row >= row1; row--) {
 				// depending on the stagger index either shift for even or uneven indexes
@@ -166,8 +174,8 @@ public class HexagonalTiledMapRenderer extends BatchTiledMapRenderer {
 				else
 					shiftX = 0;
 				for (int col = col1; col < col2; col++) {
-					renderCell(layer.getCell(col, row), layerTileWidth * col + shiftX + layerOffsetX,
-						tileHeightUpperCorner * row + layerOffsetY, color);
+					renderCell(chunkedLayer != null ? chunkedLayer.getSharedCell(col, row) : layer.getCell(col, row),
+						layerTileWidth * col + shiftX + layerOffsetX, tileHeightUpperCorner * row + layerOffsetY, color);
 				}
 			}
 		}
@@ -21,6 +21,7 @@ import static com.badlogic.gdx.graphics.g2d.SpriteBatch.*;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.ChunkedTiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTile;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
@@ -70,10 +71,14 @@ public class IsometricStaggeredTiledMapRenderer extends BatchTiledMapRenderer {
 		final int maxY = Math.min(layerHeight,
 			(int)((viewBounds.y + viewBounds.height + layerTileHeight - layerOffsetY) / layerTileHeight50));
 
+		final ChunkedTiledMapTileLayer chunkedLayer = layer instanceof ChunkedTiledMapTileLayer ? (ChunkedTiledMapTileLayer)layer
+			: null;
+		if (chunkedLayer != null) chunkedLayer.setVisibleArea(minX, minY, maxX, maxY);
+
 		for (int y = maxY - 1; y >= minY; y--) {
 			float offsetX = (y % 2 == 1) ? layerTileWidth50 : 0;
 			for (int x = maxX - 1; x >= minX; x--) {
-				final TiledMapTileLayer.Cell cell = layer.getCell(x, y);
+				final TiledMapTileLayer.Cell cell = chunkedLayer != null ? chunkedLayer.getSharedCell(x, y) : layer.getCell(x, y);
 				if (cell == null) continue;
 				final TiledMapTile tile = cell.getTile();
 
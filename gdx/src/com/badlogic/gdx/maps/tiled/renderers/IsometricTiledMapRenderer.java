@@ -21,6 +21,7 @@ import static com.badlogic.gdx.graphics.g2d.Batch.*;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.ChunkedTiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTile;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
@@ -113,12 +114,17 @@ public class IsometricTiledMapRenderer extends BatchTiledMapRenderer {
 		int col1 = (int)(translateScreenToIso(bottomLeft).x / tileWidth) - 2;
 		int col2 = (int)(translateScreenToIso(topRight).x / tileWidth) + 2;
 
+		final ChunkedTiledMapTileLayer chunkedLayer = layer instanceof ChunkedTiledMapTileLayer ? (ChunkedTiledMapTileLayer)layer
+			: null;
+		if (chunkedLayer != null) chunkedLayer.setVisibleArea(col1, row1, col2 + 1, row2 + 1);
+
 		for (int row = row2; row >= row1; row--) {
 			for (int col = col1; col <= col2; col++) {
 				float x = (col * halfTileWidth) + (row * halfTileWidth);
 				float y = (row * halfTileHeight) - (col * halfTileHeight);
 
-				final TiledMapTileLayer.Cell cell = layer.getCell(col, row);
+				final TiledMapTileLayer.Cell cell = chunkedLayer != null ? chunkedLayer.getSharedCell(col, row)
+					: layer.getCell(col, row);
 				if (cell == null) continue;
 				final TiledMapTile tile = cell.getTile();
 
@@ -28,21 +28,34 @@ import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.MapLayer;
 import com.badlogic.gdx.maps.MapLayers;
 import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.tiled.ChunkedTiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapImageLayer;
 import com.badlogic.gdx.maps.tiled.TiledMapRenderer;
 import com.badlogic.gdx.maps.tiled.TiledMapTile;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
 
-/** Renders ortho tiles by caching geometry on the GPU. How much is cached is controlled by {@link #setOverCache(float)}. When the
- * view reaches the edge of the cached tiles, the cache is rebuilt at the new view position.
+/** Renders ortho tiles by caching geometry on the GPU. How much is cached is controlled by {@link #setOverCache(float)}.
  * <p>
- * This class may have poor performance when tiles are often changed dynamically, since the cache must be rebuilt after each
- * change.
+ * Each tile layer is cached in blocks of tiles, see {@link #setBlockSize(int, int)}. When the view reaches the edge of the cached
+ * tiles, only the blocks that scrolled into the cached area are built and the blocks that left it are released. When tiles are
+ * changed, {@link #invalidateTiles(TiledMapTileLayer, int, int, int, int)} rebuilds only the blocks containing them. Blocks
+ * containing {@link AnimatedTiledMapTile animated tiles} are rebuilt when the frame of one of their animated tiles changes.
+ * <p>
+ * The space for a block is reserved in the {@link SpriteCache} when the block is first built, so the cache size must be large
+ * enough to hold the blocks of all layers in the cached area. If it is not, the whole cache is rebuilt.
+ * <p>
+ * Blocks are built with {@link #renderTileLayer(TiledMapTileLayer, int, int, int, int)}, not
+ * {@link #renderTileLayer(TiledMapTileLayer)}. Subclasses that change how tiles are cached must override the former.
  * @author Justin Shapcott
  * @author Nathan Sweet */
 public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable {
@@ -61,10 +74,18 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
 
 	protected float overCache = 0.50f;
 	protected float maxTileWidth, maxTileHeight;
-	protected boolean cached;
+	protected boolean cached, boundsChanged;
 	protected int count;
 	protected boolean canCacheMoreN, canCacheMoreE, canCacheMoreW, canCacheMoreS;
 
+	protected int blockWidth = 16, blockHeight = 16;
+	private final int cacheSize;
+	private final Array<LayerCache> layerCaches = new Array();
+	/** Number of images reserved in the sprite cache. */
+	private int reservedSize;
+	/** Cache IDs and sizes of blocks that are no longer used. */
+	private final IntArray freeCaches = new IntArray(), freeCacheSizes = new IntArray();
+
 	/** Creates a renderer with a unit scale of 1 and cache size of 2000. */
 	public OrthoCachedTiledMapRenderer (TiledMap map) {
 		this(map, 1, 2000);
@@ -79,6 +100,7 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
 	public OrthoCachedTiledMapRenderer (TiledMap map, float unitScale, int cacheSize) {
 		this.map = map;
 		this.unitScale = unitScale;
+		this.cacheSize = cacheSize;
 		spriteCache = new SpriteCache(cacheSize, true);
 	}
 
@@ -93,7 +115,7 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
 			(canCacheMoreS && viewBounds.y < cacheBounds.y - tolerance) || //
 			(canCacheMoreE && viewBounds.x + viewBounds.width > cacheBounds.x + cacheBounds.width + tolerance) || //
 			(canCacheMoreN && viewBounds.y + viewBounds.height > cacheBounds.y + cacheBounds.height + tolerance) //
-		) cached = false;
+		) boundsChanged = true;
 	}
 
 	@Override
@@ -109,33 +131,13 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
 			(canCacheMoreS && viewBounds.y < cacheBounds.y - tolerance) || //
 			(canCacheMoreE && viewBounds.x + viewBounds.width > cacheBounds.x + cacheBounds.width + tolerance) || //
 			(canCacheMoreN && viewBounds.y + viewBounds.height > cacheBounds.y + cacheBounds.height + tolerance) //
-		) cached = false;
+		) boundsChanged = true;
 	}
 
 	@Override
 	public void render () {
-		if (!cached) {
-			cached = true;
-			count = 0;
-			spriteCache.clear();
-
-			final float extraWidth = viewBounds.width * overCache;
-			final float extraHeight = viewBounds.height * overCache;
-			cacheBounds.x = viewBounds.x - extraWidth;
-			cacheBounds.y = viewBounds.y - extraHeight;
-			cacheBounds.width = viewBounds.width + extraWidth * 2;
-			cacheBounds.height = viewBounds.height + extraHeight * 2;
-
-			for (MapLayer layer : map.getLayers()) {
-				spriteCache.beginCache();
-				if (layer instanceof TiledMapTileLayer) {
-					renderTileLayer((TiledMapTileLayer)layer);
-				} else if (layer instanceof TiledMapImageLayer) {
-					renderImageLayer((TiledMapImageLayer)layer);
-				}
-				spriteCache.endCache();
-			}
-		}
+		AnimatedTiledMapTile.updateAnimationBaseTime();
+		updateCache();
 
 		if (blending) {
 			Gdx.gl.glEnable(GL20.GL_BLEND);
@@ -146,7 +148,7 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
 		for (int i = 0, j = mapLayers.getCount(); i < j; i++) {
 			MapLayer layer = mapLayers.get(i);
 			if (layer.isVisible()) {
-				spriteCache.draw(i);
+				renderCache(i);
 				renderObjects(layer);
 			}
 		}
@@ -156,44 +158,251 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
 
 	@Override
 	public void render (int[] layers) {
+		AnimatedTiledMapTile.updateAnimationBaseTime();
+		updateCache();
+
+		if (blending) {
+			Gdx.gl.glEnable(GL20.GL_BLEND);
+			Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+		}
+		spriteCache.begin();
+		MapLayers mapLayers = map.getLayers();
+		for (int i : layers) {
+			MapLayer layer = mapLayers.get(i);
+			if (layer.isVisible()) {
+				renderCache(i);
+				renderObjects(layer);
+			}
+		}
+		spriteCache.end();
+		if (blending) Gdx.gl.glDisable(GL20.GL_BLEND);
+	}
+
+	/** Rebuilds the parts of the cache needed for the current view. If the cache was invalidated, all blocks are built. Otherwise
+	 * only the blocks that scrolled into the cached area, that contain changed tiles or that contain animated tiles whose frame
+	 * changed are built. */
+	protected void updateCache () {
+		MapLayers mapLayers = map.getLayers();
+		int layerCount = mapLayers.getCount();
+		if (cached && layerCount != layerCaches.size) cached = false;
+		for (int i = 0; cached && i < layerCount; i++)
+			if (layerCaches.get(i).layer != mapLayers.get(i)) cached = false;
+
 		if (!cached) {
-			cached = true;
-			count = 0;
-			spriteCache.clear();
+			clearCache();
+			for (int i = 0; i < layerCount; i++)
+				layerCaches.add(new LayerCache(mapLayers.get(i)));
+		}
 
+		if (boundsChanged) {
+			boundsChanged = false;
 			final float extraWidth = viewBounds.width * overCache;
 			final float extraHeight = viewBounds.height * overCache;
 			cacheBounds.x = viewBounds.x - extraWidth;
 			cacheBounds.y = viewBounds.y - extraHeight;
 			cacheBounds.width = viewBounds.width + extraWidth * 2;
 			cacheBounds.height = viewBounds.height + extraHeight * 2;
+			canCacheMoreN = false;
+			canCacheMoreE = false;
+			canCacheMoreW = false;
+			canCacheMoreS = false;
+			for (int i = 0; i < layerCount; i++) {
+				LayerCache layerCache = layerCaches.get(i);
+				if (layerCache.layer instanceof TiledMapTileLayer) updateBlockRange(layerCache);
+			}
+		}
 
-			for (MapLayer layer : map.getLayers()) {
-				spriteCache.beginCache();
-				if (layer instanceof TiledMapTileLayer) {
-					renderTileLayer((TiledMapTileLayer)layer);
-				} else if (layer instanceof TiledMapImageLayer) {
+		if (!buildCache(false)) {
+			// The sprite cache is full, rebuild it with only the blocks that are needed.
+			clearCache();
+			for (int i = 0; i < layerCount; i++) {
+				LayerCache layerCache = new LayerCache(mapLayers.get(i));
+				layerCaches.add(layerCache);
+				if (layerCache.layer instanceof TiledMapTileLayer) updateBlockRange(layerCache);
+			}
+			buildCache(true);
+		}
+	}
+
+	private void clearCache () {
+		cached = true;
+		boundsChanged = true;
+		count = 0;
+		spriteCache.clear();
+		reservedSize = 0;
+		freeCaches.clear();
+		freeCacheSizes.clear();
+		layerCaches.clear();
+	}
+
+	/** Computes the blocks of the layer that intersect the cache bounds and releases the blocks outside of them. */
+	private void updateBlockRange (LayerCache layerCache) {
+		TiledMapTileLayer layer = (TiledMapTileLayer)layerCache.layer;
+		final int layerWidth = layer.getWidth();
+		final int layerHeight = layer.getHeight();
+
+		final float layerTileWidth = layer.getTileWidth() * unitScale;
+		final float layerTileHeight = layer.getTileHeight() * unitScale;
+
+		final float layerOffsetX = layer.getRenderOffsetX() * unitScale;
+		// offset in tiled is y down, so we flip it
+		final float layerOffsetY = -layer.getRenderOffsetY() * unitScale;
+
+		final int col1 = Math.max(0, (int)((cacheBounds.x - layerOffsetX) / layerTileWidth));
+		final int col2 = Math.min(layerWidth,
+			(int)((cacheBounds.x + cacheBounds.width + layerTileWidth - layerOffsetX) / layerTileWidth));
+
+		final int row1 = Math.max(0, (int)((cacheBounds.y - layerOffsetY) / layerTileHeight));
+		final int row2 = Math.min(layerHeight,
+			(int)((cacheBounds.y + cacheBounds.height + layerTileHeight - layerOffsetY) / layerTileHeight));
+
+		canCacheMoreN |= row2 < layerHeight;
+		canCacheMoreE |= col2 < layerWidth;
+		canCacheMoreW |= col1 > 0;
+		canCacheMoreS |= row1 > 0;
+
+		layerCache.blocksX = (layerWidth + blockWidth - 1) / blockWidth;
+		layerCache.x1 = col1 / blockWidth;
+		layerCache.y1 = row1 / blockHeight;
+		layerCache.x2 = col2 > col1 ? (col2 - 1) / blockWidth : layerCache.x1 - 1;
+		layerCache.y2 = row2 >= row1 ? Math.min(row2, layerHeight - 1) / blockHeight : layerCache.y1 - 1;
+
+		for (IntMap.Entries<Block> entries = layerCache.blocks.entries(); entries.hasNext();) {
+			Block block = entries.next().value;
+			if (block.x < layerCache.x1 || block.x > layerCache.x2 || block.y < layerCache.y1 || block.y > layerCache.y2) {
+				count -= block.tiles;
+				releaseCache(block);
+				entries.remove();
+			}
+		}
+	}
+
+	/** Builds the image layers and the blocks that are missing, changed or animated.
+	 * @param full If false and the sprite cache has no room for a block, false is returned. Otherwise an exception is thrown.
+	 * @return false if the sprite cache is full. */
+	private boolean buildCache (boolean full) {
+		for (int i = 0, n = layerCaches.size; i < n; i++) {
+			LayerCache layerCache = layerCaches.get(i);
+			MapLayer layer = layerCache.layer;
+			if (layer instanceof TiledMapImageLayer) {
+				if (layerCache.imageCache == -1) {
+					spriteCache.beginCache();
 					renderImageLayer((TiledMapImageLayer)layer);
+					layerCache.imageCache = spriteCache.endCache();
+					reservedSize++;
+				}
+			} else if (layer instanceof TiledMapTileLayer) {
+				IntMap<Block> blocks = layerCache.blocks;
+				for (int y = layerCache.y2; y >= layerCache.y1; y--) {
+					for (int x = layerCache.x1; x <= layerCache.x2; x++) {
+						int key = y * layerCache.blocksX + x;
+						Block block = blocks.get(key);
+						if (block == null) {
+							block = new Block(x, y);
+							blocks.put(key, block);
+						} else if (!block.dirty && block.isAnimationChanged()) //
+							block.dirty = true;
+						if (block.dirty && !buildBlock((TiledMapTileLayer)layer, block, full)) return false;
+					}
 				}
-				spriteCache.endCache();
 			}
 		}
+		return true;
+	}
 
-		if (blending) {
-			Gdx.gl.glEnable(GL20.GL_BLEND);
-			Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+	private boolean buildBlock (TiledMapTileLayer layer, Block block, boolean full) {
+		final int col1 = block.x * blockWidth, col2 = Math.min(col1 + blockWidth, layer.getWidth());
+		final int row1 = block.y * blockHeight, row2 = Math.min(row1 + blockHeight, layer.getHeight());
+
+		// Count the tiles to find the space needed and remember the frames of animated tiles.
+		Array<AnimatedTiledMapTile> animatedTiles = block.animatedTiles;
+		animatedTiles.clear();
+		block.animatedFrames.clear();
+		final ChunkedTiledMapTileLayer chunkedLayer = layer instanceof ChunkedTiledMapTileLayer ? (ChunkedTiledMapTileLayer)layer
+			: null;
+		int tiles = 0;
+		for (int row = row1; row < row2; row++) {
+			for (int col = col1; col < col2; col++) {
+				final Cell cell = chunkedLayer != null ? chunkedLayer.getSharedCell(col, row) : layer.getCell(col, row);
+				if (cell == null) continue;
+				final TiledMapTile tile = cell.getTile();
+				if (tile == null) continue;
+				tiles++;
+				if (tile instanceof AnimatedTiledMapTile && !animatedTiles.contains((AnimatedTiledMapTile)tile, true)) {
+					animatedTiles.add((AnimatedTiledMapTile)tile);
+					block.animatedFrames.add(((AnimatedTiledMapTile)tile).getCurrentFrameIndex());
+				}
+			}
 		}
-		spriteCache.begin();
-		MapLayers mapLayers = map.getLayers();
-		for (int i : layers) {
-			MapLayer layer = mapLayers.get(i);
-			if (layer.isVisible()) {
-				spriteCache.draw(i);
-				renderObjects(layer);
+
+		count -= block.tiles;
+		block.tiles = 0;
+		if (tiles == 0) {
+			releaseCache(block);
+			block.dirty = false;
+			return true;
+		}
+
+		if (tiles > block.cacheSize) {
+			releaseCache(block);
+			// Reuse the smallest free cache that is large enough.
+			int best = -1;
+			for (int i = 0, n = freeCacheSizes.size; i < n; i++) {
+				int size = freeCacheSizes.get(i);
+				if (size >= tiles && (best == -1 || size < freeCacheSizes.get(best))) best = i;
+			}
+			if (best != -1) {
+				block.cache = freeCaches.removeIndex(best);
+				block.cacheSize = freeCacheSizes.removeIndex(best);
+			} else {
+				// Leave room for tiles to be added later, up to the size of the block.
+				int size = Math.min(tiles + (tiles >> 2) + 1, blockWidth * blockHeight);
+				if (reservedSize + size > cacheSize) {
+					if (!full) return false;
+					throw new GdxRuntimeException("The cache size is too small for the tiles in the cached area: " + cacheSize);
+				}
+				reservedSize += size;
+				spriteCache.beginCache();
+				block.tiles = renderTileLayer(layer, col1, row1, col2, row2);
+				block.cache = spriteCache.endCache(size);
+				block.cacheSize = size;
+				count += block.tiles;
+				block.dirty = false;
+				return true;
+			}
+		}
+
+		spriteCache.beginCache(block.cache);
+		block.tiles = renderTileLayer(layer, col1, row1, col2, row2);
+		spriteCache.endCache(block.cacheSize);
+		count += block.tiles;
+		block.dirty = false;
+		return true;
+	}
+
+	private void releaseCache (Block block) {
+		if (block.cache == -1) return;
+		freeCaches.add(block.cache);
+		freeCacheSizes.add(block.cacheSize);
+		block.cache = -1;
+		block.cacheSize = 0;
+	}
+
+	/** Draws the cached tiles or image of the layer at the specified index. Must be called between {@link SpriteCache#begin()} and
+	 * {@link SpriteCache#end()}. */
+	protected void renderCache (int layerIndex) {
+		LayerCache layerCache = layerCaches.get(layerIndex);
+		if (layerCache.imageCache != -1) {
+			spriteCache.draw(layerCache.imageCache);
+			return;
+		}
+		IntMap<Block> blocks = layerCache.blocks;
+		for (int y = layerCache.y2; y >= layerCache.y1; y--) {
+			for (int x = layerCache.x1; x <= layerCache.x2; x++) {
+				Block block = blocks.get(y * layerCache.blocksX + x);
+				if (block != null && block.tiles > 0) spriteCache.draw(block.cache);
 			}
 		}
-		spriteCache.end();
-		if (blending) Gdx.gl.glDisable(GL20.GL_BLEND);
 	}
 
 	@Override
@@ -207,10 +416,10 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
 	public void renderObject (MapObject object) {
 	}
 
+	/** Adds the tiles of the layer within the cache bounds to the current cache. This is not used to build the blocks of the
+	 * cache, see {@link #renderTileLayer(TiledMapTileLayer, int, int, int, int)}. */
 	@Override
 	public void renderTileLayer (TiledMapTileLayer layer) {
-		final float color = Color.toFloatBits(1, 1, 1, layer.getOpacity());
-
 		final int layerWidth = layer.getWidth();
 		final int layerHeight = layer.getHeight();
 
@@ -229,21 +438,38 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
 		final int row2 = Math.min(layerHeight,
 			(int)((cacheBounds.y + cacheBounds.height + layerTileHeight - layerOffsetY) / layerTileHeight));
 
-		canCacheMoreN = row2 < layerHeight;
-		canCacheMoreE = col2 < layerWidth;
-		canCacheMoreW = col1 > 0;
-		canCacheMoreS = row1 > 0;
+		count += renderTileLayer(layer, col1, row1, col2, row2 + 1);
+	}
+
+	/** Adds the tiles of the layer in the specified area to the current cache, from the top row to the bottom row. Every block of
+	 * the cache is built with this method.
+	 * @param col2 The column after the last column to add.
+	 * @param row2 The row after the last row to add.
+	 * @return The number of tiles added. */
+	protected int renderTileLayer (TiledMapTileLayer layer, int col1, int row1, int col2, int row2) {
+		final float color = Color.toFloatBits(1, 1, 1, layer.getOpacity());
+
+		final float layerTileWidth = layer.getTileWidth() * unitScale;
+		final float layerTileHeight = layer.getTileHeight() * unitScale;
+
+		final float layerOffsetX = layer.getRenderOffsetX() * unitScale;
+		// offset in tiled is y down, so we flip it
+		final float layerOffsetY = -layer.getRenderOffsetY() * unitScale;
 
+		final ChunkedTiledMapTileLayer chunkedLayer = layer instanceof ChunkedTiledMapTileLayer ? (ChunkedTiledMapTileLayer)layer
+			: null;
+		int added = 0;
 		float[] vertices = this.vertices;
-		for (int row = row2; row >= row1; row--) {
+		for (int row = row2 - 1; row >= row1; row--) {
 			for (int col = col1; col < col2; col++) {
-				final TiledMapTileLayer.Cell cell = layer.getCell(col, row);
+				final TiledMapTileLayer.Cell cell = chunkedLayer != null ? chunkedLayer.getSharedCell(col, row)
+					: layer.getCell(col, row);
 				if (cell == null) continue;
 
 				final TiledMapTile tile = cell.getTile();
 				if (tile == null) continue;
 
-				count++;
+				added++;
 				final boolean flipX = cell.getFlipHorizontally();
 				final boolean flipY = cell.getFlipVertically();
 				final int rotations = cell.getRotation();
@@ -353,6 +579,7 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
 				spriteCache.add(texture, vertices, 0, NUM_VERTICES);
 			}
 		}
+		return added;
 	}
 
 	@Override
@@ -410,6 +637,51 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
 		cached = false;
 	}
 
+	/** Causes the block containing the specified tile to be rebuilt the next time it is rendered.
+	 * @see #invalidateTiles(TiledMapTileLayer, int, int, int, int) */
+	public void invalidateTile (TiledMapTileLayer layer, int x, int y) {
+		invalidateTiles(layer, x, y, 1, 1);
+	}
+
+	/** Causes the blocks containing the specified tiles of the layer to be rebuilt the next time they are rendered. This is much
+	 * cheaper than {@link #invalidateCache()} when only some tiles of a layer have changed. */
+	public void invalidateTiles (TiledMapTileLayer layer, int x, int y, int width, int height) {
+		LayerCache layerCache = null;
+		for (int i = 0, n = layerCaches.size; i < n; i++) {
+			if (layerCaches.get(i).layer == layer) {
+				layerCache = layerCaches.get(i);
+				break;
+			}
+		}
+		if (layerCache == null) return;
+		int x1 = Math.max(0, x) / blockWidth, x2 = (Math.min(x + width, layer.getWidth()) - 1) / blockWidth;
+		int y1 = Math.max(0, y) / blockHeight, y2 = (Math.min(y + height, layer.getHeight()) - 1) / blockHeight;
+		for (int blockY = y1; blockY <= y2; blockY++) {
+			for (int blockX = x1; blockX <= x2; blockX++) {
+				Block block = layerCache.blocks.get(blockY * layerCache.blocksX + blockX);
+				if (block != null) block.dirty = true;
+			}
+		}
+	}
+
+	/** Sets the number of tiles in each block of a tile layer that is cached and rebuilt as a unit. Smaller blocks are faster to
+	 * rebuild when scrolling or when tiles change, larger blocks need fewer draw calls. Default is 16x16. */
+	public void setBlockSize (int blockWidth, int blockHeight) {
+		if (blockWidth < 1 || blockHeight < 1)
+			throw new IllegalArgumentException("Block size must be > 0: " + blockWidth + ", " + blockHeight);
+		this.blockWidth = blockWidth;
+		this.blockHeight = blockHeight;
+		cached = false;
+	}
+
+	public int getBlockWidth () {
+		return blockWidth;
+	}
+
+	public int getBlockHeight () {
+		return blockHeight;
+	}
+
 	/** Returns true if tiles are currently cached. */
 	public boolean isCached () {
 		return cached;
@@ -448,4 +720,36 @@ public class OrthoCachedTiledMapRenderer implements TiledMapRenderer, Disposable
 	public void dispose () {
 		spriteCache.dispose();
 	}
+
+	static private class LayerCache {
+		final MapLayer layer;
+		int imageCache = -1;
+		final IntMap<Block> blocks = new IntMap();
+		int blocksX;
+		/** The range of blocks in the cache bounds, inclusive. */
+		int x1, y1, x2 = -1, y2 = -1;
+
+		LayerCache (MapLayer layer) {
+			this.layer = layer;
+		}
+	}
+
+	static private class Block {
+		final int x, y;
+		int cache = -1, cacheSize, tiles;
+		boolean dirty = true;
+		final Array<AnimatedTiledMapTile> animatedTiles = new Array(false, 4);
+		final IntArray animatedFrames = new IntArray(false, 4);
+
+		Block (int x, int y) {
+			this.x = x;
+			this.y = y;
+		}
+
+		boolean isAnimationChanged () {
+			for (int i = 0, n = animatedTiles.size; i < n; i++)
+				if (animatedTiles.get(i).getCurrentFrameIndex() != animatedFrames.get(i)) return true;
+			return false;
+		}
+	}
 }
@@ -40,6 +40,7 @@ import static com.badlogic.gdx.graphics.g2d.Batch.Y4;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.ChunkedTiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTile;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
@@ -86,6 +87,10 @@ public class OrthogonalTiledMapRenderer extends BatchTiledMapRenderer {
 		final int row2 = Math.min(layerHeight,
 			(int)((viewBounds.y + viewBounds.height + layerTileHeight - layerOffsetY) / layerTileHeight));
 
+		final ChunkedTiledMapTileLayer chunkedLayer = layer instanceof ChunkedTiledMapTileLayer ? (ChunkedTiledMapTileLayer)layer
+			: null;
+		if (chunkedLayer != null) chunkedLayer.setVisibleArea(col1, row1, col2, row2 + 1);
+
 		float y = row2 * layerTileHeight + layerOffsetY;
 		float xStart = col1 * layerTileWidth + layerOffsetX;
 		final float[] vertices = this.vertices;
@@ -93,7 +98,8 @@ public class OrthogonalTiledMapRenderer extends BatchTiledMapRenderer {
 		for (int row = row2; row >= row1; row--) {
 			float x = xStart;
 			for (int col = col1; col < col2; col++) {
-				final TiledMapTileLayer.Cell cell = layer.getCell(col, row);
+				final TiledMapTileLayer.Cell cell = chunkedLayer != null ? chunkedLayer.getSharedCell(col, row)
+					: layer.getCell(col, row);
 				if (cell == null) {
 					x += layerTileWidth;
 					continue;
@@ -0,0 +1,558 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.math;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/** A {@link SpatialIndex} that keeps the rectangles in a balanced binary tree of bounding rectangles, as used by Box2D's broad
+ * phase. Each rectangle is stored in the tree enlarged by a margin, so moving it only updates the tree when it leaves the
+ * enlarged rectangle. Works for any distribution and size of rectangles, see {@link SpatialHash} for many similarly sized
+ * rectangles.
+ * <p>
+ * Proxy ids are the indices of the tree's leaf nodes. */
+public class DynamicAabbTree implements SpatialIndex {
+	static private final int NULL = -1;
+
+	private final float margin;
+	private int root = NULL, freeList = NULL, capacity, size;
+	/** minX, minY, maxX, maxY per node. For leaves, fat includes the margin and tight is the proxy's bounds. */
+	private float[] fat, tight;
+	/** For nodes in the free list, parent is the next free node. Height is 0 for leaves and -1 for free nodes. */
+	private int[] parent, child1, child2, height;
+	private Object[] userData;
+	/** Traversal stacks, one per nesting level so callbacks can traverse the tree too. */
+	private int[][] stacks = new int[2][];
+	private int depth;
+
+	/** Creates a tree with a margin of 0. */
+	public DynamicAabbTree () {
+		this(0, 16);
+	}
+
+	/** @param margin the distance rectangles are enlarged by in the tree. A proxy can move this far without updating the tree,
+	 *           but queries visit more nodes the larger the margin.
+	 * @param initialCapacity the number of proxies the tree can hold before growing. */
+	public DynamicAabbTree (float margin, int initialCapacity) {
+		if (margin < 0) throw new IllegalArgumentException("margin must be >= 0: " + margin);
+		this.margin = margin;
+		capacity = Math.max(1, initialCapacity * 2);
+		fat = new float[capacity * 4];
+		tight = new float[capacity * 4];
+		parent = new int[capacity];
+		child1 = new int[capacity];
+		child2 = new int[capacity];
+		height = new int[capacity];
+		userData = new Object[capacity];
+		linkFree(0);
+	}
+
+	private void linkFree (int start) {
+		for (int i = start; i < capacity - 1; i++) {
+			parent[i] = i + 1;
+			height[i] = -1;
+		}
+		parent[capacity - 1] = NULL;
+		height[capacity - 1] = -1;
+		freeList = start;
+	}
+
+	private int allocateNode () {
+		if (freeList == NULL) {
+			int oldCapacity = capacity;
+			capacity <<= 1;
+			fat = resize(fat, capacity * 4);
+			tight = resize(tight, capacity * 4);
+			parent = resize(parent, capacity);
+			child1 = resize(child1, capacity);
+			child2 = resize(child2, capacity);
+			height = resize(height, capacity);
+			Object[] newUserData = new Object[capacity];
+			System.arraycopy(userData, 0, newUserData, 0, oldCapacity);
+			userData = newUserData;
+			linkFree(oldCapacity);
+		}
+		int node = freeList;
+		freeList = parent[node];
+		parent[node] = NULL;
+		child1[node] = NULL;
+		child2[node] = NULL;
+		height[node] = 0;
+		return node;
+	}
+
+	private void freeNode (int node) {
+		parent[node] = freeList;
+		height[node] = -1;
+		userData[node] = null;
+		freeList = node;
+	}
+
+	public int add (Rectangle bounds, Object userData) {
+		int proxy = allocateNode();
+		setTight(proxy, bounds);
+		setFat(proxy);
+		this.userData[proxy] = userData;
+		insertLeaf(proxy);
+		size++;
+		return proxy;
+	}
+
+	public void move (int proxy, Rectangle bounds) {
+		checkProxy(proxy);
+		setTight(proxy, bounds);
+		float[] fat = this.fat, tight = this.tight;
+		int i = proxy * 4;
+		float minX = tight[i], minY = tight[i + 1], maxX = tight[i + 2], maxY = tight[i + 3];
+		float fatMinX = fat[i], fatMinY = fat[i + 1], fatMaxX = fat[i + 2], fatMaxY = fat[i + 3];
+		if (fatMinX <= minX && fatMinY <= minY && fatMaxX >= maxX && fatMaxY >= maxY) {
+			// Still inside the fat bounds. Reinsert only if the fat bounds became much larger than needed, eg after shrinking.
+			float limit = margin * 4;
+			if (minX - fatMinX <= limit && minY - fatMinY <= limit && fatMaxX - maxX <= limit && fatMaxY - maxY <= limit) return;
+		}
+		removeLeaf(proxy);
+		setFat(proxy);
+		insertLeaf(proxy);
+	}
+
+	public void remove (int proxy) {
+		checkProxy(proxy);
+		removeLeaf(proxy);
+		freeNode(proxy);
+		size--;
+	}
+
+	public void clear () {
+		Arrays.fill(userData, null);
+		linkFree(0);
+		root = NULL;
+		size = 0;
+	}
+
+	public int size () {
+		return size;
+	}
+
+	public Object getUserData (int proxy) {
+		checkProxy(proxy);
+		return userData[proxy];
+	}
+
+	public void setUserData (int proxy, Object userData) {
+		checkProxy(proxy);
+		this.userData[proxy] = userData;
+	}
+
+	public Rectangle getBounds (int proxy, Rectangle out) {
+		checkProxy(proxy);
+		int i = proxy * 4;
+		return out.set(tight[i], tight[i + 1], tight[i + 2] - tight[i], tight[i + 3] - tight[i + 1]);
+	}
+
+	/** @return the height of the tree, 0 when it is empty or has a single proxy. */
+	public int getHeight () {
+		return root == NULL ? 0 : height[root];
+	}
+
+	private void checkProxy (int proxy) {
+		if (proxy < 0 || proxy >= capacity || height[proxy] != 0) throw new IllegalArgumentException("Invalid proxy: " + proxy);
+	}
+
+	private void setTight (int proxy, Rectangle bounds) {
+		int i = proxy * 4;
+		tight[i] = bounds.x;
+		tight[i + 1] = bounds.y;
+		tight[i + 2] = bounds.x + bounds.width;
+		tight[i + 3] = bounds.y + bounds.height;
+	}
+
+	private void setFat (int proxy) {
+		float margin = this.margin;
+		int i = proxy * 4;
+		fat[i] = tight[i] - margin;
+		fat[i + 1] = tight[i + 1] - margin;
+		fat[i + 2] = tight[i + 2] + margin;
+		fat[i + 3] = tight[i + 3] + margin;
+	}
+
+	/** Sets the fat bounds of a node to the union of the fat bounds of two other nodes. */
+	private void union (int node, int a, int b) {
+		float[] fat = this.fat;
+		int i = node * 4, ia = a * 4, ib = b * 4;
+		fat[i] = Math.min(fat[ia], fat[ib]);
+		fat[i + 1] = Math.min(fat[ia + 1], fat[ib + 1]);
+		fat[i + 2] = Math.max(fat[ia + 2], fat[ib + 2]);
+		fat[i + 3] = Math.max(fat[ia + 3], fat[ib + 3]);
+	}
+
+	private float perimeter (int node) {
+		int i = node * 4;
+		return fat[i + 2] - fat[i] + fat[i + 3] - fat[i + 1];
+	}
+
+	private float unionPerimeter (int node, float minX, float minY, float maxX, float maxY) {
+		int i = node * 4;
+		return Math.max(fat[i + 2], maxX) - Math.min(fat[i], minX) + Math.max(fat[i + 3], maxY) - Math.min(fat[i + 1], minY);
+	}
+
+	private void insertLeaf (int leaf) {
+		if (root == NULL) {
+			root = leaf;
+			parent[leaf] = NULL;
+			return;
+		}
+		int[] child1 = this.child1, child2 = this.child2, height = this.height;
+
+		// Find the best sibling by descending the tree with the surface area heuristic, using the perimeter in 2D.
+		int l = leaf * 4;
+		float minX = fat[l], minY = fat[l + 1], maxX = fat[l + 2], maxY = fat[l + 3];
+		int index = root;
+		while (height[index] > 0) {
+			int c1 = child1[index], c2 = child2[index];
+			float perimeter = perimeter(index);
+			float combined = unionPerimeter(index, minX, minY, maxX, maxY);
+			// Cost of creating a new parent for this node and the new leaf.
+			float cost = 2 * combined;
+			// Minimum cost of pushing the leaf further down the tree.
+			float inheritance = 2 * (combined - perimeter);
+			float cost1 = unionPerimeter(c1, minX, minY, maxX, maxY) + inheritance;
+			if (height[c1] > 0) cost1 -= perimeter(c1);
+			float cost2 = unionPerimeter(c2, minX, minY, maxX, maxY) + inheritance;
+			if (height[c2] > 0) cost2 -= perimeter(c2);
+			if (cost < cost1 && cost < cost2) break;
+			index = cost1 < cost2 ? c1 : c2;
+		}
+
+		int sibling = index, oldParent = parent[sibling];
+		int newParent = allocateNode();
+		// Allocating may have grown the arrays.
+		int[] parent = this.parent;
+		child1 = this.child1;
+		child2 = this.child2;
+		height = this.height;
+		parent[newParent] = oldParent;
+		union(newParent, sibling, leaf);
+		height[newParent] = height[sibling] + 1;
+		if (oldParent != NULL) {
+			if (child1[oldParent] == sibling)
+				child1[oldParent] = newParent;
+			else
+				child2[oldParent] = newParent;
+		} else
+			root = newParent;
+		child1[newParent] = sibling;
+		child2[newParent] = leaf;
+		parent[sibling] = newParent;
+		parent[leaf] = newParent;
+
+		refitAncestors(newParent);
+	}
+
+	private void removeLeaf (int leaf) {
+		if (leaf == root) {
+			root = NULL;
+			return;
+		}
+		int oldParent = parent[leaf], grandParent = parent[oldParent];
+		int sibling = child1[oldParent] == leaf ? child2[oldParent] : child1[oldParent];
+		freeNode(oldParent);
+		if (grandParent == NULL) {
+			root = sibling;
+			parent[sibling] = NULL;
+			return;
+		}
+		if (child1[grandParent] == oldParent)
+			child1[grandParent] = sibling;
+		else
+			child2[grandParent] = sibling;
+		parent[sibling] = grandParent;
+		refitAncestors(grandParent);
+	}
+
+	/** Balances and recomputes the bounds and height of the node and each of its ancestors. */
+	private void refitAncestors (int index) {
+		int[] height = this.height;
+		while (index != NULL) {
+			index = balance(index);
+			int c1 = child1[index], c2 = child2[index];
+			height[index] = 1 + Math.max(height[c1], height[c2]);
+			union(index, c1, c2);
+			index = parent[index];
+		}
+	}
+
+	/** Performs a left or right rotation if the node is unbalanced.
+	 * @return the node now at the position of the given node. */
+	private int balance (int a) {
+		int[] parent = this.parent, child1 = this.child1, child2 = this.child2, height = this.height;
+		if (height[a] < 2) return a;
+		int b = child1[a], c = child2[a];
+		int balance = height[c] - height[b];
+		if (balance > 1) {
+			// Rotate c up.
+			int f = child1[c], g = child2[c];
+			child1[c] = a;
+			parent[c] = parent[a];
+			parent[a] = c;
+			replaceChild(parent[c], a, c);
+			if (height[f] > height[g]) {
+				child2[c] = f;
+				child2[a] = g;
+				parent[g] = a;
+				union(a, b, g);
+				union(c, a, f);
+				height[a] = 1 + Math.max(height[b], height[g]);
+				height[c] = 1 + Math.max(height[a], height[f]);
+			} else {
+				child2[c] = g;
+				child2[a] = f;
+				parent[f] = a;
+				union(a, b, f);
+				union(c, a, g);
+				height[a] = 1 + Math.max(height[b], height[f]);
+				height[c] = 1 + Math.max(height[a], height[g]);
+			}
+			return c;
+		}
+		if (balance < -1) {
+			// Rotate b up.
+			int d = child1[b], e = child2[b];
+			child1[b] = a;
+			parent[b] = parent[a];
+			parent[a] = b;
+			replaceChild(parent[b], a, b);
+			if (height[d] > height[e]) {
+				child2[b] = d;
+				child1[a] = e;
+				parent[e] = a;
+				union(a, c, e);
+				union(b, a, d);
+				height[a] = 1 + Math.max(height[c], height[e]);
+				height[b] = 1 + Math.max(height[a], height[d]);
+			} else {
+				child2[b] = e;
+				child1[a] = d;
+				parent[d] = a;
+				union(a, c, d);
+				union(b, a, e);
+				height[a] = 1 + Math.max(height[c], height[d]);
+				height[b] = 1 + Math.max(height[a], height[e]);
+			}
+			return b;
+		}
+		return a;
+	}
+
+	private void replaceChild (int node, int oldChild, int newChild) {
+		if (node == NULL)
+			root = newChild;
+		else if (child1[node] == oldChild)
+			child1[node] = newChild;
+		else
+			child2[node] = newChild;
+	}
+
+	/** Returns the stack for a traversal at the current nesting level. The caller must restore {@link #depth} when done. */
+	private int[] beginTraversal () {
+		int depth = this.depth;
+		if (depth == stacks.length) {
+			int[][] newStacks = new int[depth << 1][];
+			System.arraycopy(stacks, 0, newStacks, 0, depth);
+			stacks = newStacks;
+		}
+		int[] stack = stacks[depth];
+		if (stack == null) stacks[depth] = stack = new int[64];
+		this.depth = depth + 1;
+		return stack;
+	}
+
+	/** Ensures the stack of the traversal at the nesting level has room for count more entries. */
+	private int[] push (int[] stack, int top, int count, int level) {
+		if (top + count <= stack.length) return stack;
+		return stacks[level] = resize(stack, stack.length << 1);
+	}
+
+	public void query (Rectangle area, QueryCallback callback) {
+		query(area.x, area.y, area.x + area.width, area.y + area.height, callback, null);
+	}
+
+	public void query (Rectangle area, IntArray out) {
+		query(area.x, area.y, area.x + area.width, area.y + area.height, null, out);
+	}
+
+	/** Reports leaves whose tight bounds overlap the area to the callback, or adds them to the array if the callback is null. */
+	private void query (float minX, float minY, float maxX, float maxY, QueryCallback callback, IntArray out) {
+		if (root == NULL) return;
+		float[] fat = this.fat, tight = this.tight;
+		int[] height = this.height;
+		int level = depth, top = 0;
+		int[] stack = beginTraversal();
+		try {
+			stack[top++] = root;
+			while (top > 0) {
+				int node = stack[--top], i = node * 4;
+				if (fat[i] > maxX || fat[i + 2] < minX || fat[i + 1] > maxY || fat[i + 3] < minY) continue;
+				if (height[node] == 0) {
+					// Same test as Rectangle#overlaps.
+					if (tight[i] < maxX && tight[i + 2] > minX && tight[i + 1] < maxY && tight[i + 3] > minY) {
+						if (callback == null)
+							out.add(node);
+						else if (!callback.reportProxy(node)) return;
+					}
+				} else {
+					stack = push(stack, top, 2, level);
+					stack[top++] = child1[node];
+					stack[top++] = child2[node];
+				}
+			}
+		} finally {
+			depth = level;
+		}
+	}
+
+	public void rayCast (Vector2 start, Vector2 end, RayCastCallback callback) {
+		if (root == NULL) return;
+		float startX = start.x, startY = start.y, deltaX = end.x - startX, deltaY = end.y - startY;
+		float maxFraction = 1;
+		float[] fat = this.fat, tight = this.tight;
+		int[] height = this.height;
+		int level = depth, top = 0;
+		int[] stack = beginTraversal();
+		try {
+			stack[top++] = root;
+			while (top > 0) {
+				int node = stack[--top];
+				if (rayFraction(startX, startY, deltaX, deltaY, fat, node, maxFraction) < 0) continue;
+				if (height[node] == 0) {
+					float fraction = rayFraction(startX, startY, deltaX, deltaY, tight, node, maxFraction);
+					if (fraction < 0) continue;
+					float value = callback.reportRayProxy(node, fraction, maxFraction);
+					if (value <= 0) return;
+					if (value < maxFraction) maxFraction = value;
+				} else {
+					stack = push(stack, top, 2, level);
+					stack[top++] = child1[node];
+					stack[top++] = child2[node];
+				}
+			}
+		} finally {
+			depth = level;
+		}
+	}
+
+	/** Finds where a segment enters the bounds at the index in the array, which stores minX, minY, maxX, maxY per index.
+	 * @return the fraction of the delta where the segment enters the bounds, 0 if it starts inside or -1 if the segment up to
+	 *         maxFraction misses the bounds. */
+	static float rayFraction (float startX, float startY, float deltaX, float deltaY, float[] bounds, int index,
+		float maxFraction) {
+		int i = index * 4;
+		float near = 0, far = maxFraction;
+		if (deltaX == 0) {
+			if (startX < bounds[i] || startX > bounds[i + 2]) return -1;
+		} else {
+			float inverse = 1 / deltaX;
+			float t1 = (bounds[i] - startX) * inverse, t2 = (bounds[i + 2] - startX) * inverse;
+			if (t1 > t2) {
+				float temp = t1;
+				t1 = t2;
+				t2 = temp;
+			}
+			if (t1 > near) near = t1;
+			if (t2 < far) far = t2;
+			if (near > far) return -1;
+		}
+		if (deltaY == 0) {
+			if (startY < bounds[i + 1] || startY > bounds[i + 3]) return -1;
+		} else {
+			float inverse = 1 / deltaY;
+			float t1 = (bounds[i + 1] - startY) * inverse, t2 = (bounds[i + 3] - startY) * inverse;
+			if (t1 > t2) {
+				float temp = t1;
+				t1 = t2;
+				t2 = temp;
+			}
+			if (t1 > near) near = t1;
+			if (t2 < far) far = t2;
+			if (near > far) return -1;
+		}
+		return near;
+	}
+
+	/** Descends the tree against itself, which visits each pair of overlapping nodes once rather than querying the tree for each
+	 * proxy. */
+	public void findPairs (PairCallback callback) {
+		if (root == NULL) return;
+		float[] fat = this.fat, tight = this.tight;
+		int[] child1 = this.child1, child2 = this.child2, height = this.height;
+		int level = depth, top = 0;
+		int[] stack = beginTraversal();
+		try {
+			// Pairs of nodes to test, a node paired with itself finds the pairs within its subtree.
+			stack[top++] = root;
+			stack[top++] = root;
+			while (top > 0) {
+				int b = stack[--top], a = stack[--top];
+				stack = push(stack, top, 6, level);
+				int heightA = height[a], heightB = height[b];
+				if (a == b) {
+					if (heightA == 0) continue;
+					int c1 = child1[a], c2 = child2[a];
+					stack[top++] = c1;
+					stack[top++] = c1;
+					stack[top++] = c2;
+					stack[top++] = c2;
+					stack[top++] = c1;
+					stack[top++] = c2;
+					continue;
+				}
+				int ia = a * 4, ib = b * 4;
+				if (fat[ia] > fat[ib + 2] || fat[ia + 2] < fat[ib] || fat[ia + 1] > fat[ib + 3] || fat[ia + 3] < fat[ib + 1])
+					continue;
+				if (heightA == 0 && heightB == 0) {
+					if (tight[ia] < tight[ib + 2] && tight[ia + 2] > tight[ib] && tight[ia + 1] < tight[ib + 3]
+						&& tight[ia + 3] > tight[ib + 1]) callback.reportPair(a, b);
+				} else if (heightA >= heightB) {
+					stack[top++] = child1[a];
+					stack[top++] = b;
+					stack[top++] = child2[a];
+					stack[top++] = b;
+				} else {
+					stack[top++] = a;
+					stack[top++] = child1[b];
+					stack[top++] = a;
+					stack[top++] = child2[b];
+				}
+			}
+		} finally {
+			depth = level;
+		}
+	}
+
+	static private float[] resize (float[] array, int size) {
+		float[] newArray = new float[size];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+
+	static private int[] resize (int[] array, int size) {
+		int[] newArray = new int[size];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+}
@@ -0,0 +1,363 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.math;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+
+/** A {@link SpatialIndex} that divides the plane into square cells and stores each rectangle in every cell it overlaps. Only
+ * occupied cells are stored, so the plane is unbounded. Adding, moving and removing rectangles is cheap and independent of
+ * the number of rectangles, which makes it well suited for many similarly sized moving rectangles. The cell size should be
+ * about the size of a typical rectangle: large rectangles are stored in many cells, and large cells hold many rectangles
+ * that queries need to test. See {@link DynamicAabbTree} for rectangles of very different sizes. */
+public class SpatialHash implements SpatialIndex {
+	private final float cellSize, inverseCellSize;
+	private final LongMap<Cell> cells = new LongMap();
+	private final Array<Cell> occupied = new Array(false, 64, Cell.class);
+	private final Array<Cell> freeCells = new Array(false, 64, Cell.class);
+	private final IntArray freeProxies = new IntArray(false, 16);
+	private int capacity, size, stamp;
+	/** minX, minY, maxX, maxY per proxy. */
+	private float[] bounds;
+	/** The first and last cell the proxy is in: minX, minY, maxX, maxY per proxy. */
+	private int[] range;
+	/** The last ray cast that tested the proxy, to test each proxy only once. */
+	private int[] stamps;
+	private boolean[] used;
+	private Object[] userData;
+
+	/** @param cellSize the width and height of a cell. */
+	public SpatialHash (float cellSize) {
+		this(cellSize, 16);
+	}
+
+	/** @param cellSize the width and height of a cell.
+	 * @param initialCapacity the number of proxies the index can hold before growing. */
+	public SpatialHash (float cellSize, int initialCapacity) {
+		if (cellSize <= 0) throw new IllegalArgumentException("cellSize must be > 0: " + cellSize);
+		this.cellSize = cellSize;
+		inverseCellSize = 1 / cellSize;
+		capacity = Math.max(1, initialCapacity);
+		bounds = new float[capacity * 4];
+		range = new int[capacity * 4];
+		stamps = new int[capacity];
+		used = new boolean[capacity];
+		userData = new Object[capacity];
+	}
+
+	public float getCellSize () {
+		return cellSize;
+	}
+
+	/** @return the number of cells holding at least one proxy. */
+	public int getOccupiedCells () {
+		return occupied.size;
+	}
+
+	public int add (Rectangle bounds, Object userData) {
+		int proxy;
+		if (freeProxies.size > 0)
+			proxy = freeProxies.pop();
+		else {
+			proxy = size;
+			if (proxy == capacity) grow();
+		}
+		used[proxy] = true;
+		stamps[proxy] = 0;
+		this.userData[proxy] = userData;
+		setBounds(proxy, bounds);
+		int i = proxy * 4;
+		int[] range = this.range;
+		range[i] = cell(this.bounds[i]);
+		range[i + 1] = cell(this.bounds[i + 1]);
+		range[i + 2] = cell(this.bounds[i + 2]);
+		range[i + 3] = cell(this.bounds[i + 3]);
+		for (int y = range[i + 1], maxY = range[i + 3]; y <= maxY; y++)
+			for (int x = range[i], maxX = range[i + 2]; x <= maxX; x++)
+				insert(proxy, x, y);
+		size++;
+		return proxy;
+	}
+
+	private void grow () {
+		int newCapacity = capacity << 1;
+		float[] newBounds = new float[newCapacity * 4];
+		System.arraycopy(bounds, 0, newBounds, 0, bounds.length);
+		bounds = newBounds;
+		int[] newRange = new int[newCapacity * 4];
+		System.arraycopy(range, 0, newRange, 0, range.length);
+		range = newRange;
+		int[] newStamps = new int[newCapacity];
+		System.arraycopy(stamps, 0, newStamps, 0, capacity);
+		stamps = newStamps;
+		boolean[] newUsed = new boolean[newCapacity];
+		System.arraycopy(used, 0, newUsed, 0, capacity);
+		used = newUsed;
+		Object[] newUserData = new Object[newCapacity];
+		System.arraycopy(userData, 0, newUserData, 0, capacity);
+		userData = newUserData;
+		capacity = newCapacity;
+	}
+
+	public void move (int proxy, Rectangle bounds) {
+		checkProxy(proxy);
+		setBounds(proxy, bounds);
+		int i = proxy * 4;
+		int[] range = this.range;
+		int oldMinX = range[i], oldMinY = range[i + 1], oldMaxX = range[i + 2], oldMaxY = range[i + 3];
+		int minX = cell(this.bounds[i]), minY = cell(this.bounds[i + 1]);
+		int maxX = cell(this.bounds[i + 2]), maxY = cell(this.bounds[i + 3]);
+		if (minX == oldMinX && minY == oldMinY && maxX == oldMaxX && maxY == oldMaxY) return;
+		// Only update the cells that are in one of the ranges but not in the other.
+		for (int y = oldMinY; y <= oldMaxY; y++)
+			for (int x = oldMinX; x <= oldMaxX; x++)
+				if (x < minX || x > maxX || y < minY || y > maxY) delete(proxy, x, y);
+		for (int y = minY; y <= maxY; y++)
+			for (int x = minX; x <= maxX; x++)
+				if (x < oldMinX || x > oldMaxX || y < oldMinY || y > oldMaxY) insert(proxy, x, y);
+		range[i] = minX;
+		range[i + 1] = minY;
+		range[i + 2] = maxX;
+		range[i + 3] = maxY;
+	}
+
+	public void remove (int proxy) {
+		checkProxy(proxy);
+		int i = proxy * 4;
+		int[] range = this.range;
+		for (int y = range[i + 1], maxY = range[i + 3]; y <= maxY; y++)
+			for (int x = range[i], maxX = range[i + 2]; x <= maxX; x++)
+				delete(proxy, x, y);
+		used[proxy] = false;
+		userData[proxy] = null;
+		freeProxies.add(proxy);
+		size--;
+	}
+
+	public void clear () {
+		for (int i = 0, n = occupied.size; i < n; i++) {
+			Cell cell = occupied.get(i);
+			cell.proxies.clear();
+			freeCells.add(cell);
+		}
+		occupied.clear();
+		cells.clear();
+		freeProxies.clear();
+		Arrays.fill(used, false);
+		Arrays.fill(userData, null);
+		size = 0;
+	}
+
+	public int size () {
+		return size;
+	}
+
+	public Object getUserData (int proxy) {
+		checkProxy(proxy);
+		return userData[proxy];
+	}
+
+	public void setUserData (int proxy, Object userData) {
+		checkProxy(proxy);
+		this.userData[proxy] = userData;
+	}
+
+	public Rectangle getBounds (int proxy, Rectangle out) {
+		checkProxy(proxy);
+		int i = proxy * 4;
+		return out.set(bounds[i], bounds[i + 1], bounds[i + 2] - bounds[i], bounds[i + 3] - bounds[i + 1]);
+	}
+
+	private void checkProxy (int proxy) {
+		if (proxy < 0 || proxy >= capacity || !used[proxy]) throw new IllegalArgumentException("Invalid proxy: " + proxy);
+	}
+
+	private void setBounds (int proxy, Rectangle bounds) {
+		int i = proxy * 4;
+		this.bounds[i] = bounds.x;
+		this.bounds[i + 1] = bounds.y;
+		this.bounds[i + 2] = bounds.x + bounds.width;
+		this.bounds[i + 3] = bounds.y + bounds.height;
+	}
+
+	private int cell (float value) {
+		return (int)Math.floor(value * inverseCellSize);
+	}
+
+	static private long key (int x, int y) {
+		return (long)x << 32 | y & 0xffffffffL;
+	}
+
+	private void insert (int proxy, int x, int y) {
+		long key = key(x, y);
+		Cell cell = cells.get(key);
+		if (cell == null) {
+			cell = freeCells.size > 0 ? freeCells.pop() : new Cell();
+			cell.x = x;
+			cell.y = y;
+			cell.index = occupied.size;
+			occupied.add(cell);
+			cells.put(key, cell);
+		}
+		cell.proxies.add(proxy);
+	}
+
+	private void delete (int proxy, int x, int y) {
+		long key = key(x, y);
+		Cell cell = cells.get(key);
+		IntArray proxies = cell.proxies;
+		proxies.removeValue(proxy);
+		if (proxies.size > 0) return;
+		cells.remove(key);
+		// Unordered removal moves the last cell into the removed cell's slot.
+		occupied.removeIndex(cell.index);
+		if (cell.index < occupied.size) occupied.get(cell.index).index = cell.index;
+		freeCells.add(cell);
+	}
+
+	public void query (Rectangle area, QueryCallback callback) {
+		query(area.x, area.y, area.x + area.width, area.y + area.height, callback, null);
+	}
+
+	public void query (Rectangle area, IntArray out) {
+		query(area.x, area.y, area.x + area.width, area.y + area.height, null, out);
+	}
+
+	private void query (float minX, float minY, float maxX, float maxY, QueryCallback callback, IntArray out) {
+		int cellMinX = cell(minX), cellMinY = cell(minY), cellMaxX = cell(maxX), cellMaxY = cell(maxY);
+		if ((long)(cellMaxX - cellMinX + 1) * (cellMaxY - cellMinY + 1) > occupied.size) {
+			// The area spans more cells than are occupied, visit the occupied cells instead.
+			Cell[] occupied = this.occupied.items;
+			for (int i = 0, n = this.occupied.size; i < n; i++) {
+				Cell cell = occupied[i];
+				if (cell.x < cellMinX || cell.x > cellMaxX || cell.y < cellMinY || cell.y > cellMaxY) continue;
+				if (!query(cell, minX, minY, maxX, maxY, cellMinX, cellMinY, callback, out)) return;
+			}
+			return;
+		}
+		for (int y = cellMinY; y <= cellMaxY; y++) {
+			for (int x = cellMinX; x <= cellMaxX; x++) {
+				Cell cell = cells.get(key(x, y));
+				if (cell != null && !query(cell, minX, minY, maxX, maxY, cellMinX, cellMinY, callback, out)) return;
+			}
+		}
+	}
+
+	/** Reports proxies in the cell that overlap the area. A proxy in several cells is reported only from the first cell where
+	 * its cells and the area's cells overlap.
+	 * @return false if the callback ended the query. */
+	private boolean query (Cell cell, float minX, float minY, float maxX, float maxY, int cellMinX, int cellMinY,
+		QueryCallback callback, IntArray out) {
+		float[] bounds = this.bounds;
+		int[] range = this.range;
+		int[] proxies = cell.proxies.items;
+		for (int ii = 0, nn = cell.proxies.size; ii < nn; ii++) {
+			int proxy = proxies[ii], i = proxy * 4;
+			if (Math.max(range[i], cellMinX) != cell.x || Math.max(range[i + 1], cellMinY) != cell.y) continue;
+			// Same test as Rectangle#overlaps.
+			if (bounds[i] < maxX && bounds[i + 2] > minX && bounds[i + 1] < maxY && bounds[i + 3] > minY) {
+				if (callback == null)
+					out.add(proxy);
+				else if (!callback.reportProxy(proxy)) return false;
+			}
+		}
+		return true;
+	}
+
+	public void rayCast (Vector2 start, Vector2 end, RayCastCallback callback) {
+		if (size == 0) return;
+		if (++stamp == Integer.MAX_VALUE) {
+			Arrays.fill(stamps, 0);
+			stamp = 1;
+		}
+		float startX = start.x, startY = start.y, deltaX = end.x - startX, deltaY = end.y - startY;
+		float maxFraction = 1;
+		int[] stamps = this.stamps;
+
+		// Walk the cells along the segment.
+		int x = cell(startX), y = cell(startY);
+		int stepX = deltaX > 0 ? 1 : deltaX < 0 ? -1 : 0, stepY = deltaY > 0 ? 1 : deltaY < 0 ? -1 : 0;
+		float nextX = Float.POSITIVE_INFINITY, nextY = Float.POSITIVE_INFINITY;
+		float stepFractionX = Float.POSITIVE_INFINITY, stepFractionY = Float.POSITIVE_INFINITY;
+		if (stepX != 0) {
+			nextX = ((x + (stepX > 0 ? 1 : 0)) * cellSize - startX) / deltaX;
+			stepFractionX = cellSize / Math.abs(deltaX);
+		}
+		if (stepY != 0) {
+			nextY = ((y + (stepY > 0 ? 1 : 0)) * cellSize - startY) / deltaY;
+			stepFractionY = cellSize / Math.abs(deltaY);
+		}
+		while (true) {
+			Cell cell = cells.get(key(x, y));
+			if (cell != null) {
+				int[] proxies = cell.proxies.items;
+				for (int i = 0; i < cell.proxies.size; i++) {
+					int proxy = proxies[i];
+					if (stamps[proxy] == stamp) continue;
+					// The segment only gets shorter, so a proxy it misses now is never hit later.
+					stamps[proxy] = stamp;
+					float fraction = DynamicAabbTree.rayFraction(startX, startY, deltaX, deltaY, bounds, proxy, maxFraction);
+					if (fraction < 0) continue;
+					float value = callback.reportRayProxy(proxy, fraction, maxFraction);
+					if (value <= 0) return;
+					if (value < maxFraction) maxFraction = value;
+				}
+			}
+			if (nextX < nextY) {
+				if (nextX > maxFraction) break;
+				x += stepX;
+				nextX += stepFractionX;
+			} else {
+				if (nextY > maxFraction) break;
+				y += stepY;
+				nextY += stepFractionY;
+			}
+		}
+	}
+
+	public void findPairs (PairCallback callback) {
+		float[] bounds = this.bounds;
+		int[] range = this.range;
+		Cell[] occupied = this.occupied.items;
+		for (int c = 0, n = this.occupied.size; c < n; c++) {
+			Cell cell = occupied[c];
+			int cellX = cell.x, cellY = cell.y;
+			int[] proxies = cell.proxies.items;
+			for (int ii = 0, nn = cell.proxies.size; ii < nn; ii++) {
+				int proxyA = proxies[ii], a = proxyA * 4;
+				float minX = bounds[a], minY = bounds[a + 1], maxX = bounds[a + 2], maxY = bounds[a + 3];
+				int rangeX = range[a], rangeY = range[a + 1];
+				for (int jj = ii + 1; jj < nn; jj++) {
+					int proxyB = proxies[jj], b = proxyB * 4;
+					if (bounds[b] >= maxX || bounds[b + 2] <= minX || bounds[b + 1] >= maxY || bounds[b + 3] <= minY) continue;
+					// Report the pair only from the first cell both proxies are in.
+					if (Math.max(rangeX, range[b]) != cellX || Math.max(rangeY, range[b + 1]) != cellY) continue;
+					callback.reportPair(proxyA, proxyB);
+				}
+			}
+		}
+	}
+
+	static private class Cell {
+		int x, y, index;
+		final IntArray proxies = new IntArray(false, 8);
+	}
+}
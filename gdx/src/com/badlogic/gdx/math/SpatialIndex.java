@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.math;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/** Indexes moving axis aligned rectangles for fast overlap, area and ray queries, eg as the broad phase of a 2D game. Each
+ * rectangle is identified by the proxy id returned from {@link #add(Rectangle, Object)}, which stays valid until it is
+ * {@link #remove(int) removed} and may be reused afterwards. Queries do not allocate memory and report proxies through
+ * callbacks. Callbacks may run queries of their own, but must not modify the index. The index is not thread safe.
+ * @see DynamicAabbTree
+ * @see SpatialHash */
+public interface SpatialIndex {
+	/** Adds a rectangle to the index. The rectangle is copied.
+	 * @param userData arbitrary data returned by {@link #getUserData(int)}, may be null.
+	 * @return the proxy id. */
+	public int add (Rectangle bounds, Object userData);
+
+	/** Updates the bounds of a proxy. This is cheap when the bounds change only a little. */
+	public void move (int proxy, Rectangle bounds);
+
+	/** Removes a proxy. Its id may be returned by a subsequent call to {@link #add(Rectangle, Object)}. */
+	public void remove (int proxy);
+
+	/** Removes all proxies. */
+	public void clear ();
+
+	/** @return the number of proxies in the index. */
+	public int size ();
+
+	public Object getUserData (int proxy);
+
+	/** Sets the user data of a proxy. */
+	public void setUserData (int proxy, Object userData);
+
+	/** Sets the given rectangle to the bounds of the proxy. The width and height may differ from the added rectangle by rounding.
+	 * @return the given rectangle for chaining. */
+	public Rectangle getBounds (int proxy, Rectangle out);
+
+	/** Reports each proxy whose bounds overlap the area. */
+	public void query (Rectangle area, QueryCallback callback);
+
+	/** Adds each proxy whose bounds overlap the area to the array. The array is not cleared. */
+	public void query (Rectangle area, IntArray out);
+
+	/** Reports the proxies whose bounds are crossed by the segment from start to end. The callback can clip the segment to find
+	 * the closest hit, proxies behind the clipped end are not reported. Proxies are not reported in a particular order. */
+	public void rayCast (Vector2 start, Vector2 end, RayCastCallback callback);
+
+	/** Reports each pair of overlapping proxies once. */
+	public void findPairs (PairCallback callback);
+
+	static public interface QueryCallback {
+		/** @return false to end the query. */
+		public boolean reportProxy (int proxy);
+	}
+
+	static public interface RayCastCallback {
+		/** Called for a proxy whose bounds are crossed by the segment.
+		 * @param fraction the position along the segment where it enters the bounds, 0 when the start is inside the bounds.
+		 * @param maxFraction the end of the segment as currently clipped.
+		 * @return the new end of the segment: maxFraction to continue unchanged, a smaller value to clip the segment (eg the
+		 *         fraction of an exact hit with the proxy's shape) or 0 to end the ray cast. */
+		public float reportRayProxy (int proxy, float fraction, float maxFraction);
+	}
+
+	static public interface PairCallback {
+		public void reportPair (int proxyA, int proxyB);
+	}
+}
@@ -0,0 +1,640 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.math;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+/** Delaunay triangulation in O(n log n) using a radial sweep hull, for large point sets. Points are added in order of their
+ * distance from a seed triangle, each connecting to the visible part of the convex hull, and edges are flipped as needed to
+ * keep the triangulation Delaunay. Optionally edges can be constrained to be part of the triangulation. Adapted from the
+ * Delaunator library: https://github.com/mapbox/delaunator
+ * <p>
+ * Unlike {@link DelaunayTriangulator}, the triangle indices are ints so any number of points can be triangulated. The winding
+ * of the triangles is the same. */
+public class SweepHullDelaunayTriangulator {
+	private final IntArray triangles = new IntArray();
+	private final IntArray crossing = new IntArray(), newEdges = new IntArray();
+	private float[] points;
+	private int offset, trianglesSize;
+	private double centerX, centerY;
+	private int hullStart, hashSize;
+	/** For each triangle corner, the corner of the adjacent triangle that shares the edge from this corner to the next, or -1. */
+	private int[] halfedges = new int[0];
+	private int[] ids = new int[0], hullPrev = new int[0], hullNext = new int[0], hullTri = new int[0], hullHash = new int[0];
+	private double[] distances = new double[0];
+	private int[] edgeStack = new int[512];
+	/** For each point, a triangle corner at the point. Only used for constrained edges. */
+	private int[] vertexEdges = new int[0];
+	private boolean[] constrained = new boolean[0];
+	private final Vector2 centroid = new Vector2();
+
+	/** @see #computeTriangles(float[], int, int, IntArray) */
+	public IntArray computeTriangles (FloatArray points) {
+		return computeTriangles(points.items, 0, points.size, null);
+	}
+
+	/** @see #computeTriangles(float[], int, int, IntArray) */
+	public IntArray computeTriangles (float[] points) {
+		return computeTriangles(points, 0, points.length, null);
+	}
+
+	/** @see #computeTriangles(float[], int, int, IntArray) */
+	public IntArray computeTriangles (float[] points, int offset, int count) {
+		return computeTriangles(points, offset, count, null);
+	}
+
+	/** Triangulates the given point cloud to a list of triangle indices that make up the Delaunay triangulation.
+	 * @param points x,y pairs describing points. Duplicate points are not used by any triangle. If all points are collinear,
+	 *           no triangles are returned.
+	 * @param edges May be null. Pairs of point indices describing edges which will be part of the triangulation. The
+	 *           triangulation is then only Delaunay where the edges allow it. The edges must not cross each other. A point on an
+	 *           edge splits the edge. Edges with a duplicate point are ignored.
+	 * @return triples of indices into the points that describe the triangles in clockwise order. Note the returned array is reused
+	 *         for later calls to the same method.
+	 * @throws IllegalArgumentException if constrained edges cross each other. */
+	public IntArray computeTriangles (float[] points, int offset, int count, IntArray edges) {
+		IntArray triangles = this.triangles;
+		triangles.clear();
+		int n = count / 2;
+		if (n < 3) return triangles;
+		this.points = points;
+		this.offset = offset;
+		try {
+			triangulate(n);
+			if (edges != null && edges.size > 0 && trianglesSize > 0) constrain(n, edges);
+		} finally {
+			this.points = null;
+		}
+		triangles.size = trianglesSize;
+		return triangles;
+	}
+
+	private double x (int point) {
+		return points[offset + point * 2];
+	}
+
+	private double y (int point) {
+		return points[offset + point * 2 + 1];
+	}
+
+	private void triangulate (int n) {
+		if (ids.length < n) {
+			ids = new int[n];
+			distances = new double[n];
+			hullPrev = new int[n];
+			hullNext = new int[n];
+			hullTri = new int[n];
+		}
+		int maxTriangles = Math.max(2 * n - 5, 0);
+		int[] triangles = this.triangles.ensureCapacity(maxTriangles * 3);
+		if (halfedges.length < maxTriangles * 3) halfedges = new int[triangles.length];
+		hashSize = (int)Math.ceil(Math.sqrt(n));
+		if (hullHash.length < hashSize) hullHash = new int[hashSize];
+		int[] ids = this.ids, hullPrev = this.hullPrev, hullNext = this.hullNext, hullTri = this.hullTri;
+		int[] hullHash = this.hullHash;
+		double[] distances = this.distances;
+		trianglesSize = 0;
+
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			double x = x(i), y = y(i);
+			if (x < minX) minX = x;
+			if (y < minY) minY = y;
+			if (x > maxX) maxX = x;
+			if (y > maxY) maxY = y;
+			ids[i] = i;
+		}
+		double cx = (minX + maxX) / 2, cy = (minY + maxY) / 2;
+
+		// Pick a seed point close to the center, the point closest to it and the point that forms the smallest circumcircle.
+		int i0 = 0, i1 = 0, i2 = 0;
+		double minDistance = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			double d = distance(cx, cy, x(i), y(i));
+			if (d < minDistance) {
+				i0 = i;
+				minDistance = d;
+			}
+		}
+		double i0x = x(i0), i0y = y(i0);
+		minDistance = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			if (i == i0) continue;
+			double d = distance(i0x, i0y, x(i), y(i));
+			if (d < minDistance && d > 0) {
+				i1 = i;
+				minDistance = d;
+			}
+		}
+		double i1x = x(i1), i1y = y(i1);
+		double minRadius = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			if (i == i0 || i == i1) continue;
+			double r = circumradius(i0x, i0y, i1x, i1y, x(i), y(i));
+			if (r < minRadius) {
+				i2 = i;
+				minRadius = r;
+			}
+		}
+		if (minRadius == Double.POSITIVE_INFINITY) return; // All points are collinear.
+		double i2x = x(i2), i2y = y(i2);
+		if (orient(i0x, i0y, i1x, i1y, i2x, i2y)) {
+			int i = i1;
+			i1 = i2;
+			i2 = i;
+			double x = i1x, y = i1y;
+			i1x = i2x;
+			i1y = i2y;
+			i2x = x;
+			i2y = y;
+		}
+
+		// Sort the points by distance from the seed triangle's circumcenter.
+		double bx = i1x - i0x, by = i1y - i0y, ex = i2x - i0x, ey = i2y - i0y;
+		double bl = bx * bx + by * by, cl = ex * ex + ey * ey, d = 0.5 / (bx * ey - by * ex);
+		centerX = i0x + (ey * bl - by * cl) * d;
+		centerY = i0y + (bx * cl - ex * bl) * d;
+		for (int i = 0; i < n; i++)
+			distances[i] = distance(centerX, centerY, x(i), y(i));
+		quicksort(ids, distances, 0, n - 1);
+
+		// The hull is a linked list of points, with a hash by angle around the center to find the visible edges quickly.
+		hullStart = i0;
+		hullNext[i0] = hullPrev[i2] = i1;
+		hullNext[i1] = hullPrev[i0] = i2;
+		hullNext[i2] = hullPrev[i1] = i0;
+		hullTri[i0] = 0;
+		hullTri[i1] = 1;
+		hullTri[i2] = 2;
+		Arrays.fill(hullHash, -1);
+		hullHash[hashKey(i0x, i0y)] = i0;
+		hullHash[hashKey(i1x, i1y)] = i1;
+		hullHash[hashKey(i2x, i2y)] = i2;
+		addTriangle(i0, i1, i2, -1, -1, -1);
+
+		double previousX = 0, previousY = 0;
+		for (int k = 0; k < n; k++) {
+			int i = ids[k];
+			double x = x(i), y = y(i);
+			// Skip duplicate points.
+			if (k > 0 && x == previousX && y == previousY) continue;
+			previousX = x;
+			previousY = y;
+			if (i == i0 || i == i1 || i == i2) continue;
+
+			// Find a visible edge on the hull using the hash.
+			int start = 0;
+			for (int j = 0, key = hashKey(x, y); j < hashSize; j++) {
+				start = hullHash[(key + j) % hashSize];
+				if (start != -1 && start != hullNext[start]) break;
+			}
+			start = hullPrev[start];
+			int e = start, q;
+			while (!orient(x, y, x(e), y(e), x(q = hullNext[e]), y(q))) {
+				e = q;
+				if (e == start) {
+					e = -1;
+					break;
+				}
+			}
+			if (e == -1) continue; // Likely a near duplicate point.
+
+			// Add the first triangle from the point.
+			int t = addTriangle(e, i, hullNext[e], -1, -1, hullTri[e]);
+			hullTri[i] = legalize(t + 2);
+			hullTri[e] = t;
+
+			// Walk forward through the hull, adding more triangles and flipping recursively.
+			int next = hullNext[e];
+			while (orient(x, y, x(next), y(next), x(q = hullNext[next]), y(q))) {
+				t = addTriangle(next, i, q, hullTri[i], -1, hullTri[next]);
+				hullTri[i] = legalize(t + 2);
+				hullNext[next] = next; // Mark as removed.
+				next = q;
+			}
+
+			// Walk backward from the other side, adding more triangles and flipping.
+			if (e == start) {
+				while (orient(x, y, x(q = hullPrev[e]), y(q), x(e), y(e))) {
+					t = addTriangle(q, i, e, -1, hullTri[e], hullTri[q]);
+					legalize(t + 2);
+					hullTri[q] = t;
+					hullNext[e] = e; // Mark as removed.
+					e = q;
+				}
+			}
+
+			// Update the hull indices.
+			hullStart = hullPrev[i] = e;
+			hullNext[e] = hullPrev[next] = i;
+			hullNext[i] = next;
+			hullHash[hashKey(x, y)] = i;
+			hullHash[hashKey(x(e), y(e))] = e;
+		}
+	}
+
+	private int hashKey (double x, double y) {
+		// Monotonic with the angle, without trigonometry.
+		double dx = x - centerX, dy = y - centerY;
+		double p = dx / (Math.abs(dx) + Math.abs(dy));
+		double angle = (dy > 0 ? 3 - p : 1 + p) / 4;
+		return (int)Math.floor(angle * hashSize) % hashSize;
+	}
+
+	private int addTriangle (int i0, int i1, int i2, int a, int b, int c) {
+		int t = trianglesSize;
+		int[] triangles = this.triangles.items;
+		triangles[t] = i0;
+		triangles[t + 1] = i1;
+		triangles[t + 2] = i2;
+		link(t, a);
+		link(t + 1, b);
+		link(t + 2, c);
+		trianglesSize += 3;
+		return t;
+	}
+
+	private void link (int a, int b) {
+		halfedges[a] = b;
+		if (b != -1) halfedges[b] = a;
+	}
+
+	/** Flips edges until the triangles around the edge are Delaunay.
+	 * @return the corner opposite the edge after flipping. */
+	private int legalize (int a) {
+		int[] triangles = this.triangles.items, halfedges = this.halfedges;
+		int i = 0, ar;
+		while (true) {
+			int b = halfedges[a];
+			/* If the pair of triangles doesn't satisfy the Delaunay condition (p1 is inside the circumcircle of [p0, pl, pr]), flip
+			 * them, then do the same check recursively for the new pair of triangles.
+			 * 
+			 *     pl                   pl
+			 *    /||\                 /  \
+			 * al/ || \bl           al/    \a
+			 *  /  ||  \             /      \
+			 * /  a||b  \    flip   /___ar___\
+			 * p0\  ||  /p1   =>   p0\---bl---/p1
+			 *  \  ||  /             \      /
+			 * ar\ || /br            b\    /br
+			 *    \||/                 \  /
+			 *     pr                   pr */
+			int a0 = a - a % 3;
+			ar = a0 + (a + 2) % 3;
+			if (b == -1) { // Convex hull edge.
+				if (i == 0) break;
+				a = edgeStack[--i];
+				continue;
+			}
+			int b0 = b - b % 3;
+			int al = a0 + (a + 1) % 3;
+			int bl = b0 + (b + 2) % 3;
+			int p0 = triangles[ar], pr = triangles[a], pl = triangles[al], p1 = triangles[bl];
+			if (inCircle(x(p0), y(p0), x(pr), y(pr), x(pl), y(pl), x(p1), y(p1))) {
+				triangles[a] = p1;
+				triangles[b] = p0;
+				int hbl = halfedges[bl];
+				// The edge was swapped on the other side of the hull (rare), fix the halfedge reference.
+				if (hbl == -1) {
+					int e = hullStart;
+					do {
+						if (hullTri[e] == bl) {
+							hullTri[e] = a;
+							break;
+						}
+						e = hullPrev[e];
+					} while (e != hullStart);
+				}
+				link(a, hbl);
+				link(b, halfedges[ar]);
+				link(ar, bl);
+				int br = b0 + (b + 1) % 3;
+				if (i == edgeStack.length) edgeStack = Arrays.copyOf(edgeStack, i << 1);
+				edgeStack[i++] = br;
+			} else {
+				if (i == 0) break;
+				a = edgeStack[--i];
+			}
+		}
+		return ar;
+	}
+
+	private void constrain (int n, IntArray edges) {
+		int size = trianglesSize;
+		if (vertexEdges.length < n) vertexEdges = new int[n];
+		if (constrained.length < size) constrained = new boolean[this.triangles.items.length];
+		int[] vertexEdges = this.vertexEdges, triangles = this.triangles.items;
+		Arrays.fill(vertexEdges, 0, n, -1);
+		Arrays.fill(constrained, 0, size, false);
+		for (int e = 0; e < size; e++)
+			vertexEdges[triangles[e]] = e;
+
+		int[] edgesArray = edges.items;
+		for (int i = 0, count = edges.size; i < count; i += 2) {
+			int p = edgesArray[i], q = edgesArray[i + 1];
+			if (p < 0 || p >= n || q < 0 || q >= n) throw new IllegalArgumentException("Invalid edge: " + p + ", " + q);
+			if (vertexEdges[p] == -1 || vertexEdges[q] == -1) continue; // Duplicate point.
+			// The edge may be split into multiple edges by collinear points.
+			while (p != q)
+				p = constrain(p, q);
+		}
+	}
+
+	/** Inserts an edge from p toward q by flipping the edges it crosses, then flips the new edges back to Delaunay where possible.
+	 * @return q, or the first point on the edge between p and q that the inserted edge ends at. */
+	private int constrain (int p, int q) {
+		int[] triangles = this.triangles.items, halfedges = this.halfedges;
+		double px = x(p), py = y(p), qx = x(q), qy = y(q);
+
+		// Find the triangle around p that the edge leaves p through, or the existing edge.
+		int start = vertexEdges[p], e = start, crossed = -1;
+		boolean reverse = false;
+		while (true) {
+			int a = triangles[next(e)], b = triangles[prev(e)];
+			if (a == q || collinear(px, py, qx, qy, a)) {
+				markConstrained(e);
+				return a;
+			}
+			if (b == q || collinear(px, py, qx, qy, b)) {
+				markConstrained(prev(e));
+				return b;
+			}
+			double ax = x(a), ay = y(a), bx = x(b), by = y(b);
+			double winding = cross(px, py, ax, ay, bx, by);
+			if (cross(px, py, ax, ay, qx, qy) * winding > 0 && cross(px, py, qx, qy, bx, by) * winding > 0) {
+				crossed = next(e);
+				break;
+			}
+			// Walk around p, in the other direction once the hull is reached.
+			int t;
+			if (!reverse) {
+				t = halfedges[prev(e)];
+				if (t == start) break;
+				if (t == -1) {
+					reverse = true;
+					t = halfedges[start];
+					if (t == -1) break;
+					t = next(t);
+				}
+			} else {
+				t = halfedges[e];
+				if (t == -1) break;
+				t = next(t);
+			}
+			e = t;
+		}
+		if (crossed == -1) throw new IllegalStateException("Edge not found: " + p + ", " + q);
+
+		// Collect the edges crossed by the segment from p to q.
+		IntArray crossing = this.crossing;
+		crossing.clear();
+		int end = q;
+		while (true) {
+			if (constrained[crossed]) throw new IllegalArgumentException("Constrained edges cross: " + p + ", " + q);
+			crossing.add(triangles[crossed]);
+			crossing.add(triangles[next(crossed)]);
+			int t = halfedges[crossed];
+			int v = triangles[prev(t)];
+			if (v == q) break;
+			double side = cross(px, py, qx, qy, x(v), y(v));
+			if (side == 0) {
+				end = v; // The edge ends at a point on the segment.
+				break;
+			}
+			int u = triangles[t];
+			crossed = (cross(px, py, qx, qy, x(u), y(u)) > 0) != (side > 0) ? prev(t) : next(t);
+		}
+		double ex = x(end), ey = y(end);
+
+		// Flip the crossed edges until none cross the segment.
+		IntArray newEdges = this.newEdges;
+		newEdges.clear();
+		for (int i = 0; i < crossing.size; i += 2) {
+			int u = crossing.get(i), v = crossing.get(i + 1);
+			int edge = findEdge(u, v);
+			int w1 = triangles[prev(edge)], w2 = triangles[prev(halfedges[edge])];
+			double w1x = x(w1), w1y = y(w1), w2x = x(w2), w2y = y(w2);
+			// The quadrilateral of the two triangles must be convex to flip the edge.
+			if (cross(w1x, w1y, w2x, w2y, x(u), y(u)) * cross(w1x, w1y, w2x, w2y, x(v), y(v)) >= 0) {
+				crossing.add(u);
+				crossing.add(v);
+				continue;
+			}
+			flip(edge);
+			if (w1 != p && w1 != end && w2 != p && w2 != end
+				&& cross(px, py, ex, ey, w1x, w1y) * cross(px, py, ex, ey, w2x, w2y) < 0) {
+				crossing.add(w1);
+				crossing.add(w2);
+			} else {
+				newEdges.add(w1);
+				newEdges.add(w2);
+			}
+		}
+
+		// Restore the Delaunay condition for the new edges.
+		boolean flipped = true;
+		while (flipped) {
+			flipped = false;
+			int[] newEdgesArray = newEdges.items;
+			for (int i = 0, count = newEdges.size; i < count; i += 2) {
+				int u = newEdgesArray[i], v = newEdgesArray[i + 1];
+				if ((u == p && v == end) || (u == end && v == p)) continue;
+				int edge = findEdge(u, v), twin = halfedges[edge];
+				if (twin == -1 || constrained[edge]) continue;
+				int w1 = triangles[prev(edge)], w2 = triangles[prev(twin)];
+				int e0 = triangles[edge], e1 = triangles[next(edge)];
+				if (!inCircle(x(e0), y(e0), x(e1), y(e1), x(w1), y(w1), x(w2), y(w2))) continue;
+				flip(edge);
+				newEdgesArray[i] = w1;
+				newEdgesArray[i + 1] = w2;
+				flipped = true;
+			}
+		}
+
+		markConstrained(findEdge(p, end));
+		return end;
+	}
+
+	/** @return true if the point is on the segment from p to q, excluding p. */
+	private boolean collinear (double px, double py, double qx, double qy, int point) {
+		double x = x(point), y = y(point);
+		if (cross(px, py, qx, qy, x, y) != 0) return false;
+		double dx = qx - px, dy = qy - py, dot = (x - px) * dx + (y - py) * dy;
+		return dot > 0 && dot < dx * dx + dy * dy;
+	}
+
+	private void markConstrained (int edge) {
+		constrained[edge] = true;
+		int twin = halfedges[edge];
+		if (twin != -1) constrained[twin] = true;
+	}
+
+	/** @return the triangle corner at u or v for the edge between them. */
+	private int findEdge (int u, int v) {
+		int[] triangles = this.triangles.items, halfedges = this.halfedges;
+		int start = vertexEdges[u], e = start;
+		do {
+			if (triangles[next(e)] == v) return e;
+			if (triangles[prev(e)] == v) return prev(e);
+			e = halfedges[prev(e)];
+		} while (e != -1 && e != start);
+		if (e == -1) {
+			// Reached the hull, walk in the other direction.
+			e = start;
+			while (true) {
+				int t = halfedges[e];
+				if (t == -1) break;
+				e = next(t);
+				if (triangles[next(e)] == v) return e;
+				if (triangles[prev(e)] == v) return prev(e);
+			}
+		}
+		throw new IllegalStateException("Edge not found: " + u + ", " + v);
+	}
+
+	/** Flips the edge shared by two triangles to connect the two points opposite the edge. */
+	private void flip (int a) {
+		int[] triangles = this.triangles.items, halfedges = this.halfedges;
+		boolean[] constrained = this.constrained;
+		int b = halfedges[a];
+		int a1 = next(a), a2 = prev(a), b1 = next(b), b2 = prev(b);
+		int u = triangles[a], v = triangles[a1], w1 = triangles[a2], w2 = triangles[b2];
+		int ha2 = halfedges[a2], hb2 = halfedges[b2];
+		boolean ca2 = constrained[a2], cb2 = constrained[b2];
+		triangles[a] = w2;
+		triangles[b] = w1;
+		link(a, hb2);
+		link(b, ha2);
+		link(a2, b2);
+		constrained[a] = cb2;
+		constrained[b] = ca2;
+		constrained[a2] = false;
+		constrained[b2] = false;
+		vertexEdges[u] = b1;
+		vertexEdges[v] = a1;
+		vertexEdges[w1] = a2;
+		vertexEdges[w2] = b2;
+	}
+
+	static private int next (int e) {
+		return e % 3 == 2 ? e - 2 : e + 1;
+	}
+
+	static private int prev (int e) {
+		return e % 3 == 0 ? e + 2 : e - 1;
+	}
+
+	static private double distance (double ax, double ay, double bx, double by) {
+		double dx = ax - bx, dy = ay - by;
+		return dx * dx + dy * dy;
+	}
+
+	static private double cross (double ox, double oy, double ax, double ay, double bx, double by) {
+		return (ax - ox) * (by - oy) - (ay - oy) * (bx - ox);
+	}
+
+	static private boolean orient (double px, double py, double qx, double qy, double rx, double ry) {
+		return (qy - py) * (rx - qx) - (qx - px) * (ry - qy) < 0;
+	}
+
+	static private boolean inCircle (double ax, double ay, double bx, double by, double cx, double cy, double px, double py) {
+		double dx = ax - px, dy = ay - py, ex = bx - px, ey = by - py, fx = cx - px, fy = cy - py;
+		double ap = dx * dx + dy * dy, bp = ex * ex + ey * ey, cp = fx * fx + fy * fy;
+		return dx * (ey * cp - bp * fy) - dy * (ex * cp - bp * fx) + ap * (ex * fy - ey * fx) < 0;
+	}
+
+	static private double circumradius (double ax, double ay, double bx, double by, double cx, double cy) {
+		double dx = bx - ax, dy = by - ay, ex = cx - ax, ey = cy - ay;
+		double bl = dx * dx + dy * dy, cl = ex * ex + ey * ey, d = 0.5 / (dx * ey - dy * ex);
+		double x = (ey * bl - dy * cl) * d, y = (dx * cl - ex * bl) * d;
+		return x * x + y * y;
+	}
+
+	/** Sorts the ids by their distance. */
+	static private void quicksort (int[] ids, double[] distances, int left, int right) {
+		if (right - left <= 20) {
+			for (int i = left + 1; i <= right; i++) {
+				int temp = ids[i];
+				double tempDistance = distances[temp];
+				int j = i - 1;
+				while (j >= left && distances[ids[j]] > tempDistance)
+					ids[j + 1] = ids[j--];
+				ids[j + 1] = temp;
+			}
+			return;
+		}
+		int median = (left + right) >>> 1, i = left + 1, j = right;
+		swap(ids, median, i);
+		if (distances[ids[left]] > distances[ids[right]]) swap(ids, left, right);
+		if (distances[ids[i]] > distances[ids[right]]) swap(ids, i, right);
+		if (distances[ids[left]] > distances[ids[i]]) swap(ids, left, i);
+		int temp = ids[i];
+		double tempDistance = distances[temp];
+		while (true) {
+			do
+				i++;
+			while (distances[ids[i]] < tempDistance);
+			do
+				j--;
+			while (distances[ids[j]] > tempDistance);
+			if (j < i) break;
+			swap(ids, i, j);
+		}
+		ids[left + 1] = ids[j];
+		ids[j] = temp;
+		if (right - i + 1 >= j - left) {
+			quicksort(ids, distances, i, right);
+			quicksort(ids, distances, left, j - 1);
+		} else {
+			quicksort(ids, distances, left, j - 1);
+			quicksort(ids, distances, i, right);
+		}
+	}
+
+	static private void swap (int[] array, int i, int j) {
+		int temp = array[i];
+		array[i] = array[j];
+		array[j] = temp;
+	}
+
+	/** Removes all triangles with a centroid outside the specified hull, which may be concave. Note some triangulations may have
+	 * triangles whose centroid is inside the hull but a portion is outside.
+	 * @see DelaunayTriangulator#trim(com.badlogic.gdx.utils.ShortArray, float[], float[], int, int) */
+	public void trim (IntArray triangles, float[] points, float[] hull, int offset, int count) {
+		Vector2 centroid = this.centroid;
+		int[] trianglesArray = triangles.items;
+		int size = 0;
+		for (int i = 0, n = triangles.size; i < n; i += 3) {
+			int p1 = trianglesArray[i] * 2;
+			int p2 = trianglesArray[i + 1] * 2;
+			int p3 = trianglesArray[i + 2] * 2;
+			GeometryUtils.triangleCentroid(points[p1], points[p1 + 1], points[p2], points[p2 + 1], points[p3], points[p3 + 1],
+				centroid);
+			if (!Intersector.isPointInPolygon(hull, offset, count, centroid.x, centroid.y)) continue;
+			// Keep the triangle, compacting the array in place.
+			trianglesArray[size++] = p1 / 2;
+			trianglesArray[size++] = p2 / 2;
+			trianglesArray[size++] = p3 / 2;
+		}
+		triangles.size = size;
+	}
+}
@@ -0,0 +1,738 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.math.collision;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+/** A bounding volume hierarchy, a binary tree of axis aligned bounding boxes over a set of items. It finds the items hit by a
+ * {@link Ray} or overlapping a {@link Sphere}, {@link BoundingBox} or {@link Frustum} without testing every item.
+ * <p>
+ * The items are either boxes, see {@link #build(float[], int)}, or the triangles of a mesh, see {@link #buildTriangles(MeshPart)},
+ * which also allows {@link #intersectRayTriangles(Ray, Vector3) exact ray casts}. Items are referred to by their index. The tree
+ * is split with the surface area heuristic. When the items move, change their {@link #getItemBounds() bounds} or
+ * {@link #getTriangles() triangles} and call {@link #refit()}, which keeps the structure of the tree. Rebuild it when the items
+ * moved a lot.
+ * <p>
+ * When an executor is {@link #setExecutor(AsyncExecutor, int) set}, large trees are built in parallel. The queries are not thread
+ * safe. */
+public class BoundingVolumeHierarchy {
+	static private final int BINS = 16;
+	/** The minimum number of items in a subtree that is built by a separate task. */
+	static private final int PARALLEL_THRESHOLD = 4096;
+
+	private final int leafSize;
+	private int itemCount;
+	/** Six floats per item: min x, y, z and max x, y, z. */
+	private float[] itemBounds = new float[0];
+	/** Nine floats per item when built from triangles, else null. */
+	private float[] triangles;
+	private float[] centers = new float[0];
+	/** The items in tree order, each leaf refers to a range. */
+	private int[] items = new int[0];
+	private int nodeCount;
+	/** Six floats per node, like the item bounds. */
+	private float[] nodeBounds = new float[0];
+	/** Two ints per node. A leaf has its first item and item count, an internal node has its right child and 0, its left child
+	 * is the next node. Nodes that aren't used have count -1. */
+	private int[] nodes = new int[0];
+	private int[] stack = new int[64];
+	private float rayX, rayY, rayZ, rayInvX, rayInvY, rayInvZ;
+
+	private AsyncExecutor executor;
+	private int tasks;
+	private final BuildTask mainTask = new BuildTask();
+	private final Array<BuildTask> buildTasks = new Array<BuildTask>();
+	private final Array<AsyncResult<Void>> results = new Array<AsyncResult<Void>>();
+
+	/** Creates a hierarchy with at most 4 items per leaf. */
+	public BoundingVolumeHierarchy () {
+		this(4);
+	}
+
+	/** @param leafSize The number of items below which a node is not split. */
+	public BoundingVolumeHierarchy (int leafSize) {
+		if (leafSize < 1) throw new IllegalArgumentException("leafSize must be >= 1: " + leafSize);
+		this.leafSize = leafSize;
+	}
+
+	/** Sets the executor used to build large trees in parallel.
+	 * @param executor May be null to build on the calling thread.
+	 * @param tasks The number of tasks the build is split into, usually the number of threads of the executor. */
+	public void setExecutor (AsyncExecutor executor, int tasks) {
+		this.executor = executor;
+		this.tasks = tasks;
+	}
+
+	/** Builds the tree over boxes.
+	 * @param bounds Six floats per box: min x, y, z and max x, y, z. The values are copied. */
+	public void build (float[] bounds, int count) {
+		triangles = null;
+		setItemCount(count);
+		System.arraycopy(bounds, 0, itemBounds, 0, count * 6);
+		buildTree();
+	}
+
+	/** Builds the tree over the boxes, item i is the box at index i. */
+	public void build (Array<BoundingBox> boxes) {
+		triangles = null;
+		setItemCount(boxes.size);
+		float[] itemBounds = this.itemBounds;
+		for (int i = 0, o = 0; i < boxes.size; i++, o += 6) {
+			BoundingBox box = boxes.get(i);
+			itemBounds[o] = box.min.x;
+			itemBounds[o + 1] = box.min.y;
+			itemBounds[o + 2] = box.min.z;
+			itemBounds[o + 3] = box.max.x;
+			itemBounds[o + 4] = box.max.y;
+			itemBounds[o + 5] = box.max.z;
+		}
+		buildTree();
+	}
+
+	/** Builds the tree over the triangles of the mesh part, item i is the i-th triangle of the part. */
+	public void buildTriangles (MeshPart meshPart) {
+		if (meshPart.primitiveType != GL20.GL_TRIANGLES) throw new GdxRuntimeException("Mesh part must consist of triangles");
+		buildTriangles(meshPart.mesh, meshPart.offset, meshPart.size);
+	}
+
+	/** Builds the tree over triangles of the mesh, item i is the i-th triangle starting at offset.
+	 * @param offset The first index, or the first vertex if the mesh has no indices.
+	 * @param count The number of indices or vertices, a multiple of 3. */
+	public void buildTriangles (Mesh mesh, int offset, int count) {
+		VertexAttribute position = mesh.getVertexAttribute(Usage.Position);
+		if (position == null || position.numComponents != 3) throw new GdxRuntimeException("Mesh must have 3D positions");
+		int vertexSize = mesh.getVertexSize() / 4;
+		float[] vertices = mesh.getVertices(new float[mesh.getNumVertices() * vertexSize]);
+		int[] indices = null;
+		if (mesh.getNumIndices() > 0 && count > 0) {
+			indices = new int[count];
+			mesh.getIndices(offset, count, indices, 0);
+			offset = 0;
+		}
+		buildTriangles(vertices, vertexSize, position.offset / 4, indices, offset, count);
+	}
+
+	/** Builds the tree over triangles, item i is the i-th triangle starting at offset.
+	 * @param vertexSize The number of floats per vertex.
+	 * @param positionOffset The offset in floats of the position within a vertex.
+	 * @param indices May be null if the vertices are not indexed.
+	 * @param offset The first index, or the first vertex if indices is null.
+	 * @param count The number of indices or vertices, a multiple of 3. */
+	public void buildTriangles (float[] vertices, int vertexSize, int positionOffset, int[] indices, int offset, int count) {
+		if (count % 3 != 0) throw new IllegalArgumentException("count must be a multiple of 3: " + count);
+		setItemCount(count / 3);
+		if (triangles == null || triangles.length < count * 3) triangles = new float[count * 3];
+		float[] triangles = this.triangles;
+		for (int i = 0, t = 0; i < count; i++, t += 3) {
+			int v = (indices == null ? offset + i : indices[offset + i]) * vertexSize + positionOffset;
+			triangles[t] = vertices[v];
+			triangles[t + 1] = vertices[v + 1];
+			triangles[t + 2] = vertices[v + 2];
+		}
+		updateTriangleBounds();
+		buildTree();
+	}
+
+	private void setItemCount (int count) {
+		itemCount = count;
+		if (itemBounds.length < count * 6) itemBounds = new float[count * 6];
+	}
+
+	private void updateTriangleBounds () {
+		float[] triangles = this.triangles, itemBounds = this.itemBounds;
+		for (int i = 0, n = itemCount, t = 0, o = 0; i < n; i++, t += 9, o += 6) {
+			for (int a = 0; a < 3; a++) {
+				float v1 = triangles[t + a], v2 = triangles[t + 3 + a], v3 = triangles[t + 6 + a];
+				itemBounds[o + a] = Math.min(v1, Math.min(v2, v3));
+				itemBounds[o + 3 + a] = Math.max(v1, Math.max(v2, v3));
+			}
+		}
+	}
+
+	private void buildTree () {
+		int n = itemCount;
+		if (items.length < n) {
+			items = new int[n];
+			centers = new float[n * 3];
+		}
+		int[] items = this.items;
+		float[] centers = this.centers, itemBounds = this.itemBounds;
+		for (int i = 0, c = 0, o = 0; i < n; i++, c += 3, o += 6) {
+			items[i] = i;
+			centers[c] = itemBounds[o] + itemBounds[o + 3];
+			centers[c + 1] = itemBounds[o + 1] + itemBounds[o + 4];
+			centers[c + 2] = itemBounds[o + 2] + itemBounds[o + 5];
+		}
+
+		// A subtree of m items needs at most 2m - 1 nodes. Reserving that many gives every subtree its own range of nodes, so
+		// subtrees can be built independently.
+		nodeCount = n == 0 ? 0 : n * 2 - 1;
+		if (nodes.length < nodeCount * 2) {
+			nodes = new int[nodeCount * 2];
+			nodeBounds = new float[nodeCount * 6];
+		}
+		int[] nodes = this.nodes;
+		for (int i = 0, e = nodeCount * 2; i < e; i += 2) {
+			nodes[i] = 0;
+			nodes[i + 1] = -1;
+		}
+		if (n == 0) return;
+
+		if (executor == null || tasks < 2 || n < PARALLEL_THRESHOLD * 2) {
+			mainTask.build(0, 0, n, 0);
+			return;
+		}
+
+		// Build the top of the tree on this thread, then the subtrees in parallel.
+		IntArray pending = mainTask.pending;
+		mainTask.build(0, 0, n, Math.max(PARALLEL_THRESHOLD, n / (tasks * 4)));
+		for (int i = 0; i < pending.size; i += 3) {
+			if (buildTasks.size <= i / 3) buildTasks.add(new BuildTask());
+			BuildTask task = buildTasks.get(i / 3);
+			task.node = pending.get(i);
+			task.start = pending.get(i + 1);
+			task.end = pending.get(i + 2);
+			results.add(executor.submit(task));
+		}
+		pending.clear();
+		// Wait for every task before rethrowing, so no task still uses the arrays.
+		GdxRuntimeException error = null;
+		for (int i = 0, r = results.size; i < r; i++) {
+			try {
+				results.get(i).get();
+			} catch (GdxRuntimeException ex) {
+				if (error == null) error = ex;
+			}
+		}
+		results.clear();
+		if (error != null) throw error;
+	}
+
+	/** Recomputes the bounds of the nodes after the {@link #getItemBounds() item bounds} or {@link #getTriangles() triangles}
+	 * changed, without changing the structure of the tree. */
+	public void refit () {
+		if (triangles != null) updateTriangleBounds();
+		int[] nodes = this.nodes, items = this.items;
+		float[] nodeBounds = this.nodeBounds, itemBounds = this.itemBounds;
+		// Children always come after their parent.
+		for (int node = nodeCount - 1; node >= 0; node--) {
+			int count = nodes[node * 2 + 1];
+			if (count < 0) continue;
+			int o = node * 6;
+			if (count > 0) {
+				float minX = Float.POSITIVE_INFINITY, minY = minX, minZ = minX;
+				float maxX = Float.NEGATIVE_INFINITY, maxY = maxX, maxZ = maxX;
+				for (int i = nodes[node * 2], e = i + count; i < e; i++) {
+					int b = items[i] * 6;
+					minX = Math.min(minX, itemBounds[b]);
+					minY = Math.min(minY, itemBounds[b + 1]);
+					minZ = Math.min(minZ, itemBounds[b + 2]);
+					maxX = Math.max(maxX, itemBounds[b + 3]);
+					maxY = Math.max(maxY, itemBounds[b + 4]);
+					maxZ = Math.max(maxZ, itemBounds[b + 5]);
+				}
+				nodeBounds[o] = minX;
+				nodeBounds[o + 1] = minY;
+				nodeBounds[o + 2] = minZ;
+				nodeBounds[o + 3] = maxX;
+				nodeBounds[o + 4] = maxY;
+				nodeBounds[o + 5] = maxZ;
+			} else {
+				int l = o + 6, r = nodes[node * 2] * 6;
+				for (int a = 0; a < 3; a++) {
+					nodeBounds[o + a] = Math.min(nodeBounds[l + a], nodeBounds[r + a]);
+					nodeBounds[o + 3 + a] = Math.max(nodeBounds[l + 3 + a], nodeBounds[r + 3 + a]);
+				}
+			}
+		}
+	}
+
+	/** Adds the items whose bounds are hit by the ray within the distance to out.
+	 * @return the number of items added. */
+	public int intersectRay (Ray ray, float maxDistance, IntArray out) {
+		if (nodeCount == 0) return 0;
+		setRay(ray);
+		int added = 0;
+		int[] nodes = this.nodes, stack = this.stack;
+		int sp = 0;
+		stack[sp++] = 0;
+		while (sp > 0) {
+			int node = stack[--sp];
+			if (rayEntry(nodeBounds, node * 6, maxDistance) == Float.POSITIVE_INFINITY) continue;
+			int count = nodes[node * 2 + 1];
+			if (count > 0) {
+				for (int i = nodes[node * 2], e = i + count; i < e; i++) {
+					if (rayEntry(itemBounds, items[i] * 6, maxDistance) == Float.POSITIVE_INFINITY) continue;
+					out.add(items[i]);
+					added++;
+				}
+			} else {
+				if (sp + 2 > stack.length) stack = growStack();
+				stack[sp++] = nodes[node * 2];
+				stack[sp++] = node + 1;
+			}
+		}
+		return added;
+	}
+
+	/** Finds the closest triangle hit by the ray. The tree must have been built from triangles.
+	 * @param intersection May be null, receives the intersection point.
+	 * @return the triangle, or -1 if the ray hits none. */
+	public int intersectRayTriangles (Ray ray, Vector3 intersection) {
+		return intersectRayTriangles(ray, Float.POSITIVE_INFINITY, intersection);
+	}
+
+	/** Finds the closest triangle hit by the ray within the distance. The tree must have been built from triangles.
+	 * @param intersection May be null, receives the intersection point.
+	 * @return the triangle, or -1 if the ray hits none. */
+	public int intersectRayTriangles (Ray ray, float maxDistance, Vector3 intersection) {
+		if (triangles == null) throw new GdxRuntimeException("The hierarchy was not built from triangles");
+		if (nodeCount == 0) return -1;
+		setRay(ray);
+		float dx = ray.direction.x, dy = ray.direction.y, dz = ray.direction.z;
+		float[] nodeBounds = this.nodeBounds, triangles = this.triangles;
+		int[] nodes = this.nodes, items = this.items, stack = this.stack;
+		int hit = -1;
+		float closest = maxDistance;
+		int sp = 0;
+		stack[sp++] = 0;
+		while (sp > 0) {
+			int node = stack[--sp];
+			if (rayEntry(nodeBounds, node * 6, closest) == Float.POSITIVE_INFINITY) continue;
+			int count = nodes[node * 2 + 1];
+			if (count > 0) {
+				for (int i = nodes[node * 2], e = i + count; i < e; i++) {
+					int t = items[i] * 9;
+					// Moller-Trumbore, hits from both sides.
+					float e1x = triangles[t + 3] - triangles[t], e1y = triangles[t + 4] - triangles[t + 1],
+						e1z = triangles[t + 5] - triangles[t + 2];
+					float e2x = triangles[t + 6] - triangles[t], e2y = triangles[t + 7] - triangles[t + 1],
+						e2z = triangles[t + 8] - triangles[t + 2];
+					float px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+					float det = e1x * px + e1y * py + e1z * pz;
+					if (det > -1e-12f && det < 1e-12f) continue;
+					float invDet = 1 / det;
+					float sx = rayX - triangles[t], sy = rayY - triangles[t + 1], sz = rayZ - triangles[t + 2];
+					float u = (sx * px + sy * py + sz * pz) * invDet;
+					if (u < 0 || u > 1) continue;
+					float qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+					float v = (dx * qx + dy * qy + dz * qz) * invDet;
+					if (v < 0 || u + v > 1) continue;
+					float distance = (e2x * qx + e2y * qy + e2z * qz) * invDet;
+					if (distance < 0 || distance >= closest) continue;
+					closest = distance;
+					hit = items[i];
+				}
+			} else {
+				int left = node + 1, right = nodes[node * 2];
+				float leftEntry = rayEntry(nodeBounds, left * 6, closest);
+				float rightEntry = rayEntry(nodeBounds, right * 6, closest);
+				if (sp + 2 > stack.length) stack = growStack();
+				// Visit the nearer child first, so the farther one is more likely to be skipped.
+				if (leftEntry <= rightEntry) {
+					if (rightEntry != Float.POSITIVE_INFINITY) stack[sp++] = right;
+					if (leftEntry != Float.POSITIVE_INFINITY) stack[sp++] = left;
+				} else {
+					if (leftEntry != Float.POSITIVE_INFINITY) stack[sp++] = left;
+					stack[sp++] = right;
+				}
+			}
+		}
+		if (hit != -1 && intersection != null) ray.getEndPoint(intersection, closest);
+		return hit;
+	}
+
+	/** Adds the items whose bounds overlap the sphere to out.
+	 * @return the number of items added. */
+	public int intersectSphere (Sphere sphere, IntArray out) {
+		if (nodeCount == 0) return 0;
+		float x = sphere.center.x, y = sphere.center.y, z = sphere.center.z, radius2 = sphere.radius * sphere.radius;
+		int added = 0;
+		int[] nodes = this.nodes, stack = this.stack;
+		int sp = 0;
+		stack[sp++] = 0;
+		while (sp > 0) {
+			int node = stack[--sp];
+			if (distance2(nodeBounds, node * 6, x, y, z) > radius2) continue;
+			int count = nodes[node * 2 + 1];
+			if (count > 0) {
+				for (int i = nodes[node * 2], e = i + count; i < e; i++) {
+					if (distance2(itemBounds, items[i] * 6, x, y, z) > radius2) continue;
+					out.add(items[i]);
+					added++;
+				}
+			} else {
+				if (sp + 2 > stack.length) stack = growStack();
+				stack[sp++] = nodes[node * 2];
+				stack[sp++] = node + 1;
+			}
+		}
+		return added;
+	}
+
+	/** Adds the items whose bounds overlap the box to out.
+	 * @return the number of items added. */
+	public int intersectBounds (BoundingBox box, IntArray out) {
+		if (nodeCount == 0) return 0;
+		float minX = box.min.x, minY = box.min.y, minZ = box.min.z, maxX = box.max.x, maxY = box.max.y, maxZ = box.max.z;
+		float[] nodeBounds = this.nodeBounds, itemBounds = this.itemBounds;
+		int added = 0;
+		int[] nodes = this.nodes, stack = this.stack;
+		int sp = 0;
+		stack[sp++] = 0;
+		while (sp > 0) {
+			int node = stack[--sp], o = node * 6;
+			if (nodeBounds[o] > maxX || nodeBounds[o + 3] < minX || nodeBounds[o + 1] > maxY || nodeBounds[o + 4] < minY
+				|| nodeBounds[o + 2] > maxZ || nodeBounds[o + 5] < minZ) continue;
+			int count = nodes[node * 2 + 1];
+			if (count > 0) {
+				for (int i = nodes[node * 2], e = i + count; i < e; i++) {
+					int b = items[i] * 6;
+					if (itemBounds[b] > maxX || itemBounds[b + 3] < minX || itemBounds[b + 1] > maxY || itemBounds[b + 4] < minY
+						|| itemBounds[b + 2] > maxZ || itemBounds[b + 5] < minZ) continue;
+					out.add(items[i]);
+					added++;
+				}
+			} else {
+				if (sp + 2 > stack.length) stack = growStack();
+				stack[sp++] = nodes[node * 2];
+				stack[sp++] = node + 1;
+			}
+		}
+		return added;
+	}
+
+	/** Adds the items whose bounds are at least partly inside the frustum to out. Items of nodes that are entirely inside are
+	 * added without testing them.
+	 * @return the number of items added. */
+	public int intersectFrustum (Frustum frustum, IntArray out) {
+		if (nodeCount == 0) return 0;
+		Plane[] planes = frustum.planes;
+		int added = 0;
+		int[] nodes = this.nodes, stack = this.stack;
+		int sp = 0;
+		stack[sp++] = 0;
+		while (sp > 0) {
+			int node = stack[--sp];
+			int side = classify(planes, nodeBounds, node * 6);
+			if (side == 0) continue;
+			if (side == 2) {
+				added += addAll(node, out);
+				continue;
+			}
+			int count = nodes[node * 2 + 1];
+			if (count > 0) {
+				for (int i = nodes[node * 2], e = i + count; i < e; i++) {
+					if (classify(planes, itemBounds, items[i] * 6) == 0) continue;
+					out.add(items[i]);
+					added++;
+				}
+			} else {
+				if (sp + 2 > stack.length) stack = growStack();
+				stack[sp++] = nodes[node * 2];
+				stack[sp++] = node + 1;
+			}
+		}
+		return added;
+	}
+
+	/** Adds the items of the subtree, which use a contiguous range of items. */
+	private int addAll (int node, IntArray out) {
+		int[] nodes = this.nodes;
+		int first = node, last = node;
+		while (nodes[first * 2 + 1] == 0)
+			first++;
+		while (nodes[last * 2 + 1] == 0)
+			last = nodes[last * 2];
+		int start = nodes[first * 2], end = nodes[last * 2] + nodes[last * 2 + 1];
+		out.addAll(items, start, end - start);
+		return end - start;
+	}
+
+	/** @return 0 if the box is outside the planes, 1 if it intersects them and 2 if it is inside. */
+	static private int classify (Plane[] planes, float[] bounds, int o) {
+		int result = 2;
+		for (int i = 0, n = planes.length; i < n; i++) {
+			Plane plane = planes[i];
+			float nx = plane.normal.x, ny = plane.normal.y, nz = plane.normal.z;
+			float far = nx * (nx >= 0 ? bounds[o + 3] : bounds[o]) + ny * (ny >= 0 ? bounds[o + 4] : bounds[o + 1])
+				+ nz * (nz >= 0 ? bounds[o + 5] : bounds[o + 2]) + plane.d;
+			if (far < 0) return 0;
+			float near = nx * (nx >= 0 ? bounds[o] : bounds[o + 3]) + ny * (ny >= 0 ? bounds[o + 1] : bounds[o + 4])
+				+ nz * (nz >= 0 ? bounds[o + 2] : bounds[o + 5]) + plane.d;
+			if (near < 0) result = 1;
+		}
+		return result;
+	}
+
+	static private float distance2 (float[] bounds, int o, float x, float y, float z) {
+		float dx = Math.max(Math.max(bounds[o] - x, x - bounds[o + 3]), 0);
+		float dy = Math.max(Math.max(bounds[o + 1] - y, y - bounds[o + 4]), 0);
+		float dz = Math.max(Math.max(bounds[o + 2] - z, z - bounds[o + 5]), 0);
+		return dx * dx + dy * dy + dz * dz;
+	}
+
+	private void setRay (Ray ray) {
+		rayX = ray.origin.x;
+		rayY = ray.origin.y;
+		rayZ = ray.origin.z;
+		rayInvX = 1 / ray.direction.x;
+		rayInvY = 1 / ray.direction.y;
+		rayInvZ = 1 / ray.direction.z;
+	}
+
+	/** @return the distance at which the ray enters the box, or positive infinity if it misses the box within the distance. */
+	private float rayEntry (float[] bounds, int o, float maxDistance) {
+		float near = 0, far = maxDistance;
+		float t1 = (bounds[o] - rayX) * rayInvX, t2 = (bounds[o + 3] - rayX) * rayInvX;
+		if (t1 > t2) {
+			float t = t1;
+			t1 = t2;
+			t2 = t;
+		}
+		if (t1 > near) near = t1;
+		if (t2 < far) far = t2;
+		t1 = (bounds[o + 1] - rayY) * rayInvY;
+		t2 = (bounds[o + 4] - rayY) * rayInvY;
+		if (t1 > t2) {
+			float t = t1;
+			t1 = t2;
+			t2 = t;
+		}
+		if (t1 > near) near = t1;
+		if (t2 < far) far = t2;
+		t1 = (bounds[o + 2] - rayZ) * rayInvZ;
+		t2 = (bounds[o + 5] - rayZ) * rayInvZ;
+		if (t1 > t2) {
+			float t = t1;
+			t1 = t2;
+			t2 = t;
+		}
+		if (t1 > near) near = t1;
+		if (t2 < far) far = t2;
+		return near <= far ? near : Float.POSITIVE_INFINITY;
+	}
+
+	private int[] growStack () {
+		int[] newStack = new int[stack.length * 2];
+		System.arraycopy(stack, 0, newStack, 0, stack.length);
+		return stack = newStack;
+	}
+
+	/** @return the number of items the tree was built from */
+	public int getItemCount () {
+		return itemCount;
+	}
+
+	/** Returns the item bounds, six floats per item: min x, y, z and max x, y, z. They can be changed, followed by
+	 * {@link #refit()}. Not used when the tree was built from triangles. */
+	public float[] getItemBounds () {
+		return itemBounds;
+	}
+
+	/** Returns the triangles, nine floats per item, or null if the tree was built from boxes. They can be changed, followed by
+	 * {@link #refit()}. */
+	public float[] getTriangles () {
+		return triangles;
+	}
+
+	/** Sets the bounds to those of the whole tree. */
+	public BoundingBox getBounds (BoundingBox out) {
+		if (nodeCount == 0) return out.inf();
+		float[] b = nodeBounds;
+		return out.set(out.min.set(b[0], b[1], b[2]), out.max.set(b[3], b[4], b[5]));
+	}
+
+	/** Builds a subtree. Each task has its own scratch data. */
+	private class BuildTask implements AsyncTask<Void> {
+		final int[] binCounts = new int[BINS];
+		final float[] binBounds = new float[BINS * 6];
+		final float[] leftAreas = new float[BINS];
+		/** Node, start and end of each deferred subtree. */
+		final IntArray pending = new IntArray();
+		int node, start, end;
+
+		public Void call () throws Exception {
+			build(node, start, end, 0);
+			return null;
+		}
+
+		/** Builds the subtree of the items from start to end at the node.
+		 * @param deferThreshold Subtrees with at most this many items are added to pending instead of being built, 0 to build
+		 *           everything. */
+		void build (int node, int start, int end, int deferThreshold) {
+			int[] nodes = BoundingVolumeHierarchy.this.nodes, items = BoundingVolumeHierarchy.this.items;
+			float[] nodeBounds = BoundingVolumeHierarchy.this.nodeBounds, itemBounds = BoundingVolumeHierarchy.this.itemBounds;
+			float[] centers = BoundingVolumeHierarchy.this.centers;
+			while (true) {
+				int count = end - start;
+				if (count <= deferThreshold) {
+					pending.add(node, start, end);
+					return;
+				}
+				float minX = Float.POSITIVE_INFINITY, minY = minX, minZ = minX;
+				float maxX = Float.NEGATIVE_INFINITY, maxY = maxX, maxZ = maxX;
+				float cMinX = minX, cMinY = minX, cMinZ = minX, cMaxX = maxX, cMaxY = maxX, cMaxZ = maxX;
+				for (int i = start; i < end; i++) {
+					int item = items[i], b = item * 6, c = item * 3;
+					minX = Math.min(minX, itemBounds[b]);
+					minY = Math.min(minY, itemBounds[b + 1]);
+					minZ = Math.min(minZ, itemBounds[b + 2]);
+					maxX = Math.max(maxX, itemBounds[b + 3]);
+					maxY = Math.max(maxY, itemBounds[b + 4]);
+					maxZ = Math.max(maxZ, itemBounds[b + 5]);
+					cMinX = Math.min(cMinX, centers[c]);
+					cMinY = Math.min(cMinY, centers[c + 1]);
+					cMinZ = Math.min(cMinZ, centers[c + 2]);
+					cMaxX = Math.max(cMaxX, centers[c]);
+					cMaxY = Math.max(cMaxY, centers[c + 1]);
+					cMaxZ = Math.max(cMaxZ, centers[c + 2]);
+				}
+				int o = node * 6;
+				nodeBounds[o] = minX;
+				nodeBounds[o + 1] = minY;
+				nodeBounds[o + 2] = minZ;
+				nodeBounds[o + 3] = maxX;
+				nodeBounds[o + 4] = maxY;
+				nodeBounds[o + 5] = maxZ;
+
+				// Split along the axis where the centers are spread the most.
+				float extentX = cMaxX - cMinX, extentY = cMaxY - cMinY, extentZ = cMaxZ - cMinZ;
+				int axis = extentX >= extentY && extentX >= extentZ ? 0 : extentY >= extentZ ? 1 : 2;
+				float cMin = axis == 0 ? cMinX : axis == 1 ? cMinY : cMinZ;
+				float extent = axis == 0 ? extentX : axis == 1 ? extentY : extentZ;
+				if (count <= leafSize || extent <= 0) {
+					nodes[node * 2] = start;
+					nodes[node * 2 + 1] = count;
+					return;
+				}
+
+				int mid = split(start, end, axis, cMin, BINS / extent);
+				int left = node + 1, right = node + (mid - start) * 2;
+				nodes[node * 2] = right;
+				nodes[node * 2 + 1] = 0;
+				// Recurse into the smaller child and continue with the larger one, to bound the recursion depth.
+				if (mid - start < end - mid) {
+					build(left, start, mid, deferThreshold);
+					node = right;
+					start = mid;
+				} else {
+					build(right, mid, end, deferThreshold);
+					node = left;
+					end = mid;
+				}
+			}
+		}
+
+		/** Bins the centers along the axis, partitions the items at the bin boundary with the lowest surface area cost.
+		 * @return the start of the right half, the halves are never empty. */
+		private int split (int start, int end, int axis, float cMin, float scale) {
+			int[] items = BoundingVolumeHierarchy.this.items, binCounts = this.binCounts;
+			float[] itemBounds = BoundingVolumeHierarchy.this.itemBounds, centers = BoundingVolumeHierarchy.this.centers;
+			float[] binBounds = this.binBounds, leftAreas = this.leftAreas;
+			for (int i = 0; i < BINS; i++) {
+				binCounts[i] = 0;
+				int o = i * 6;
+				binBounds[o] = binBounds[o + 1] = binBounds[o + 2] = Float.POSITIVE_INFINITY;
+				binBounds[o + 3] = binBounds[o + 4] = binBounds[o + 5] = Float.NEGATIVE_INFINITY;
+			}
+			for (int i = start; i < end; i++) {
+				int item = items[i], bin = bin(centers[item * 3 + axis], cMin, scale);
+				binCounts[bin]++;
+				int o = bin * 6, b = item * 6;
+				for (int a = 0; a < 3; a++) {
+					binBounds[o + a] = Math.min(binBounds[o + a], itemBounds[b + a]);
+					binBounds[o + 3 + a] = Math.max(binBounds[o + 3 + a], itemBounds[b + 3 + a]);
+				}
+			}
+
+			// leftAreas[i] is the area of the bins up to and including i.
+			float minX = Float.POSITIVE_INFINITY, minY = minX, minZ = minX;
+			float maxX = Float.NEGATIVE_INFINITY, maxY = maxX, maxZ = maxX;
+			for (int i = 0; i < BINS - 1; i++) {
+				int o = i * 6;
+				minX = Math.min(minX, binBounds[o]);
+				minY = Math.min(minY, binBounds[o + 1]);
+				minZ = Math.min(minZ, binBounds[o + 2]);
+				maxX = Math.max(maxX, binBounds[o + 3]);
+				maxY = Math.max(maxY, binBounds[o + 4]);
+				maxZ = Math.max(maxZ, binBounds[o + 5]);
+				leftAreas[i] = area(minX, minY, minZ, maxX, maxY, maxZ);
+			}
+			minX = minY = minZ = Float.POSITIVE_INFINITY;
+			maxX = maxY = maxZ = Float.NEGATIVE_INFINITY;
+			int bestBin = 0, rightCount = 0;
+			float bestCost = Float.POSITIVE_INFINITY;
+			for (int i = BINS - 1; i > 0; i--) {
+				int o = i * 6;
+				minX = Math.min(minX, binBounds[o]);
+				minY = Math.min(minY, binBounds[o + 1]);
+				minZ = Math.min(minZ, binBounds[o + 2]);
+				maxX = Math.max(maxX, binBounds[o + 3]);
+				maxY = Math.max(maxY, binBounds[o + 4]);
+				maxZ = Math.max(maxZ, binBounds[o + 5]);
+				rightCount += binCounts[i];
+				float cost = leftAreas[i - 1] * (end - start - rightCount) + area(minX, minY, minZ, maxX, maxY, maxZ) * rightCount;
+				if (cost < bestCost) {
+					bestCost = cost;
+					bestBin = i - 1;
+				}
+			}
+
+			// Partition the items of bins up to bestBin to the left.
+			int i = start, j = end - 1;
+			while (true) {
+				while (i <= j && bin(centers[items[i] * 3 + axis], cMin, scale) <= bestBin)
+					i++;
+				while (i <= j && bin(centers[items[j] * 3 + axis], cMin, scale) > bestBin)
+					j--;
+				if (i >= j) break;
+				int t = items[i];
+				items[i] = items[j];
+				items[j] = t;
+			}
+			// Guard against float rounding putting every item on one side.
+			if (i == start || i == end) i = (start + end) >>> 1;
+			return i;
+		}
+	}
+
+	static private int bin (float center, float cMin, float scale) {
+		int bin = (int)((center - cMin) * scale);
+		return bin < 0 ? 0 : bin >= BINS ? BINS - 1 : bin;
+	}
+
+	/** @return half the surface area of the box */
+	static private float area (float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+		float x = maxX - minX, y = maxY - minY, z = maxZ - minZ;
+		return x * y + y * z + z * x;
+	}
+}
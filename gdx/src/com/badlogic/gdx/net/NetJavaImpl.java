@@ -24,6 +24,11 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import com.badlogic.gdx.Net;
 import com.badlogic.gdx.Net.HttpMethods;
@@ -32,12 +37,20 @@ import com.badlogic.gdx.Net.HttpResponse;
 import com.badlogic.gdx.Net.HttpResponseListener;
 import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.Queue;
 import com.badlogic.gdx.utils.StreamUtils;
-import com.badlogic.gdx.utils.async.AsyncExecutor;
-import com.badlogic.gdx.utils.async.AsyncTask;
 
 /** Implements part of the {@link Net} API using {@link HttpURLConnection}, to be easily reused between the Android and Desktop
  * backends.
+ * <p>
+ * By default requests run one at a time, in the order they were sent. With {@link #NetJavaImpl(int)} requests run concurrently on
+ * a thread pool, with at most {@link #setMaxConnectionsPerHost(int) a limited number} running for each host. A request is only
+ * handed to a thread when one is free, and waiting requests start in the order they were sent, skipping those for a host that
+ * is at its limit. They wait without occupying a thread. After the response listener returns, the response stream is closed rather than the connection disconnected, so the
+ * connection can be reused by the next request to the same host.
+ * <p>
+ * Response bodies are not buffered: {@link HttpResponse#getResultAsStream()} reads from the connection, so a listener that reads
+ * slowly also slows the sender. A request stream with a known content length is sent without buffering it in memory.
  * @author acoppes */
 public class NetJavaImpl {
 
@@ -117,18 +130,113 @@ public class NetJavaImpl {
 				return connection.getErrorStream();
 			}
 		}
+
+		/** Closes the response stream, which allows the connection to be reused if the response was read completely or the rest of
+		 * it is small. */
+		void close () {
+			StreamUtils.closeQuietly(getInputStream());
+		}
+	}
+
+	/** Receives the timing of each request, on the thread that executed the request.
+	 * @see NetJavaImpl#setMetricsListener(RequestMetricsListener) */
+	public static interface RequestMetricsListener {
+		/** Called after the response listener returns or the request fails. Not called for cancelled requests. Times are in
+		 * nanoseconds.
+		 * @param statusCode The HTTP status code, or -1 if the request failed before a response was received.
+		 * @param queueTime The time from sending the request until it started executing.
+		 * @param responseTime The time from starting to execute until the response status and headers were received.
+		 * @param totalTime The time from sending the request until the response listener returned. */
+		public void requestCompleted (HttpRequest request, int statusCode, long queueTime, long responseTime, long totalTime);
 	}
 
-	private final AsyncExecutor asyncExecutor;
+	private final ThreadPoolExecutor executor;
 	final ObjectMap<HttpRequest, HttpURLConnection> connections;
 	final ObjectMap<HttpRequest, HttpResponseListener> listeners;
-
+	private final int maxThreads;
+	private final ObjectMap<String, Host> hosts = new ObjectMap<String, Host>();
+	/** Requests that are not yet handed to the executor, in the order they were sent. */
+	private final Queue<Request> waiting = new Queue<Request>();
+	private int maxConnectionsPerHost = 5;
+	private volatile RequestMetricsListener metricsListener;
+	/** The number of requests handed to the executor, some of which may not have started yet. */
+	private int submittedRequests;
+	private int activeRequests;
+	private long completedRequests, failedRequests, cancelledRequests;
+
+	/** Creates an instance that runs one request at a time, in the order they were sent. */
 	public NetJavaImpl () {
-		asyncExecutor = new AsyncExecutor(1);
+		this(1);
+	}
+
+	/** @param maxThreads The maximum number of requests executing at once across all hosts, subject to the per host limit. If 1,
+	 *           requests run in the order they were sent. {@link Integer#MAX_VALUE} allows any number. */
+	public NetJavaImpl (int maxThreads) {
+		if (maxThreads < 1) throw new IllegalArgumentException("maxThreads must be > 0: " + maxThreads);
+		this.maxThreads = maxThreads;
+		ThreadFactory threadFactory = new ThreadFactory() {
+			@Override
+			public Thread newThread (Runnable r) {
+				Thread thread = new Thread(r, "NetThread");
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+		if (maxThreads == Integer.MAX_VALUE)
+			executor = new ThreadPoolExecutor(0, maxThreads, 60, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), threadFactory);
+		else {
+			executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+				threadFactory);
+			executor.allowCoreThreadTimeOut(true);
+		}
 		connections = new ObjectMap<HttpRequest, HttpURLConnection>();
 		listeners = new ObjectMap<HttpRequest, HttpResponseListener>();
 	}
 
+	/** Sets the maximum number of requests executing at once for each host. Default is 5, which is the number of idle connections
+	 * per host that {@link HttpURLConnection} keeps alive by default, so each finished connection can be reused. */
+	public synchronized void setMaxConnectionsPerHost (int maxConnectionsPerHost) {
+		if (maxConnectionsPerHost < 1)
+			throw new IllegalArgumentException("maxConnectionsPerHost must be > 0: " + maxConnectionsPerHost);
+		this.maxConnectionsPerHost = maxConnectionsPerHost;
+		submitWaiting();
+	}
+
+	public synchronized int getMaxConnectionsPerHost () {
+		return maxConnectionsPerHost;
+	}
+
+	/** @param metricsListener May be null. */
+	public void setMetricsListener (RequestMetricsListener metricsListener) {
+		this.metricsListener = metricsListener;
+	}
+
+	/** Returns the number of requests that are executing. */
+	public synchronized int getActiveRequests () {
+		return activeRequests;
+	}
+
+	/** Returns the number of requests waiting for a thread or for another request to the same host to finish. A request that was
+	 * handed to a free thread but has not started executing yet is counted by neither this nor {@link #getActiveRequests()}. */
+	public synchronized int getQueuedRequests () {
+		return waiting.size;
+	}
+
+	/** Returns the number of requests for which a response was received. */
+	public synchronized long getCompletedRequests () {
+		return completedRequests;
+	}
+
+	/** Returns the number of requests that failed before a response was received. */
+	public synchronized long getFailedRequests () {
+		return failedRequests;
+	}
+
+	/** Returns the number of requests that were cancelled while waiting or executing. */
+	public synchronized long getCancelledRequests () {
+		return cancelledRequests;
+	}
+
 	public void sendHttpRequest (final HttpRequest httpRequest, final HttpResponseListener httpResponseListener) {
 		if (httpRequest.getUrl() == null) {
 			httpResponseListener.failed(new GdxRuntimeException("can't process a HTTP request without URL set"));
@@ -156,6 +264,11 @@ public class NetJavaImpl {
 			connection.setRequestMethod(method);
 			HttpURLConnection.setFollowRedirects(httpRequest.getFollowRedirects());
 
+			// Stream content of a known length rather than buffering all of it to compute the length.
+			long contentLength = httpRequest.getContentLength();
+			if (doingOutPut && httpRequest.getContent() == null && httpRequest.getContentStream() != null && contentLength > 0
+				&& contentLength <= Integer.MAX_VALUE) connection.setFixedLengthStreamingMode((int)contentLength);
+
 			putIntoConnectionsAndListeners(httpRequest, httpResponseListener, connection);
 
 			// Headers get set regardless of the method
@@ -166,59 +279,8 @@ public class NetJavaImpl {
 			connection.setConnectTimeout(httpRequest.getTimeOut());
 			connection.setReadTimeout(httpRequest.getTimeOut());
 
-			asyncExecutor.submit(new AsyncTask<Void>() {
-				@Override
-				public Void call () throws Exception {
-					try {
-						// Set the content for POST and PUT (GET has the information embedded in the URL)
-						if (doingOutPut) {
-							// we probably need to use the content as stream here instead of using it as a string.
-							String contentAsString = httpRequest.getContent();
-							if (contentAsString != null) {
-								OutputStreamWriter writer = new OutputStreamWriter(connection.getOutputStream());
-								try {
-									writer.write(contentAsString);
-								} finally {
-									StreamUtils.closeQuietly(writer);
-								}
-							} else {
-								InputStream contentAsStream = httpRequest.getContentStream();
-								if (contentAsStream != null) {
-									OutputStream os = connection.getOutputStream();
-									try {
-										StreamUtils.copyStream(contentAsStream, os);
-									} finally {
-										StreamUtils.closeQuietly(os);
-									}
-								}
-							}
-						}
-
-						connection.connect();
-
-						final HttpClientResponse clientResponse = new HttpClientResponse(connection);
-						try {
-							HttpResponseListener listener = getFromListeners(httpRequest);
-
-							if (listener != null) {
-								listener.handleHttpResponse(clientResponse);
-							}
-							removeFromConnectionsAndListeners(httpRequest);
-						} finally {
-							connection.disconnect();
-						}
-					} catch (final Exception e) {
-						connection.disconnect();
-						try {
-							httpResponseListener.failed(e);
-						} finally {
-							removeFromConnectionsAndListeners(httpRequest);
-						}
-					}
-
-					return null;
-				}
-			});
+			submit(url.getProtocol() + "://" + url.getHost() + ":" + url.getPort(),
+				new Request(httpRequest, httpResponseListener, connection, doingOutPut));
 		} catch (Exception e) {
 			try {
 				httpResponseListener.failed(e);
@@ -230,12 +292,81 @@ public class NetJavaImpl {
 	}
 
 	public void cancelHttpRequest (HttpRequest httpRequest) {
+		HttpURLConnection connection;
+		synchronized (this) {
+			connection = connections.get(httpRequest);
+			for (int i = 0, n = waiting.size; i < n; i++) {
+				Request request = waiting.get(i);
+				if (request.httpRequest == httpRequest) {
+					waiting.removeIndex(i);
+					Host host = request.host;
+					host.waiting--;
+					if (host.active == 0 && host.waiting == 0) hosts.remove(host.key);
+					cancelledRequests++;
+					break;
+				}
+			}
+		}
+
 		HttpResponseListener httpResponseListener = getFromListeners(httpRequest);
 
 		if (httpResponseListener != null) {
-			httpResponseListener.cancelled();
 			removeFromConnectionsAndListeners(httpRequest);
+			httpResponseListener.cancelled();
+			// Abort a request that is executing. The listener is no longer registered, so failed is not called.
+			if (connection != null) connection.disconnect();
+		}
+	}
+
+	private synchronized void submit (String hostKey, Request request) {
+		Host host = hosts.get(hostKey);
+		if (host == null) {
+			host = new Host(hostKey);
+			hosts.put(hostKey, host);
 		}
+		request.host = host;
+		host.waiting++;
+		waiting.addLast(request);
+		submitWaiting();
+	}
+
+	/** Hands waiting requests to the executor in the order they were sent, while a thread is free and their host is below its
+	 * limit. Requests are never queued in the executor, so a later request can't start before an earlier one. */
+	private void submitWaiting () {
+		Queue<Request> waiting = this.waiting;
+		for (int i = 0; i < waiting.size && submittedRequests < maxThreads;) {
+			Request request = waiting.get(i);
+			Host host = request.host;
+			if (host.active >= maxConnectionsPerHost) {
+				i++;
+				continue;
+			}
+			waiting.removeIndex(i);
+			host.waiting--;
+			host.active++;
+			submittedRequests++;
+			executor.execute(request);
+		}
+	}
+
+	synchronized void started () {
+		activeRequests++;
+	}
+
+	/** @param statusCode The HTTP status code, or -1 if the request failed or was cancelled before a response was received. */
+	synchronized void finished (Request request, int statusCode, boolean cancelled) {
+		submittedRequests--;
+		activeRequests--;
+		if (cancelled)
+			cancelledRequests++;
+		else if (statusCode != -1)
+			completedRequests++;
+		else
+			failedRequests++;
+		Host host = request.host;
+		host.active--;
+		if (host.active == 0 && host.waiting == 0) hosts.remove(host.key);
+		submitWaiting();
 	}
 
 	synchronized void removeFromConnectionsAndListeners (final HttpRequest httpRequest) {
@@ -253,4 +384,110 @@ public class NetJavaImpl {
 		HttpResponseListener httpResponseListener = listeners.get(httpRequest);
 		return httpResponseListener;
 	}
+
+	/** The number of requests for a protocol, host and port. Guarded by the NetJavaImpl. */
+	static private class Host {
+		final String key;
+		int waiting, active;
+
+		Host (String key) {
+			this.key = key;
+		}
+	}
+
+	private class Request implements Runnable {
+		final HttpRequest httpRequest;
+		final HttpResponseListener httpResponseListener;
+		final HttpURLConnection connection;
+		final boolean doingOutPut;
+		final long sendTime = System.nanoTime();
+		Host host;
+
+		Request (HttpRequest httpRequest, HttpResponseListener httpResponseListener, HttpURLConnection connection,
+			boolean doingOutPut) {
+			this.httpRequest = httpRequest;
+			this.httpResponseListener = httpResponseListener;
+			this.connection = connection;
+			this.doingOutPut = doingOutPut;
+		}
+
+		@Override
+		public void run () {
+			long startTime = System.nanoTime(), responseTime = startTime;
+			int statusCode = -1;
+			boolean cancelled = false;
+			started();
+			try {
+				// The request may have been cancelled after it was handed to the executor.
+				if (getFromListeners(httpRequest) == null) {
+					cancelled = true;
+					return;
+				}
+
+				// Set the content for POST and PUT (GET has the information embedded in the URL)
+				if (doingOutPut) {
+					// we probably need to use the content as stream here instead of using it as a string.
+					String contentAsString = httpRequest.getContent();
+					if (contentAsString != null) {
+						OutputStreamWriter writer = new OutputStreamWriter(connection.getOutputStream());
+						try {
+							writer.write(contentAsString);
+						} finally {
+							StreamUtils.closeQuietly(writer);
+						}
+					} else {
+						InputStream contentAsStream = httpRequest.getContentStream();
+						if (contentAsStream != null) {
+							OutputStream os = connection.getOutputStream();
+							try {
+								StreamUtils.copyStream(contentAsStream, os);
+							} finally {
+								StreamUtils.closeQuietly(os);
+							}
+						}
+					}
+				}
+
+				connection.connect();
+
+				final HttpClientResponse clientResponse = new HttpClientResponse(connection);
+				responseTime = System.nanoTime();
+				statusCode = clientResponse.getStatus().getStatusCode();
+				boolean reusable = false;
+				try {
+					HttpResponseListener listener = getFromListeners(httpRequest);
+
+					if (listener != null) {
+						listener.handleHttpResponse(clientResponse);
+					}
+					removeFromConnectionsAndListeners(httpRequest);
+					reusable = statusCode != -1;
+				} finally {
+					if (reusable)
+						clientResponse.close();
+					else
+						connection.disconnect();
+				}
+			} catch (final Exception e) {
+				statusCode = -1;
+				connection.disconnect();
+				// A cancelled request is no longer registered and has already been notified.
+				if (getFromListeners(httpRequest) != null) {
+					try {
+						httpResponseListener.failed(e);
+					} finally {
+						removeFromConnectionsAndListeners(httpRequest);
+					}
+				} else
+					cancelled = true;
+			} finally {
+				long endTime = System.nanoTime();
+				finished(this, statusCode, cancelled);
+				RequestMetricsListener metricsListener = NetJavaImpl.this.metricsListener;
+				if (metricsListener != null && !cancelled)
+					metricsListener.requestCompleted(httpRequest, statusCode, startTime - sendTime, responseTime - startTime,
+						endTime - sendTime);
+			}
+		}
+	}
 }
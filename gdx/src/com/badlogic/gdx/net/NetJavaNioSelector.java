@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.Net.Protocol;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** Runs the sockets created by {@link NetJavaNioSocketImpl} and {@link NetJavaNioServerSocketImpl} on a few threads, each
+ * multiplexing many connections with a {@link Selector}. Data is read into a direct buffer owned by each thread and written from a
+ * pool of direct buffers, so sending and receiving does not allocate.
+ * <p>
+ * Sockets can be created with a {@link SocketListener}, which is notified on a selector thread. Otherwise they provide blocking
+ * streams like {@link NetJavaSocketImpl} and {@link NetJavaServerSocketImpl}, while the connections still do not need a thread
+ * each to be read.
+ * <p>
+ * These sockets are not available through {@link Net}. They are created with {@link #newClientSocket(Protocol, String, int,
+ * SocketHints, SocketListener)} and {@link #newServerSocket(Protocol, String, int, ServerSocketHints, SocketHints, SocketListener)},
+ * usually on the {@link #getDefault() default selector}, on the backends that use {@link NetJavaSocketImpl}. */
+public class NetJavaNioSelector implements Disposable {
+	static private NetJavaNioSelector defaultSelector;
+
+	final int bufferSize;
+	private final Worker[] workers;
+	private int nextWorker;
+	private final Array<ByteBuffer> freeBuffers = new Array(false, 16, ByteBuffer.class);
+	private final int maxFreeBuffers;
+
+	/** Creates a selector with a thread for each available processor, up to 4, and 16KB buffers. */
+	public NetJavaNioSelector () {
+		this(Math.min(4, Runtime.getRuntime().availableProcessors()), 16 * 1024, 1024);
+	}
+
+	/** @param threads The number of selector threads.
+	 * @param bufferSize The size in bytes of each pooled buffer.
+	 * @param maxFreeBuffers The maximum number of free buffers kept for reuse. */
+	public NetJavaNioSelector (int threads, int bufferSize, int maxFreeBuffers) {
+		if (threads < 1) throw new IllegalArgumentException("threads must be > 0: " + threads);
+		if (bufferSize < 1) throw new IllegalArgumentException("bufferSize must be > 0: " + bufferSize);
+		this.bufferSize = bufferSize;
+		this.maxFreeBuffers = maxFreeBuffers;
+		workers = new Worker[threads];
+		try {
+			for (int i = 0; i < threads; i++)
+				workers[i] = new Worker(i);
+		} catch (IOException ex) {
+			dispose();
+			throw new GdxRuntimeException("Error opening selector.", ex);
+		}
+		for (int i = 0; i < threads; i++)
+			workers[i].thread.start();
+	}
+
+	/** Returns a shared selector, created the first time this is called. The threads are daemon threads, so it does not need to be
+	 * disposed. */
+	static public synchronized NetJavaNioSelector getDefault () {
+		if (defaultSelector == null) defaultSelector = new NetJavaNioSelector();
+		return defaultSelector;
+	}
+
+	/** Creates a TCP client socket. Without a listener this blocks until connected and received data is read from
+	 * {@link Socket#getInputStream()}. With a listener this returns immediately, before the socket is connected.
+	 * @param hints May be null.
+	 * @param listener Notified on a selector thread when the socket is connected, receives data or is disconnected. May be null.
+	 * @throws GdxRuntimeException if the socket couldn't be opened. */
+	public NetJavaNioSocketImpl newClientSocket (Protocol protocol, String host, int port, SocketHints hints,
+		SocketListener listener) {
+		return new NetJavaNioSocketImpl(this, protocol, host, port, hints, listener);
+	}
+
+	/** Creates a server socket. Without a listener, connections are returned by {@link ServerSocket#accept(SocketHints)}. With a
+	 * listener, each accepted connection is passed to {@link SocketListener#connected(Socket)}, so a server can handle many
+	 * connections without a thread for each.
+	 * @param hostname The hostname or ip address to bind the socket to, or null to bind to all addresses.
+	 * @param hints May be null.
+	 * @param acceptedHints The hints for sockets accepted when using a listener, may be null.
+	 * @param listener Notified on a selector thread of the events of each accepted socket. May be null.
+	 * @throws GdxRuntimeException if the socket couldn't be opened. */
+	public NetJavaNioServerSocketImpl newServerSocket (Protocol protocol, String hostname, int port, ServerSocketHints hints,
+		SocketHints acceptedHints, SocketListener listener) {
+		return new NetJavaNioServerSocketImpl(this, protocol, hostname, port, hints, acceptedHints, listener);
+	}
+
+	/** Returns the thread for a new socket, distributing sockets evenly. */
+	synchronized Worker nextWorker () {
+		Worker worker = workers[nextWorker];
+		nextWorker = (nextWorker + 1) % workers.length;
+		if (!worker.running) throw new GdxRuntimeException("Selector has been disposed.");
+		return worker;
+	}
+
+	synchronized ByteBuffer obtainBuffer () {
+		if (freeBuffers.size > 0) return freeBuffers.pop();
+		return ByteBuffer.allocateDirect(bufferSize);
+	}
+
+	synchronized void freeBuffer (ByteBuffer buffer) {
+		buffer.clear();
+		if (freeBuffers.size < maxFreeBuffers) freeBuffers.add(buffer);
+	}
+
+	/** Closes all sockets created with this selector and stops its threads. */
+	public void dispose () {
+		for (Worker worker : workers) {
+			if (worker == null) continue;
+			worker.running = false;
+			worker.selector.wakeup();
+		}
+		synchronized (this) {
+			freeBuffers.clear();
+		}
+	}
+
+	/** A selector thread. Channels are registered and their interest changed only on this thread, so other threads submit tasks. */
+	class Worker implements Runnable {
+		final Selector selector;
+		final Thread thread;
+		final ByteBuffer readBuffer;
+		private final Array<Runnable> tasks = new Array(), runTasks = new Array();
+		/** Sockets that are connecting or closing with a timeout. */
+		private final Array<NetJavaNioSocketImpl> timeouts = new Array();
+		volatile boolean running = true;
+
+		Worker (int index) throws IOException {
+			selector = Selector.open();
+			readBuffer = ByteBuffer.allocateDirect(bufferSize);
+			thread = new Thread(this, "NetJavaNioSelector-" + index);
+			thread.setDaemon(true);
+		}
+
+		boolean isCurrentThread () {
+			return Thread.currentThread() == thread;
+		}
+
+		/** Runs the task on this thread, immediately if called on this thread. */
+		void execute (Runnable task) {
+			if (isCurrentThread()) {
+				task.run();
+				return;
+			}
+			synchronized (tasks) {
+				tasks.add(task);
+			}
+			selector.wakeup();
+		}
+
+		void register (final SelectableChannel channel, final int ops, final Object attachment) {
+			execute(new Runnable() {
+				public void run () {
+					try {
+						SelectionKey key = channel.register(selector, ops, attachment);
+						if (attachment instanceof NetJavaNioSocketImpl) {
+							NetJavaNioSocketImpl socket = (NetJavaNioSocketImpl)attachment;
+							if ((ops & SelectionKey.OP_CONNECT) != 0 && socket.connectTimeout > 0) timeouts.add(socket);
+							socket.registered(key);
+						}
+					} catch (IOException ex) {
+						if (attachment instanceof NetJavaNioSocketImpl) ((NetJavaNioSocketImpl)attachment).close(ex);
+					}
+				}
+			});
+		}
+
+		public void run () {
+			Throwable error = null;
+			try {
+				while (running) {
+					selector.select(timeouts());
+					runTasks();
+					Iterator<SelectionKey> iter = selector.selectedKeys().iterator();
+					while (iter.hasNext()) {
+						SelectionKey key = iter.next();
+						iter.remove();
+						if (!key.isValid()) continue;
+						Object attachment = key.attachment();
+						if (attachment instanceof NetJavaNioServerSocketImpl)
+							((NetJavaNioServerSocketImpl)attachment).acceptReady();
+						else
+							((NetJavaNioSocketImpl)attachment).ready(key);
+					}
+				}
+			} catch (Throwable ex) {
+				if (running) {
+					error = ex;
+					if (Gdx.app != null)
+						Gdx.app.error("NetJavaNioSelector", "Error in selector thread: " + thread.getName(), ex);
+					else
+						ex.printStackTrace();
+				}
+			} finally {
+				running = false;
+				for (SelectionKey key : selector.keys()) {
+					Object attachment = key.attachment();
+					if (attachment instanceof NetJavaNioSocketImpl)
+						((NetJavaNioSocketImpl)attachment).close(error);
+					else if (attachment instanceof NetJavaNioServerSocketImpl)
+						((NetJavaNioServerSocketImpl)attachment).dispose();
+				}
+				try {
+					selector.close();
+				} catch (IOException ignored) {
+				}
+			}
+		}
+
+		private void runTasks () {
+			synchronized (tasks) {
+				runTasks.addAll(tasks);
+				tasks.clear();
+			}
+			for (int i = 0, n = runTasks.size; i < n; i++)
+				runTasks.get(i).run();
+			runTasks.clear();
+		}
+
+		/** Must be called on this thread. The socket is closed when its {@link NetJavaNioSocketImpl#deadline() deadline} passes. */
+		void addTimeout (NetJavaNioSocketImpl socket) {
+			if (!timeouts.contains(socket, true)) timeouts.add(socket);
+		}
+
+		/** Closes sockets whose connect or close timed out and returns the time to wait for the next timeout, or 0 for none. */
+		private long timeouts () {
+			if (timeouts.size == 0) return 0;
+			long now = System.currentTimeMillis(), wait = Long.MAX_VALUE;
+			for (int i = timeouts.size - 1; i >= 0; i--) {
+				NetJavaNioSocketImpl socket = timeouts.get(i);
+				long deadline = socket.deadline();
+				if (deadline == 0) {
+					timeouts.removeIndex(i);
+					continue;
+				}
+				long remaining = deadline - now;
+				if (remaining <= 0) {
+					timeouts.removeIndex(i);
+					socket.timedOut();
+				} else
+					wait = Math.min(wait, remaining);
+			}
+			return wait == Long.MAX_VALUE ? 0 : wait;
+		}
+	}
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import com.badlogic.gdx.Net.Protocol;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Queue;
+
+/** Server socket implementation using a non-blocking {@link ServerSocketChannel} run by a {@link NetJavaNioSelector}. Accepted
+ * connections are {@link NetJavaNioSocketImpl} sockets, spread over the selector threads.
+ * <p>
+ * With a {@link SocketListener}, accepted sockets are passed to {@link SocketListener#connected(Socket)} and {@link #accept(SocketHints)}
+ * can't be used. Otherwise accepted sockets are queued for {@link #accept(SocketHints)}, which waits up to
+ * {@link ServerSocketHints#acceptTimeout}. */
+public class NetJavaNioServerSocketImpl implements ServerSocket {
+	private final Protocol protocol;
+	private final NetJavaNioSelector selector;
+	private final ServerSocketChannel server;
+	private final SocketHints acceptedHints;
+	private final SocketListener listener;
+	private final int acceptTimeout;
+	private final Queue<NetJavaNioSocketImpl> accepted = new Queue();
+	private boolean closed;
+
+	/** @param hostname May be null to bind to all addresses.
+	 * @param hints May be null.
+	 * @param acceptedHints The hints for accepted sockets when using a listener, may be null.
+	 * @param listener May be null. */
+	public NetJavaNioServerSocketImpl (NetJavaNioSelector selector, Protocol protocol, String hostname, int port,
+		ServerSocketHints hints, SocketHints acceptedHints, SocketListener listener) {
+		this.protocol = protocol;
+		this.selector = selector;
+		this.acceptedHints = acceptedHints;
+		this.listener = listener;
+		acceptTimeout = hints != null ? hints.acceptTimeout : 0;
+
+		try {
+			server = ServerSocketChannel.open();
+		} catch (IOException ex) {
+			throw new GdxRuntimeException("Cannot create a server socket at port " + port + ".", ex);
+		}
+		try {
+			server.configureBlocking(false);
+			java.net.ServerSocket socket = server.socket();
+			if (hints != null) {
+				socket.setPerformancePreferences(hints.performancePrefConnectionTime, hints.performancePrefLatency,
+					hints.performancePrefBandwidth);
+				socket.setReuseAddress(hints.reuseAddress);
+				socket.setReceiveBufferSize(hints.receiveBufferSize);
+			}
+
+			InetSocketAddress address;
+			if (hostname != null)
+				address = new InetSocketAddress(hostname, port);
+			else
+				address = new InetSocketAddress(port);
+
+			if (hints != null)
+				socket.bind(address, hints.backlog);
+			else
+				socket.bind(address);
+			selector.nextWorker().register(server, SelectionKey.OP_ACCEPT, this);
+		} catch (Exception ex) {
+			dispose();
+			throw new GdxRuntimeException("Cannot create a server socket at port " + port + ".", ex);
+		}
+	}
+
+	@Override
+	public Protocol getProtocol () {
+		return protocol;
+	}
+
+	/** Returns the port the server is bound to, which is useful when binding to port 0. */
+	public int getLocalPort () {
+		return server.socket().getLocalPort();
+	}
+
+	/** Called on the selector thread to accept pending connections. */
+	void acceptReady () {
+		while (true) {
+			SocketChannel channel;
+			try {
+				channel = server.accept();
+			} catch (IOException ex) {
+				// Eg too many open files. Other connections can still be accepted later.
+				return;
+			}
+			if (channel == null) return;
+			try {
+				NetJavaNioSocketImpl socket = new NetJavaNioSocketImpl(selector, channel, listener != null ? acceptedHints : null,
+					listener);
+				if (listener == null) {
+					synchronized (accepted) {
+						accepted.addLast(socket);
+						accepted.notifyAll();
+					}
+				}
+			} catch (Exception ex) {
+				try {
+					channel.close();
+				} catch (IOException ignored) {
+				}
+			}
+		}
+	}
+
+	/** Waits up to {@link ServerSocketHints#acceptTimeout} for a connection.
+	 * @param hints May be null. */
+	@Override
+	public Socket accept (SocketHints hints) {
+		if (listener != null) throw new GdxRuntimeException("Accepted sockets are passed to the SocketListener.");
+		NetJavaNioSocketImpl socket;
+		synchronized (accepted) {
+			long end = System.currentTimeMillis() + acceptTimeout;
+			while (accepted.size == 0) {
+				if (closed) throw new GdxRuntimeException("Error accepting socket.", new IOException("Server socket is closed."));
+				try {
+					if (acceptTimeout > 0) {
+						long remaining = end - System.currentTimeMillis();
+						if (remaining <= 0) throw new GdxRuntimeException("Error accepting socket.",
+							new java.net.SocketTimeoutException("Accept timed out."));
+						accepted.wait(remaining);
+					} else
+						accepted.wait();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new GdxRuntimeException("Error accepting socket.", ex);
+				}
+			}
+			socket = accepted.removeFirst();
+		}
+		socket.applyHints(hints);
+		return socket;
+	}
+
+	@Override
+	public void dispose () {
+		synchronized (accepted) {
+			if (closed) return;
+			closed = true;
+			accepted.notifyAll();
+			// Sockets that were never accepted are closed.
+			while (accepted.size > 0)
+				accepted.removeFirst().dispose();
+		}
+		try {
+			server.close();
+		} catch (IOException ex) {
+			throw new GdxRuntimeException("Error closing server.", ex);
+		}
+	}
+}
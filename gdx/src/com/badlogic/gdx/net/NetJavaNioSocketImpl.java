@@ -0,0 +1,582 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.net;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+import com.badlogic.gdx.Net.Protocol;
+import com.badlogic.gdx.net.NetJavaNioSelector.Worker;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Queue;
+
+/** Socket implementation using a non-blocking {@link SocketChannel} run by a {@link NetJavaNioSelector}.
+ * <p>
+ * Data written to the {@link #getOutputStream() output stream} is copied to pooled buffers and sent by the selector thread. At
+ * most {@link #setMaxQueuedBytes(int) a limited number of bytes} are queued. When the queue is full, writing waits until enough
+ * data has been sent, or throws an IOException when called on the selector thread, eg from a {@link SocketListener}.
+ * <p>
+ * With a {@link SocketListener}, received data is passed to the listener and the input stream can't be used. Otherwise received
+ * data is buffered for the input stream, and reading from the connection pauses while that buffer is full.
+ * <p>
+ * {@link #dispose()} sends the queued data before closing the connection, waiting up to {@link #setCloseTimeout(int) a timeout}. */
+public class NetJavaNioSocketImpl implements Socket {
+	private final NetJavaNioSelector nioSelector;
+	private final Worker worker;
+	private final SocketChannel channel;
+	private final SocketListener listener;
+	private SelectionKey key;
+	private volatile boolean connected, closed, closing;
+	final int connectTimeout;
+	final long connectDeadline;
+
+	/** Data to be sent. The queue and the fields after it are guarded by the queue. */
+	private final Queue<ByteBuffer> writes = new Queue();
+	private int queuedBytes, maxQueuedBytes;
+	private boolean flushQueued;
+	private int closeTimeout = 5000;
+	private long closeDeadline;
+
+	/** Received data for the input stream when there is no listener. Guarded by this socket. */
+	private byte[] received;
+	private int receivedStart, receivedSize;
+	private boolean readPaused;
+	private int socketTimeout;
+	private Throwable error;
+
+	private final InputStream input = new InputStream() {
+		public int read () throws IOException {
+			return NetJavaNioSocketImpl.this.read();
+		}
+
+		public int read (byte[] bytes, int offset, int length) throws IOException {
+			return NetJavaNioSocketImpl.this.read(bytes, offset, length);
+		}
+
+		public int available () {
+			synchronized (NetJavaNioSocketImpl.this) {
+				return receivedSize;
+			}
+		}
+	};
+
+	private final OutputStream output = new OutputStream() {
+		public void write (int b) throws IOException {
+			synchronized (writes) {
+				writeBuffer().put((byte)b);
+				queued(1);
+			}
+		}
+
+		public void write (byte[] bytes, int offset, int length) throws IOException {
+			synchronized (writes) {
+				while (length > 0) {
+					ByteBuffer buffer = writeBuffer();
+					int count = Math.min(length, writable(buffer));
+					buffer.put(bytes, offset, count);
+					queued(count);
+					offset += count;
+					length -= count;
+				}
+			}
+		}
+
+		public void close () {
+			dispose();
+		}
+	};
+
+	private final Runnable flush = new Runnable() {
+		public void run () {
+			flushWrites();
+		}
+	};
+
+	private final Runnable resumeRead = new Runnable() {
+		public void run () {
+			synchronized (NetJavaNioSocketImpl.this) {
+				if (!readPaused || receivedSize == received.length) return;
+				readPaused = false;
+			}
+			updateInterest();
+		}
+	};
+
+	private final Runnable closeQueued = new Runnable() {
+		public void run () {
+			worker.addTimeout(NetJavaNioSocketImpl.this);
+			flushWrites();
+		}
+	};
+
+	/** Connects to the host. Without a listener this blocks until connected, like {@link NetJavaSocketImpl}. With a listener this
+	 * returns immediately and {@link SocketListener#connected(Socket)} or {@link SocketListener#disconnected(Socket, Throwable)}
+	 * is called later.
+	 * @param hints May be null.
+	 * @param listener May be null.
+	 * @see NetJavaNioSelector#newClientSocket(Protocol, String, int, SocketHints, SocketListener) */
+	public NetJavaNioSocketImpl (NetJavaNioSelector selector, Protocol protocol, String host, int port, SocketHints hints,
+		SocketListener listener) {
+		this.nioSelector = selector;
+		this.listener = listener;
+		worker = selector.nextWorker();
+		maxQueuedBytes = selector.bufferSize * 64;
+		connectTimeout = hints != null ? hints.connectTimeout : 0;
+		connectDeadline = System.currentTimeMillis() + connectTimeout;
+		try {
+			channel = SocketChannel.open();
+		} catch (IOException ex) {
+			throw new GdxRuntimeException("Error making a socket connection to " + host + ":" + port, ex);
+		}
+		try {
+			channel.configureBlocking(false);
+			applyHints(hints);
+			if (listener == null) received = new byte[selector.bufferSize * 4];
+			if (channel.connect(new InetSocketAddress(host, port))) {
+				connected = true;
+				worker.register(channel, SelectionKey.OP_READ, this);
+			} else
+				worker.register(channel, SelectionKey.OP_CONNECT, this);
+		} catch (Exception ex) {
+			close(null);
+			throw new GdxRuntimeException("Error making a socket connection to " + host + ":" + port, ex);
+		}
+		if (listener == null) {
+			synchronized (this) {
+				while (!connected && !closed) {
+					try {
+						wait();
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+						close(ex);
+					}
+				}
+				if (!connected)
+					throw new GdxRuntimeException("Error making a socket connection to " + host + ":" + port, error);
+			}
+		}
+	}
+
+	/** Wraps an accepted connection, which is registered with the worker. */
+	NetJavaNioSocketImpl (NetJavaNioSelector selector, SocketChannel channel, SocketHints hints, SocketListener listener)
+		throws IOException {
+		this.nioSelector = selector;
+		this.channel = channel;
+		this.listener = listener;
+		worker = selector.nextWorker();
+		maxQueuedBytes = selector.bufferSize * 64;
+		connectTimeout = 0;
+		connectDeadline = 0;
+		connected = true;
+		channel.configureBlocking(false);
+		applyHints(hints);
+		if (listener == null) received = new byte[selector.bufferSize * 4];
+		worker.register(channel, SelectionKey.OP_READ, this);
+	}
+
+	void applyHints (SocketHints hints) {
+		if (hints != null) {
+			java.net.Socket socket = channel.socket();
+			try {
+				socket.setPerformancePreferences(hints.performancePrefConnectionTime, hints.performancePrefLatency,
+					hints.performancePrefBandwidth);
+				socket.setTrafficClass(hints.trafficClass);
+				socket.setTcpNoDelay(hints.tcpNoDelay);
+				socket.setKeepAlive(hints.keepAlive);
+				socket.setSendBufferSize(hints.sendBufferSize);
+				socket.setReceiveBufferSize(hints.receiveBufferSize);
+				socket.setSoLinger(hints.linger, hints.lingerDuration);
+				// SO_TIMEOUT has no effect on a channel, the input stream implements it.
+				synchronized (this) {
+					socketTimeout = hints.socketTimeout;
+				}
+				// Linger also limits how long queued data is sent after dispose.
+				if (hints.linger) setCloseTimeout(hints.lingerDuration * 1000);
+			} catch (Exception e) {
+				throw new GdxRuntimeException("Error setting socket hints.", e);
+			}
+		}
+	}
+
+	/** Sets the maximum number of bytes waiting to be sent. Default is 64 times the buffer size of the selector, 1MB for the
+	 * default selector. */
+	public void setMaxQueuedBytes (int maxQueuedBytes) {
+		if (maxQueuedBytes < 1) throw new IllegalArgumentException("maxQueuedBytes must be > 0: " + maxQueuedBytes);
+		synchronized (writes) {
+			this.maxQueuedBytes = maxQueuedBytes;
+			writes.notifyAll();
+		}
+	}
+
+	/** Returns the number of bytes written that have not been sent yet. */
+	public int getQueuedBytes () {
+		synchronized (writes) {
+			return queuedBytes;
+		}
+	}
+
+	/** Sets the maximum time in milliseconds {@link #dispose()} waits for queued data to be sent. If the time is exceeded or it is 0,
+	 * the data is discarded. Default is 5000, or the {@link SocketHints#lingerDuration} if {@link SocketHints#linger} is set. */
+	public void setCloseTimeout (int closeTimeout) {
+		if (closeTimeout < 0) throw new IllegalArgumentException("closeTimeout must be >= 0: " + closeTimeout);
+		synchronized (writes) {
+			this.closeTimeout = closeTimeout;
+		}
+	}
+
+	/** Called on the worker thread once the channel is registered. */
+	void registered (SelectionKey key) {
+		this.key = key;
+		if (closed) {
+			key.cancel();
+			return;
+		}
+		if (connected) {
+			if (listener != null) listener.connected(this);
+			updateInterest();
+		}
+	}
+
+	/** Called on the worker thread when the channel is ready. */
+	void ready (SelectionKey key) {
+		try {
+			if (key.isConnectable()) {
+				if (!channel.finishConnect()) return;
+				synchronized (this) {
+					connected = true;
+					notifyAll();
+				}
+				if (listener != null) listener.connected(this);
+				updateInterest();
+			}
+			if (key.isValid() && key.isReadable()) readReady();
+			if (key.isValid() && key.isWritable()) flushWrites();
+		} catch (IOException ex) {
+			close(ex);
+		} catch (RuntimeException ex) {
+			close(ex);
+		}
+	}
+
+	private void readReady () throws IOException {
+		ByteBuffer buffer = worker.readBuffer;
+		buffer.clear();
+		if (listener == null) {
+			synchronized (this) {
+				int free = received.length - receivedSize;
+				if (free == 0) {
+					readPaused = true;
+					updateInterest();
+					return;
+				}
+				if (free < buffer.capacity()) buffer.limit(free);
+			}
+		}
+		int count = channel.read(buffer);
+		if (count == -1) {
+			close(null);
+			return;
+		}
+		if (count == 0) return;
+		buffer.flip();
+		if (listener != null) {
+			listener.received(this, buffer);
+			return;
+		}
+		synchronized (this) {
+			// Copy into the ring buffer, which can wrap.
+			byte[] received = this.received;
+			int end = (receivedStart + receivedSize) % received.length;
+			int first = Math.min(count, received.length - end);
+			buffer.get(received, end, first);
+			if (count > first) buffer.get(received, 0, count - first);
+			receivedSize += count;
+			notifyAll();
+		}
+	}
+
+	synchronized int read () throws IOException {
+		if (!waitForData()) return -1;
+		int value = received[receivedStart] & 0xff;
+		consumed(1);
+		return value;
+	}
+
+	synchronized int read (byte[] bytes, int offset, int length) throws IOException {
+		if (received == null) throw new GdxRuntimeException("Received data is passed to the SocketListener.");
+		if (length == 0) return 0;
+		if (!waitForData()) return -1;
+		int count = Math.min(length, Math.min(receivedSize, received.length - receivedStart));
+		System.arraycopy(received, receivedStart, bytes, offset, count);
+		consumed(count);
+		return count;
+	}
+
+	/** Waits up to the socket timeout for received data. Must be called while synchronized on this socket.
+	 * @return false if the connection is closed and all received data has been read. */
+	private boolean waitForData () throws IOException {
+		if (received == null) throw new GdxRuntimeException("Received data is passed to the SocketListener.");
+		long timeout = socketTimeout, end = System.currentTimeMillis() + timeout;
+		while (receivedSize == 0) {
+			if (closed) {
+				if (error != null) throw new IOException("Socket read failed.", error);
+				return false;
+			}
+			try {
+				if (timeout > 0) {
+					long remaining = end - System.currentTimeMillis();
+					if (remaining <= 0) throw new SocketTimeoutException("Read timed out.");
+					wait(remaining);
+				} else
+					wait();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted.");
+			}
+		}
+		return true;
+	}
+
+	private void consumed (int count) {
+		receivedStart = (receivedStart + count) % received.length;
+		receivedSize -= count;
+		if (readPaused) worker.execute(resumeRead);
+	}
+
+	/** Queues data to be sent. This can be called from any thread, including from a {@link SocketListener}. Waits while the queue
+	 * is full, except on the selector thread.
+	 * @param data The data between the position and the limit, which is consumed.
+	 * @throws IOException if the socket is closed, or the queue is full and this was called on the selector thread. */
+	public void send (ByteBuffer data) throws IOException {
+		synchronized (writes) {
+			while (data.hasRemaining()) {
+				ByteBuffer buffer = writeBuffer();
+				int count = Math.min(data.remaining(), writable(buffer));
+				int limit = data.limit();
+				data.limit(data.position() + count);
+				buffer.put(data);
+				data.limit(limit);
+				queued(count);
+			}
+		}
+	}
+
+	/** Waits until more data can be queued and returns the buffer to append it to. Must be called while synchronized on
+	 * {@link #writes}. */
+	private ByteBuffer writeBuffer () throws IOException {
+		while (true) {
+			if (closed || closing) throw new IOException("Socket is closed.");
+			if (queuedBytes < maxQueuedBytes) break;
+			// The selector thread sends the data, so it can't wait.
+			if (worker.isCurrentThread()) throw new IOException("Write queue is full: " + queuedBytes + " bytes");
+			try {
+				writes.wait();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted.");
+			}
+		}
+		ByteBuffer last = writes.size > 0 ? writes.last() : null;
+		if (last == null || !last.hasRemaining()) {
+			last = nioSelector.obtainBuffer();
+			writes.addLast(last);
+		}
+		return last;
+	}
+
+	/** Returns the number of bytes that can be appended to the buffer without exceeding the maximum queued bytes. */
+	private int writable (ByteBuffer buffer) {
+		return Math.min(buffer.remaining(), maxQueuedBytes - queuedBytes);
+	}
+
+	/** Counts queued data and makes sure it will be sent. Must be called while synchronized on {@link #writes}. */
+	private void queued (int count) {
+		queuedBytes += count;
+		if (flushQueued || !connected) return;
+		flushQueued = true;
+		worker.execute(flush);
+	}
+
+	/** Called on the worker thread to write queued data until the channel can't accept more. */
+	void flushWrites () {
+		boolean drained;
+		try {
+			synchronized (writes) {
+				flushQueued = false;
+				// Before the channel is registered, the data is written when the interest ops are first set.
+				if (key == null) return;
+				int written = 0;
+				while (writes.size > 0) {
+					ByteBuffer buffer = writes.first();
+					buffer.flip();
+					written += channel.write(buffer);
+					if (buffer.hasRemaining()) {
+						// The remaining data is moved to the start and more can be appended.
+						buffer.compact();
+						break;
+					}
+					nioSelector.freeBuffer(writes.removeFirst());
+				}
+				if (written > 0) {
+					queuedBytes -= written;
+					writes.notifyAll();
+				}
+				drained = closing && writes.size == 0;
+			}
+			if (drained)
+				close(null);
+			else
+				updateInterest();
+		} catch (IOException ex) {
+			close(ex);
+		}
+	}
+
+	/** Called on the worker thread to set the interest ops from the state of the socket. */
+	void updateInterest () {
+		SelectionKey key = this.key;
+		if (key == null || !key.isValid()) return;
+		int ops;
+		if (!connected)
+			ops = SelectionKey.OP_CONNECT;
+		else {
+			ops = 0;
+			synchronized (this) {
+				if (!readPaused) ops |= SelectionKey.OP_READ;
+			}
+			synchronized (writes) {
+				if (writes.size > 0) ops |= SelectionKey.OP_WRITE;
+			}
+		}
+		key.interestOps(ops);
+	}
+
+	/** Returns the time when connecting or closing times out, or 0 if neither is in progress. */
+	long deadline () {
+		if (closed) return 0;
+		long deadline = 0;
+		if (closing) {
+			synchronized (writes) {
+				deadline = closeDeadline;
+			}
+		}
+		if (!connected && connectTimeout > 0 && (deadline == 0 || connectDeadline < deadline)) deadline = connectDeadline;
+		return deadline;
+	}
+
+	/** Called on the worker thread when the {@link #deadline()} has passed. */
+	void timedOut () {
+		if (!connected)
+			close(new SocketTimeoutException("Connect timed out."));
+		else
+			close(new SocketTimeoutException("Close timed out, unsent data was discarded."));
+	}
+
+	/** Closes the channel and notifies the listener on the worker thread. Queued data is discarded.
+	 * @param cause May be null. */
+	void close (final Throwable cause) {
+		synchronized (writes) {
+			if (closed) return;
+			closed = true;
+			while (writes.size > 0)
+				nioSelector.freeBuffer(writes.removeFirst());
+			queuedBytes = 0;
+			writes.notifyAll();
+		}
+		synchronized (this) {
+			error = cause;
+			notifyAll();
+		}
+		try {
+			channel.close();
+		} catch (IOException ignored) {
+		}
+		if (listener != null) {
+			worker.execute(new Runnable() {
+				public void run () {
+					listener.disconnected(NetJavaNioSocketImpl.this, cause);
+				}
+			});
+		}
+	}
+
+	boolean isClosed () {
+		return closed;
+	}
+
+	@Override
+	public boolean isConnected () {
+		return connected && !closed;
+	}
+
+	@Override
+	public InputStream getInputStream () {
+		if (received == null) throw new GdxRuntimeException("Received data is passed to the SocketListener.");
+		return input;
+	}
+
+	@Override
+	public OutputStream getOutputStream () {
+		return output;
+	}
+
+	@Override
+	public String getRemoteAddress () {
+		return channel.socket().getRemoteSocketAddress().toString();
+	}
+
+	/** Sends the queued data, then closes the connection. Writing is no longer possible once this is called. Waits up to the
+	 * {@link #setCloseTimeout(int) close timeout} for the data to be sent, after which it is discarded. On the selector thread, eg
+	 * from a {@link SocketListener}, this returns immediately and the connection is closed once the data is sent or the timeout
+	 * has passed. */
+	@Override
+	public void dispose () {
+		synchronized (writes) {
+			if (closed || closing) return;
+			if (writes.size > 0 && closeTimeout > 0) {
+				closing = true;
+				closeDeadline = System.currentTimeMillis() + closeTimeout;
+			}
+		}
+		if (!closing) {
+			close(null);
+			return;
+		}
+		worker.execute(closeQueued);
+		if (worker.isCurrentThread()) return;
+		synchronized (writes) {
+			while (!closed) {
+				long remaining = closeDeadline - System.currentTimeMillis();
+				if (remaining <= 0) break;
+				try {
+					writes.wait(remaining);
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+		}
+		// The worker thread also closes when the timeout passes, unless it is no longer running.
+		if (!closed) close(new SocketTimeoutException("Close timed out, unsent data was discarded."));
+	}
+}
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.net;
+
+import java.nio.ByteBuffer;
+
+import com.badlogic.gdx.Net.Protocol;
+
+/** Receives the events of sockets created with a listener, see
+ * {@link NetJavaNioSelector#newClientSocket(Protocol, String, int, SocketHints, SocketListener)} and
+ * {@link NetJavaNioSelector#newServerSocket(Protocol, String, int, ServerSocketHints, SocketHints, SocketListener)}.
+ * <p>
+ * The methods are called on a thread shared by many sockets, so they must not block. Data is sent by writing to
+ * {@link Socket#getOutputStream()}, which does not block on that thread: if more than
+ * {@link NetJavaNioSocketImpl#setMaxQueuedBytes(int) the maximum} is waiting to be sent, it throws an IOException instead. */
+public interface SocketListener {
+	/** Called when a client socket is connected or a server socket accepted a connection. */
+	public void connected (Socket socket);
+
+	/** Called when data is received.
+	 * @param data The data between the position and the limit. It is only valid until this method returns. */
+	public void received (Socket socket, ByteBuffer data);
+
+	/** Called once when the connection is closed by either end or fails.
+	 * @param cause The error, or null if the socket was closed normally. */
+	public void disconnected (Socket socket, Throwable cause);
+}
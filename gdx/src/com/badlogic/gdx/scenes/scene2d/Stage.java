@@ -42,6 +42,7 @@ import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.Pool.Poolable;
 import com.badlogic.gdx.utils.Pools;
+import com.badlogic.gdx.utils.Profiler;
 import com.badlogic.gdx.utils.Scaling;
 import com.badlogic.gdx.utils.SnapshotArray;
 import com.badlogic.gdx.utils.viewport.ScalingViewport;
@@ -121,14 +122,18 @@ public class Stage extends InputAdapter implements Disposable {
 		camera.update();
 
 		if (!root.isVisible()) return;
-
-		Batch batch = this.batch;
-		batch.setProjectionMatrix(camera.combined);
-		batch.begin();
-		root.draw(batch, 1);
-		batch.end();
-
-		if (debug) drawDebug();
+		Profiler.begin("Stage.draw");
+		try {
+			Batch batch = this.batch;
+			batch.setProjectionMatrix(camera.combined);
+			batch.begin();
+			root.draw(batch, 1);
+			batch.end();
+
+			if (debug) drawDebug();
+		} finally {
+			Profiler.end();
+		}
 	}
 
 	private void drawDebug () {
@@ -189,36 +194,42 @@ public class Stage extends InputAdapter implements Disposable {
 	 * enter and exit events.
 	 * @param delta Time in seconds since the last frame. */
 	public void act (float delta) {
-		// Update over actors. Done in act() because actors may change position, which can fire enter/exit without an input event.
-		for (int pointer = 0, n = pointerOverActors.length; pointer < n; pointer++) {
-			Actor overLast = pointerOverActors[pointer];
-			// Check if pointer is gone.
-			if (!pointerTouched[pointer]) {
-				if (overLast != null) {
-					pointerOverActors[pointer] = null;
-					screenToStageCoordinates(tempCoords.set(pointerScreenX[pointer], pointerScreenY[pointer]));
-					// Exit over last.
-					InputEvent event = Pools.obtain(InputEvent.class);
-					event.setType(InputEvent.Type.exit);
-					event.setStage(this);
-					event.setStageX(tempCoords.x);
-					event.setStageY(tempCoords.y);
-					event.setRelatedActor(overLast);
-					event.setPointer(pointer);
-					overLast.fire(event);
-					Pools.free(event);
+		Profiler.begin("Stage.act");
+		try {
+			// Update over actors. Done in act() because actors may change position, which can fire enter/exit without an input
+			// event.
+			for (int pointer = 0, n = pointerOverActors.length; pointer < n; pointer++) {
+				Actor overLast = pointerOverActors[pointer];
+				// Check if pointer is gone.
+				if (!pointerTouched[pointer]) {
+					if (overLast != null) {
+						pointerOverActors[pointer] = null;
+						screenToStageCoordinates(tempCoords.set(pointerScreenX[pointer], pointerScreenY[pointer]));
+						// Exit over last.
+						InputEvent event = Pools.obtain(InputEvent.class);
+						event.setType(InputEvent.Type.exit);
+						event.setStage(this);
+						event.setStageX(tempCoords.x);
+						event.setStageY(tempCoords.y);
+						event.setRelatedActor(overLast);
+						event.setPointer(pointer);
+						overLast.fire(event);
+						Pools.free(event);
+					}
+					continue;
 				}
-				continue;
+				// Update over actor for the pointer.
+				pointerOverActors[pointer] = fireEnterAndExit(overLast, pointerScreenX[pointer], pointerScreenY[pointer], pointer);
 			}
-			// Update over actor for the pointer.
-			pointerOverActors[pointer] = fireEnterAndExit(overLast, pointerScreenX[pointer], pointerScreenY[pointer], pointer);
+			// Update over actor for the mouse on the desktop.
+			ApplicationType type = Gdx.app.getType();
+			if (type == ApplicationType.Desktop || type == ApplicationType.Applet || type == ApplicationType.WebGL)
+				mouseOverActor = fireEnterAndExit(mouseOverActor, mouseScreenX, mouseScreenY, -1);
+
+			root.act(delta);
+		} finally {
+			Profiler.end();
 		}
-		// Update over actor for the mouse on the desktop.
-		ApplicationType type = Gdx.app.getType();
-		if (type == ApplicationType.Desktop || type == ApplicationType.Applet || type == ApplicationType.WebGL)
-			mouseOverActor = fireEnterAndExit(mouseOverActor, mouseScreenX, mouseScreenY, -1);
-
-		root.act(delta);
 	}
 
 	private Actor fireEnterAndExit (Actor overLast, int screenX, int screenY, int pointer) {
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** A {@link Pool} that may be used from any number of threads, eg to obtain objects on a loading thread and free them on the
+ * render thread. Each thread keeps a small cache of free objects, so most obtain and free calls don't touch shared state. When a
+ * thread's cache is full, half of it is moved to a shared lock-free queue, from which threads with an empty cache obtain objects.
+ * <p>
+ * {@link #max} limits the objects in the shared queue, each thread's cache additionally holds at most
+ * {@link #getThreadCacheSize()} objects. Objects are reset when freed, before another thread is able to obtain them.
+ * <p>
+ * A concurrent pool can be registered with {@link Pools#set(Class, Pool)} to be used by {@link Pools#obtain(Class)} and
+ * {@link Pools#free(Object)}. The statistics are approximate while other threads use the pool. */
+abstract public class ConcurrentPool<T> extends Pool<T> {
+	private final int threadCacheSize;
+	private final ConcurrentLinkedQueue<T> shared = new ConcurrentLinkedQueue();
+	private final AtomicInteger sharedFree = new AtomicInteger();
+	private final AtomicLong created = new AtomicLong();
+	private final Array<ThreadCache> caches = new Array(false, 4);
+	private long deadObtained, deadFreed;
+	private volatile int generation;
+
+	private final ThreadLocal<ThreadCache> threadCache = new ThreadLocal<ThreadCache>() {
+		protected ThreadCache initialValue () {
+			ThreadCache cache = new ThreadCache(threadCacheSize);
+			synchronized (caches) {
+				pruneCaches();
+				caches.add(cache);
+			}
+			return cache;
+		}
+	};
+
+	/** Creates a pool with a thread cache size of 32 and no maximum. */
+	public ConcurrentPool () {
+		this(32, Integer.MAX_VALUE);
+	}
+
+	/** @param threadCacheSize The maximum number of free objects each thread keeps for itself.
+	 * @param max The maximum number of free objects to store in the shared queue. */
+	public ConcurrentPool (int threadCacheSize, int max) {
+		super(0, max);
+		this.threadCacheSize = Math.max(1, Math.min(threadCacheSize, max));
+	}
+
+	public T obtain () {
+		ThreadCache cache = cache();
+		cache.obtained++;
+		Array<T> objects = cache.objects;
+		if (objects.size > 0) return objects.pop();
+		T object = shared.poll();
+		if (object != null) {
+			sharedFree.decrementAndGet();
+			return object;
+		}
+		created.incrementAndGet();
+		return newObject();
+	}
+
+	/** Resets the specified object and puts it in the pool. If the calling thread's cache and the shared queue already contain
+	 * the maximum number of free objects, the object is reset but not added to the pool.
+	 * <p>
+	 * The pool does not check if an object is already freed, so the same object must not be freed multiple times. */
+	public void free (T object) {
+		if (object == null) throw new IllegalArgumentException("object cannot be null.");
+		reset(object);
+		ThreadCache cache = cache();
+		cache.freed++;
+		Array<T> objects = cache.objects;
+		if (objects.size == threadCacheSize) {
+			// Move the older half of the cache to the shared queue.
+			int count = Math.max(1, threadCacheSize >> 1);
+			for (int i = 0; i < count; i++)
+				share(objects.get(i));
+			objects.removeRange(0, count - 1);
+		}
+		objects.add(object);
+		int free = sharedFree.get() + objects.size;
+		if (free > peak) peak = free;
+	}
+
+	private void share (T object) {
+		if (sharedFree.incrementAndGet() <= max)
+			shared.offer(object);
+		else
+			sharedFree.decrementAndGet();
+	}
+
+	public void freeAll (Array<T> objects) {
+		if (objects == null) throw new IllegalArgumentException("objects cannot be null.");
+		for (int i = 0; i < objects.size; i++) {
+			T object = objects.get(i);
+			if (object != null) free(object);
+		}
+	}
+
+	/** Removes all free objects from this pool. The caches of other threads are cleared the next time those threads use the
+	 * pool. */
+	public void clear () {
+		generation++;
+		T object;
+		while ((object = shared.poll()) != null)
+			sharedFree.decrementAndGet();
+		cache();
+	}
+
+	/** The number of objects available to be obtained by the calling thread. */
+	public int getFree () {
+		return sharedFree.get() + cache().objects.size;
+	}
+
+	/** The maximum number of free objects each thread keeps for itself. */
+	public int getThreadCacheSize () {
+		return threadCacheSize;
+	}
+
+	/** The number of times {@link #obtain()} has been called. The counts of other threads that are using the pool may be slightly
+	 * out of date. */
+	public long getObtained () {
+		synchronized (caches) {
+			pruneCaches();
+			long total = deadObtained;
+			for (int i = 0, n = caches.size; i < n; i++)
+				total += caches.get(i).obtained;
+			return total;
+		}
+	}
+
+	/** The number of times {@link #free(Object)} has been called. The counts of other threads that are using the pool may be
+	 * slightly out of date. */
+	public long getFreed () {
+		synchronized (caches) {
+			pruneCaches();
+			long total = deadFreed;
+			for (int i = 0, n = caches.size; i < n; i++)
+				total += caches.get(i).freed;
+			return total;
+		}
+	}
+
+	/** The number of objects created by {@link #newObject()}. When this keeps growing, the pool's maximum or thread cache size is
+	 * too small or objects are not freed. */
+	public long getCreated () {
+		return created.get();
+	}
+
+	private ThreadCache cache () {
+		ThreadCache cache = threadCache.get();
+		if (cache.generation != generation) {
+			cache.generation = generation;
+			cache.objects.clear();
+		}
+		return cache;
+	}
+
+	/** Removes the caches of threads that have terminated, so their objects can be garbage collected. */
+	private void pruneCaches () {
+		for (int i = caches.size - 1; i >= 0; i--) {
+			ThreadCache cache = caches.get(i);
+			Thread thread = cache.thread.get();
+			if (thread != null && thread.isAlive()) continue;
+			deadObtained += cache.obtained;
+			deadFreed += cache.freed;
+			caches.removeIndex(i);
+		}
+	}
+
+	private class ThreadCache {
+		final WeakReference<Thread> thread = new WeakReference(Thread.currentThread());
+		final Array<T> objects;
+		int generation = ConcurrentPool.this.generation;
+		/** Only written by the thread that owns the cache, so other threads may read out of date counts. */
+		long obtained, freed;
+
+		ThreadCache (int size) {
+			objects = new Array(false, size);
+		}
+	}
+}
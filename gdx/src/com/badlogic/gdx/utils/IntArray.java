@@ -313,6 +313,31 @@ public class IntArray {
 		Arrays.sort(items, 0, size);
 	}
 
+	/** Sorts this array using a radix sort, which is faster than {@link #sort()} for large arrays. This method is not thread safe
+	 * (uses {@link PrimitiveSort#instance()}). */
+	public void radixSort () {
+		PrimitiveSort.instance().radixSort(items, 0, size);
+	}
+
+	/** Selects the nth-lowest value. This partially sorts the array so the value is at index <code>kthLowest - 1</code>, with no
+	 * higher values before it and no lower values after it.
+	 * @param kthLowest The rank of the value, 1 for the lowest and {@link #size} for the highest.
+	 * @see PrimitiveSort#select(int[], int, int, int) */
+	public int selectRanked (int kthLowest) {
+		return PrimitiveSort.select(items, 0, size, kthLowest);
+	}
+
+	/** Sets the indices to 0 through size - 1, ordered so the values of this array at those indices are ascending. Indices of equal
+	 * values stay in order. This array is not changed. This method is not thread safe (uses {@link PrimitiveSort#instance()}).
+	 * @return The indices. */
+	public IntArray sortIndices (IntArray indices) {
+		int[] indexItems = indices.setSize(size);
+		for (int i = 0; i < size; i++)
+			indexItems[i] = i;
+		PrimitiveSort.instance().sortIndices(indexItems, 0, size, items);
+		return indices;
+	}
+
 	public void reverse () {
 		int[] items = this.items;
 		for (int i = 0, lastIndex = size - 1, n = size / 2; i < n; i++) {
@@ -313,6 +313,20 @@ public class LongArray {
 		Arrays.sort(items, 0, size);
 	}
 
+	/** Sorts this array using a radix sort, which is faster than {@link #sort()} for large arrays. This method is not thread safe
+	 * (uses {@link PrimitiveSort#instance()}). */
+	public void radixSort () {
+		PrimitiveSort.instance().radixSort(items, 0, size);
+	}
+
+	/** Selects the nth-lowest value. This partially sorts the array so the value is at index <code>kthLowest - 1</code>, with no
+	 * higher values before it and no lower values after it.
+	 * @param kthLowest The rank of the value, 1 for the lowest and {@link #size} for the highest.
+	 * @see PrimitiveSort#select(long[], int, int, int) */
+	public long selectRanked (int kthLowest) {
+		return PrimitiveSort.select(items, 0, size, kthLowest);
+	}
+
 	public void reverse () {
 		long[] items = this.items;
 		for (int i = 0, lastIndex = size - 1, n = size / 2; i < n; i++) {
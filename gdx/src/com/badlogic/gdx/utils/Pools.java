@@ -17,17 +17,26 @@
 package com.badlogic.gdx.utils;
 
 /** Stores a map of {@link Pool}s (usually {@link ReflectionPool}s) by type for convenient static access.
+ * <p>
+ * The map may be used from multiple threads. The pools themselves are not thread safe unless a {@link ConcurrentPool} is
+ * {@link #set(Class, Pool) set} for the type.
  * @author Nathan Sweet */
 public class Pools {
-	static private final ObjectMap<Class, Pool> typePools = new ObjectMap();
+	/** Replaced rather than modified when a pool is added, so lookups don't need to synchronize. */
+	static private volatile ObjectMap<Class, Pool> typePools = new ObjectMap();
 
 	/** Returns a new or existing pool for the specified type, stored in a Class to {@link Pool} map. Note the max size is ignored
 	 * if this is not the first time this pool has been requested. */
 	static public <T> Pool<T> get (Class<T> type, int max) {
 		Pool pool = typePools.get(type);
 		if (pool == null) {
-			pool = new ReflectionPool(type, 4, max);
-			typePools.put(type, pool);
+			synchronized (Pools.class) {
+				pool = typePools.get(type);
+				if (pool == null) {
+					pool = new ReflectionPool(type, 4, max);
+					put(type, pool);
+				}
+			}
 		}
 		return pool;
 	}
@@ -40,7 +49,15 @@ public class Pools {
 
 	/** Sets an existing pool for the specified type, stored in a Class to {@link Pool} map. */
 	static public <T> void set (Class<T> type, Pool<T> pool) {
+		synchronized (Pools.class) {
+			put(type, pool);
+		}
+	}
+
+	static private void put (Class type, Pool pool) {
+		ObjectMap<Class, Pool> typePools = new ObjectMap(Pools.typePools);
 		typePools.put(type, pool);
+		Pools.typePools = typePools;
 	}
 
 	/** Obtains an object from the {@link #get(Class) pool}. */
@@ -66,6 +83,7 @@ public class Pools {
 	 * @param samePool If true, objects don't need to be from the same pool but the pool must be looked up for each object. */
 	static public void freeAll (Array objects, boolean samePool) {
 		if (objects == null) throw new IllegalArgumentException("Objects cannot be null.");
+		ObjectMap<Class, Pool> typePools = Pools.typePools;
 		Pool pool = null;
 		for (int i = 0, n = objects.size; i < n; i++) {
 			Object object = objects.get(i);
@@ -0,0 +1,618 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.async.AsyncTask;
+
+/** Provides methods to sort, select from and search arrays of primitives without boxing. Radix sorting requires working memory
+ * and this class allows that memory to be reused to avoid allocation. The static methods don't use working memory and are thread
+ * safe.
+ * <p>
+ * The radix sorts are stable and take linear time, which makes them faster than Arrays.sort for large arrays. Small arrays are
+ * sorted with Arrays.sort or an insertion sort instead. Floats are ordered like Arrays.sort does, -0 before 0 and NaN last.
+ * @see Sort
+ * @see Select */
+public class PrimitiveSort {
+	static private PrimitiveSort instance;
+
+	/** Arrays smaller than this are not radix sorted. */
+	static private final int radixThreshold = 128;
+	/** Ranges smaller than this are insertion sorted when selecting. */
+	static private final int selectThreshold = 16;
+	/** The smallest number of items sorted by each task of a parallel sort. */
+	static private final int parallelRunSize = 1 << 13;
+
+	private int[] keys = new int[0], keys2 = keys, values = keys, values2 = keys;
+	private long[] longKeys = new long[0], longKeys2 = longKeys;
+	private float[] floatScratch = new float[0];
+	private final int[] counts = new int[256 * 8];
+
+	/** Sorts the specified range of the array using a radix sort. */
+	public void radixSort (int[] items, int fromIndex, int toIndex) {
+		int n = toIndex - fromIndex;
+		if (n < radixThreshold) {
+			Arrays.sort(items, fromIndex, toIndex);
+			return;
+		}
+		ensureCapacity(n, false);
+		int[] keys = this.keys;
+		for (int i = 0; i < n; i++)
+			keys[i] = items[fromIndex + i] ^ 0x80000000;
+		radix(n, false);
+		keys = this.keys;
+		for (int i = 0; i < n; i++)
+			items[fromIndex + i] = keys[i] ^ 0x80000000;
+	}
+
+	/** Sorts the specified range of the array using a radix sort. */
+	public void radixSort (float[] items, int fromIndex, int toIndex) {
+		int n = toIndex - fromIndex;
+		if (n < radixThreshold) {
+			Arrays.sort(items, fromIndex, toIndex);
+			return;
+		}
+		ensureCapacity(n, false);
+		int[] keys = this.keys;
+		for (int i = 0; i < n; i++)
+			keys[i] = floatKey(items[fromIndex + i]);
+		radix(n, false);
+		keys = this.keys;
+		for (int i = 0; i < n; i++) {
+			int key = keys[i];
+			items[fromIndex + i] = NumberUtils.intBitsToFloat(key < 0 ? key ^ 0x80000000 : ~key);
+		}
+	}
+
+	/** Sorts the specified range of the array using a radix sort. */
+	public void radixSort (long[] items, int fromIndex, int toIndex) {
+		int n = toIndex - fromIndex;
+		if (n < radixThreshold) {
+			Arrays.sort(items, fromIndex, toIndex);
+			return;
+		}
+		if (longKeys.length < n) {
+			longKeys = new long[n];
+			longKeys2 = new long[n];
+		}
+		long[] src = longKeys, dst = longKeys2;
+		for (int i = 0; i < n; i++)
+			src[i] = items[fromIndex + i] ^ 0x8000000000000000L;
+		int[] counts = this.counts;
+		Arrays.fill(counts, 0);
+		for (int i = 0; i < n; i++) {
+			long key = src[i];
+			for (int pass = 0; pass < 8; pass++)
+				counts[(pass << 8) + (int)(key >>> (pass << 3) & 0xff)]++;
+		}
+		for (int pass = 0; pass < 8; pass++) {
+			int offset = pass << 8, shift = pass << 3;
+			if (!prefixSum(counts, offset, (int)(src[0] >>> shift & 0xff), n)) continue;
+			for (int i = 0; i < n; i++) {
+				long key = src[i];
+				dst[counts[offset + (int)(key >>> shift & 0xff)]++] = key;
+			}
+			long[] temp = src;
+			src = dst;
+			dst = temp;
+		}
+		for (int i = 0; i < n; i++)
+			items[fromIndex + i] = src[i] ^ 0x8000000000000000L;
+	}
+
+	/** Sorts the specified range of the indices so the keys they index are ascending. The sort is stable, indices with equal keys
+	 * keep their order.
+	 * @param indices Indices into the keys array. */
+	public void sortIndices (int[] indices, int fromIndex, int toIndex, float[] keys) {
+		int n = toIndex - fromIndex;
+		if (n < radixThreshold) {
+			for (int i = fromIndex + 1; i < toIndex; i++) {
+				int index = indices[i];
+				float key = keys[index];
+				int j = i - 1;
+				for (; j >= fromIndex && Float.compare(keys[indices[j]], key) > 0; j--)
+					indices[j + 1] = indices[j];
+				indices[j + 1] = index;
+			}
+			return;
+		}
+		ensureCapacity(n, true);
+		int[] sortKeys = this.keys, values = this.values;
+		for (int i = 0; i < n; i++) {
+			int index = indices[fromIndex + i];
+			sortKeys[i] = floatKey(keys[index]);
+			values[i] = index;
+		}
+		radix(n, true);
+		System.arraycopy(this.values, 0, indices, fromIndex, n);
+	}
+
+	/** Sorts the specified range of the indices so the keys they index are ascending. The sort is stable, indices with equal keys
+	 * keep their order.
+	 * @param indices Indices into the keys array. */
+	public void sortIndices (int[] indices, int fromIndex, int toIndex, int[] keys) {
+		int n = toIndex - fromIndex;
+		if (n < radixThreshold) {
+			for (int i = fromIndex + 1; i < toIndex; i++) {
+				int index = indices[i];
+				int key = keys[index];
+				int j = i - 1;
+				for (; j >= fromIndex && keys[indices[j]] > key; j--)
+					indices[j + 1] = indices[j];
+				indices[j + 1] = index;
+			}
+			return;
+		}
+		ensureCapacity(n, true);
+		int[] sortKeys = this.keys, values = this.values;
+		for (int i = 0; i < n; i++) {
+			int index = indices[fromIndex + i];
+			sortKeys[i] = keys[index] ^ 0x80000000;
+			values[i] = index;
+		}
+		radix(n, true);
+		System.arraycopy(this.values, 0, indices, fromIndex, n);
+	}
+
+	/** Sorts the specified range of the array using multiple tasks on the executor. Runs of the array are sorted concurrently, then
+	 * merged concurrently. Ranges too small to benefit are sorted on the calling thread.
+	 * @param parallelism The maximum number of tasks to sort with, usually the number of threads of the executor. */
+	public void parallelSort (final int[] items, final int fromIndex, int toIndex, AsyncExecutor executor, int parallelism) {
+		int n = toIndex - fromIndex;
+		int runs = Math.min(parallelism, n / parallelRunSize);
+		if (runs < 2) {
+			Arrays.sort(items, fromIndex, toIndex);
+			return;
+		}
+		ensureCapacity(n, false);
+		final int[] scratch = keys;
+		parallelSort(new ParallelKernel() {
+			public void sort (int start, int end) {
+				Arrays.sort(items, fromIndex + start, fromIndex + end);
+			}
+
+			public void merge (boolean toScratch, int start, int mid, int end) {
+				if (toScratch)
+					PrimitiveSort.merge(items, fromIndex, scratch, 0, start, mid, end);
+				else
+					PrimitiveSort.merge(scratch, 0, items, fromIndex, start, mid, end);
+			}
+
+			public void copy (int n) {
+				System.arraycopy(scratch, 0, items, fromIndex, n);
+			}
+		}, n, runs, executor);
+	}
+
+	/** Sorts the specified range of the array using multiple tasks on the executor.
+	 * @see #parallelSort(int[], int, int, AsyncExecutor, int) */
+	public void parallelSort (final float[] items, final int fromIndex, int toIndex, AsyncExecutor executor, int parallelism) {
+		int n = toIndex - fromIndex;
+		int runs = Math.min(parallelism, n / parallelRunSize);
+		if (runs < 2) {
+			Arrays.sort(items, fromIndex, toIndex);
+			return;
+		}
+		if (floatScratch.length < n) floatScratch = new float[n];
+		final float[] scratch = floatScratch;
+		parallelSort(new ParallelKernel() {
+			public void sort (int start, int end) {
+				Arrays.sort(items, fromIndex + start, fromIndex + end);
+			}
+
+			public void merge (boolean toScratch, int start, int mid, int end) {
+				if (toScratch)
+					PrimitiveSort.merge(items, fromIndex, scratch, 0, start, mid, end);
+				else
+					PrimitiveSort.merge(scratch, 0, items, fromIndex, start, mid, end);
+			}
+
+			public void copy (int n) {
+				System.arraycopy(scratch, 0, items, fromIndex, n);
+			}
+		}, n, runs, executor);
+	}
+
+	/** Sorts the specified range of the array using multiple tasks on the executor.
+	 * @see #parallelSort(int[], int, int, AsyncExecutor, int) */
+	public void parallelSort (final long[] items, final int fromIndex, int toIndex, AsyncExecutor executor, int parallelism) {
+		int n = toIndex - fromIndex;
+		int runs = Math.min(parallelism, n / parallelRunSize);
+		if (runs < 2) {
+			Arrays.sort(items, fromIndex, toIndex);
+			return;
+		}
+		if (longKeys.length < n) {
+			longKeys = new long[n];
+			longKeys2 = new long[n];
+		}
+		final long[] scratch = longKeys;
+		parallelSort(new ParallelKernel() {
+			public void sort (int start, int end) {
+				Arrays.sort(items, fromIndex + start, fromIndex + end);
+			}
+
+			public void merge (boolean toScratch, int start, int mid, int end) {
+				if (toScratch)
+					PrimitiveSort.merge(items, fromIndex, scratch, 0, start, mid, end);
+				else
+					PrimitiveSort.merge(scratch, 0, items, fromIndex, start, mid, end);
+			}
+
+			public void copy (int n) {
+				System.arraycopy(scratch, 0, items, fromIndex, n);
+			}
+		}, n, runs, executor);
+	}
+
+	private void parallelSort (final ParallelKernel kernel, int n, int runs, AsyncExecutor executor) {
+		int[] bounds = new int[runs + 1];
+		for (int i = 0; i <= runs; i++)
+			bounds[i] = (int)((long)n * i / runs);
+		Array<AsyncResult> results = new Array(runs);
+		for (int i = 0; i < runs; i++) {
+			final int start = bounds[i], end = bounds[i + 1];
+			results.add(executor.submit(new AsyncTask() {
+				public Object call () {
+					kernel.sort(start, end);
+					return null;
+				}
+			}));
+		}
+		await(results);
+
+		// Merge pairs of runs until one remains, alternating between the items and the scratch array.
+		boolean toScratch = true;
+		while (runs > 1) {
+			final boolean mergeToScratch = toScratch;
+			int merged = 0;
+			for (int i = 0; i < runs; i += 2, merged++) {
+				final int start = bounds[i], mid = bounds[Math.min(i + 1, runs)], end = bounds[Math.min(i + 2, runs)];
+				results.add(executor.submit(new AsyncTask() {
+					public Object call () {
+						kernel.merge(mergeToScratch, start, mid, end);
+						return null;
+					}
+				}));
+				bounds[merged] = start;
+			}
+			bounds[merged] = n;
+			runs = merged;
+			await(results);
+			toScratch = !toScratch;
+		}
+		if (!toScratch) kernel.copy(n);
+	}
+
+	private void await (Array<AsyncResult> results) {
+		for (int i = 0, n = results.size; i < n; i++)
+			results.get(i).get();
+		results.clear();
+	}
+
+	/** Sorts the first n keys as unsigned ints, moving the values with them if withValues is true. The result is in {@link #keys}
+	 * and {@link #values}. */
+	private void radix (int n, boolean withValues) {
+		int[] counts = this.counts;
+		Arrays.fill(counts, 0, 1024, 0);
+		int[] src = keys, dst = keys2, srcValues = values, dstValues = values2;
+		for (int i = 0; i < n; i++) {
+			int key = src[i];
+			counts[key & 0xff]++;
+			counts[256 + (key >>> 8 & 0xff)]++;
+			counts[512 + (key >>> 16 & 0xff)]++;
+			counts[768 + (key >>> 24)]++;
+		}
+		for (int pass = 0; pass < 4; pass++) {
+			int offset = pass << 8, shift = pass << 3;
+			if (!prefixSum(counts, offset, src[0] >>> shift & 0xff, n)) continue;
+			if (withValues) {
+				for (int i = 0; i < n; i++) {
+					int key = src[i];
+					int index = counts[offset + (key >>> shift & 0xff)]++;
+					dst[index] = key;
+					dstValues[index] = srcValues[i];
+				}
+				int[] temp = srcValues;
+				srcValues = dstValues;
+				dstValues = temp;
+			} else {
+				for (int i = 0; i < n; i++) {
+					int key = src[i];
+					dst[counts[offset + (key >>> shift & 0xff)]++] = key;
+				}
+			}
+			int[] temp = src;
+			src = dst;
+			dst = temp;
+		}
+		keys = src;
+		keys2 = dst;
+		values = srcValues;
+		values2 = dstValues;
+	}
+
+	/** Converts the counts of a pass to start positions.
+	 * @return false if all n keys have the same digit, so the pass would not change the order. */
+	static private boolean prefixSum (int[] counts, int offset, int digit, int n) {
+		if (counts[offset + digit] == n) return false;
+		for (int i = offset, total = 0, end = offset + 256; i < end; i++) {
+			int count = counts[i];
+			counts[i] = total;
+			total += count;
+		}
+		return true;
+	}
+
+	private void ensureCapacity (int n, boolean withValues) {
+		if (keys.length < n) {
+			keys = new int[n];
+			keys2 = new int[n];
+		}
+		if (withValues && values.length < n) {
+			values = new int[n];
+			values2 = new int[n];
+		}
+	}
+
+	/** Returns an int whose unsigned order is the order of the float. */
+	static private int floatKey (float value) {
+		int bits = NumberUtils.floatToIntBits(value);
+		return bits ^ (bits >> 31 | 0x80000000);
+	}
+
+	static private void merge (int[] src, int srcOffset, int[] dst, int dstOffset, int start, int mid, int end) {
+		int i = srcOffset + start, iEnd = srcOffset + mid, j = iEnd, jEnd = srcOffset + end, d = dstOffset + start;
+		while (i < iEnd && j < jEnd)
+			dst[d++] = src[j] < src[i] ? src[j++] : src[i++];
+		System.arraycopy(src, i, dst, d, iEnd - i);
+		System.arraycopy(src, j, dst, d + iEnd - i, jEnd - j);
+	}
+
+	static private void merge (float[] src, int srcOffset, float[] dst, int dstOffset, int start, int mid, int end) {
+		int i = srcOffset + start, iEnd = srcOffset + mid, j = iEnd, jEnd = srcOffset + end, d = dstOffset + start;
+		while (i < iEnd && j < jEnd)
+			dst[d++] = Float.compare(src[j], src[i]) < 0 ? src[j++] : src[i++];
+		System.arraycopy(src, i, dst, d, iEnd - i);
+		System.arraycopy(src, j, dst, d + iEnd - i, jEnd - j);
+	}
+
+	static private void merge (long[] src, int srcOffset, long[] dst, int dstOffset, int start, int mid, int end) {
+		int i = srcOffset + start, iEnd = srcOffset + mid, j = iEnd, jEnd = srcOffset + end, d = dstOffset + start;
+		while (i < iEnd && j < jEnd)
+			dst[d++] = src[j] < src[i] ? src[j++] : src[i++];
+		System.arraycopy(src, i, dst, d, iEnd - i);
+		System.arraycopy(src, j, dst, d + iEnd - i, jEnd - j);
+	}
+
+	/** Reorders the specified range of the array so the kth lowest value is at <code>fromIndex + kthLowest - 1</code>, with no
+	 * higher values before it and no lower values after it. This takes linear time on average.
+	 * @param kthLowest The rank of the value, 1 for the lowest.
+	 * @return The kth lowest value. */
+	static public int select (int[] items, int fromIndex, int toIndex, int kthLowest) {
+		int k = selectIndex(fromIndex, toIndex, kthLowest);
+		int left = fromIndex, right = toIndex - 1, depth = selectDepth(toIndex - fromIndex);
+		while (right - left > selectThreshold) {
+			if (depth-- == 0) {
+				// Too many bad pivots, avoid quadratic time.
+				Arrays.sort(items, left, right + 1);
+				return items[k];
+			}
+			int mid = (left + right) >>> 1;
+			if (items[mid] < items[left]) swap(items, mid, left);
+			if (items[right] < items[left]) swap(items, right, left);
+			if (items[right] < items[mid]) swap(items, right, mid);
+			int pivot = items[mid], i = left, j = right;
+			while (i <= j) {
+				while (items[i] < pivot)
+					i++;
+				while (items[j] > pivot)
+					j--;
+				if (i <= j) swap(items, i++, j--);
+			}
+			if (k <= j)
+				right = j;
+			else if (k >= i)
+				left = i;
+			else
+				return items[k];
+		}
+		for (int i = left + 1; i <= right; i++) {
+			int value = items[i];
+			int j = i - 1;
+			for (; j >= left && items[j] > value; j--)
+				items[j + 1] = items[j];
+			items[j + 1] = value;
+		}
+		return items[k];
+	}
+
+	/** Reorders the specified range of the array so the kth lowest value is at <code>fromIndex + kthLowest - 1</code>, with no
+	 * higher values before it and no lower values after it. The range must not contain NaN.
+	 * @see #select(int[], int, int, int) */
+	static public float select (float[] items, int fromIndex, int toIndex, int kthLowest) {
+		int k = selectIndex(fromIndex, toIndex, kthLowest);
+		int left = fromIndex, right = toIndex - 1, depth = selectDepth(toIndex - fromIndex);
+		while (right - left > selectThreshold) {
+			if (depth-- == 0) {
+				Arrays.sort(items, left, right + 1);
+				return items[k];
+			}
+			int mid = (left + right) >>> 1;
+			if (items[mid] < items[left]) swap(items, mid, left);
+			if (items[right] < items[left]) swap(items, right, left);
+			if (items[right] < items[mid]) swap(items, right, mid);
+			float pivot = items[mid];
+			int i = left, j = right;
+			while (i <= j) {
+				while (items[i] < pivot)
+					i++;
+				while (items[j] > pivot)
+					j--;
+				if (i <= j) swap(items, i++, j--);
+			}
+			if (k <= j)
+				right = j;
+			else if (k >= i)
+				left = i;
+			else
+				return items[k];
+		}
+		for (int i = left + 1; i <= right; i++) {
+			float value = items[i];
+			int j = i - 1;
+			for (; j >= left && items[j] > value; j--)
+				items[j + 1] = items[j];
+			items[j + 1] = value;
+		}
+		return items[k];
+	}
+
+	/** Reorders the specified range of the array so the kth lowest value is at <code>fromIndex + kthLowest - 1</code>, with no
+	 * higher values before it and no lower values after it.
+	 * @see #select(int[], int, int, int) */
+	static public long select (long[] items, int fromIndex, int toIndex, int kthLowest) {
+		int k = selectIndex(fromIndex, toIndex, kthLowest);
+		int left = fromIndex, right = toIndex - 1, depth = selectDepth(toIndex - fromIndex);
+		while (right - left > selectThreshold) {
+			if (depth-- == 0) {
+				Arrays.sort(items, left, right + 1);
+				return items[k];
+			}
+			int mid = (left + right) >>> 1;
+			if (items[mid] < items[left]) swap(items, mid, left);
+			if (items[right] < items[left]) swap(items, right, left);
+			if (items[right] < items[mid]) swap(items, right, mid);
+			long pivot = items[mid];
+			int i = left, j = right;
+			while (i <= j) {
+				while (items[i] < pivot)
+					i++;
+				while (items[j] > pivot)
+					j--;
+				if (i <= j) swap(items, i++, j--);
+			}
+			if (k <= j)
+				right = j;
+			else if (k >= i)
+				left = i;
+			else
+				return items[k];
+		}
+		for (int i = left + 1; i <= right; i++) {
+			long value = items[i];
+			int j = i - 1;
+			for (; j >= left && items[j] > value; j--)
+				items[j + 1] = items[j];
+			items[j + 1] = value;
+		}
+		return items[k];
+	}
+
+	static private int selectIndex (int fromIndex, int toIndex, int kthLowest) {
+		int size = toIndex - fromIndex;
+		if (size < 1) throw new GdxRuntimeException("cannot select from empty array (size < 1)");
+		if (kthLowest < 1 || kthLowest > size)
+			throw new GdxRuntimeException("Kth rank is out of range. k: " + kthLowest + ", size: " + size);
+		return fromIndex + kthLowest - 1;
+	}
+
+	static private int selectDepth (int size) {
+		return 2 * (32 - Integer.numberOfLeadingZeros(size));
+	}
+
+	static private void swap (int[] items, int a, int b) {
+		int temp = items[a];
+		items[a] = items[b];
+		items[b] = temp;
+	}
+
+	static private void swap (float[] items, int a, int b) {
+		float temp = items[a];
+		items[a] = items[b];
+		items[b] = temp;
+	}
+
+	static private void swap (long[] items, int a, int b) {
+		long temp = items[a];
+		items[a] = items[b];
+		items[b] = temp;
+	}
+
+	/** Returns the index of the first value in the sorted range that is not lower than the specified value, or toIndex if there is
+	 * none. */
+	static public int lowerBound (int[] items, int fromIndex, int toIndex, int value) {
+		int low = fromIndex, high = toIndex;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (items[mid] < value)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/** Returns the index of the first value in the sorted range that is not lower than the specified value, or toIndex if there is
+	 * none. */
+	static public int lowerBound (float[] items, int fromIndex, int toIndex, float value) {
+		int low = fromIndex, high = toIndex;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (Float.compare(items[mid], value) < 0)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/** Returns the index of the first value in the sorted range that is not lower than the specified value, or toIndex if there is
+	 * none. */
+	static public int lowerBound (long[] items, int fromIndex, int toIndex, long value) {
+		int low = fromIndex, high = toIndex;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (items[mid] < value)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/** Returns a PrimitiveSort instance for convenience. Multiple threads must not use this instance at the same time. */
+	static public PrimitiveSort instance () {
+		if (instance == null) instance = new PrimitiveSort();
+		return instance;
+	}
+
+	/** Sorts and merges runs of one array for {@link PrimitiveSort#parallelSort(ParallelKernel, int, int, AsyncExecutor)}. Run
+	 * positions are relative to the start of the sorted range. */
+	static private interface ParallelKernel {
+		public void sort (int start, int end);
+
+		/** Merges two adjacent sorted runs from the items to the scratch array, or back. mid may equal end. */
+		public void merge (boolean toScratch, int start, int mid, int end);
+
+		/** Copies the first n sorted values from the scratch array to the items. */
+		public void copy (int n);
+	}
+}
@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+
+import com.badlogic.gdx.files.FileHandle;
+
+/** Records nested, named zones of time on any thread and exports them in the Chrome Trace Event format, which can be viewed with
+ * chrome://tracing or Perfetto. Call {@link #begin(String)} at the start of a zone and {@link #end()} at its end. Zones can be
+ * nested and must be ended in the reverse order they were begun, on the same thread. Some zones are recorded by libgdx itself,
+ * eg AssetManager.update, Stage.act, Stage.draw, SpriteBatch.flush and ModelBatch.flush.
+ * <p>
+ * Recording is disabled by default, in which case begin and end do nothing. When enabled, each thread records to its own ring
+ * buffer without locking or allocation, except for allocating the buffer the first time a thread records. When a buffer is full
+ * the oldest events are overwritten, so the most recent events are always available.
+ * <p>
+ * Zone names should be constants, since they are stored by reference. */
+public class Profiler {
+	static private final byte BEGIN = 0, END = 1, MARK = 2;
+
+	static volatile boolean enabled;
+	static private int capacity = 64 * 1024;
+	static private final long startTime = TimeUtils.nanoTime();
+	static private final Array<ThreadBuffer> buffers = new Array();
+	static private final ThreadLocal<ThreadBuffer> threadBuffer = new ThreadLocal();
+	static private int nextId = 1;
+
+	/** Starts recording zones. */
+	static public void enable () {
+		enabled = true;
+	}
+
+	/** Stops recording zones. Recorded zones are kept until {@link #clear()} is called. */
+	static public void disable () {
+		enabled = false;
+	}
+
+	static public boolean isEnabled () {
+		return enabled;
+	}
+
+	/** Sets the number of events each thread can record before the oldest events are overwritten. A zone uses two events. Only
+	 * affects threads that have not yet recorded. Default is 65536. */
+	static public void setCapacity (int capacity) {
+		if (capacity < 2) throw new IllegalArgumentException("capacity must be > 1: " + capacity);
+		Profiler.capacity = capacity;
+	}
+
+	/** Begins a zone on the current thread. Must be followed by {@link #end()} on the same thread. */
+	static public void begin (String name) {
+		if (enabled) buffer().add(BEGIN, name);
+	}
+
+	/** Ends the last zone begun on the current thread. */
+	static public void end () {
+		if (enabled) buffer().add(END, null);
+	}
+
+	/** Records an instant event on the current thread, for example to mark the start of a frame. */
+	static public void mark (String name) {
+		if (enabled) buffer().add(MARK, name);
+	}
+
+	static private ThreadBuffer buffer () {
+		ThreadBuffer buffer = threadBuffer.get();
+		if (buffer == null) {
+			buffer = new ThreadBuffer(Thread.currentThread(), capacity);
+			synchronized (buffers) {
+				buffer.id = nextId++;
+				buffers.add(buffer);
+			}
+			threadBuffer.set(buffer);
+		}
+		return buffer;
+	}
+
+	/** Discards all recorded events and the buffers of threads that have terminated. Can be called from any thread, also while
+	 * other threads are recording. */
+	static public void clear () {
+		synchronized (buffers) {
+			for (int i = buffers.size - 1; i >= 0; i--) {
+				ThreadBuffer buffer = buffers.get(i);
+				Thread thread = buffer.thread.get();
+				if (thread == null || !thread.isAlive())
+					buffers.removeIndex(i);
+				else
+					buffer.cleared = buffer.written;
+			}
+		}
+	}
+
+	/** Writes the recorded events of all threads to the file in the Chrome Trace Event JSON format.
+	 * @see #writeChromeTrace(Writer) */
+	static public void writeChromeTrace (FileHandle file) {
+		Writer writer = file.writer(false, "UTF-8");
+		try {
+			writeChromeTrace(writer);
+		} catch (IOException ex) {
+			throw new GdxRuntimeException("Error writing trace: " + file, ex);
+		} finally {
+			StreamUtils.closeQuietly(writer);
+		}
+	}
+
+	/** Writes the recorded events of all threads in the Chrome Trace Event JSON format, without closing the writer. Can be called
+	 * from any thread, also while other threads are recording. Events that are overwritten while writing are omitted, as are ends
+	 * of zones whose begin was overwritten. */
+	static public void writeChromeTrace (Writer writer) throws IOException {
+		ThreadBuffer[] threads;
+		synchronized (buffers) {
+			threads = buffers.toArray(ThreadBuffer.class);
+		}
+		writer.write("{\"traceEvents\":[");
+		StringBuilder buffer = new StringBuilder(256);
+		boolean first = true;
+		for (ThreadBuffer thread : threads) {
+			if (!first) buffer.append(",\n");
+			first = false;
+			buffer.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":").append(thread.id)
+				.append(",\"args\":{\"name\":");
+			appendString(buffer, thread.name);
+			buffer.append("}}");
+			writer.write(buffer.chars, 0, buffer.length);
+			buffer.setLength(0);
+
+			Snapshot snapshot = thread.snapshot();
+			int depth = 0;
+			for (int i = 0; i < snapshot.count; i++) {
+				byte type = snapshot.types[i];
+				if (type == END) {
+					if (depth == 0) continue; // The begin was overwritten.
+					depth--;
+				} else if (type == BEGIN) //
+					depth++;
+				buffer.append(",\n{\"ph\":\"").append(type == BEGIN ? 'B' : type == END ? 'E' : 'i').append('"');
+				if (type != END) {
+					buffer.append(",\"name\":");
+					appendString(buffer, snapshot.names[i]);
+				}
+				if (type == MARK) buffer.append(",\"s\":\"t\"");
+				long micros = (snapshot.times[i] - startTime) / 1000;
+				buffer.append(",\"pid\":1,\"tid\":").append(thread.id).append(",\"ts\":").append(micros);
+				buffer.append('.').append((int)((snapshot.times[i] - startTime) % 1000 / 100)).append('}');
+				writer.write(buffer.chars, 0, buffer.length);
+				buffer.setLength(0);
+			}
+		}
+		writer.write("\n]}\n");
+		writer.flush();
+	}
+
+	static private void appendString (StringBuilder buffer, String value) {
+		buffer.append('"');
+		for (int i = 0, n = value.length(); i < n; i++) {
+			char c = value.charAt(i);
+			if (c == '"' || c == '\\')
+				buffer.append('\\').append(c);
+			else if (c < ' ')
+				buffer.append(' ');
+			else
+				buffer.append(c);
+		}
+		buffer.append('"');
+	}
+
+	/** Events recorded by a single thread. Only that thread writes to the buffer. {@link #written} is published after each event
+	 * so other threads can take a consistent snapshot. */
+	static class ThreadBuffer {
+		final WeakReference<Thread> thread;
+		final String name;
+		int id;
+		final byte[] types;
+		final String[] names;
+		final long[] times;
+		volatile long written, cleared;
+
+		ThreadBuffer (Thread thread, int capacity) {
+			this.thread = new WeakReference(thread);
+			name = thread.getName();
+			types = new byte[capacity];
+			names = new String[capacity];
+			times = new long[capacity];
+		}
+
+		void add (byte type, String name) {
+			long written = this.written;
+			int index = (int)(written % types.length);
+			types[index] = type;
+			names[index] = name;
+			times[index] = TimeUtils.nanoTime();
+			this.written = written + 1;
+		}
+
+		/** Copies the events, then discards those that may have been overwritten during the copy. */
+		Snapshot snapshot () {
+			int capacity = types.length;
+			long end = written;
+			long start = Math.max(cleared, end - capacity);
+			int count = (int)Math.max(0, end - start);
+			Snapshot snapshot = new Snapshot(count);
+			for (int i = 0; i < count; i++) {
+				int index = (int)((start + i) % capacity);
+				snapshot.types[i] = types[index];
+				snapshot.names[i] = names[index];
+				snapshot.times[i] = times[index];
+			}
+			// Events that may have been overwritten during the copy are dropped.
+			long valid = written - capacity + 1;
+			if (valid > start) {
+				int skip = (int)Math.min(count, valid - start);
+				System.arraycopy(snapshot.types, skip, snapshot.types, 0, count - skip);
+				System.arraycopy(snapshot.names, skip, snapshot.names, 0, count - skip);
+				System.arraycopy(snapshot.times, skip, snapshot.times, 0, count - skip);
+				snapshot.count = count - skip;
+			}
+			return snapshot;
+		}
+	}
+
+	static class Snapshot {
+		final byte[] types;
+		final String[] names;
+		final long[] times;
+		int count;
+
+		Snapshot (int count) {
+			types = new byte[count];
+			names = new String[count];
+			times = new long[count];
+			this.count = count;
+		}
+	}
+}
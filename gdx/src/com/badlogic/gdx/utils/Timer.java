@@ -22,6 +22,14 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.LifecycleListener;
 
 /** Executes tasks in the future on the main loop thread.
+ * <p>
+ * Tasks are kept in a hashed timing wheel, so scheduling and cancelling a task takes constant time and an update only looks at
+ * the tasks in the wheel slots for the time that has passed. Tasks that are due at the same time are delivered to the main loop
+ * thread with a single {@link Application#postRunnable(Runnable)}.
+ * <p>
+ * A timer created with <code>threaded</code> false is not updated by the timer thread. Instead {@link #update(float)} is called,
+ * typically each frame from {@link com.badlogic.gdx.ApplicationListener#render()}, which runs the due tasks on the calling thread.
+ * Its time only advances by the delta passed to update, so it is deterministic and is unaffected by pausing.
  * @author Nathan Sweet */
 public class Timer {
 	// TimerThread access is synchronized using threadLock.
@@ -31,6 +39,9 @@ public class Timer {
 	static final Object threadLock = new Object();
 	static TimerThread thread;
 
+	/** The number of wheel slots, each 1 millisecond. Must be a power of two. */
+	static private final int wheelSize = 512, wheelMask = wheelSize - 1;
+
 	/** Timer instance singleton for general application wide usage. Static methods on {@link Timer} make convenient use of this
 	 * instance. */
 	static public Timer instance () {
@@ -51,12 +62,33 @@ public class Timer {
 		}
 	}
 
-	final Array<Task> tasks = new Array(false, 8);
+	private final boolean threaded;
+	/** The head of the doubly linked list of tasks for each slot. */
+	private final Task[] wheel = new Task[wheelSize];
+	private int size;
+	/** The last time in milliseconds for which the wheel has been processed. */
+	private long lastMillis;
+	private final Array<Task> due = new Array(false, 16);
+	private long manualNanos;
+	private boolean manualStopped;
 
 	public Timer () {
+		this(true);
+	}
+
+	/** @param threaded If false, the timer is updated by calling {@link #update(float)} rather than by the timer thread. */
+	public Timer (boolean threaded) {
+		this.threaded = threaded;
+		lastMillis = timeMillis();
 		start();
 	}
 
+	/** Returns the current time of this timer in milliseconds, which for a timer that is not threaded is the sum of the deltas
+	 * passed to {@link #update(float)}. */
+	public long timeMillis () {
+		return threaded ? System.nanoTime() / 1000000 : manualNanos / 1000000;
+	}
+
 	/** Schedules a task to occur once as soon as possible, but not sooner than the start of the next frame. */
 	public Task postTask (Task task) {
 		return scheduleTask(task, 0, 0, 0);
@@ -79,20 +111,51 @@ public class Timer {
 			synchronized (task) {
 				if (task.timer != null) throw new IllegalArgumentException("The same task may not be scheduled twice.");
 				task.timer = this;
-				task.executeTimeMillis = System.nanoTime() / 1000000 + (long)(delaySeconds * 1000);
+				task.executeTimeMillis = timeMillis() + (long)(delaySeconds * 1000);
 				task.intervalMillis = (long)(intervalSeconds * 1000);
 				task.repeatCount = repeatCount;
-				tasks.add(task);
+				add(task);
 			}
 		}
-		synchronized (threadLock) {
-			threadLock.notifyAll();
+		if (threaded) {
+			synchronized (threadLock) {
+				threadLock.notifyAll();
+			}
 		}
 		return task;
 	}
 
+	/** Adds the task to the slot for its execute time, or to the next slot to be processed if it is already due. */
+	private void add (Task task) {
+		int slot = (int)(Math.max(task.executeTimeMillis, lastMillis + 1) & wheelMask);
+		Task head = wheel[slot];
+		task.slot = slot;
+		task.prev = null;
+		task.next = head;
+		if (head != null) head.prev = task;
+		wheel[slot] = task;
+		size++;
+	}
+
+	void remove (Task task) {
+		if (task.prev != null)
+			task.prev.next = task.next;
+		else
+			wheel[task.slot] = task.next;
+		if (task.next != null) task.next.prev = task.prev;
+		task.prev = null;
+		task.next = null;
+		size--;
+	}
+
 	/** Stops the timer, tasks will not be executed and time that passes will not be applied to the task delays. */
 	public void stop () {
+		if (!threaded) {
+			synchronized (this) {
+				manualStopped = true;
+			}
+			return;
+		}
 		synchronized (threadLock) {
 			thread().instances.removeValue(this, true);
 		}
@@ -100,6 +163,12 @@ public class Timer {
 
 	/** Starts the timer if it was stopped. */
 	public void start () {
+		if (!threaded) {
+			synchronized (this) {
+				manualStopped = false;
+			}
+			return;
+		}
 		synchronized (threadLock) {
 			TimerThread thread = thread();
 			Array<Timer> instances = thread.instances;
@@ -111,54 +180,137 @@ public class Timer {
 
 	/** Cancels all tasks. */
 	public synchronized void clear () {
-		for (int i = 0, n = tasks.size; i < n; i++) {
-			Task task = tasks.get(i);
-			synchronized (task) {
-				task.executeTimeMillis = 0;
-				task.timer = null;
+		for (int i = 0; i < wheelSize; i++) {
+			Task task = wheel[i];
+			while (task != null) {
+				Task next = task.next;
+				synchronized (task) {
+					task.executeTimeMillis = 0;
+					task.timer = null;
+					task.prev = null;
+					task.next = null;
+				}
+				task = next;
 			}
+			wheel[i] = null;
 		}
-		tasks.clear();
+		size = 0;
 	}
 
 	/** Returns true if the timer has no tasks in the queue. Note that this can change at any time. Synchronize on the timer
 	 * instance to prevent tasks being added, removed, or updated. */
 	public synchronized boolean isEmpty () {
-		return tasks.size == 0;
+		return size == 0;
 	}
 
-	synchronized long update (long timeMillis, long waitMillis) {
-		for (int i = 0, n = tasks.size; i < n; i++) {
-			Task task = tasks.get(i);
-			synchronized (task) {
-				if (task.executeTimeMillis > timeMillis) {
-					waitMillis = Math.min(waitMillis, task.executeTimeMillis - timeMillis);
-					continue;
+	/** Removes the tasks that are due from the wheel and adds them to {@link #due}, rescheduling repeating tasks.
+	 * @return The time to wait for the next task, at most waitMillis. */
+	private long collect (long timeMillis, long waitMillis) {
+		long ticks = timeMillis - lastMillis;
+		if (ticks <= 0 || size == 0) {
+			if (ticks > 0) lastMillis = timeMillis;
+			return nextWait(waitMillis);
+		}
+		// After a full turn every slot has been visited, so no task can be missed.
+		long last = lastMillis + Math.min(ticks, wheelSize);
+		Array<Task> due = this.due;
+		int dueStart = due.size;
+		for (long tick = lastMillis + 1; tick <= last; tick++) {
+			Task task = wheel[(int)(tick & wheelMask)];
+			while (task != null) {
+				Task next = task.next;
+				// Tasks in the slot for a later turn of the wheel are skipped.
+				if (task.executeTimeMillis <= timeMillis) {
+					remove(task);
+					due.add(task);
 				}
+				task = next;
+			}
+		}
+		lastMillis = timeMillis;
+
+		for (int i = dueStart, n = due.size; i < n; i++) {
+			Task task = due.get(i);
+			synchronized (task) {
 				if (task.repeatCount == 0) {
 					task.timer = null;
-					tasks.removeIndex(i);
-					i--;
-					n--;
 				} else {
 					task.executeTimeMillis = timeMillis + task.intervalMillis;
-					waitMillis = Math.min(waitMillis, task.intervalMillis);
 					if (task.repeatCount > 0) task.repeatCount--;
+					add(task);
+				}
+			}
+		}
+		return nextWait(waitMillis);
+	}
+
+	/** Returns the time until the next slot with a task that is due in this turn of the wheel, at most waitMillis. Tasks for a
+	 * later turn are skipped, so they don't cause early wake ups. */
+	private long nextWait (long waitMillis) {
+		if (size == 0) return waitMillis;
+		long limit = Math.min(waitMillis, wheelSize);
+		for (int i = 1; i <= limit; i++) {
+			long tick = lastMillis + i;
+			for (Task task = wheel[(int)(tick & wheelMask)]; task != null; task = task.next)
+				if (task.executeTimeMillis <= tick) return i;
+		}
+		return limit;
+	}
+
+	synchronized long update (long timeMillis, long waitMillis) {
+		waitMillis = collect(timeMillis, waitMillis);
+		if (due.size > 0) {
+			// Deliver the tasks for each application with one runnable.
+			while (due.size > 0) {
+				Application app = due.peek().app;
+				TaskBatch batch = TaskBatch.obtain();
+				for (int i = due.size - 1; i >= 0; i--) {
+					Task task = due.get(i);
+					if (task.app == app) batch.tasks.add(due.removeIndex(i));
 				}
-				task.app.postRunnable(task);
+				batch.tasks.reverse();
+				app.postRunnable(batch);
 			}
 		}
 		return waitMillis;
 	}
 
+	/** Advances the time of a timer that is not threaded and runs the tasks that are due on the calling thread. Tasks may be
+	 * scheduled or cancelled while they are run.
+	 * @param delta The time in seconds since the last update. */
+	public void update (float delta) {
+		if (threaded) throw new IllegalStateException("update can only be called on a timer that is not threaded.");
+		TaskBatch batch;
+		synchronized (this) {
+			if (manualStopped) return;
+			manualNanos += (long)(delta * 1000000000.0);
+			collect(timeMillis(), 0);
+			if (due.size == 0) return;
+			batch = TaskBatch.obtain();
+			batch.tasks.addAll(due);
+			due.clear();
+		}
+		batch.run();
+	}
+
 	/** Adds the specified delay to all tasks. */
 	public synchronized void delay (long delayMillis) {
+		if (size == 0) return;
+		Array<Task> tasks = due;
+		for (int i = 0; i < wheelSize; i++) {
+			for (Task task = wheel[i]; task != null; task = task.next)
+				tasks.add(task);
+			wheel[i] = null;
+		}
+		size = 0;
 		for (int i = 0, n = tasks.size; i < n; i++) {
 			Task task = tasks.get(i);
 			synchronized (task) {
 				task.executeTimeMillis += delayMillis;
 			}
+			add(task);
 		}
+		tasks.clear();
 	}
 
 	/** Schedules a task on {@link #instance}.
@@ -192,6 +344,8 @@ public class Timer {
 		long executeTimeMillis, intervalMillis;
 		int repeatCount;
 		volatile Timer timer;
+		Task prev, next;
+		int slot;
 
 		public Task () {
 			app = Gdx.app; // Store which app to postRunnable (eg for multiple LwjglAWTCanvas).
@@ -208,9 +362,12 @@ public class Timer {
 			if (timer != null) {
 				synchronized (timer) {
 					synchronized (this) {
-						executeTimeMillis = 0;
-						this.timer = null;
-						timer.tasks.removeValue(this, true);
+						// The task may have run for the last time or been rescheduled on another timer.
+						if (this.timer == timer) {
+							executeTimeMillis = 0;
+							this.timer = null;
+							timer.remove(this);
+						}
 					}
 				}
 			} else {
@@ -235,12 +392,44 @@ public class Timer {
 			return timer != null;
 		}
 
-		/** Returns the time in milliseconds when this task will be executed next. */
+		/** Returns the time in milliseconds when this task will be executed next.
+		 * @see Timer#timeMillis() */
 		public synchronized long getExecuteTimeMillis () {
 			return executeTimeMillis;
 		}
 	}
 
+	/** Runs the tasks that were due at the same time, then returns itself to a pool. A task that throws doesn't prevent the others
+	 * from running, the first exception is rethrown after all tasks have run. */
+	static class TaskBatch implements Runnable {
+		static private final Array<TaskBatch> free = new Array(false, 4);
+
+		final Array<Task> tasks = new Array(false, 16);
+
+		static TaskBatch obtain () {
+			synchronized (free) {
+				return free.size > 0 ? free.pop() : new TaskBatch();
+			}
+		}
+
+		public void run () {
+			Throwable error = null;
+			for (int i = 0, n = tasks.size; i < n; i++) {
+				try {
+					tasks.get(i).run();
+				} catch (Throwable ex) {
+					if (error == null) error = ex;
+				}
+			}
+			tasks.clear();
+			synchronized (free) {
+				if (free.size < 16) free.add(this);
+			}
+			if (error instanceof RuntimeException) throw (RuntimeException)error;
+			if (error instanceof Error) throw (Error)error;
+		}
+	}
+
 	/** Manages a single thread for updating timers. Uses libgdx application events to pause, resume, and dispose the thread.
 	 * @author Nathan Sweet */
 	static class TimerThread implements Runnable, LifecycleListener {
@@ -24,7 +24,9 @@ import java.io.OutputStream;
  * 
  * This was modified to be used directly on streams, rather than via the command line as in the LZMA SDK.
  * 
- * We only currently allow the default LZMA options to be used, as we know it works on for our target usage. */
+ * We only currently allow the default LZMA options to be used, as we know it works on for our target usage.
+ * 
+ * See {@link LzmaBlockOutputStream} to compress in parallel with random access decompression. */
 public class Lzma {
 	static class CommandLine {
 		public static final int kEncode = 0;
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils.compression;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.async.AsyncTask;
+import com.badlogic.gdx.utils.compression.lzma.Decoder;
+import com.badlogic.gdx.utils.compression.lzma.Encoder;
+
+/** A block of the container format written by {@link LzmaBlockOutputStream}, which compresses or decompresses independently of
+ * the other blocks. The buffers are reused for the next block. */
+class LzmaBlock implements AsyncTask<Void> {
+	static final byte[] MAGIC = {'G', 'L', 'Z', 'B'};
+	static final int VERSION = 1;
+	/** Magic, version, LZMA properties and block size. */
+	static final int HEADER_SIZE = 4 + 1 + Encoder.kPropSize + 4;
+	/** Index position and magic. */
+	static final int FOOTER_SIZE = 8 + 4;
+	/** Compressed size and uncompressed size. */
+	static final int BLOCK_HEADER_SIZE = 4 + 4;
+	static final int END = -1;
+
+	final Buffer uncompressed = new Buffer(), compressed = new Buffer();
+	/** The encoder of the thread that compresses the block. An encoder's state is large, so it is shared by the blocks rather than
+	 * kept by each of them. */
+	ThreadLocal<Encoder> encoders;
+	Decoder decoder;
+
+	/** Compresses {@link #uncompressed} to {@link #compressed} if encoders are set, otherwise decompresses {@link #compressed} to
+	 * {@link #uncompressed}, which must be set to the expected size. */
+	public Void call () throws IOException {
+		if (encoders != null) {
+			compressed.size = 0;
+			encoders.get().Code(new ByteArrayInputStream(uncompressed.bytes, 0, uncompressed.size), compressed, -1, -1, null);
+		} else {
+			int size = uncompressed.size;
+			uncompressed.size = 0;
+			if (!decoder.Code(new ByteArrayInputStream(compressed.bytes, 0, compressed.size), uncompressed, size)
+				|| uncompressed.size != size) throw new GdxRuntimeException("Error in data stream.");
+		}
+		return null;
+	}
+
+	static Encoder newEncoder (int dictionarySize) {
+		Encoder encoder = new Encoder();
+		if (!encoder.SetDictionarySize(dictionarySize))
+			throw new IllegalArgumentException("Invalid dictionary size: " + dictionarySize);
+		// The same options as Lzma#compress.
+		encoder.SetNumFastBytes(128);
+		encoder.SetMatchFinder(1);
+		encoder.SetLcLpPb(3, 0, 2);
+		encoder.SetEndMarkerMode(false);
+		return encoder;
+	}
+
+	static Decoder newDecoder (byte[] properties) {
+		Decoder decoder = new Decoder();
+		if (!decoder.SetDecoderProperties(properties)) throw new GdxRuntimeException("Incorrect stream properties.");
+		return decoder;
+	}
+
+	static void readFully (InputStream input, byte[] bytes, int offset, int length) throws IOException {
+		while (length > 0) {
+			int count = input.read(bytes, offset, length);
+			if (count == -1) throw new GdxRuntimeException("Unexpected end of stream.");
+			offset += count;
+			length -= count;
+		}
+	}
+
+	static int readInt (InputStream input) throws IOException {
+		int ch1 = input.read(), ch2 = input.read(), ch3 = input.read(), ch4 = input.read();
+		if ((ch1 | ch2 | ch3 | ch4) < 0) throw new GdxRuntimeException("Unexpected end of stream.");
+		return (ch1 << 24) | (ch2 << 16) | (ch3 << 8) | ch4;
+	}
+
+	static int readInt (byte[] bytes, int offset) {
+		return ((bytes[offset] & 0xff) << 24) | ((bytes[offset + 1] & 0xff) << 16) | ((bytes[offset + 2] & 0xff) << 8)
+			| (bytes[offset + 3] & 0xff);
+	}
+
+	static void writeInt (OutputStream output, int value) throws IOException {
+		output.write(value >>> 24);
+		output.write(value >>> 16);
+		output.write(value >>> 8);
+		output.write(value);
+	}
+
+	/** Reads the header and returns the LZMA properties. */
+	static byte[] readHeader (byte[] header) {
+		for (int i = 0; i < MAGIC.length; i++)
+			if (header[i] != MAGIC[i]) throw new GdxRuntimeException("Not an LZMA block stream.");
+		if (header[4] != VERSION) throw new GdxRuntimeException("Unsupported LZMA block stream version: " + header[4]);
+		byte[] properties = new byte[Encoder.kPropSize];
+		System.arraycopy(header, 5, properties, 0, properties.length);
+		return properties;
+	}
+
+	/** A growable byte array that can be written to. */
+	static class Buffer extends OutputStream {
+		byte[] bytes = new byte[32];
+		int size;
+
+		byte[] ensureCapacity (int capacity) {
+			if (capacity > bytes.length) {
+				byte[] newBytes = new byte[Math.max(capacity, (int)Math.min(Integer.MAX_VALUE - 8, bytes.length * 2L))];
+				System.arraycopy(bytes, 0, newBytes, 0, size);
+				bytes = newBytes;
+			}
+			return bytes;
+		}
+
+		public void write (int b) {
+			if (size == bytes.length) ensureCapacity(size + 1);
+			bytes[size++] = (byte)b;
+		}
+
+		public void write (byte[] b, int offset, int length) {
+			ensureCapacity(size + length);
+			System.arraycopy(b, offset, bytes, size, length);
+			size += length;
+		}
+	}
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Queue;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+
+/** Decompresses data written by {@link LzmaBlockOutputStream}. When using multiple threads, the blocks following the block being
+ * read are decompressed in parallel.
+ * @see LzmaBlockReader */
+public class LzmaBlockInputStream extends InputStream {
+	private final InputStream input;
+	private final byte[] properties;
+	private final int threads;
+	private final AsyncExecutor executor;
+	private final Queue<LzmaBlock> pending = new Queue();
+	private final Queue<AsyncResult<Void>> results = new Queue();
+	private final Array<LzmaBlock> freeBlocks = new Array();
+	private LzmaBlock current;
+	private int position;
+	private boolean ended;
+
+	/** Creates a stream that uses a thread for each available processor. */
+	public LzmaBlockInputStream (InputStream input) throws IOException {
+		this(input, Runtime.getRuntime().availableProcessors());
+	}
+
+	/** @param threads The number of threads used to decompress blocks. At most 2 blocks per thread are buffered. */
+	public LzmaBlockInputStream (InputStream input, int threads) throws IOException {
+		if (threads < 1) throw new IllegalArgumentException("threads must be > 0: " + threads);
+		this.input = input;
+		this.threads = threads;
+		byte[] header = new byte[LzmaBlock.HEADER_SIZE];
+		LzmaBlock.readFully(input, header, 0, header.length);
+		properties = LzmaBlock.readHeader(header);
+		executor = threads > 1 ? new AsyncExecutor(threads) : null;
+	}
+
+	public int read () throws IOException {
+		LzmaBlock block = currentBlock();
+		if (block == null) return -1;
+		return block.uncompressed.bytes[position++] & 0xff;
+	}
+
+	public int read (byte[] bytes, int offset, int length) throws IOException {
+		if (length == 0) return 0;
+		LzmaBlock block = currentBlock();
+		if (block == null) return -1;
+		int count = Math.min(length, block.uncompressed.size - position);
+		System.arraycopy(block.uncompressed.bytes, position, bytes, offset, count);
+		position += count;
+		return count;
+	}
+
+	public long skip (long n) throws IOException {
+		long skipped = 0;
+		while (skipped < n) {
+			LzmaBlock block = currentBlock();
+			if (block == null) break;
+			int count = (int)Math.min(n - skipped, block.uncompressed.size - position);
+			position += count;
+			skipped += count;
+		}
+		return skipped;
+	}
+
+	public int available () {
+		return current == null ? 0 : current.uncompressed.size - position;
+	}
+
+	/** Returns the block being read, decompressing the next block if the current block has been read, or null at the end. */
+	private LzmaBlock currentBlock () throws IOException {
+		if (current != null) {
+			if (position < current.uncompressed.size) return current;
+			freeBlocks.add(current);
+			current = null;
+		}
+		while (true) {
+			if (executor == null) {
+				LzmaBlock block = readBlock();
+				if (block == null) return null;
+				block.call();
+				current = block;
+			} else {
+				// Keep the executor busy with the following blocks.
+				while (!ended && pending.size < threads * 2) {
+					LzmaBlock block = readBlock();
+					if (block == null) break;
+					pending.addLast(block);
+					results.addLast(executor.submit(block));
+				}
+				if (pending.size == 0) return null;
+				results.removeFirst().get();
+				current = pending.removeFirst();
+			}
+			position = 0;
+			if (current.uncompressed.size > 0) return current;
+			freeBlocks.add(current);
+			current = null;
+		}
+	}
+
+	/** Reads the next compressed block, or returns null at the end of the blocks. */
+	private LzmaBlock readBlock () throws IOException {
+		if (ended) return null;
+		int compressedSize = LzmaBlock.readInt(input);
+		if (compressedSize == LzmaBlock.END) {
+			ended = true;
+			return null;
+		}
+		int uncompressedSize = LzmaBlock.readInt(input);
+		if (compressedSize < 0 || uncompressedSize < 0) throw new GdxRuntimeException("Invalid block size.");
+		LzmaBlock block = freeBlocks.size > 0 ? freeBlocks.pop() : new LzmaBlock();
+		if (block.decoder == null) block.decoder = LzmaBlock.newDecoder(properties);
+		block.compressed.size = 0;
+		LzmaBlock.readFully(input, block.compressed.ensureCapacity(compressedSize), 0, compressedSize);
+		block.compressed.size = compressedSize;
+		block.uncompressed.size = 0;
+		block.uncompressed.ensureCapacity(uncompressedSize);
+		block.uncompressed.size = uncompressedSize;
+		return block;
+	}
+
+	/** Closes the underlying stream. The index following the blocks is not read. */
+	public void close () throws IOException {
+		if (executor != null) executor.dispose();
+		input.close();
+	}
+}
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.Queue;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncResult;
+import com.badlogic.gdx.utils.compression.lzma.Encoder;
+
+/** Compresses data with LZMA in independent blocks, which are compressed in parallel and can be decompressed in parallel with
+ * {@link LzmaBlockInputStream} or individually with {@link LzmaBlockReader} for random access.
+ * <p>
+ * The container format is a header (the magic "GLZB", a version byte, the 5 LZMA property bytes and the block size), followed by
+ * the blocks (compressed size, uncompressed size and LZMA data without a header or end marker), -1, the block index (the number of
+ * blocks and the compressed and uncompressed size of each block) and a footer (the position of the index as a long and the
+ * magic). All numbers are big endian.
+ * <p>
+ * Since each block uses its own dictionary, smaller blocks compress worse. The dictionary size does not need to be larger than
+ * the block size. {@link #close()} or {@link #finish()} must be called to write the index. */
+public class LzmaBlockOutputStream extends OutputStream {
+	private final OutputStream output;
+	private final int blockSize, dictionarySize, threads;
+	private final AsyncExecutor executor;
+	private final Queue<LzmaBlock> pending = new Queue();
+	private final Queue<AsyncResult<Void>> results = new Queue();
+	private final Array<LzmaBlock> freeBlocks = new Array();
+	private final IntArray index = new IntArray();
+	/** One encoder for each thread that compresses blocks. */
+	private final ThreadLocal<Encoder> encoders = new ThreadLocal<Encoder>() {
+		protected Encoder initialValue () {
+			return LzmaBlock.newEncoder(dictionarySize);
+		}
+	};
+	private LzmaBlock current;
+	private long position;
+	private boolean finished;
+
+	/** Creates a stream with 1MB blocks, a 1MB dictionary and a thread for each available processor. */
+	public LzmaBlockOutputStream (OutputStream output) throws IOException {
+		this(output, 1 << 20, 1 << 20, Runtime.getRuntime().availableProcessors());
+	}
+
+	/** @param blockSize The number of uncompressed bytes in each block.
+	 * @param dictionarySize The LZMA dictionary size, from 1 to 2^29.
+	 * @param threads The number of threads used to compress blocks. At most 2 blocks per thread are buffered. */
+	public LzmaBlockOutputStream (OutputStream output, int blockSize, int dictionarySize, int threads) throws IOException {
+		if (blockSize < 1) throw new IllegalArgumentException("blockSize must be > 0: " + blockSize);
+		if (threads < 1) throw new IllegalArgumentException("threads must be > 0: " + threads);
+		this.output = output;
+		this.blockSize = blockSize;
+		this.dictionarySize = dictionarySize;
+		this.threads = threads;
+
+		// Checks the dictionary size. Without an executor, this thread's encoder also compresses the blocks.
+		Encoder encoder = encoders.get();
+		executor = threads > 1 ? new AsyncExecutor(threads) : null;
+
+		output.write(LzmaBlock.MAGIC);
+		output.write(LzmaBlock.VERSION);
+		encoder.WriteCoderProperties(output);
+		LzmaBlock.writeInt(output, blockSize);
+		position = LzmaBlock.HEADER_SIZE;
+	}
+
+	private LzmaBlock newBlock () {
+		LzmaBlock block = new LzmaBlock();
+		block.encoders = encoders;
+		return block;
+	}
+
+	public void write (int b) throws IOException {
+		LzmaBlock block = currentBlock();
+		block.uncompressed.bytes[block.uncompressed.size++] = (byte)b;
+		if (block.uncompressed.size == blockSize) submit();
+	}
+
+	public void write (byte[] bytes, int offset, int length) throws IOException {
+		while (length > 0) {
+			LzmaBlock block = currentBlock();
+			int count = Math.min(length, blockSize - block.uncompressed.size);
+			System.arraycopy(bytes, offset, block.uncompressed.bytes, block.uncompressed.size, count);
+			block.uncompressed.size += count;
+			offset += count;
+			length -= count;
+			if (block.uncompressed.size == blockSize) submit();
+		}
+	}
+
+	private LzmaBlock currentBlock () throws IOException {
+		if (finished) throw new IOException("Stream is finished.");
+		if (current == null) {
+			current = freeBlocks.size > 0 ? freeBlocks.pop() : newBlock();
+			current.uncompressed.size = 0;
+			current.uncompressed.ensureCapacity(blockSize);
+		}
+		return current;
+	}
+
+	/** Starts compressing the current block, first writing the oldest blocks if too many are pending. */
+	private void submit () throws IOException {
+		LzmaBlock block = current;
+		current = null;
+		if (executor == null) {
+			block.call();
+			writeBlock(block);
+			return;
+		}
+		while (pending.size >= threads * 2)
+			writeBlock(pending.first());
+		pending.addLast(block);
+		results.addLast(executor.submit(block));
+	}
+
+	private void writeBlock (LzmaBlock block) throws IOException {
+		if (executor != null) {
+			pending.removeFirst();
+			results.removeFirst().get();
+		}
+		LzmaBlock.writeInt(output, block.compressed.size);
+		LzmaBlock.writeInt(output, block.uncompressed.size);
+		output.write(block.compressed.bytes, 0, block.compressed.size);
+		position += LzmaBlock.BLOCK_HEADER_SIZE + block.compressed.size;
+		index.add(block.compressed.size);
+		index.add(block.uncompressed.size);
+		freeBlocks.add(block);
+	}
+
+	/** Compresses and writes any pending data without writing the index. This results in a smaller block, so should only be used
+	 * when the data written so far must be available to a reader. */
+	public void flush () throws IOException {
+		if (finished) return;
+		if (current != null && current.uncompressed.size > 0) submit();
+		while (pending.size > 0)
+			writeBlock(pending.first());
+		output.flush();
+	}
+
+	/** Writes the remaining blocks and the index without closing the underlying stream. */
+	public void finish () throws IOException {
+		if (finished) return;
+		flush();
+		finished = true;
+		// The worker threads and their encoders end with the executor.
+		if (executor != null) executor.dispose();
+		encoders.remove();
+
+		LzmaBlock.writeInt(output, LzmaBlock.END);
+		long indexPosition = position + 4;
+		int blockCount = index.size / 2;
+		LzmaBlock.writeInt(output, blockCount);
+		for (int i = 0, n = index.size; i < n; i++)
+			LzmaBlock.writeInt(output, index.items[i]);
+		LzmaBlock.writeInt(output, (int)(indexPosition >>> 32));
+		LzmaBlock.writeInt(output, (int)indexPosition);
+		output.write(LzmaBlock.MAGIC);
+		output.flush();
+		freeBlocks.clear();
+	}
+
+	/** Finishes and closes the underlying stream. */
+	public void close () throws IOException {
+		try {
+			finish();
+		} finally {
+			output.close();
+		}
+	}
+}
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.utils.compression;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
+
+/** Provides random access to the uncompressed data written by {@link LzmaBlockOutputStream}, using the block index to decompress
+ * only the blocks containing the requested data. The last decompressed block is cached, so sequential small reads are cheap.
+ * <p>
+ * Files that can be opened as a {@link RandomAccessFile} are read as needed, otherwise (eg internal files on Android) the
+ * compressed file is loaded into memory. This class is thread safe. */
+public class LzmaBlockReader implements Disposable {
+	private final RandomAccessFile file;
+	private final byte[] bytes;
+	private final long[] compressedOffsets, uncompressedOffsets;
+	private final int[] compressedSizes;
+	private final int blockSize;
+	private final LzmaBlock block = new LzmaBlock();
+	private int cachedBlock = -1;
+
+	public LzmaBlockReader (FileHandle file) {
+		File javaFile = file.type() == FileType.Classpath ? null : file.file();
+		try {
+			if (javaFile != null && javaFile.isFile()) {
+				this.file = new RandomAccessFile(javaFile, "r");
+				this.bytes = null;
+			} else {
+				this.file = null;
+				this.bytes = file.readBytes();
+			}
+		} catch (IOException ex) {
+			throw new GdxRuntimeException("Error opening file: " + file, ex);
+		}
+
+		try {
+			byte[] header = new byte[LzmaBlock.HEADER_SIZE];
+			read(0, header, header.length);
+			block.decoder = LzmaBlock.newDecoder(LzmaBlock.readHeader(header));
+			blockSize = LzmaBlock.readInt(header, header.length - 4);
+
+			long length = length();
+			byte[] footer = new byte[LzmaBlock.FOOTER_SIZE];
+			read(length - footer.length, footer, footer.length);
+			for (int i = 0; i < LzmaBlock.MAGIC.length; i++)
+				if (footer[8 + i] != LzmaBlock.MAGIC[i]) throw new GdxRuntimeException("Missing LZMA block index.");
+			long indexPosition = ((long)LzmaBlock.readInt(footer, 0) << 32) | (LzmaBlock.readInt(footer, 4) & 0xffffffffL);
+
+			byte[] index = new byte[(int)(length - footer.length - indexPosition)];
+			read(indexPosition, index, index.length);
+			int blockCount = LzmaBlock.readInt(index, 0);
+			if (index.length != 4 + blockCount * 8) throw new GdxRuntimeException("Invalid LZMA block index.");
+			compressedOffsets = new long[blockCount];
+			compressedSizes = new int[blockCount];
+			uncompressedOffsets = new long[blockCount + 1];
+			long compressedOffset = LzmaBlock.HEADER_SIZE;
+			for (int i = 0; i < blockCount; i++) {
+				compressedSizes[i] = LzmaBlock.readInt(index, 4 + i * 8);
+				compressedOffsets[i] = compressedOffset + LzmaBlock.BLOCK_HEADER_SIZE;
+				compressedOffset += LzmaBlock.BLOCK_HEADER_SIZE + compressedSizes[i];
+				uncompressedOffsets[i + 1] = uncompressedOffsets[i] + LzmaBlock.readInt(index, 4 + i * 8 + 4);
+			}
+		} catch (RuntimeException ex) {
+			dispose();
+			throw ex;
+		} catch (IOException ex) {
+			dispose();
+			throw new GdxRuntimeException("Error reading LZMA block index: " + file, ex);
+		}
+	}
+
+	private long length () throws IOException {
+		return file != null ? file.length() : bytes.length;
+	}
+
+	private void read (long position, byte[] buffer, int length) throws IOException {
+		if (file != null) {
+			file.seek(position);
+			file.readFully(buffer, 0, length);
+		} else {
+			if (position < 0 || position + length > bytes.length) throw new GdxRuntimeException("Unexpected end of data.");
+			System.arraycopy(bytes, (int)position, buffer, 0, length);
+		}
+	}
+
+	/** Returns the total number of uncompressed bytes. */
+	public long getLength () {
+		return uncompressedOffsets[uncompressedOffsets.length - 1];
+	}
+
+	public int getBlockCount () {
+		return compressedSizes.length;
+	}
+
+	/** Returns the maximum number of uncompressed bytes in a block, as specified when the data was written. */
+	public int getBlockSize () {
+		return blockSize;
+	}
+
+	/** Reads uncompressed bytes starting at the specified position, decompressing only the blocks containing them.
+	 * @return The number of bytes read, which is less than length only at the end of the data. */
+	public synchronized int read (long position, byte[] buffer, int offset, int length) {
+		if (position < 0) throw new IllegalArgumentException("position must be >= 0: " + position);
+		int total = 0;
+		while (length > 0 && position < getLength()) {
+			int index = findBlock(position);
+			decompress(index);
+			int start = (int)(position - uncompressedOffsets[index]);
+			int count = Math.min(length, block.uncompressed.size - start);
+			System.arraycopy(block.uncompressed.bytes, start, buffer, offset, count);
+			position += count;
+			offset += count;
+			length -= count;
+			total += count;
+		}
+		return total;
+	}
+
+	/** Returns the index of the block containing the uncompressed position. */
+	private int findBlock (long position) {
+		long[] offsets = uncompressedOffsets;
+		int low = 0, high = offsets.length - 2;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (offsets[mid] <= position)
+				low = mid;
+			else
+				high = mid - 1;
+		}
+		return low;
+	}
+
+	private void decompress (int index) {
+		if (cachedBlock == index) return;
+		cachedBlock = -1;
+		LzmaBlock block = this.block;
+		int compressedSize = compressedSizes[index];
+		block.compressed.size = 0;
+		block.uncompressed.size = 0;
+		try {
+			read(compressedOffsets[index], block.compressed.ensureCapacity(compressedSize), compressedSize);
+			block.compressed.size = compressedSize;
+			int uncompressedSize = (int)(uncompressedOffsets[index + 1] - uncompressedOffsets[index]);
+			block.uncompressed.ensureCapacity(uncompressedSize);
+			block.uncompressed.size = uncompressedSize;
+			block.call();
+		} catch (IOException ex) {
+			throw new GdxRuntimeException("Error decompressing block: " + index, ex);
+		}
+		cachedBlock = index;
+	}
+
+	public void dispose () {
+		StreamUtils.closeQuietly(file);
+	}
+}
@@ -0,0 +1,156 @@
+package com.badlogic.gdx.files;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+public class FilePreferencesTest {
+	private File dir, file, tempFile;
+
+	@Before
+	public void setUp () throws IOException {
+		dir = File.createTempFile("FilePreferencesTest", "");
+		dir.delete();
+		dir.mkdirs();
+		file = new File(dir, "prefs");
+		tempFile = new File(dir, "prefs.tmp");
+	}
+
+	@After
+	public void tearDown () {
+		new FileHandle(dir).deleteDirectory();
+	}
+
+	@Test
+	public void roundTrip () {
+		FilePreferences prefs = new FilePreferences(new FileHandle(file));
+		put(prefs, "a");
+		prefs.putString("key=with\\escapes\n", "value=with\\escapes\r\né");
+		prefs.flush();
+		assertTrue(file.exists());
+		assertFalse(tempFile.exists());
+		assertTrue(new FileHandle(file).readString("UTF-8").startsWith("#libgdx preferences 1\n"));
+
+		FilePreferences read = new FilePreferences(new FileHandle(file));
+		check(read, "a");
+		assertEquals("value=with\\escapes\r\né", read.getString("key=with\\escapes\n"));
+	}
+
+	@Test
+	public void replacesExistingFile () {
+		FilePreferences prefs = new FilePreferences(new FileHandle(file));
+		put(prefs, "a");
+		prefs.flush();
+		prefs.clear();
+		prefs.putString("string", "b");
+		prefs.flush();
+		assertFalse(tempFile.exists());
+		FilePreferences read = new FilePreferences(new FileHandle(file));
+		assertEquals("b", read.getString("string"));
+		assertFalse(read.contains("int"));
+	}
+
+	@Test
+	public void recoversTempFile () {
+		// A crash after the preferences file was deleted but before the temporary file was renamed.
+		FilePreferences prefs = new FilePreferences(new FileHandle(file));
+		put(prefs, "a");
+		prefs.flush();
+		assertTrue(file.renameTo(tempFile));
+		check(new FilePreferences(new FileHandle(file)), "a");
+
+		// The next flush replaces the temporary file.
+		prefs = new FilePreferences(new FileHandle(file));
+		prefs.flush();
+		assertTrue(file.exists());
+		assertFalse(tempFile.exists());
+		check(new FilePreferences(new FileHandle(file)), "a");
+	}
+
+	@Test
+	public void ignoresPartialTempFile () {
+		// A crash while writing the temporary file leaves the preferences file intact.
+		FilePreferences prefs = new FilePreferences(new FileHandle(file));
+		put(prefs, "a");
+		prefs.flush();
+		new FileHandle(tempFile).writeString("#libgdx prefer", false, "UTF-8");
+		check(new FilePreferences(new FileHandle(file)), "a");
+	}
+
+	@Test
+	public void xml () throws IOException {
+		Properties properties = new Properties();
+		properties.put("string", "old");
+		FileOutputStream output = new FileOutputStream(file);
+		try {
+			properties.storeToXML(output, null);
+		} finally {
+			output.close();
+		}
+		FilePreferences prefs = new FilePreferences(new FileHandle(file));
+		assertEquals("old", prefs.getString("string"));
+
+		put(prefs, "a");
+		prefs.setWriteXml(true);
+		prefs.flush();
+		assertTrue(new FileHandle(file).readString("UTF-8").startsWith("<?xml"));
+		check(new FilePreferences(new FileHandle(file)), "a");
+	}
+
+	@Test
+	public void async () {
+		FilePreferences prefs = new FilePreferences(new FileHandle(file));
+		prefs.setAsync(true);
+		for (int i = 0; i < 10; i++) {
+			put(prefs, "value" + i);
+			prefs.flush();
+		}
+		FilePreferences.finishWriting();
+		assertFalse(tempFile.exists());
+		check(new FilePreferences(new FileHandle(file)), "value9");
+	}
+
+	@Test
+	public void writeErrors () throws IOException {
+		// The parent of the preferences file is a file, so it can't be written.
+		File blocker = new File(dir, "blocker");
+		blocker.createNewFile();
+		FilePreferences prefs = new FilePreferences(new FileHandle(new File(blocker, "prefs")));
+		put(prefs, "a");
+		try {
+			prefs.flush();
+			fail("Synchronous flush did not throw.");
+		} catch (GdxRuntimeException expected) {
+		}
+
+		// Asynchronous write errors are reported, not thrown, and don't block finishWriting.
+		prefs.setAsync(true);
+		prefs.flush();
+		FilePreferences.finishWriting();
+	}
+
+	static private void put (FilePreferences prefs, String string) {
+		prefs.putString("string", string);
+		prefs.putInteger("int", string.hashCode());
+		prefs.putLong("long", string.hashCode() * 31L);
+		prefs.putBoolean("boolean", true);
+		prefs.putFloat("float", 1.5f);
+	}
+
+	static private void check (FilePreferences prefs, String string) {
+		assertEquals(string, prefs.getString("string"));
+		assertEquals(string.hashCode(), prefs.getInteger("int"));
+		assertEquals(string.hashCode() * 31L, prefs.getLong("long"));
+		assertTrue(prefs.getBoolean("boolean"));
+		assertEquals(1.5f, prefs.getFloat("float"), 0);
+	}
+}
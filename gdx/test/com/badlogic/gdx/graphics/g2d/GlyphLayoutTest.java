@@ -0,0 +1,91 @@
+package com.badlogic.gdx.graphics.g2d;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.Array;
+
+public class GlyphLayoutTest {
+	@Test
+	public void incrementalRelayout () {
+		BitmapFont font = newFont("abcd");
+		GlyphLayout layout = new GlyphLayout();
+		layout.setText(font, "abc");
+		Glyph a = layout.runs.first().glyphs.first();
+		layout.setText(font, "abd");
+		assertSame(a, layout.runs.first().glyphs.first());
+		assertGlyphs(font, layout, "abd");
+	}
+
+	@Test
+	public void relayoutAfterGlyphsAdded () {
+		BitmapFont font = newFont("ab");
+		GlyphLayout layout = new GlyphLayout();
+		layout.setText(font, "abc");
+		assertSame(font.data.missingGlyph, layout.runs.first().glyphs.peek());
+
+		// Like a glyph rasterized in the background by FreeTypeGlyphAtlas, added by its update().
+		font.data.setGlyph('c', newGlyph('c'));
+		font.data.glyphsVersion++;
+		layout.setText(font, "abc");
+		assertGlyphs(font, layout, "abc");
+		layout.setText(font, "abcc");
+		assertGlyphs(font, layout, "abcc");
+	}
+
+	@Test
+	public void relayoutAfterGlyphsEvicted () {
+		BitmapFont font = newFont("abc");
+		GlyphLayout layout = new GlyphLayout();
+		layout.setText(font, "abc");
+
+		// Like a glyph evicted from FreeTypeGlyphAtlas and rasterized again into another slot.
+		font.data.setGlyph('a', newGlyph('a'));
+		font.data.glyphsVersion++;
+		layout.setText(font, "ab");
+		assertGlyphs(font, layout, "ab");
+	}
+
+	@Test
+	public void cacheAfterGlyphsChanged () {
+		BitmapFont font = newFont("ab");
+		GlyphLayoutCache cache = new GlyphLayoutCache(4);
+		GlyphLayout layout = cache.get(font, "ab");
+		assertSame(layout, cache.get(font, "ab"));
+
+		font.data.setGlyph('b', newGlyph('b'));
+		font.data.glyphsVersion++;
+		assertGlyphs(font, cache.get(font, "ab"), "ab");
+	}
+
+	static private void assertGlyphs (BitmapFont font, GlyphLayout layout, String text) {
+		assertEquals(1, layout.runs.size);
+		Array<Glyph> glyphs = layout.runs.first().glyphs;
+		assertEquals(text.length(), glyphs.size);
+		for (int i = 0; i < text.length(); i++)
+			assertSame("Glyph " + i, font.data.getGlyph(text.charAt(i)), glyphs.get(i));
+	}
+
+	/** Creates a font without textures, which can lay out but not draw text. */
+	static private BitmapFont newFont (String chars) {
+		BitmapFontData data = new BitmapFontData();
+		BitmapFont font = new BitmapFont(data, Array.with(new TextureRegion()), false);
+		data.missingGlyph = newGlyph(0); // Added after the font is created, so no texture region is set.
+		for (int i = 0; i < chars.length(); i++)
+			data.setGlyph(chars.charAt(i), newGlyph(chars.charAt(i)));
+		return font;
+	}
+
+	static private Glyph newGlyph (int id) {
+		Glyph glyph = new Glyph();
+		glyph.id = id;
+		glyph.width = 8;
+		glyph.xadvance = 10;
+		return glyph;
+	}
+}
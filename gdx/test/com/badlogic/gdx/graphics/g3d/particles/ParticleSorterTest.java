@@ -0,0 +1,132 @@
+package com.badlogic.gdx.graphics.g3d.particles;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g3d.particles.renderers.PointSpriteControllerRenderData;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+
+public class ParticleSorterTest {
+	static final int CAPACITY = 3000;
+
+	/** Integer depths between -1000 and 1000, so there are many equal distances and every distinct distance gets its own key. */
+	@Test
+	public void radixMatchesDistanceWithEqualAndNegativeDistances () {
+		Random random = new Random(7);
+		Array<PointSpriteControllerRenderData> renderData = createRenderData(2);
+		ParticleSorter.Distance distance = createSorter(new ParticleSorter.Distance(), 0, 0, 1);
+		ParticleSorter.RadixDistance radix = createSorter(new ParticleSorter.RadixDistance(), 0, 0, 1);
+		for (int frame = 0; frame < 6; frame++) {
+			for (PointSpriteControllerRenderData data : renderData) {
+				int size = 1 + random.nextInt(CAPACITY / 2);
+				data.controller.particles.size = size;
+				float[] positions = data.positionChannel.data;
+				for (int i = 0, k = 0; i < size; i++, k += data.positionChannel.strideSize) {
+					positions[k + ParticleChannels.XOffset] = random.nextFloat() * 100;
+					positions[k + ParticleChannels.YOffset] = random.nextFloat() * 100;
+					positions[k + ParticleChannels.ZOffset] = random.nextInt(2001) - 1000;
+				}
+			}
+			float[] expected = sortedDistances(distance, renderData), actual = sortedDistances(radix, renderData);
+			for (int i = 0; i < expected.length; i++)
+				assertEquals(expected[i], actual[i], 0);
+		}
+	}
+
+	@Test
+	public void radixMatchesDistanceWithinQuantization () {
+		Random random = new Random(11);
+		Array<PointSpriteControllerRenderData> renderData = createRenderData(3);
+		ParticleSorter.Distance distance = createSorter(new ParticleSorter.Distance(), 0.6f, 0, -0.8f);
+		ParticleSorter.RadixDistance radix = createSorter(new ParticleSorter.RadixDistance(), 0.6f, 0, -0.8f);
+		for (int frame = 0; frame < 6; frame++) {
+			float min = Float.POSITIVE_INFINITY, max = Float.NEGATIVE_INFINITY;
+			for (PointSpriteControllerRenderData data : renderData) {
+				int size = random.nextInt(CAPACITY / 3);
+				data.controller.particles.size = size;
+				float[] positions = data.positionChannel.data;
+				for (int i = 0, k = 0; i < size; i++, k += data.positionChannel.strideSize) {
+					float x = random.nextFloat() * 200 - 100, z = random.nextFloat() * 200 - 100;
+					positions[k + ParticleChannels.XOffset] = x;
+					positions[k + ParticleChannels.YOffset] = random.nextFloat();
+					positions[k + ParticleChannels.ZOffset] = z;
+					float depth = 0.6f * x - 0.8f * z;
+					min = Math.min(min, depth);
+					max = Math.max(max, depth);
+				}
+			}
+			float[] expected = sortedDistances(distance, renderData), actual = sortedDistances(radix, renderData);
+			float tolerance = (max - min) / 65535 * 2;
+			for (int i = 0; i < expected.length; i++)
+				assertEquals(expected[i], actual[i], tolerance);
+		}
+	}
+
+	@Test
+	public void radixKeepsOrderOfEqualDistances () {
+		Array<PointSpriteControllerRenderData> renderData = createRenderData(1);
+		ParticleSorter.RadixDistance radix = createSorter(new ParticleSorter.RadixDistance(), 0, 0, 1);
+		PointSpriteControllerRenderData data = renderData.first();
+		int size = 300;
+		data.controller.particles.size = size;
+		for (int i = 0; i < size; i++)
+			data.positionChannel.data[i * data.positionChannel.strideSize + ParticleChannels.ZOffset] = -(i % 3);
+		int[] offsets = radix.sort(renderData);
+		// Depth 0 are the particles 0, 3, 6... and come last, in the order they were added.
+		for (int i = 0; i < size; i++)
+			assertEquals((2 - i % 3) * (size / 3) + i / 3, offsets[i]);
+	}
+
+	static private <T extends ParticleSorter> T createSorter (T sorter, float x, float y, float z) {
+		OrthographicCamera camera = new OrthographicCamera();
+		camera.view.val[Matrix4.M20] = x;
+		camera.view.val[Matrix4.M21] = y;
+		camera.view.val[Matrix4.M22] = z;
+		sorter.setCamera(camera);
+		sorter.ensureCapacity(CAPACITY);
+		return sorter;
+	}
+
+	static private Array<PointSpriteControllerRenderData> createRenderData (int controllers) {
+		Array<PointSpriteControllerRenderData> renderData = new Array();
+		for (int i = 0; i < controllers; i++) {
+			PointSpriteControllerRenderData data = new PointSpriteControllerRenderData();
+			data.controller = new ParticleController();
+			data.controller.particles = new ParallelArray(CAPACITY / controllers);
+			data.positionChannel = data.controller.particles.addChannel(ParticleChannels.Position);
+			renderData.add(data);
+		}
+		return renderData;
+	}
+
+	/** Sorts the particles and returns their distances in the order the sorter put them, checking the offsets are a permutation. */
+	static private float[] sortedDistances (ParticleSorter sorter, Array<PointSpriteControllerRenderData> renderData) {
+		float[] val = sorter.camera.view.val;
+		int count = 0;
+		for (PointSpriteControllerRenderData data : renderData)
+			count += data.controller.particles.size;
+		int[] offsets = sorter.sort(renderData);
+		float[] sorted = new float[count];
+		boolean[] used = new boolean[count];
+		int particle = 0;
+		for (PointSpriteControllerRenderData data : renderData) {
+			float[] positions = data.positionChannel.data;
+			for (int i = 0, k = 0; i < data.controller.particles.size; i++, k += data.positionChannel.strideSize, particle++) {
+				int offset = offsets[particle];
+				assertFalse(used[offset]);
+				used[offset] = true;
+				sorted[offset] = val[Matrix4.M20] * positions[k + ParticleChannels.XOffset]
+					+ val[Matrix4.M21] * positions[k + ParticleChannels.YOffset]
+					+ val[Matrix4.M22] * positions[k + ParticleChannels.ZOffset];
+			}
+		}
+		for (int i = 1; i < count; i++)
+			if (sorter instanceof ParticleSorter.Distance) assertTrue(sorted[i - 1] <= sorted[i]);
+		return sorted;
+	}
+}
@@ -0,0 +1,118 @@
+package com.badlogic.gdx.graphics.g3d.particles;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g3d.particles.ParallelArray.FloatChannel;
+import com.badlogic.gdx.graphics.g3d.particles.batches.ParticleBatch;
+import com.badlogic.gdx.graphics.g3d.particles.emitters.RegularEmitter;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.DynamicsInfluencer;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.DynamicsModifier;
+import com.badlogic.gdx.graphics.g3d.particles.influencers.SpawnInfluencer;
+import com.badlogic.gdx.graphics.g3d.particles.renderers.ParticleControllerRenderData;
+import com.badlogic.gdx.graphics.g3d.particles.renderers.ParticleControllerRenderer;
+import com.badlogic.gdx.graphics.g3d.particles.values.PointSpawnShapeValue;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+public class ParticleSystemTest {
+	static final int EFFECTS = 5, CONTROLLERS = 3, FRAMES = 90;
+
+	@Test
+	public void parallelUpdateMatchesSerial () {
+		Array<ParticleEffect> serialEffects = new Array(), parallelEffects = new Array();
+		ParticleSystem serial = createSystem(serialEffects);
+		ParticleSystem parallel = createSystem(parallelEffects);
+		AsyncExecutor executor = new AsyncExecutor(3);
+		try {
+			parallel.setExecutor(executor, 3);
+			for (int frame = 0; frame < FRAMES; frame++) {
+				serial.update(1 / 60f);
+				parallel.update(1 / 60f);
+			}
+		} finally {
+			executor.dispose();
+		}
+
+		int particles = 0;
+		for (int e = 0; e < EFFECTS; e++) {
+			for (int c = 0; c < CONTROLLERS; c++) {
+				ParticleController expected = serialEffects.get(e).getControllers().get(c);
+				ParticleController actual = parallelEffects.get(e).getControllers().get(c);
+				assertEquals(expected.particles.size, actual.particles.size);
+				assertChannel(expected, actual, ParticleChannels.Life);
+				assertChannel(expected, actual, ParticleChannels.Position);
+				assertChannel(expected, actual, ParticleChannels.Acceleration);
+				particles += actual.particles.size;
+			}
+		}
+		assertTrue(particles > 0);
+	}
+
+	@Test
+	public void parallelUpdateRecordsTimes () {
+		Array<ParticleEffect> effects = new Array();
+		ParticleSystem system = createSystem(effects);
+		AsyncExecutor executor = new AsyncExecutor(2);
+		try {
+			system.setExecutor(executor, 2);
+			for (int frame = 0; frame < 10; frame++)
+				system.update(1 / 60f);
+		} finally {
+			executor.dispose();
+		}
+		for (ParticleEffect effect : effects)
+			assertTrue(effect.getUpdateTime() > 0);
+		assertTrue(system.getUpdateTime() > 0);
+	}
+
+	/** Creates a system whose effects are deterministic, so a serial and a parallel update produce the same particles.
+	 * @param effects Receives the effects in the order they were added. */
+	static private ParticleSystem createSystem (Array<ParticleEffect> effects) {
+		ParticleSystem system = new ParticleSystem();
+		for (int e = 0; e < EFFECTS; e++) {
+			ParticleController[] controllers = new ParticleController[CONTROLLERS];
+			for (int c = 0; c < CONTROLLERS; c++) {
+				RegularEmitter emitter = new RegularEmitter();
+				emitter.getEmission().setHigh(40 + 20 * c);
+				emitter.getLife().setHigh(400 + 100 * e);
+				emitter.getDuration().setLow(1000);
+				emitter.setMaxParticleCount(64);
+				DynamicsModifier.CentripetalAcceleration centripetal = new DynamicsModifier.CentripetalAcceleration();
+				centripetal.strengthValue.setHigh(2 + c);
+				ParticleController controller = new ParticleController("controller" + c, emitter, new NullRenderer(),
+					new SpawnInfluencer(new PointSpawnShapeValue()), new DynamicsInfluencer(centripetal));
+				controller.setTranslation(new Vector3(e, c, e - c));
+				controllers[c] = controller;
+			}
+			ParticleEffect effect = new ParticleEffect(controllers);
+			effect.init();
+			effect.start();
+			system.add(effect);
+			effects.add(effect);
+		}
+		return system;
+	}
+
+	static private void assertChannel (ParticleController expected, ParticleController actual,
+		ParallelArray.ChannelDescriptor descriptor) {
+		FloatChannel expectedChannel = expected.particles.getChannel(descriptor);
+		FloatChannel actualChannel = actual.particles.getChannel(descriptor);
+		for (int i = 0, n = expected.particles.size * expectedChannel.strideSize; i < n; i++)
+			assertEquals(expectedChannel.data[i], actualChannel.data[i], 0);
+	}
+
+	/** Draws nothing, the test only updates the controllers. */
+	static private class NullRenderer
+		extends ParticleControllerRenderer<ParticleControllerRenderData, ParticleBatch<ParticleControllerRenderData>> {
+		public boolean isCompatible (ParticleBatch<?> batch) {
+			return false;
+		}
+
+		public NullRenderer copy () {
+			return new NullRenderer();
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+public class MeshBuilderTest {
+	@Test
+	public void shortIndicesLimit () {
+		MeshBuilder builder = begin(false);
+		addTriangles(builder, Short.MAX_VALUE + 1);
+		assertEquals(Short.MAX_VALUE + 1, builder.getNumVertices());
+		assertEquals(Short.MAX_VALUE, builder.lastIndex());
+		try {
+			builder.vertex(0, 0, 0);
+			fail("More than 32768 vertices without int indices.");
+		} catch (GdxRuntimeException expected) {
+		}
+		// Other ways of adding vertices are limited too.
+		builder.clear();
+		addTriangles(builder, Short.MAX_VALUE + 1);
+		try {
+			builder.addMesh(new float[] {0, 0, 0}, new short[] {0});
+			fail("More than 32768 vertices without int indices.");
+		} catch (GdxRuntimeException expected) {
+		}
+	}
+
+	@Test
+	public void intIndices () {
+		MeshBuilder builder = begin(true);
+		int count = 70002; // Wraps a short index twice.
+		addTriangles(builder, count);
+		assertEquals(count, builder.getNumVertices());
+		assertEquals((short)(count - 1), builder.lastIndex());
+
+		int[] indices = new int[builder.getNumIndices()];
+		builder.getIndices(indices, 0);
+		for (int i = 0; i < indices.length; i++)
+			assertEquals(i, indices[i]);
+		short[] shortIndices = new short[builder.getNumIndices()];
+		builder.getIndices(shortIndices, 0);
+		assertEquals((short)(count - 1), shortIndices[count - 1]);
+	}
+
+	@Test
+	public void shortIndicesResolveToRecentVertices () {
+		MeshBuilder builder = begin(true);
+		addTriangles(builder, 65535);
+		// The new vertices wrap to short indices -1, 0 and 1. Other short indices refer to the last 65536 vertices.
+		short a = builder.vertex(0, 0, 0), b = builder.vertex(0, 0, 0), c = builder.vertex(0, 0, 0);
+		builder.index(a, b, c);
+		builder.index((short)65534, (short)3, (short)-1);
+		int[] indices = new int[builder.getNumIndices()];
+		builder.getIndices(indices, 0);
+		int n = indices.length;
+		assertArrayEquals(new int[] {65535, 65536, 65537, 65534, 3, 65535},
+			new int[] {indices[n - 6], indices[n - 5], indices[n - 4], indices[n - 3], indices[n - 2], indices[n - 1]});
+	}
+
+	@Test
+	public void addMeshWithIntIndices () {
+		MeshBuilder builder = begin(true);
+		addTriangles(builder, 3);
+		builder.addMesh(new float[] {0, 0, 0, 1, 0, 0, 0, 1, 0}, new int[] {2, 1, 0, 2}, 0, 4);
+		int[] indices = new int[builder.getNumIndices()];
+		builder.getIndices(indices, 0);
+		assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5, 3}, indices);
+	}
+
+	@Test
+	public void addMeshWithUnsignedShortIndices () {
+		float[] vertices = new float[40000 * 3];
+		for (int i = 0; i < 40000; i++)
+			vertices[i * 3] = i;
+		MeshBuilder builder = begin(true);
+		builder.addMesh(vertices, new short[] {(short)39999, 0, (short)32768}, 0, 3);
+		float[] added = new float[builder.getNumVertices() * 3];
+		builder.getVertices(added, 0);
+		assertArrayEquals(new float[] {39999, 0, 0, 0, 0, 0, 32768, 0, 0}, added, 0);
+
+		builder = begin(true);
+		addTriangles(builder, 3);
+		builder.addMesh(vertices, new short[] {(short)39999, 0, (short)32768});
+		int[] indices = new int[builder.getNumIndices()];
+		builder.getIndices(indices, 0);
+		assertArrayEquals(new int[] {0, 1, 2, 40002, 3, 32771}, indices);
+	}
+
+	static private MeshBuilder begin (boolean intIndices) {
+		MeshBuilder builder = new MeshBuilder();
+		builder.setIntIndices(intIndices);
+		builder.begin(Usage.Position, GL20.GL_TRIANGLES);
+		builder.part("part", GL20.GL_TRIANGLES);
+		return builder;
+	}
+
+	/** Adds vertices indexed in order, in groups of three. */
+	static private void addTriangles (MeshBuilder builder, int count) {
+		builder.ensureVertices(count);
+		builder.ensureIndices(count);
+		for (int i = 0; i < count; i++)
+			builder.index(builder.vertex(i, 0, 0));
+	}
+}
@@ -0,0 +1,99 @@
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMesh;
+import com.badlogic.gdx.graphics.g3d.model.data.ModelMeshPart;
+
+public class MeshOptimizerTest {
+	static final int SIZE = 60;
+
+	/** A grid of unindexed triangles in random order, as some exporters produce. Each vertex has a position and normal. */
+	private ModelMesh createGrid (Random random) {
+		int triangles = SIZE * SIZE * 2;
+		int[] order = new int[triangles];
+		for (int i = 0; i < triangles; i++)
+			order[i] = i;
+		for (int i = triangles - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1), temp = order[i];
+			order[i] = order[j];
+			order[j] = temp;
+		}
+		ModelMesh mesh = new ModelMesh();
+		mesh.attributes = new VertexAttribute[] {VertexAttribute.Position(), VertexAttribute.Normal()};
+		mesh.vertices = new float[triangles * 3 * 6];
+		ModelMeshPart part = new ModelMeshPart();
+		part.primitiveType = GL20.GL_TRIANGLES;
+		part.indices = new short[triangles * 3];
+		int v = 0;
+		for (int t : order) {
+			int x = t / 2 % SIZE, y = t / 2 / SIZE;
+			int[] corners = t % 2 == 0 ? new int[] {0, 0, 1, 0, 1, 1} : new int[] {0, 0, 1, 1, 0, 1};
+			for (int c = 0; c < 6; c += 2) {
+				int o = v * 6;
+				mesh.vertices[o] = x + corners[c];
+				mesh.vertices[o + 1] = y + corners[c + 1];
+				mesh.vertices[o + 5] = 1;
+				part.indices[v] = (short)v;
+				v++;
+			}
+		}
+		mesh.parts = new ModelMeshPart[] {part};
+		return mesh;
+	}
+
+	/** @return each triangle's positions, rotated to start at its smallest vertex and sorted. */
+	private String[] triangles (ModelMesh mesh) {
+		short[] indices = mesh.parts[0].indices;
+		String[] triangles = new String[indices.length / 3];
+		for (int t = 0; t < triangles.length; t++) {
+			String[] corners = new String[3];
+			for (int c = 0; c < 3; c++) {
+				int o = (indices[t * 3 + c] & 0xffff) * 6;
+				corners[c] = mesh.vertices[o] + "," + mesh.vertices[o + 1] + "," + mesh.vertices[o + 2];
+			}
+			int first = 0;
+			for (int c = 1; c < 3; c++)
+				if (corners[c].compareTo(corners[first]) < 0) first = c;
+			triangles[t] = corners[first] + " " + corners[(first + 1) % 3] + " " + corners[(first + 2) % 3];
+		}
+		Arrays.sort(triangles);
+		return triangles;
+	}
+
+	@Test
+	public void testOptimize () {
+		ModelMesh mesh = createGrid(new Random(1));
+		String[] before = triangles(mesh);
+		MeshOptimizer optimizer = new MeshOptimizer();
+		optimizer.optimize(mesh);
+		assertArrayEquals(before, triangles(mesh));
+		assertEquals((SIZE + 1) * (SIZE + 1), optimizer.verticesAfter);
+		assertEquals(optimizer.verticesAfter * 6, mesh.vertices.length);
+		assertEquals(3, optimizer.getAcmrBefore(), 0);
+		assertTrue(optimizer.toString(), optimizer.getAcmrAfter() < 0.8f);
+		// Vertices are in the order of first use.
+		short[] indices = mesh.parts[0].indices;
+		int next = 0;
+		for (short index : indices) {
+			assertTrue(index <= next);
+			if (index == next) next++;
+		}
+	}
+
+	@Test
+	public void testCacheMisses () {
+		short[] indices = {0, 1, 2, 2, 1, 3, 4, 5, 6};
+		assertEquals(7, MeshOptimizer.countCacheMisses(indices, 0, indices.length, 7, 16));
+		// With room for 3 vertices, 3 evicts 0, then 0 evicts 1 and 1 evicts 2.
+		indices = new short[] {0, 1, 2, 1, 2, 3, 0, 1, 4};
+		assertEquals(7, MeshOptimizer.countCacheMisses(indices, 0, indices.length, 5, 3));
+	}
+}
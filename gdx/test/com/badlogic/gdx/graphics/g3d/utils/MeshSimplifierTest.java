@@ -0,0 +1,174 @@
+package com.badlogic.gdx.graphics.g3d.utils;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.math.MathUtils;
+
+public class MeshSimplifierTest {
+	static final int SIZE = 40, VERTEX_SIZE = 4;
+
+	/** A flat grid, each vertex has a position and a side attribute. Left of the middle column the side is 0, right of it 1. The
+	 * vertices of the middle column are split into a seam, unless it is a single side. */
+	private float[] gridVertices (boolean seam) {
+		int columns = SIZE + (seam ? 2 : 1);
+		float[] vertices = new float[columns * (SIZE + 1) * VERTEX_SIZE];
+		for (int y = 0, v = 0; y <= SIZE; y++) {
+			for (int c = 0; c < columns; c++, v += VERTEX_SIZE) {
+				int x = seam && c > SIZE / 2 ? c - 1 : c;
+				vertices[v] = x;
+				vertices[v + 1] = y;
+				vertices[v + 3] = seam && c > SIZE / 2 ? 1 : 0;
+			}
+		}
+		return vertices;
+	}
+
+	private int[] gridIndices (boolean seam) {
+		int columns = SIZE + (seam ? 2 : 1);
+		int[] indices = new int[SIZE * SIZE * 6];
+		int i = 0;
+		for (int y = 0; y < SIZE; y++) {
+			for (int x = 0; x < SIZE; x++) {
+				int c = seam && x >= SIZE / 2 ? x + 1 : x;
+				int v = y * columns + c;
+				indices[i++] = v;
+				indices[i++] = v + 1;
+				indices[i++] = v + columns + 1;
+				indices[i++] = v;
+				indices[i++] = v + columns + 1;
+				indices[i++] = v + columns;
+			}
+		}
+		return indices;
+	}
+
+	/** Checks that all triangles face +z and sums their area. */
+	private float area (float[] vertices, int[] indices, int count) {
+		float area = 0;
+		for (int i = 0; i < count; i += 3) {
+			int a = indices[i] * VERTEX_SIZE, b = indices[i + 1] * VERTEX_SIZE, c = indices[i + 2] * VERTEX_SIZE;
+			float z = (vertices[b] - vertices[a]) * (vertices[c + 1] - vertices[a + 1]) - (vertices[b + 1] - vertices[a + 1])
+				* (vertices[c] - vertices[a]);
+			assertTrue(z > 0);
+			area += z / 2;
+		}
+		return area;
+	}
+
+	@Test
+	public void testGrid () {
+		float[] vertices = gridVertices(false);
+		int[] indices = gridIndices(false);
+		MeshSimplifier simplifier = new MeshSimplifier();
+		int target = indices.length / 10;
+		int count = simplifier.simplify(vertices, VERTEX_SIZE, 0, indices, 0, indices.length, target, indices);
+		assertTrue("count: " + count, count <= target && count > 0);
+		assertEquals(0, simplifier.resultError, 0.0001f);
+		assertEquals(SIZE * SIZE, area(vertices, indices, count), 0.01f);
+		// The flat grid can be reduced to two triangles.
+		count = simplifier.simplify(vertices, VERTEX_SIZE, 0, indices, 0, count, 0, indices);
+		assertEquals(6, count);
+		assertEquals(SIZE * SIZE, area(vertices, indices, count), 0.01f);
+	}
+
+	@Test
+	public void testSeam () {
+		float[] vertices = gridVertices(true);
+		int[] indices = gridIndices(true);
+		MeshSimplifier simplifier = new MeshSimplifier();
+		int count = simplifier.simplify(vertices, VERTEX_SIZE, 0, indices, 0, indices.length, indices.length / 10, indices);
+		assertTrue("count: " + count, count <= indices.length / 10);
+		assertEquals(SIZE * SIZE, area(vertices, indices, count), 0.01f);
+		// Triangles don't cross the seam.
+		for (int i = 0; i < count; i += 3) {
+			float side = vertices[indices[i] * VERTEX_SIZE + 3];
+			assertEquals(side, vertices[indices[i + 1] * VERTEX_SIZE + 3], 0);
+			assertEquals(side, vertices[indices[i + 2] * VERTEX_SIZE + 3], 0);
+		}
+	}
+
+	@Test
+	public void testLockBorders () {
+		float[] vertices = gridVertices(false);
+		short[] indices = new short[SIZE * SIZE * 6];
+		int[] ints = gridIndices(false);
+		for (int i = 0; i < ints.length; i++)
+			indices[i] = (short)ints[i];
+		MeshSimplifier simplifier = new MeshSimplifier();
+		simplifier.lockBorders = true;
+		int count = simplifier.simplify(vertices, VERTEX_SIZE, 0, indices, 0, indices.length, 0, indices);
+		boolean[] used = new boolean[vertices.length / VERTEX_SIZE];
+		for (int i = 0; i < count; i++) {
+			used[indices[i]] = true;
+			ints[i] = indices[i];
+		}
+		assertEquals(SIZE * SIZE, area(vertices, ints, count), 0.01f);
+		for (int v = 0; v < used.length; v++) {
+			float x = vertices[v * VERTEX_SIZE], y = vertices[v * VERTEX_SIZE + 1];
+			if (x == 0 || y == 0 || x == SIZE || y == SIZE) assertTrue(used[v]);
+		}
+		// Close to the SIZE * 4 - 2 triangles of a triangulation without inner vertices.
+		assertTrue("count: " + count, count / 3 < SIZE * 4 + 10);
+	}
+
+	@Test
+	public void testMaxError () {
+		// A sphere with a radius of 1, the poles are single vertices.
+		int rings = 30, segments = 60;
+		float[] vertices = new float[((rings - 1) * segments + 2) * 3];
+		int v = 0;
+		for (int r = 1; r < rings; r++) {
+			float angle = MathUtils.PI * r / rings;
+			for (int s = 0; s < segments; s++) {
+				vertices[v++] = MathUtils.sin(angle) * MathUtils.cos(MathUtils.PI2 * s / segments);
+				vertices[v++] = MathUtils.cos(angle);
+				vertices[v++] = MathUtils.sin(angle) * MathUtils.sin(MathUtils.PI2 * s / segments);
+			}
+		}
+		int top = v / 3, bottom = top + 1;
+		vertices[v + 1] = 1;
+		vertices[v + 4] = -1;
+		int[] indices = new int[segments * (rings - 1) * 6];
+		int i = 0;
+		for (int s = 0; s < segments; s++) {
+			int next = (s + 1) % segments;
+			indices[i++] = top;
+			indices[i++] = next;
+			indices[i++] = s;
+			for (int r = 0; r < rings - 2; r++) {
+				int a = r * segments;
+				indices[i++] = a + s;
+				indices[i++] = a + next;
+				indices[i++] = a + segments + next;
+				indices[i++] = a + s;
+				indices[i++] = a + segments + next;
+				indices[i++] = a + segments + s;
+			}
+			int a = (rings - 2) * segments;
+			indices[i++] = a + s;
+			indices[i++] = a + next;
+			indices[i++] = bottom;
+		}
+		assertEquals(indices.length, i);
+
+		MeshSimplifier simplifier = new MeshSimplifier();
+		simplifier.maxError = 0.01f;
+		int[] output = new int[indices.length];
+		int count = simplifier.simplify(vertices, 3, 0, indices, 0, indices.length, 0, output);
+		assertTrue(simplifier.resultError <= 0.01f);
+		assertTrue("count: " + count, count < indices.length / 2 && count > indices.length / 20);
+		// Each vertex is within the error of the sphere, relative to its diameter.
+		for (int j = 0; j < count; j += 3) {
+			int a = output[j] * 3, b = output[j + 1] * 3, c = output[j + 2] * 3;
+			float x = (vertices[a] + vertices[b] + vertices[c]) / 3, y = (vertices[a + 1] + vertices[b + 1] + vertices[c + 1]) / 3;
+			float z = (vertices[a + 2] + vertices[b + 2] + vertices[c + 2]) / 3;
+			assertEquals(1, (float)Math.sqrt(x * x + y * y + z * z), 0.1f);
+		}
+
+		simplifier.maxError = 1;
+		int smaller = simplifier.simplify(vertices, 3, 0, indices, 0, indices.length, 120, output);
+		assertTrue("count: " + smaller, smaller <= 120);
+	}
+}
@@ -0,0 +1,129 @@
+package com.badlogic.gdx.maps.tiled;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+
+public class ChunkedTiledMapTileLayerTest {
+	static final int TILES = 20;
+
+	private TiledMapTileSets createTileSets () {
+		TiledMapTileSet tileSet = new TiledMapTileSet();
+		for (int id = 1; id <= TILES; id++) {
+			StaticTiledMapTile tile = new StaticTiledMapTile(new TextureRegion());
+			tile.setId(id);
+			tileSet.putTile(id, tile);
+		}
+		TiledMapTileSets tileSets = new TiledMapTileSets();
+		tileSets.addTileSet(tileSet);
+		return tileSets;
+	}
+
+	@Test
+	public void testFlags () {
+		ChunkedTiledMapTileLayer layer = new ChunkedTiledMapTileLayer(10, 10, 16, 16, 4, createTileSets());
+		// Every combination of the Tiled flip flags survives decoding into a cell and encoding it again.
+		for (int flags = 0; flags < 8; flags++) {
+			int id = 5 | flags << 29;
+			layer.setTileId(3, 7, id);
+			Cell cell = layer.getCell(3, 7);
+			layer.setCell(1, 2, cell);
+			assertEquals(id, layer.getTileId(1, 2));
+		}
+		layer.setCell(1, 2, null);
+		assertEquals(0, layer.getTileId(1, 2));
+		assertNull(layer.getCell(1, 2));
+		assertNull(layer.getCell(-1, 0));
+		assertNull(layer.getCell(0, 10));
+	}
+
+	@Test
+	public void testCells () {
+		TiledMapTileSets tileSets = createTileSets();
+		ChunkedTiledMapTileLayer layer = new ChunkedTiledMapTileLayer(10, 10, 16, 16, 4, tileSets);
+		layer.setTileId(0, 0, 1);
+		layer.setTileId(9, 9, 2);
+
+		// Cells stay valid while other cells are requested.
+		Cell a = layer.getCell(0, 0), b = layer.getCell(9, 9);
+		assertNotSame(a, b);
+		assertEquals(1, a.getTile().getId());
+		assertEquals(2, b.getTile().getId());
+
+		// Changes to a cell are stored in the layer.
+		layer.getCell(0, 0).setTile(tileSets.getTile(3));
+		assertEquals(3, layer.getTileId(0, 0));
+		b.setFlipHorizontally(true);
+		assertEquals(2 | ChunkedTiledMapTileLayer.FLAG_FLIP_HORIZONTALLY, layer.getTileId(9, 9));
+		b.setTile(null);
+		assertEquals(0, layer.getTileId(9, 9));
+
+		// The shared cell is reused.
+		Cell shared = layer.getSharedCell(0, 0);
+		assertSame(shared, layer.getSharedCell(0, 0));
+		assertEquals(3, shared.getTile().getId());
+		assertNull(layer.getSharedCell(9, 9));
+	}
+
+	@Test
+	public void testRuns () {
+		int[] tiles = new int[64];
+		for (int i = 0; i < tiles.length; i++)
+			tiles[i] = i < 20 ? 0 : i < 21 ? 7 : i < 50 ? 3 | ChunkedTiledMapTileLayer.FLAG_FLIP_VERTICALLY : i;
+		int[] runs = ChunkedTiledMapTileLayer.encodeRuns(tiles);
+		assertArrayEquals(tiles, ChunkedTiledMapTileLayer.decodeRuns(runs, tiles.length));
+		assertArrayEquals(new int[64], ChunkedTiledMapTileLayer.decodeRuns(null, 64));
+	}
+
+	@Test
+	public void testStreaming () throws InterruptedException {
+		int size = 64, chunkSize = 8;
+		ChunkedTiledMapTileLayer layer = new ChunkedTiledMapTileLayer(size, size, 16, 16, chunkSize, createTileSets());
+		for (int y = 0; y < size; y++)
+			for (int x = 0; x < size; x++)
+				layer.setTileId(x, y, 1 + (x / 3 + y) % TILES);
+		assertEquals(64, layer.getLoadedChunks());
+
+		layer.setStreaming(true);
+		layer.setMargin(0);
+		// Chunks more than one chunk away from the visible chunk are released.
+		waitForLoadedChunks(layer, 0, 0, 4);
+		assertEquals(0, layer.getTileId(size - 1, size - 1));
+
+		// Modifying a released chunk loads it first.
+		layer.setTileId(30, 29, 2);
+		assertEquals(2, layer.getTileId(30, 29));
+		assertEquals(1 + (31 / 3 + 29) % TILES, layer.getTileId(31, 29));
+
+		// Chunks are loaded again when they become visible, and released chunks keep their modifications.
+		waitForLoadedChunks(layer, size - 1, size - 1, 1);
+		assertChunk(layer, size - 1, size - 1);
+		assertEquals(0, layer.getTileId(30, 29));
+		waitForLoadedChunks(layer, 30, 29, 1);
+		assertChunk(layer, 30, 29);
+		layer.dispose();
+	}
+
+	private void assertChunk (ChunkedTiledMapTileLayer layer, int tileX, int tileY) {
+		int chunkSize = layer.getChunkSize(), x1 = tileX / chunkSize * chunkSize, y1 = tileY / chunkSize * chunkSize;
+		for (int y = y1; y < y1 + chunkSize; y++)
+			for (int x = x1; x < x1 + chunkSize; x++)
+				assertEquals(x == 30 && y == 29 ? 2 : 1 + (x / 3 + y) % TILES, layer.getTileId(x, y));
+	}
+
+	/** Waits until the chunk at (x, y) is loaded and the given number of chunks is loaded in total. Checking the count alone is not
+	 * enough, a chunk being released in the background is still counted while the visible chunk may not be loaded yet. */
+	private void waitForLoadedChunks (ChunkedTiledMapTileLayer layer, int x, int y, int loaded) throws InterruptedException {
+		long timeout = System.currentTimeMillis() + 10000;
+		while (true) {
+			layer.setVisibleArea(x, y, x + 1, y + 1);
+			if (layer.getTileId(x, y) != 0 && layer.getLoadedChunks() == loaded) break;
+			assertTrue("Loaded chunks: " + layer.getLoadedChunks(), System.currentTimeMillis() < timeout);
+			Thread.sleep(1);
+		}
+	}
+}
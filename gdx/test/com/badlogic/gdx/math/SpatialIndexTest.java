@@ -0,0 +1,166 @@
+package com.badlogic.gdx.math;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.math.SpatialIndex.PairCallback;
+import com.badlogic.gdx.math.SpatialIndex.RayCastCallback;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+
+public class SpatialIndexTest {
+	@Test
+	public void testDynamicAabbTree () {
+		test(new DynamicAabbTree(0.5f, 16));
+	}
+
+	@Test
+	public void testSpatialHash () {
+		test(new SpatialHash(4));
+	}
+
+	private void test (final SpatialIndex index) {
+		Random random = new Random(7);
+		int count = 2000;
+		Rectangle[] rects = new Rectangle[count];
+		int[] proxies = new int[count];
+		for (int i = 0; i < count; i++) {
+			rects[i] = randomRectangle(random, new Rectangle());
+			proxies[i] = index.add(rects[i], rects[i]);
+		}
+		assertEquals(count, index.size());
+
+		for (int round = 0; round < 5; round++) {
+			// Move, remove and add rectangles.
+			for (int i = 0; i < count; i++) {
+				if (random.nextInt(10) == 0) {
+					index.remove(proxies[i]);
+					proxies[i] = index.add(randomRectangle(random, rects[i]), rects[i]);
+				} else {
+					Rectangle r = rects[i];
+					r.x += random.nextFloat() * 2 - 1;
+					r.y += random.nextFloat() * 2 - 1;
+					index.move(proxies[i], r);
+				}
+			}
+			assertEquals(count, index.size());
+			for (int i = 0; i < count; i++) {
+				assertSame(rects[i], index.getUserData(proxies[i]));
+				Rectangle bounds = index.getBounds(proxies[i], new Rectangle());
+				assertEquals(rects[i].x, bounds.x, 0);
+				assertEquals(rects[i].y, bounds.y, 0);
+				assertEquals(rects[i].width, bounds.width, 0.0001f);
+				assertEquals(rects[i].height, bounds.height, 0.0001f);
+			}
+
+			// Area queries.
+			for (int q = 0; q < 20; q++) {
+				Rectangle area = new Rectangle(random.nextFloat() * 120 - 10, random.nextFloat() * 120 - 10, random.nextFloat() * 30,
+					random.nextFloat() * 30);
+				IntArray expected = new IntArray(), actual = new IntArray();
+				for (int i = 0; i < count; i++)
+					if (rects[i].overlaps(area)) expected.add(proxies[i]);
+				index.query(area, actual);
+				assertSameItems(expected, actual);
+			}
+
+			// Pairs.
+			LongArray expectedPairs = new LongArray();
+			for (int i = 0; i < count; i++)
+				for (int j = i + 1; j < count; j++)
+					if (rects[i].overlaps(rects[j])) expectedPairs.add(pair(proxies[i], proxies[j]));
+			final LongArray actualPairs = new LongArray();
+			index.findPairs(new PairCallback() {
+				public void reportPair (int proxyA, int proxyB) {
+					actualPairs.add(pair(proxyA, proxyB));
+				}
+			});
+			long[] e = expectedPairs.toArray(), a = actualPairs.toArray();
+			Arrays.sort(e);
+			Arrays.sort(a);
+			assertArrayEquals(e, a);
+
+			// Callbacks can query the index without disturbing the outer traversal.
+			final LongArray nestedPairs = new LongArray();
+			final IntArray overlapping = new IntArray();
+			index.findPairs(new PairCallback() {
+				public void reportPair (int proxyA, int proxyB) {
+					nestedPairs.add(pair(proxyA, proxyB));
+					overlapping.clear();
+					index.query((Rectangle)index.getUserData(proxyA), overlapping);
+					assertTrue(overlapping.contains(proxyB));
+				}
+			});
+			a = nestedPairs.toArray();
+			Arrays.sort(a);
+			assertArrayEquals(e, a);
+
+			// Ray casts, both reporting all hits and clipping to the closest hit.
+			for (int q = 0; q < 20; q++) {
+				Vector2 start = new Vector2(random.nextFloat() * 100, random.nextFloat() * 100);
+				Vector2 end = new Vector2(random.nextFloat() * 100, random.nextFloat() * 100);
+				if (q == 0) end.set(start.x, start.y + 50);
+				float dx = end.x - start.x, dy = end.y - start.y;
+				IntArray expected = new IntArray();
+				float closest = 1;
+				float[] bounds = new float[4];
+				for (int i = 0; i < count; i++) {
+					Rectangle r = rects[i];
+					bounds[0] = r.x;
+					bounds[1] = r.y;
+					bounds[2] = r.x + r.width;
+					bounds[3] = r.y + r.height;
+					float fraction = DynamicAabbTree.rayFraction(start.x, start.y, dx, dy, bounds, 0, 1);
+					if (fraction < 0) continue;
+					expected.add(proxies[i]);
+					closest = Math.min(closest, fraction);
+				}
+				final IntArray actual = new IntArray();
+				index.rayCast(start, end, new RayCastCallback() {
+					public float reportRayProxy (int proxy, float fraction, float maxFraction) {
+						actual.add(proxy);
+						return maxFraction;
+					}
+				});
+				assertSameItems(expected, actual);
+
+				final float[] hit = {1};
+				index.rayCast(start, end, new RayCastCallback() {
+					public float reportRayProxy (int proxy, float fraction, float maxFraction) {
+						assertTrue(fraction <= maxFraction);
+						hit[0] = Math.min(hit[0], fraction);
+						return fraction > 0 ? fraction : maxFraction;
+					}
+				});
+				assertEquals(closest, hit[0], 0);
+			}
+		}
+
+		for (int i = 0; i < count; i++)
+			index.remove(proxies[i]);
+		assertEquals(0, index.size());
+		IntArray all = new IntArray();
+		index.query(new Rectangle(-1000, -1000, 2000, 2000), all);
+		assertEquals(0, all.size);
+	}
+
+	private Rectangle randomRectangle (Random random, Rectangle r) {
+		float size = random.nextInt(20) == 0 ? 20 : 3;
+		return r.set(random.nextFloat() * 100, random.nextFloat() * 100, random.nextFloat() * size, random.nextFloat() * size);
+	}
+
+	static long pair (int a, int b) {
+		return (long)Math.min(a, b) << 32 | Math.max(a, b);
+	}
+
+	private void assertSameItems (IntArray expected, IntArray actual) {
+		int[] e = expected.toArray(), a = actual.toArray();
+		Arrays.sort(e);
+		Arrays.sort(a);
+		assertArrayEquals(e, a);
+	}
+}
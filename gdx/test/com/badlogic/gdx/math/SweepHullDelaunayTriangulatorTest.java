@@ -0,0 +1,143 @@
+package com.badlogic.gdx.math;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+public class SweepHullDelaunayTriangulatorTest {
+	private float[] randomPoints (Random random, int count) {
+		float[] points = new float[count * 2];
+		for (int i = 0; i < points.length; i++)
+			points[i] = random.nextFloat() * 1000;
+		return points;
+	}
+
+	private double cross (float[] points, int a, int b, int c) {
+		double ax = points[a * 2], ay = points[a * 2 + 1];
+		return (points[b * 2] - ax) * (points[c * 2 + 1] - ay) - (points[b * 2 + 1] - ay) * (points[c * 2] - ax);
+	}
+
+	/** Checks the triangles are clockwise and cover the convex hull of the points without overlapping. */
+	private void assertCoversHull (float[] points, IntArray triangles) {
+		FloatArray hull = new ConvexHull().computePolygon(points, false);
+		assertCoversArea(points, triangles, Math.abs(GeometryUtils.polygonArea(hull.items, 0, hull.size)));
+	}
+
+	private void assertCoversArea (float[] points, IntArray triangles, double expectedArea) {
+		double area = 0;
+		for (int i = 0; i < triangles.size; i += 3) {
+			double cross = cross(points, triangles.get(i), triangles.get(i + 1), triangles.get(i + 2));
+			assertTrue("triangle is not clockwise", cross < 0);
+			area -= cross / 2;
+		}
+		assertEquals(expectedArea, area, expectedArea * 0.0001);
+	}
+
+	@Test
+	public void testDelaunay () {
+		Random random = new Random(3);
+		float[] points = randomPoints(random, 1000);
+		IntArray triangles = new SweepHullDelaunayTriangulator().computeTriangles(points);
+		assertCoversHull(points, triangles);
+
+		// No point is inside the circumcircle of any triangle.
+		for (int i = 0; i < triangles.size; i += 3) {
+			int a = triangles.get(i), b = triangles.get(i + 1), c = triangles.get(i + 2);
+			double ax = points[a * 2], ay = points[a * 2 + 1], bx = points[b * 2], by = points[b * 2 + 1];
+			double cx = points[c * 2], cy = points[c * 2 + 1];
+			double d = 2 * (ax * (by - cy) + bx * (cy - ay) + cx * (ay - by));
+			double ux = ((ax * ax + ay * ay) * (by - cy) + (bx * bx + by * by) * (cy - ay) + (cx * cx + cy * cy) * (ay - by)) / d;
+			double uy = ((ax * ax + ay * ay) * (cx - bx) + (bx * bx + by * by) * (ax - cx) + (cx * cx + cy * cy) * (bx - ax)) / d;
+			double radius = Math.hypot(ax - ux, ay - uy);
+			for (int p = 0; p < points.length / 2; p++) {
+				if (p == a || p == b || p == c) continue;
+				assertTrue(Math.hypot(points[p * 2] - ux, points[p * 2 + 1] - uy) > radius * (1 - 1e-6));
+			}
+		}
+	}
+
+	@Test
+	public void testLarge () {
+		Random random = new Random(5);
+		int count = 100000;
+		float[] cloud = randomPoints(random, count), points = new float[count * 2 + 2];
+		System.arraycopy(cloud, 0, points, 2, count * 2);
+		IntArray triangles = new SweepHullDelaunayTriangulator().computeTriangles(points, 2, count * 2);
+		int max = 0;
+		for (int i = 0; i < triangles.size; i++)
+			max = Math.max(max, triangles.get(i));
+		assertEquals(count - 1, max);
+		FloatArray hull = new ConvexHull().computePolygon(cloud, false);
+		// Points in general position give 2n - 2 - h triangles, the hull polygon repeats its first point.
+		assertEquals(2 * count - 2 - (hull.size / 2 - 1), triangles.size / 3);
+	}
+
+	@Test
+	public void testGrid () {
+		// Collinear and cocircular points.
+		float[] points = new float[50 * 50 * 2];
+		for (int i = 0, y = 0; y < 50; y++)
+			for (int x = 0; x < 50; x++) {
+				points[i++] = x;
+				points[i++] = y;
+			}
+		IntArray triangles = new SweepHullDelaunayTriangulator().computeTriangles(points);
+		assertEquals(49 * 49 * 2, triangles.size / 3);
+		assertCoversArea(points, triangles, 49 * 49);
+	}
+
+	@Test
+	public void testConstrained () {
+		Random random = new Random(9);
+		int count = 2000;
+		float[] points = randomPoints(random, count);
+		// A polyline through points sorted by x, so the edges don't cross each other.
+		Integer[] order = new Integer[40];
+		for (int i = 0; i < order.length; i++)
+			order[i] = random.nextInt(count);
+		final float[] sortPoints = points;
+		Arrays.sort(order, new java.util.Comparator<Integer>() {
+			public int compare (Integer a, Integer b) {
+				return Float.compare(sortPoints[a * 2], sortPoints[b * 2]);
+			}
+		});
+		IntArray edges = new IntArray();
+		for (int i = 1; i < order.length; i++) {
+			if (order[i].equals(order[i - 1])) continue;
+			edges.add(order[i - 1]);
+			edges.add(order[i]);
+		}
+		SweepHullDelaunayTriangulator triangulator = new SweepHullDelaunayTriangulator();
+		IntArray triangles = triangulator.computeTriangles(points, 0, points.length, edges);
+		assertCoversHull(points, triangles);
+
+		HashSet<Long> triangleEdges = new HashSet();
+		for (int i = 0; i < triangles.size; i += 3) {
+			for (int j = 0; j < 3; j++) {
+				int a = triangles.get(i + j), b = triangles.get(i + (j + 1) % 3);
+				triangleEdges.add((long)Math.min(a, b) << 32 | Math.max(a, b));
+			}
+		}
+		for (int i = 0; i < edges.size; i += 2) {
+			int a = edges.get(i), b = edges.get(i + 1);
+			assertTrue("missing edge " + a + ", " + b, triangleEdges.contains((long)Math.min(a, b) << 32 | Math.max(a, b)));
+		}
+
+		// Crossing constraints are rejected.
+		edges.clear();
+		edges.addAll(0, 1, 2, 3, 4, 5);
+		points = new float[] {0, 0, 10, 10, 0, 10, 10, 0, 5, -5, 5, 15};
+		try {
+			triangulator.computeTriangles(points, 0, points.length, edges);
+			fail();
+		} catch (IllegalArgumentException expected) {
+		}
+	}
+}
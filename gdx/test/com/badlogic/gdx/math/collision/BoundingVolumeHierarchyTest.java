@@ -0,0 +1,112 @@
+package com.badlogic.gdx.math.collision;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.IntArray;
+
+public class BoundingVolumeHierarchyTest {
+	private float[] randomBoxes (Random random, int count) {
+		float[] bounds = new float[count * 6];
+		for (int i = 0, o = 0; i < count; i++, o += 6) {
+			float x = random.nextFloat() * 100, y = random.nextFloat() * 100, z = random.nextFloat() * 100;
+			float size = random.nextFloat() * 3;
+			bounds[o] = x;
+			bounds[o + 1] = y;
+			bounds[o + 2] = z;
+			bounds[o + 3] = x + size;
+			bounds[o + 4] = y + size;
+			bounds[o + 5] = z + size;
+		}
+		return bounds;
+	}
+
+	private void assertSameItems (IntArray expected, IntArray actual) {
+		int[] e = expected.toArray(), a = actual.toArray();
+		Arrays.sort(e);
+		Arrays.sort(a);
+		assertArrayEquals(e, a);
+	}
+
+	@Test
+	public void testBoundsAndSphere () {
+		Random random = new Random(5);
+		int count = 5000;
+		float[] bounds = randomBoxes(random, count);
+		BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy();
+		bvh.build(bounds, count);
+		IntArray actual = new IntArray(), expected = new IntArray();
+		for (int q = 0; q < 50; q++) {
+			Vector3 min = new Vector3(random.nextFloat() * 100, random.nextFloat() * 100, random.nextFloat() * 100);
+			BoundingBox box = new BoundingBox(min, new Vector3(min).add(10, 10, 10));
+			expected.clear();
+			for (int i = 0, o = 0; i < count; i++, o += 6)
+				if (bounds[o] <= box.max.x && bounds[o + 3] >= box.min.x && bounds[o + 1] <= box.max.y && bounds[o + 4] >= box.min.y
+					&& bounds[o + 2] <= box.max.z && bounds[o + 5] >= box.min.z) expected.add(i);
+			actual.clear();
+			assertEquals(expected.size, bvh.intersectBounds(box, actual));
+			assertSameItems(expected, actual);
+
+			Sphere sphere = new Sphere(min, 8);
+			expected.clear();
+			for (int i = 0, o = 0; i < count; i++, o += 6) {
+				float dx = Math.max(Math.max(bounds[o] - min.x, min.x - bounds[o + 3]), 0);
+				float dy = Math.max(Math.max(bounds[o + 1] - min.y, min.y - bounds[o + 4]), 0);
+				float dz = Math.max(Math.max(bounds[o + 2] - min.z, min.z - bounds[o + 5]), 0);
+				if (dx * dx + dy * dy + dz * dz <= 64) expected.add(i);
+			}
+			actual.clear();
+			bvh.intersectSphere(sphere, actual);
+			assertSameItems(expected, actual);
+		}
+	}
+
+	@Test
+	public void testRayTriangles () {
+		// A grid of 100 x 100 quads in the xy plane at z = 5.
+		int size = 100;
+		float[] vertices = new float[(size + 1) * (size + 1) * 3];
+		for (int y = 0, v = 0; y <= size; y++)
+			for (int x = 0; x <= size; x++, v += 3) {
+				vertices[v] = x;
+				vertices[v + 1] = y;
+				vertices[v + 2] = 5;
+			}
+		int[] indices = new int[size * size * 6];
+		for (int y = 0, i = 0; y < size; y++)
+			for (int x = 0; x < size; x++, i += 6) {
+				int corner = y * (size + 1) + x;
+				indices[i] = corner;
+				indices[i + 1] = corner + 1;
+				indices[i + 2] = corner + size + 2;
+				indices[i + 3] = corner + size + 2;
+				indices[i + 4] = corner + size + 1;
+				indices[i + 5] = corner;
+			}
+		BoundingVolumeHierarchy bvh = new BoundingVolumeHierarchy();
+		bvh.buildTriangles(vertices, 3, 0, indices, 0, indices.length);
+		assertEquals(size * size * 2, bvh.getItemCount());
+
+		Vector3 intersection = new Vector3();
+		Ray ray = new Ray(new Vector3(42.75f, 17.25f, 20), new Vector3(0, 0, -1));
+		int triangle = bvh.intersectRayTriangles(ray, intersection);
+		assertEquals((17 * size + 42) * 2, triangle);
+		assertEquals(5, intersection.z, 0.0001f);
+		assertEquals(-1, bvh.intersectRayTriangles(ray, 10, intersection));
+		assertEquals(-1, bvh.intersectRayTriangles(new Ray(new Vector3(150, 50, 20), new Vector3(0, 0, -1)), intersection));
+
+		// Move the grid up and refit.
+		float[] triangles = bvh.getTriangles();
+		for (int i = 2; i < bvh.getItemCount() * 9; i += 3)
+			triangles[i] += 10;
+		bvh.refit();
+		assertEquals(triangle, bvh.intersectRayTriangles(ray, intersection));
+		assertEquals(15, intersection.z, 0.0001f);
+		assertEquals(15, bvh.getBounds(new BoundingBox()).max.z, 0);
+	}
+}
@@ -0,0 +1,199 @@
+package com.badlogic.gdx.net;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.Net.HttpMethods;
+import com.badlogic.gdx.Net.HttpRequest;
+import com.badlogic.gdx.Net.HttpResponse;
+import com.badlogic.gdx.Net.HttpResponseListener;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class NetJavaImplTest {
+	private HttpServer server;
+	private String url;
+	private final AtomicInteger running = new AtomicInteger(), maxRunning = new AtomicInteger();
+	private final Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<Integer>());
+	private volatile long delay;
+
+	@Before
+	public void setUp () throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", new HttpHandler() {
+			public void handle (HttpExchange exchange) throws IOException {
+				int count = running.incrementAndGet();
+				while (true) {
+					int max = maxRunning.get();
+					if (count <= max || maxRunning.compareAndSet(max, count)) break;
+				}
+				clientPorts.add(exchange.getRemoteAddress().getPort());
+				try {
+					if (delay > 0) Thread.sleep(delay);
+				} catch (InterruptedException ignored) {
+				}
+				// Done before responding, else the client can receive the response and send the next request before this runs.
+				running.decrementAndGet();
+				byte[] body = exchange.getRequestURI().getPath().getBytes("UTF-8");
+				exchange.sendResponseHeaders(200, body.length);
+				OutputStream output = exchange.getResponseBody();
+				output.write(body);
+				output.close();
+			}
+		});
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+		url = "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	@After
+	public void tearDown () {
+		server.stop(0);
+	}
+
+	private HttpRequest request (String path) {
+		HttpRequest request = new HttpRequest(HttpMethods.GET);
+		request.setUrl(url + path);
+		return request;
+	}
+
+	private HttpResponseListener listener (final CountDownLatch done, final Set<String> results) {
+		return new HttpResponseListener() {
+			public void handleHttpResponse (HttpResponse httpResponse) {
+				results.add(httpResponse.getResultAsString());
+				done.countDown();
+			}
+
+			public void failed (Throwable t) {
+				done.countDown();
+			}
+
+			public void cancelled () {
+				done.countDown();
+			}
+		};
+	}
+
+	@Test
+	public void testDefaultIsSerial () throws InterruptedException {
+		delay = 20;
+		NetJavaImpl net = new NetJavaImpl();
+		int count = 6;
+		CountDownLatch done = new CountDownLatch(count);
+		Set<String> results = Collections.synchronizedSet(new LinkedHashSet<String>());
+		Set<String> expected = new LinkedHashSet<String>();
+		for (int i = 0; i < count; i++) {
+			net.sendHttpRequest(request("/" + i), listener(done, results));
+			expected.add("/" + i);
+		}
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertEquals(1, maxRunning.get());
+		assertEquals(expected.toString(), results.toString());
+	}
+
+	@Test
+	public void testDefaultIsSerialAcrossHosts () throws InterruptedException {
+		delay = 20;
+		NetJavaImpl net = new NetJavaImpl();
+		// More requests to one host than the per host limit, then one to another host of the same server.
+		int count = net.getMaxConnectionsPerHost() + 2;
+		CountDownLatch done = new CountDownLatch(count);
+		Set<String> results = Collections.synchronizedSet(new LinkedHashSet<String>());
+		Set<String> expected = new LinkedHashSet<String>();
+		for (int i = 0; i < count; i++) {
+			HttpRequest request = request("/" + i);
+			if (i == count - 1) request.setUrl(request.getUrl().replace("127.0.0.1", "localhost"));
+			net.sendHttpRequest(request, listener(done, results));
+			expected.add("/" + i);
+		}
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertEquals(1, maxRunning.get());
+		assertEquals(expected.toString(), results.toString());
+	}
+
+	@Test
+	public void testPerHostLimit () throws InterruptedException {
+		delay = 100;
+		NetJavaImpl net = new NetJavaImpl(Integer.MAX_VALUE);
+		net.setMaxConnectionsPerHost(3);
+		int count = 9;
+		CountDownLatch done = new CountDownLatch(count);
+		Set<String> results = Collections.synchronizedSet(new HashSet<String>());
+		for (int i = 0; i < count; i++)
+			net.sendHttpRequest(request("/" + i), listener(done, results));
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertEquals(count, results.size());
+		assertTrue("requests should run concurrently", maxRunning.get() > 1);
+		assertTrue("per host limit exceeded: " + maxRunning.get(), maxRunning.get() <= 3);
+	}
+
+	@Test
+	public void testConnectionReuse () throws InterruptedException {
+		NetJavaImpl net = new NetJavaImpl();
+		net.setMaxConnectionsPerHost(1);
+		int count = 5;
+		Set<String> results = Collections.synchronizedSet(new HashSet<String>());
+		for (int i = 0; i < count; i++) {
+			CountDownLatch done = new CountDownLatch(1);
+			net.sendHttpRequest(request("/" + i), listener(done, results));
+			assertTrue(done.await(10, TimeUnit.SECONDS));
+		}
+		assertEquals(count, results.size());
+		assertEquals(1, clientPorts.size());
+	}
+
+	@Test
+	public void testMetrics () throws InterruptedException {
+		NetJavaImpl net = new NetJavaImpl(1);
+		final CountDownLatch metrics = new CountDownLatch(1);
+		final long[] times = new long[4];
+		net.setMetricsListener(new NetJavaImpl.RequestMetricsListener() {
+			public void requestCompleted (HttpRequest request, int statusCode, long queueTime, long responseTime, long totalTime) {
+				times[0] = statusCode;
+				times[1] = queueTime;
+				times[2] = responseTime;
+				times[3] = totalTime;
+				metrics.countDown();
+			}
+		});
+		net.sendHttpRequest(request("/metrics"), listener(new CountDownLatch(1), new HashSet<String>()));
+		assertTrue(metrics.await(10, TimeUnit.SECONDS));
+		assertEquals(200, times[0]);
+		assertTrue(times[1] >= 0 && times[2] > 0 && times[3] >= times[1] + times[2]);
+	}
+
+	@Test
+	public void testCancelQueued () throws InterruptedException {
+		delay = 200;
+		NetJavaImpl net = new NetJavaImpl();
+		net.setMaxConnectionsPerHost(1);
+		CountDownLatch done = new CountDownLatch(2);
+		Set<String> results = Collections.synchronizedSet(new HashSet<String>());
+		net.sendHttpRequest(request("/first"), listener(done, results));
+		HttpRequest second = request("/second");
+		net.sendHttpRequest(second, listener(done, results));
+		assertEquals(1, net.getQueuedRequests());
+		net.cancelHttpRequest(second);
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertEquals(Collections.singleton("/first"), results);
+		assertEquals(0, net.getQueuedRequests());
+		assertEquals(1, net.getCancelledRequests());
+		assertEquals(0, net.getFailedRequests());
+	}
+}
@@ -0,0 +1,285 @@
+package com.badlogic.gdx.net;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.badlogic.gdx.Net.Protocol;
+
+public class NetJavaNioTest {
+	private NetJavaNioSelector selector;
+	private NetJavaNioServerSocketImpl server;
+
+	@Before
+	public void setUp () {
+		selector = new NetJavaNioSelector(2, 1024, 64);
+	}
+
+	@After
+	public void tearDown () {
+		if (server != null) server.dispose();
+		selector.dispose();
+	}
+
+	/** Starts a server that echoes everything it receives. */
+	private int startEchoServer () {
+		server = selector.newServerSocket(Protocol.TCP, "127.0.0.1", 0, null, null, new SocketListener() {
+			public void connected (Socket socket) {
+				// The echo server does not stop reading when a client reads slowly, so it queues up to everything sent.
+				((NetJavaNioSocketImpl)socket).setMaxQueuedBytes(1 << 20);
+			}
+
+			public void received (Socket socket, ByteBuffer data) {
+				try {
+					((NetJavaNioSocketImpl)socket).send(data);
+				} catch (IOException ex) {
+					socket.dispose();
+				}
+			}
+
+			public void disconnected (Socket socket, Throwable cause) {
+			}
+		});
+		return server.getLocalPort();
+	}
+
+	@Test
+	public void testListenerEcho () throws Exception {
+		int port = startEchoServer();
+		final int clients = 50, bytesPerClient = 10000;
+		final CountDownLatch done = new CountDownLatch(clients);
+		final AtomicLong checksum = new AtomicLong();
+		Socket[] sockets = new Socket[clients];
+		for (int i = 0; i < clients; i++) {
+			sockets[i] = selector.newClientSocket(Protocol.TCP, "127.0.0.1", port, null, new SocketListener() {
+				int received;
+
+				public void connected (Socket socket) {
+				}
+
+				public void received (Socket socket, ByteBuffer data) {
+					while (data.hasRemaining())
+						checksum.addAndGet(data.get() & 0xff);
+					received += data.limit();
+					if (received == bytesPerClient) done.countDown();
+				}
+
+				public void disconnected (Socket socket, Throwable cause) {
+				}
+			});
+		}
+		byte[] bytes = new byte[bytesPerClient];
+		long expected = 0;
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte)i;
+			expected += bytes[i] & 0xff;
+		}
+		// Writing before the sockets are connected is allowed, the data is sent once connected.
+		for (Socket socket : sockets)
+			socket.getOutputStream().write(bytes);
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertEquals(expected * clients, checksum.get());
+		for (Socket socket : sockets)
+			socket.dispose();
+	}
+
+	@Test
+	public void testStreams () throws Exception {
+		int port = startEchoServer();
+		SocketHints hints = new SocketHints();
+		hints.socketTimeout = 5000;
+		Socket socket = selector.newClientSocket(Protocol.TCP, "127.0.0.1", port, hints, null);
+		assertTrue(socket.isConnected());
+		// More data than the receive buffer holds, so reading from the connection pauses until the stream is read.
+		byte[] bytes = new byte[100000];
+		for (int i = 0; i < bytes.length; i++)
+			bytes[i] = (byte)(i * 31);
+		OutputStream output = socket.getOutputStream();
+		output.write(bytes);
+		InputStream input = socket.getInputStream();
+		byte[] result = new byte[bytes.length];
+		int total = 0;
+		while (total < result.length) {
+			int count = input.read(result, total, result.length - total);
+			assertTrue(count > 0);
+			total += count;
+		}
+		assertArrayEquals(bytes, result);
+		socket.dispose();
+		assertFalse(socket.isConnected());
+	}
+
+	@Test
+	public void testBlockingAccept () throws Exception {
+		ServerSocketHints hints = new ServerSocketHints();
+		hints.acceptTimeout = 5000;
+		server = selector.newServerSocket(Protocol.TCP, "127.0.0.1", 0, hints, null, null);
+		Socket client = selector.newClientSocket(Protocol.TCP, "127.0.0.1", server.getLocalPort(), null, null);
+		Socket accepted = server.accept(null);
+		client.getOutputStream().write(42);
+		assertEquals(42, accepted.getInputStream().read());
+		client.dispose();
+		assertEquals(-1, accepted.getInputStream().read());
+		accepted.dispose();
+	}
+
+	@Test
+	public void testDisposeSendsQueuedData () throws Exception {
+		ServerSocketHints hints = new ServerSocketHints();
+		hints.acceptTimeout = 5000;
+		server = selector.newServerSocket(Protocol.TCP, "127.0.0.1", 0, hints, null, null);
+		Socket client = selector.newClientSocket(Protocol.TCP, "127.0.0.1", server.getLocalPort(), null, null);
+		Socket accepted = server.accept(null);
+		// Disposing right after writing, as with a blocking socket, still delivers the data.
+		byte[] bytes = new byte[200000];
+		for (int i = 0; i < bytes.length; i++)
+			bytes[i] = (byte)(i * 7);
+		final AtomicReference<Throwable> error = new AtomicReference();
+		final Socket writer = client;
+		final byte[] sent = bytes;
+		Thread thread = new Thread() {
+			public void run () {
+				try {
+					writer.getOutputStream().write(sent);
+					writer.dispose();
+				} catch (Throwable ex) {
+					error.set(ex);
+				}
+			}
+		};
+		thread.start();
+		byte[] result = readFully(accepted.getInputStream(), bytes.length);
+		assertEquals(-1, accepted.getInputStream().read());
+		thread.join(5000);
+		assertFalse(thread.isAlive());
+		assertNull(error.get());
+		assertArrayEquals(bytes, result);
+		assertFalse(client.isConnected());
+		try {
+			client.getOutputStream().write(1);
+			fail("Write after dispose.");
+		} catch (IOException expected) {
+		}
+		accepted.dispose();
+	}
+
+	@Test
+	public void testBackpressure () throws Exception {
+		ServerSocketHints hints = new ServerSocketHints();
+		hints.acceptTimeout = 5000;
+		hints.receiveBufferSize = 4096;
+		server = selector.newServerSocket(Protocol.TCP, "127.0.0.1", 0, hints, null, null);
+		SocketHints clientHints = new SocketHints();
+		clientHints.sendBufferSize = 4096;
+		final NetJavaNioSocketImpl client = selector.newClientSocket(Protocol.TCP, "127.0.0.1", server.getLocalPort(), clientHints,
+			null);
+		client.setMaxQueuedBytes(10000);
+		Socket accepted = server.accept(null);
+
+		// Nothing is read, so the writer fills the queue and then waits.
+		final int total = 4 << 20;
+		final AtomicReference<Throwable> error = new AtomicReference();
+		final AtomicLong maxQueued = new AtomicLong();
+		Thread thread = new Thread() {
+			public void run () {
+				try {
+					OutputStream output = client.getOutputStream();
+					byte[] chunk = new byte[3000];
+					for (int sent = 0; sent < total; sent += chunk.length) {
+						output.write(chunk, 0, Math.min(chunk.length, total - sent));
+						maxQueued.set(Math.max(maxQueued.get(), client.getQueuedBytes()));
+					}
+				} catch (Throwable ex) {
+					error.set(ex);
+				}
+			}
+		};
+		thread.start();
+		thread.join(500);
+		assertTrue("writer should wait while the queue is full", thread.isAlive());
+		assertTrue(client.getQueuedBytes() <= 10000);
+
+		// Reading lets the writer continue.
+		InputStream input = accepted.getInputStream();
+		byte[] buffer = new byte[8192];
+		long read = 0;
+		while (read < total) {
+			int count = input.read(buffer);
+			assertTrue(count > 0);
+			read += count;
+		}
+		thread.join(5000);
+		assertFalse(thread.isAlive());
+		assertNull(error.get());
+		assertTrue(maxQueued.get() <= 10000);
+		client.dispose();
+		accepted.dispose();
+	}
+
+	@Test
+	public void testFullQueueOnSelectorThread () throws Exception {
+		ServerSocketHints hints = new ServerSocketHints();
+		hints.acceptTimeout = 5000;
+		hints.receiveBufferSize = 4096;
+		server = selector.newServerSocket(Protocol.TCP, "127.0.0.1", 0, hints, null, null);
+		SocketHints clientHints = new SocketHints();
+		clientHints.sendBufferSize = 4096;
+		final CountDownLatch done = new CountDownLatch(1);
+		final AtomicReference<Throwable> error = new AtomicReference();
+		final AtomicLong written = new AtomicLong();
+		Socket client = selector.newClientSocket(Protocol.TCP, "127.0.0.1", server.getLocalPort(), clientHints,
+			new SocketListener() {
+				public void connected (Socket socket) {
+					((NetJavaNioSocketImpl)socket).setMaxQueuedBytes(10000);
+					byte[] chunk = new byte[1000];
+					try {
+						// The peer never reads, so the queue fills once the OS buffers are full.
+						while (written.get() < 256 << 20) {
+							socket.getOutputStream().write(chunk);
+							written.addAndGet(chunk.length);
+						}
+					} catch (IOException ex) {
+						error.set(ex);
+					}
+					done.countDown();
+				}
+
+				public void received (Socket socket, ByteBuffer data) {
+				}
+
+				public void disconnected (Socket socket, Throwable cause) {
+				}
+			});
+		Socket accepted = server.accept(null);
+		assertTrue(done.await(10, TimeUnit.SECONDS));
+		assertTrue(error.get() instanceof IOException);
+		assertTrue(((NetJavaNioSocketImpl)client).getQueuedBytes() <= 10000);
+		// The queued data can't be sent, so it is discarded after the close timeout.
+		((NetJavaNioSocketImpl)client).setCloseTimeout(100);
+		client.dispose();
+		assertFalse(client.isConnected());
+		accepted.dispose();
+	}
+
+	static private byte[] readFully (InputStream input, int length) throws IOException {
+		byte[] result = new byte[length];
+		int total = 0;
+		while (total < length) {
+			int count = input.read(result, total, length - total);
+			assertTrue(count > 0);
+			total += count;
+		}
+		return result;
+	}
+}
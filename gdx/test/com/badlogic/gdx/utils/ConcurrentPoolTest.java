@@ -0,0 +1,117 @@
+package com.badlogic.gdx.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class ConcurrentPoolTest {
+	static class Item implements Pool.Poolable {
+		int value;
+
+		public void reset () {
+			value = 0;
+		}
+	}
+
+	static class ItemPool extends ConcurrentPool<Item> {
+		ItemPool (int threadCacheSize, int max) {
+			super(threadCacheSize, max);
+		}
+
+		protected Item newObject () {
+			return new Item();
+		}
+	}
+
+	@Test
+	public void testSingleThread () {
+		ItemPool pool = new ItemPool(4, 10);
+		Array<Item> items = new Array();
+		for (int i = 0; i < 20; i++) {
+			Item item = pool.obtain();
+			item.value = i + 1;
+			items.add(item);
+		}
+		pool.freeAll(items);
+		for (Item item : items)
+			assertEquals(0, item.value);
+		// The thread cache holds 4, so the other 16 are shared but the shared queue is limited to 10.
+		assertEquals(14, pool.getFree());
+		assertEquals(14, pool.peak);
+		for (int i = 0; i < 14; i++)
+			pool.obtain();
+		assertEquals(20, pool.getCreated());
+		pool.obtain();
+		assertEquals(21, pool.getCreated());
+		assertEquals(35, pool.getObtained());
+		assertEquals(20, pool.getFreed());
+		pool.free(new Item());
+		pool.clear();
+		assertEquals(0, pool.getFree());
+	}
+
+	@Test
+	public void testObtainAndFreeOnDifferentThreads () throws InterruptedException {
+		final ItemPool pool = new ItemPool(16, 1000);
+		final BlockingQueue<Item> queue = new ArrayBlockingQueue(64);
+		final int producers = 4, count = 50000;
+		// Failures on the producer threads are rethrown on this thread.
+		final AtomicReference<Throwable> failure = new AtomicReference();
+		Thread[] threads = new Thread[producers];
+		for (int i = 0; i < producers; i++) {
+			threads[i] = new Thread() {
+				public void run () {
+					try {
+						for (int i = 0; i < count; i++) {
+							Item item = pool.obtain();
+							assertEquals(0, item.value);
+							item.value = 1;
+							queue.put(item);
+						}
+					} catch (InterruptedException ignored) {
+					} catch (Throwable ex) {
+						failure.compareAndSet(null, ex);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		try {
+			long timeout = System.currentTimeMillis() + 30000;
+			for (int i = 0; i < producers * count;) {
+				Item item = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (item != null) {
+					pool.free(item);
+					i++;
+					continue;
+				}
+				rethrow(failure.get());
+				assertTrue("timed out after " + i + " items", System.currentTimeMillis() < timeout);
+			}
+			for (Thread thread : threads) {
+				thread.join(10000);
+				assertFalse("producer did not finish", thread.isAlive());
+			}
+			rethrow(failure.get());
+		} finally {
+			for (Thread thread : threads)
+				thread.interrupt();
+		}
+		assertEquals(producers * count, pool.getObtained());
+		assertEquals(producers * count, pool.getFreed());
+		// Objects freed on this thread are reused by the producers.
+		assertTrue("created: " + pool.getCreated(), pool.getCreated() < producers * count / 10);
+	}
+
+	static private void rethrow (Throwable failure) {
+		if (failure == null) return;
+		if (failure instanceof Error) throw (Error)failure;
+		if (failure instanceof RuntimeException) throw (RuntimeException)failure;
+		throw new RuntimeException(failure);
+	}
+}
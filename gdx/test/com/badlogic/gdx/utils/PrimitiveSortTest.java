@@ -0,0 +1,109 @@
+package com.badlogic.gdx.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+
+public class PrimitiveSortTest {
+	private final Random random = new Random(42);
+	private final PrimitiveSort sort = new PrimitiveSort();
+
+	@Test
+	public void testRadixSort () {
+		for (int n : new int[] {0, 1, 50, 127, 128, 1000, 20000}) {
+			int[] ints = new int[n];
+			long[] longs = new long[n];
+			float[] floats = new float[n];
+			for (int i = 0; i < n; i++) {
+				ints[i] = i % 3 == 0 ? random.nextInt(10) - 5 : random.nextInt();
+				longs[i] = i % 3 == 0 ? random.nextInt(10) - 5 : random.nextLong();
+				floats[i] = (random.nextFloat() - 0.5f) * (i % 2 == 0 ? 1e6f : 1);
+			}
+			if (n > 10) {
+				floats[0] = -0f;
+				floats[1] = 0f;
+				floats[2] = Float.NaN;
+				floats[3] = Float.NEGATIVE_INFINITY;
+			}
+			int from = Math.min(1, n);
+			int[] expectedInts = ints.clone();
+			long[] expectedLongs = longs.clone();
+			float[] expectedFloats = floats.clone();
+			Arrays.sort(expectedInts, from, n);
+			Arrays.sort(expectedLongs, from, n);
+			Arrays.sort(expectedFloats, from, n);
+			sort.radixSort(ints, from, n);
+			sort.radixSort(longs, from, n);
+			sort.radixSort(floats, from, n);
+			assertArrayEquals(expectedInts, ints);
+			assertArrayEquals(expectedLongs, longs);
+			assertArrayEquals(expectedFloats, floats, 0);
+		}
+	}
+
+	@Test
+	public void testSortIndices () {
+		FloatArray keys = new FloatArray();
+		for (int i = 0; i < 5000; i++)
+			keys.add(random.nextInt(100) / 10f);
+		IntArray indices = keys.sortIndices(new IntArray());
+		assertEquals(keys.size, indices.size);
+		for (int i = 1; i < indices.size; i++) {
+			float previous = keys.get(indices.get(i - 1)), current = keys.get(indices.get(i));
+			assertTrue(previous <= current);
+			// Stable, equal keys keep their order.
+			if (previous == current) assertTrue(indices.get(i - 1) < indices.get(i));
+		}
+	}
+
+	@Test
+	public void testSelect () {
+		for (int n : new int[] {1, 10, 100, 10000}) {
+			int[] items = new int[n];
+			for (int i = 0; i < n; i++)
+				items[i] = random.nextInt(n / 2 + 1);
+			int[] sorted = items.clone();
+			Arrays.sort(sorted);
+			for (int k : new int[] {1, n / 3 + 1, n / 2 + 1, n}) {
+				int[] copy = items.clone();
+				assertEquals(sorted[k - 1], PrimitiveSort.select(copy, 0, n, k));
+				for (int i = 0; i < k - 1; i++)
+					assertTrue(copy[i] <= copy[k - 1]);
+				for (int i = k; i < n; i++)
+					assertTrue(copy[i] >= copy[k - 1]);
+			}
+		}
+		FloatArray floats = FloatArray.with(5, 3, 9, 1, 7);
+		assertEquals(5, floats.selectRanked(3), 0);
+		assertEquals(1, PrimitiveSort.lowerBound(new int[] {1, 3, 3, 5}, 0, 4, 3));
+	}
+
+	@Test
+	public void testParallelSort () {
+		AsyncExecutor executor = new AsyncExecutor(4);
+		try {
+			int n = 100003;
+			int[] ints = new int[n];
+			float[] floats = new float[n];
+			for (int i = 0; i < n; i++) {
+				ints[i] = random.nextInt();
+				floats[i] = random.nextFloat();
+			}
+			int[] expectedInts = ints.clone();
+			float[] expectedFloats = floats.clone();
+			Arrays.sort(expectedInts, 2, n);
+			Arrays.sort(expectedFloats);
+			sort.parallelSort(ints, 2, n, executor, 3);
+			sort.parallelSort(floats, 0, n, executor, 4);
+			assertArrayEquals(expectedInts, ints);
+			assertArrayEquals(expectedFloats, floats, 0);
+		} finally {
+			executor.dispose();
+		}
+	}
+}
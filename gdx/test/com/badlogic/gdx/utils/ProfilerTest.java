@@ -0,0 +1,150 @@
+package com.badlogic.gdx.utils;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ProfilerTest {
+	@After
+	public void tearDown () {
+		Profiler.disable();
+		Profiler.clear();
+		Profiler.setCapacity(64 * 1024);
+	}
+
+	@Test
+	public void disabledRecordsNothing () throws Exception {
+		Profiler.disable();
+		String trace = record(new Runnable() {
+			public void run () {
+				Profiler.begin("disabled");
+				Profiler.mark("disabledMark");
+				Profiler.end();
+			}
+		});
+		assertFalse(trace.contains("disabled"));
+	}
+
+	@Test
+	public void nestedZones () throws Exception {
+		Profiler.enable();
+		String trace = record(new Runnable() {
+			public void run () {
+				Profiler.begin("outer");
+				Profiler.begin("inner");
+				Profiler.mark("frame");
+				Profiler.end();
+				Profiler.end();
+			}
+		});
+		String thread = threadEvents(trace);
+		assertEquals(5, count(thread, "\"ph\":"));
+		assertEquals(2, count(thread, "\"ph\":\"B\""));
+		assertEquals(2, count(thread, "\"ph\":\"E\""));
+		assertEquals(1, count(thread, "\"ph\":\"i\""));
+		int outer = thread.indexOf("\"name\":\"outer\""), inner = thread.indexOf("\"name\":\"inner\"");
+		int mark = thread.indexOf("\"name\":\"frame\""), end = thread.indexOf("\"ph\":\"E\"");
+		assertTrue(outer != -1 && outer < inner && inner < mark && mark < end);
+	}
+
+	@Test
+	public void clearDiscardsEvents () throws Exception {
+		Profiler.enable();
+		String trace = record(new Runnable() {
+			public void run () {
+				Profiler.begin("before");
+				Profiler.end();
+				Profiler.clear();
+				Profiler.begin("after");
+				Profiler.end();
+			}
+		});
+		String thread = threadEvents(trace);
+		assertFalse(thread.contains("before"));
+		assertTrue(thread.contains("after"));
+		assertEquals(2, count(thread, "\"ph\":"));
+	}
+
+	@Test
+	public void clearDropsTerminatedThreads () throws Exception {
+		Profiler.enable();
+		String trace = record(new Runnable() {
+			public void run () {
+				Profiler.mark("ended");
+			}
+		});
+		assertTrue(trace.contains("\"args\":{\"name\":\"ProfilerTest\"}}"));
+		Profiler.clear();
+		StringWriter writer = new StringWriter();
+		Profiler.writeChromeTrace(writer);
+		assertFalse(writer.toString().contains("ProfilerTest"));
+	}
+
+	@Test
+	public void overwrittenBeginsDropEnds () throws Exception {
+		Profiler.enable();
+		Profiler.setCapacity(4);
+		String trace = record(new Runnable() {
+			public void run () {
+				Profiler.begin("a");
+				Profiler.begin("b");
+				Profiler.begin("c");
+				Profiler.end();
+				Profiler.end();
+			}
+		});
+		// The buffer holds the last 4 events, but the oldest may be in the middle of being overwritten, so 3 are exported: begin
+		// c and 2 ends. The end of b has no begin and is dropped.
+		String thread = threadEvents(trace);
+		assertFalse(thread.contains("\"name\":\"a\""));
+		assertFalse(thread.contains("\"name\":\"b\""));
+		assertTrue(thread.contains("\"name\":\"c\""));
+		assertEquals(1, count(thread, "\"ph\":\"B\""));
+		assertEquals(1, count(thread, "\"ph\":\"E\""));
+	}
+
+	@Test
+	public void namesAreEscaped () throws Exception {
+		Profiler.enable();
+		String trace = record(new Runnable() {
+			public void run () {
+				Profiler.mark("quote\"back\\slash\ttab");
+			}
+		});
+		assertTrue(threadEvents(trace).contains("\"name\":\"quote\\\"back\\\\slash tab\""));
+	}
+
+	/** Runs the runnable on a new thread, so it records to a fresh buffer, and returns the trace. */
+	static private String record (Runnable runnable) throws InterruptedException, IOException {
+		Thread thread = new Thread(runnable, "ProfilerTest");
+		thread.start();
+		thread.join(10000);
+		assertFalse(thread.isAlive());
+		StringWriter writer = new StringWriter();
+		Profiler.writeChromeTrace(writer);
+		String trace = writer.toString();
+		assertTrue(trace.startsWith("{\"traceEvents\":["));
+		assertTrue(trace.endsWith("]}\n"));
+		return trace;
+	}
+
+	/** Returns the events of the last thread named ProfilerTest, after its thread_name metadata event. */
+	static private String threadEvents (String trace) {
+		int start = trace.lastIndexOf("\"args\":{\"name\":\"ProfilerTest\"}}");
+		assertTrue(start != -1);
+		String events = trace.substring(start);
+		int next = events.indexOf("thread_name");
+		return next == -1 ? events : events.substring(0, next);
+	}
+
+	static private int count (String text, String value) {
+		int count = 0;
+		for (int i = text.indexOf(value); i != -1; i = text.indexOf(value, i + 1))
+			count++;
+		return count;
+	}
+}
@@ -0,0 +1,182 @@
+package com.badlogic.gdx.utils.compression;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+public class LzmaBlockTest {
+	static private final int blockSize = 1000, dictionarySize = 1 << 16;
+
+	@Test
+	public void lzmaRoundTrip () throws IOException {
+		byte[] data = data(5000);
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		Lzma.compress(new ByteArrayInputStream(data), compressed);
+		ByteArrayOutputStream decompressed = new ByteArrayOutputStream();
+		Lzma.decompress(new ByteArrayInputStream(compressed.toByteArray()), decompressed);
+		assertArrayEquals(data, decompressed.toByteArray());
+	}
+
+	@Test
+	public void blockSizeEdges () throws IOException {
+		int[] sizes = {0, 1, blockSize - 1, blockSize, blockSize + 1, blockSize * 2, blockSize * 5 + 7};
+		for (int size : sizes) {
+			byte[] data = data(size);
+			for (int threads = 1; threads <= 3; threads += 2) {
+				byte[] compressed = compress(data, threads, false);
+				assertArrayEquals("size: " + size, data, decompress(compressed, threads));
+				// Writing a byte at a time gives the same blocks.
+				assertArrayEquals("size: " + size, compressed, compress(data, threads, true));
+				// The stream reads single bytes across block boundaries.
+				LzmaBlockInputStream input = new LzmaBlockInputStream(new ByteArrayInputStream(compressed), threads);
+				for (int i = 0; i < size; i++)
+					assertEquals(data[i] & 0xff, input.read());
+				assertEquals(-1, input.read());
+				input.close();
+			}
+		}
+	}
+
+	@Test
+	public void flushWritesSmallerBlock () throws IOException {
+		byte[] data = data(blockSize * 2);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		LzmaBlockOutputStream output = new LzmaBlockOutputStream(bytes, blockSize, dictionarySize, 1);
+		output.write(data, 0, 10);
+		output.flush();
+		output.flush(); // Does not write an empty block.
+		output.write(data, 10, data.length - 10);
+		output.close();
+		assertArrayEquals(data, decompress(bytes.toByteArray(), 1));
+
+		LzmaBlockReader reader = reader(bytes.toByteArray());
+		try {
+			assertEquals(3, reader.getBlockCount());
+			assertEquals(data.length, reader.getLength());
+		} finally {
+			reader.dispose();
+		}
+	}
+
+	@Test
+	public void randomAccess () throws IOException {
+		byte[] data = data(blockSize * 5 + 7);
+		LzmaBlockReader reader = reader(compress(data, 1, false));
+		try {
+			assertEquals(6, reader.getBlockCount());
+			assertEquals(blockSize, reader.getBlockSize());
+			assertEquals(data.length, reader.getLength());
+			int[][] ranges = {{0, 1}, {blockSize - 1, 2}, {blockSize, blockSize}, {blockSize / 2, blockSize * 3}, {data.length - 1, 1},
+				{0, data.length}, {data.length - 3, 10}};
+			for (int[] range : ranges) {
+				int position = range[0], length = range[1];
+				byte[] buffer = new byte[length + 2];
+				int count = reader.read(position, buffer, 1, length);
+				int expected = Math.min(length, data.length - position);
+				assertEquals(expected, count);
+				assertArrayEquals(Arrays.copyOfRange(data, position, position + expected), Arrays.copyOfRange(buffer, 1, 1 + count));
+			}
+			assertEquals(0, reader.read(data.length, new byte[1], 0, 1));
+		} finally {
+			reader.dispose();
+		}
+	}
+
+	@Test
+	public void truncatedInput () throws IOException {
+		byte[] data = data(blockSize * 3);
+		byte[] compressed = compress(data, 1, false);
+		int[] lengths = {0, 4, LzmaBlock.HEADER_SIZE - 1, LzmaBlock.HEADER_SIZE, LzmaBlock.HEADER_SIZE + 6,
+			LzmaBlock.HEADER_SIZE + LzmaBlock.BLOCK_HEADER_SIZE + 10, compressed.length / 2};
+		for (int length : lengths) {
+			byte[] truncated = Arrays.copyOf(compressed, length);
+			for (int threads = 1; threads <= 3; threads += 2) {
+				try {
+					decompress(truncated, threads);
+					fail("Truncated stream was read: " + length);
+				} catch (GdxRuntimeException expected) {
+				}
+			}
+		}
+		// Any truncation, also of only the footer, loses the index needed for random access.
+		for (int length : new int[] {0, LzmaBlock.HEADER_SIZE, compressed.length / 2, compressed.length - 1}) {
+			try {
+				reader(Arrays.copyOf(compressed, length)).dispose();
+				fail("Truncated index was read: " + length);
+			} catch (GdxRuntimeException expected) {
+			}
+		}
+	}
+
+	@Test
+	public void invalidHeader () throws IOException {
+		byte[] compressed = compress(data(10), 1, false);
+		compressed[0] = 'X';
+		try {
+			new LzmaBlockInputStream(new ByteArrayInputStream(compressed), 1);
+			fail();
+		} catch (GdxRuntimeException expected) {
+		}
+	}
+
+	/** Returns data that compresses, but not to almost nothing. */
+	static private byte[] data (int size) {
+		Random random = new Random(size);
+		byte[] data = new byte[size];
+		for (int i = 0; i < size; i++)
+			data[i] = (byte)(random.nextInt(4) == 0 ? random.nextInt(256) : i % 17);
+		return data;
+	}
+
+	static private byte[] compress (byte[] data, int threads, boolean singleBytes) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		LzmaBlockOutputStream output = new LzmaBlockOutputStream(bytes, blockSize, dictionarySize, threads);
+		if (singleBytes) {
+			for (byte b : data)
+				output.write(b);
+		} else
+			output.write(data);
+		output.close();
+		return bytes.toByteArray();
+	}
+
+	static private byte[] decompress (byte[] compressed, int threads) throws IOException {
+		InputStream input = new LzmaBlockInputStream(new ByteArrayInputStream(compressed), threads);
+		try {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[333];
+			while (true) {
+				int count = input.read(buffer);
+				if (count == -1) break;
+				output.write(buffer, 0, count);
+			}
+			return output.toByteArray();
+		} finally {
+			input.close();
+		}
+	}
+
+	static private LzmaBlockReader reader (byte[] compressed) throws IOException {
+		File file = File.createTempFile("LzmaBlockTest", ".lzb");
+		file.deleteOnExit();
+		FileOutputStream output = new FileOutputStream(file);
+		try {
+			output.write(compressed);
+		} finally {
+			output.close();
+		}
+		return new LzmaBlockReader(new FileHandle(file));
+	}
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.MultiTextureSpriteBatch;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.tests.utils.GdxTest;
+
+/** Draws sprites that alternate between several textures, as well as text, with a {@link MultiTextureSpriteBatch}. Touch to
+ * switch to a {@link SpriteBatch}, which needs a render call for each texture change. Both should look the same. */
+public class MultiTextureSpriteBatchTest extends GdxTest {
+	static final int SPRITES = 2000;
+
+	MultiTextureSpriteBatch multiBatch;
+	SpriteBatch spriteBatch;
+	boolean multi = true;
+	BitmapFont font;
+	Texture[] textures;
+	float[] positions = new float[SPRITES * 2];
+	float[] rotations = new float[SPRITES];
+	Color[] colors = new Color[SPRITES];
+	int renderCalls;
+
+	public void create () {
+		multiBatch = new MultiTextureSpriteBatch(1000, 8);
+		spriteBatch = new SpriteBatch(1000);
+		font = new BitmapFont();
+		textures = new Texture[] {new Texture("data/badlogicsmall.jpg"), new Texture("data/bobargb8888-32x32.png"),
+			new Texture("data/egg.png"), new Texture("data/wheel.png"), new Texture("data/particle.png")};
+		for (int i = 0; i < SPRITES; i++) {
+			positions[i * 2] = MathUtils.random(Gdx.graphics.getWidth());
+			positions[i * 2 + 1] = MathUtils.random(Gdx.graphics.getHeight());
+			rotations[i] = MathUtils.random(360);
+			colors[i] = new Color(MathUtils.random(0.5f, 1), MathUtils.random(0.5f, 1), MathUtils.random(0.5f, 1), 1);
+		}
+
+		Gdx.input.setInputProcessor(new InputAdapter() {
+			public boolean touchDown (int screenX, int screenY, int pointer, int button) {
+				multi = !multi;
+				return true;
+			}
+		});
+	}
+
+	public void render () {
+		Gdx.gl.glClearColor(0.2f, 0.2f, 0.2f, 1);
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+		float delta = Gdx.graphics.getDeltaTime();
+		Batch batch = multi ? multiBatch : spriteBatch;
+		batch.begin();
+		for (int i = 0; i < SPRITES; i++) {
+			rotations[i] += delta * 45;
+			Texture texture = textures[i % textures.length];
+			batch.setColor(colors[i]);
+			batch.draw(texture, positions[i * 2], positions[i * 2 + 1], 16, 16, 32, 32, 1, 1, rotations[i], 0, 0,
+				texture.getWidth(), texture.getHeight(), false, false);
+		}
+		batch.setColor(Color.WHITE);
+		String name = multi ? "MultiTextureSpriteBatch, " + multiBatch.getMaxTextures() + " textures" : "SpriteBatch";
+		font.draw(batch, name + ", touch to switch", 10, 40);
+		font.draw(batch, "FPS: " + Gdx.graphics.getFramesPerSecond() + ", render calls: " + renderCalls, 10, 20);
+		batch.end();
+		renderCalls = multi ? multiBatch.renderCalls : spriteBatch.renderCalls;
+	}
+
+	public void resize (int width, int height) {
+		multiBatch.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+		spriteBatch.getProjectionMatrix().setToOrtho2D(0, 0, width, height);
+	}
+
+	public void dispose () {
+		multiBatch.dispose();
+		spriteBatch.dispose();
+		font.dispose();
+		for (Texture texture : textures)
+			texture.dispose();
+	}
+}
@@ -23,11 +23,14 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Pixmap.Format;
+import com.badlogic.gdx.graphics.PixmapIO;
 import com.badlogic.gdx.graphics.PixmapIO.PNG;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.ScreenUtils;
 
 public class PngTest extends GdxTest {
@@ -37,6 +40,50 @@ public class PngTest extends GdxTest {
 	public void create () {
 		batch = new SpriteBatch();
 		badlogic = new Texture(Gdx.files.internal("data/badlogic.jpg"));
+
+		checkThreads(Format.RGBA8888);
+		checkThreads(Format.RGB888);
+	}
+
+	/** Checks that images compressed with multiple threads decode to the same pixels as the original. */
+	private void checkThreads (Format format) {
+		// Large enough to be split into many blocks, with noise so the blocks don't compress to nothing.
+		Pixmap pixmap = new Pixmap(700, 600, format);
+		for (int y = 0; y < pixmap.getHeight(); y++)
+			for (int x = 0; x < pixmap.getWidth(); x++)
+				pixmap.drawPixel(x, y, (x * 0x10203 + y * 0x30201) << 8 | (MathUtils.random(3) == 0 ? MathUtils.random(255) : 0xff));
+		try {
+			FileHandle file = FileHandle.tempFile("png-");
+			PNG writer = new PNG();
+			writer.setFlipY(false);
+			for (int threads = 1; threads <= 4; threads += 3) {
+				writer.setThreads(threads);
+				for (int adaptive = 0; adaptive < 2; adaptive++) {
+					writer.setAdaptiveFilter(adaptive == 1);
+					writer.write(file, pixmap);
+					checkPixels(pixmap, file, threads + " threads, adaptive: " + (adaptive == 1));
+				}
+			}
+			writer.dispose();
+			PixmapIO.writePNG(file, pixmap);
+			checkPixels(pixmap, file, "writePNG");
+			file.delete();
+		} catch (IOException ex) {
+			throw new RuntimeException(ex);
+		}
+		pixmap.dispose();
+	}
+
+	private void checkPixels (Pixmap expected, FileHandle file, String description) {
+		Pixmap actual = new Pixmap(file);
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++) {
+				if (expected.getPixel(x, y) != actual.getPixel(x, y)) throw new GdxRuntimeException(
+					"Pixel " + x + "," + y + " differs, " + expected.getFormat() + ", " + description);
+			}
+		}
+		actual.dispose();
+		Gdx.app.log("PngTest", expected.getFormat() + ", " + description + ": " + file.length() + " bytes");
 	}
 
 	public void render () {
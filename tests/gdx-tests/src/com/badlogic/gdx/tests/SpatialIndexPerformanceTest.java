@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.DynamicAabbTree;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.SpatialHash;
+import com.badlogic.gdx.math.SpatialIndex;
+import com.badlogic.gdx.math.SpatialIndex.PairCallback;
+import com.badlogic.gdx.math.SpatialIndex.QueryCallback;
+import com.badlogic.gdx.math.SpatialIndex.RayCastCallback;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/** Moves 100k rectangles each frame and measures updating a {@link SpatialIndex}, finding the overlapping pairs and running
+ * area queries and ray casts. Touch to switch between {@link DynamicAabbTree} and {@link SpatialHash}. */
+public class SpatialIndexPerformanceTest extends GdxTest {
+	static final int COUNT = 100000, QUERIES = 1000;
+	static final float WORLD_SIZE = 1000, SPEED = 5;
+
+	SpriteBatch batch;
+	BitmapFont font;
+	SpatialIndex index;
+	boolean tree = true;
+	Rectangle[] rects = new Rectangle[COUNT];
+	float[] velocities = new float[COUNT * 2];
+	int[] proxies = new int[COUNT];
+	Rectangle area = new Rectangle(0, 0, 20, 20);
+	Vector2 rayStart = new Vector2(), rayEnd = new Vector2();
+	int pairs, queryHits, rayHits;
+	long moveTime, pairsTime, queryTime, rayTime;
+	float elapsed;
+	String text = "";
+
+	final PairCallback pairCallback = new PairCallback() {
+		public void reportPair (int proxyA, int proxyB) {
+			pairs++;
+		}
+	};
+	final QueryCallback queryCallback = new QueryCallback() {
+		public boolean reportProxy (int proxy) {
+			queryHits++;
+			return true;
+		}
+	};
+	final RayCastCallback rayCastCallback = new RayCastCallback() {
+		public float reportRayProxy (int proxy, float fraction, float maxFraction) {
+			rayHits++;
+			// Clip the ray to the closest hit.
+			return fraction > 0 ? fraction : maxFraction;
+		}
+	};
+
+	public void create () {
+		batch = new SpriteBatch();
+		font = new BitmapFont();
+		for (int i = 0; i < COUNT; i++) {
+			float size = MathUtils.random(1f, 3f);
+			rects[i] = new Rectangle(MathUtils.random(WORLD_SIZE), MathUtils.random(WORLD_SIZE), size, size);
+			velocities[i * 2] = MathUtils.random(-SPEED, SPEED);
+			velocities[i * 2 + 1] = MathUtils.random(-SPEED, SPEED);
+		}
+		createIndex();
+
+		Gdx.input.setInputProcessor(new InputAdapter() {
+			public boolean touchDown (int x, int y, int pointer, int button) {
+				tree = !tree;
+				createIndex();
+				return true;
+			}
+		});
+	}
+
+	void createIndex () {
+		long start = TimeUtils.nanoTime();
+		index = tree ? new DynamicAabbTree(1, COUNT) : new SpatialHash(4, COUNT);
+		for (int i = 0; i < COUNT; i++)
+			proxies[i] = index.add(rects[i], null);
+		Gdx.app.log("SpatialIndexPerformanceTest",
+			(tree ? "Tree" : "Hash") + " created in " + (TimeUtils.nanoTime() - start) / 1000000 + " ms");
+	}
+
+	public void render () {
+		float delta = Math.min(Gdx.graphics.getDeltaTime(), 1 / 30f);
+
+		long start = TimeUtils.nanoTime();
+		for (int i = 0; i < COUNT; i++) {
+			Rectangle r = rects[i];
+			float vx = velocities[i * 2], vy = velocities[i * 2 + 1];
+			r.x += vx * delta;
+			r.y += vy * delta;
+			if (r.x < 0 || r.x > WORLD_SIZE) velocities[i * 2] = -vx;
+			if (r.y < 0 || r.y > WORLD_SIZE) velocities[i * 2 + 1] = -vy;
+			index.move(proxies[i], r);
+		}
+		long moved = TimeUtils.nanoTime();
+
+		pairs = 0;
+		index.findPairs(pairCallback);
+		long paired = TimeUtils.nanoTime();
+
+		queryHits = 0;
+		for (int i = 0; i < QUERIES; i++) {
+			area.setPosition(i * 7 % WORLD_SIZE, i * 13 % WORLD_SIZE);
+			index.query(area, queryCallback);
+		}
+		long queried = TimeUtils.nanoTime();
+
+		rayHits = 0;
+		for (int i = 0; i < QUERIES; i++) {
+			rayStart.set(i * 7 % WORLD_SIZE, i * 13 % WORLD_SIZE);
+			rayEnd.set(100, 0).rotate(i).add(rayStart);
+			index.rayCast(rayStart, rayEnd, rayCastCallback);
+		}
+		long cast = TimeUtils.nanoTime();
+
+		moveTime += moved - start;
+		pairsTime += paired - moved;
+		queryTime += queried - paired;
+		rayTime += cast - queried;
+		elapsed += Gdx.graphics.getDeltaTime();
+		if (elapsed >= 1) {
+			// Show the average over the last second.
+			int frames = Math.max(1, Gdx.graphics.getFramesPerSecond());
+			text = (tree ? "DynamicAabbTree" : "SpatialHash") + ", " + COUNT + " rectangles, fps: " + frames //
+				+ "\nmove: " + moveTime / frames / 1000 + " us" //
+				+ "\npairs: " + pairsTime / frames / 1000 + " us, " + pairs + " pairs" //
+				+ "\n" + QUERIES + " queries: " + queryTime / frames / 1000 + " us, " + queryHits + " hits" //
+				+ "\n" + QUERIES + " ray casts: " + rayTime / frames / 1000 + " us, " + rayHits + " hits" //
+				+ "\ntouch to switch";
+			moveTime = pairsTime = queryTime = rayTime = 0;
+			elapsed = 0;
+		}
+
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+		batch.begin();
+		font.draw(batch, text, 10, Gdx.graphics.getHeight() - 10);
+		batch.end();
+	}
+
+	public void dispose () {
+		batch.dispose();
+		font.dispose();
+	}
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tests;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/** Checks reserving space for caches with {@link SpriteCache#endCache(int)} and redefining them, then draws the caches. */
+public class SpriteCacheReservationTest extends GdxTest {
+	static final int SIZE = 100, TILE_SIZE = 20;
+
+	private SpriteCache cache;
+	private Texture texture;
+	private Sprite sprite;
+
+	public void create () {
+		texture = new Texture(Gdx.files.internal("data/badlogicsmall.jpg"));
+		sprite = new Sprite(texture);
+		sprite.setSize(TILE_SIZE, TILE_SIZE);
+
+		// Cache 0 can be redefined with up to its reservation, even though it isn't the last cache.
+		SpriteCache cache = createCaches();
+		cache.beginCache(0);
+		addImages(cache, 0, 20);
+		check(cache.endCache() == 0, "redefined");
+		cache.dispose();
+
+		cache = createCaches();
+		cache.beginCache(0);
+		addImages(cache, 0, 21);
+		expectFailure(cache, 0, "cache 0 grows beyond its reservation");
+
+		cache = createCaches();
+		cache.beginCache(0);
+		addImages(cache, 0, 5);
+		expectFailure(cache, 30, "cache 0 reserves more than it was first created with");
+
+		// Cache 1 is the last cache, so its reservation can be changed. It is kept when it's redefined.
+		cache = createCaches();
+		cache.beginCache(1);
+		addImages(cache, 1, 2);
+		cache.endCache(SIZE - 20);
+		cache.beginCache(1);
+		addImages(cache, 1, 3);
+		cache.endCache();
+		cache.beginCache();
+		expectFailure(cache, 1, "a new cache reserves space after the reservation of cache 1");
+
+		// Releasing the reservation of the last cache makes the space available for a new cache.
+		cache = createCaches();
+		cache.beginCache(1);
+		addImages(cache, 1, 2);
+		cache.endCache(SIZE - 20);
+		cache.beginCache(1);
+		addImages(cache, 1, 4);
+		check(cache.endCache(0) == 1, "released");
+		cache.beginCache();
+		addImages(cache, 2, SIZE - 24);
+		check(cache.endCache() == 2, "created after release");
+		this.cache = cache;
+
+		Gdx.app.log("SpriteCacheReservationTest", "All checks passed.");
+	}
+
+	/** Creates cache 0 with 5 images and space reserved for 20, and cache 1 after it with 5 images. */
+	private SpriteCache createCaches () {
+		SpriteCache cache = new SpriteCache(SIZE, true);
+		cache.beginCache();
+		addImages(cache, 0, 5);
+		cache.endCache(20);
+		cache.beginCache();
+		addImages(cache, 1, 5);
+		cache.endCache();
+		return cache;
+	}
+
+	private void addImages (SpriteCache cache, int row, int count) {
+		for (int i = 0; i < count; i++) {
+			sprite.setPosition(i % 20 * TILE_SIZE, (row * 5 + i / 20) * TILE_SIZE);
+			cache.add(sprite);
+		}
+	}
+
+	/** Ends the cache being defined, expecting it to fail. The sprite cache can't be used afterward, so it is disposed. */
+	private void expectFailure (SpriteCache cache, int reservedImages, String message) {
+		try {
+			cache.endCache(reservedImages);
+		} catch (GdxRuntimeException expected) {
+			Gdx.app.log("SpriteCacheReservationTest", "Failed as expected, " + message + ": " + expected.getMessage());
+			return;
+		} finally {
+			cache.dispose();
+		}
+		throw new GdxRuntimeException("Expected failure, " + message);
+	}
+
+	private void check (boolean condition, String message) {
+		if (!condition) throw new GdxRuntimeException("Check failed: " + message);
+	}
+
+	public void render () {
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+		cache.begin();
+		cache.draw(0);
+		cache.draw(1);
+		cache.draw(2);
+		cache.end();
+	}
+
+	@Override
+	public void dispose () {
+		cache.dispose();
+		texture.dispose();
+	}
+}
@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package com.badlogic.gdx.tests.g3d;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelCache;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.particles.values.UnweightedMeshSpawnShapeValue;
+import com.badlogic.gdx.graphics.g3d.particles.values.WeightMeshSpawnShapeValue;
+import com.badlogic.gdx.graphics.g3d.utils.CameraInputController;
+import com.badlogic.gdx.graphics.g3d.utils.LodRenderableProvider;
+import com.badlogic.gdx.graphics.g3d.utils.MeshBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.ModelLod;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.tests.utils.GdxTest;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.Pool;
+
+/** Checks meshes at the boundary between short and int indices, then renders a grid that has short indices next to one that
+ * needs int indices. Both should look the same apart from their size. */
+public class IntIndicesTest extends GdxTest {
+	PerspectiveCamera cam;
+	CameraInputController inputController;
+	ModelBatch modelBatch;
+	Model model;
+	ModelInstance instance;
+	Environment environment;
+
+	@Override
+	public void create () {
+		// 181 * 181 vertices is the largest square grid with short indices.
+		Mesh small = createGrid(181, false);
+		check(!small.hasIntIndices(), "Grid with 32761 vertices has int indices.");
+		checkMesh(small, 181);
+		try {
+			createGrid(182, false);
+			throw new GdxRuntimeException("Grid with 33124 vertices was built without int indices.");
+		} catch (GdxRuntimeException expected) {
+			if (!"Too many vertices used".equals(expected.getMessage())) throw expected;
+		}
+
+		Mesh large = createGrid(300, true);
+		check(large.hasIntIndices(), "Grid with 90000 vertices has short indices.");
+		check(large.getIndexType() == GL20.GL_UNSIGNED_INT, "Wrong index type.");
+		checkMesh(large, 300);
+		Mesh copy = large.copy(true);
+		check(copy.hasIntIndices(), "Copy has short indices.");
+		checkMesh(copy, 300);
+		copy.dispose();
+
+		// Code that reads the indices handles both index types.
+		for (Mesh mesh : new Mesh[] {small, large}) {
+			WeightMeshSpawnShapeValue weighted = new WeightMeshSpawnShapeValue();
+			weighted.setMesh(mesh);
+			weighted.init();
+			UnweightedMeshSpawnShapeValue unweighted = new UnweightedMeshSpawnShapeValue();
+			unweighted.setMesh(mesh);
+			// The weighted spawn can be slightly outside of the picked triangle.
+			BoundingBox bounds = mesh.calculateBoundingBox();
+			bounds.set(bounds.min.sub(0.1f), bounds.max.add(0.1f));
+			Vector3 position = new Vector3();
+			for (int i = 0; i < 100; i++) {
+				weighted.spawn(position, 0);
+				check(bounds.contains(position), "Weighted spawn outside of the mesh: " + position);
+				unweighted.spawn(position, 0);
+				check(bounds.contains(position), "Unweighted spawn outside of the mesh: " + position);
+			}
+		}
+
+		modelBatch = new ModelBatch();
+		environment = new Environment();
+		environment.set(new ColorAttribute(ColorAttribute.AmbientLight, .4f, .4f, .4f, 1f));
+		environment.add(new DirectionalLight().set(0.8f, 0.8f, 0.8f, -1f, -0.8f, -0.2f));
+
+		ModelBuilder modelBuilder = new ModelBuilder();
+		modelBuilder.begin();
+		modelBuilder.manage(small);
+		modelBuilder.manage(large);
+		modelBuilder.node().translation.set(-1.1f, 0, 0);
+		modelBuilder.part("small", small, GL20.GL_TRIANGLES, new Material(ColorAttribute.createDiffuse(Color.GREEN)));
+		modelBuilder.node().translation.set(1.1f, 0, 0);
+		modelBuilder.part("large", large, GL20.GL_TRIANGLES, new Material(ColorAttribute.createDiffuse(Color.ORANGE)));
+		model = modelBuilder.end();
+		instance = new ModelInstance(model);
+
+		cam = new PerspectiveCamera(67, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+		cam.position.set(0, 2.5f, 2.5f);
+		cam.lookAt(0, 0, 0);
+		cam.near = 0.1f;
+		cam.far = 30f;
+		cam.update();
+		checkLod();
+		Gdx.input.setInputProcessor(inputController = new CameraInputController(cam));
+	}
+
+	/** Builds a wavy grid of size * size vertices, 2 units wide. The indices refer to the previous row of vertices. */
+	private Mesh createGrid (int size, boolean intIndices) {
+		MeshBuilder builder = new MeshBuilder();
+		builder.setIntIndices(intIndices);
+		builder.begin(Usage.Position | Usage.Normal, GL20.GL_TRIANGLES);
+		addGrid(builder, size);
+		return builder.end();
+	}
+
+	private void addGrid (MeshBuilder builder, int size) {
+		short[] previous = new short[size], row = new short[size];
+		Vector3 normal = new Vector3();
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				float u = x / (size - 1f), v = y / (size - 1f), height = 0.05f * MathUtils.sin(u * 20) * MathUtils.cos(v * 20);
+				normal.set(-MathUtils.cos(u * 20) * MathUtils.cos(v * 20), 1, MathUtils.sin(u * 20) * MathUtils.sin(v * 20)).nor();
+				row[x] = builder.vertex(u * 2 - 1, height, v * 2 - 1, normal.x, normal.y, normal.z);
+				if (x > 0 && y > 0) builder.rect(previous[x - 1], row[x - 1], row[x], previous[x]);
+			}
+			short[] temp = previous;
+			previous = row;
+			row = temp;
+		}
+	}
+
+	/** Generates levels of detail for a model of several grids in one mesh, so the levels share a mesh with int indices. Then
+	 * checks that a {@link ModelCache} merges the parts of the last level into meshes with short indices. */
+	private void checkLod () {
+		MeshBuilder builder = new MeshBuilder();
+		builder.setIntIndices(true);
+		builder.begin(Usage.Position | Usage.Normal);
+		MeshPart[] parts = new MeshPart[4];
+		for (int i = 0; i < parts.length; i++) {
+			parts[i] = builder.part("grid" + i, GL20.GL_TRIANGLES);
+			addGrid(builder, 150);
+		}
+		Mesh mesh = builder.end();
+		ModelBuilder modelBuilder = new ModelBuilder();
+		modelBuilder.begin();
+		modelBuilder.manage(mesh);
+		for (MeshPart part : parts) {
+			modelBuilder.node();
+			modelBuilder.part(part, new Material());
+		}
+		Model lodModel = modelBuilder.end();
+
+		ModelLod lod = new ModelLod(lodModel, 0.5f);
+		int levelIndices = 0;
+		for (MeshPart part : parts) {
+			MeshPart[] levels = lod.getLevels(part);
+			check(levels != null && levels[1] != part, "Grid was not simplified.");
+			check(levels[1].mesh.hasIntIndices(), "Level mesh has short indices: " + levels[1].mesh.getNumVertices() + " vertices.");
+			levelIndices += levels[1].size;
+		}
+
+		LodRenderableProvider provider = new LodRenderableProvider(new ModelInstance(lodModel), lod, cam);
+		provider.bias = 0; // Picks the last level.
+		ModelCache cache = new ModelCache();
+		cache.begin();
+		cache.add(provider);
+		cache.end();
+		check(provider.level == 1, "Wrong level: " + provider.level);
+		Array<Renderable> renderables = new Array();
+		cache.getRenderables(renderables, new Pool<Renderable>() {
+			protected Renderable newObject () {
+				return new Renderable();
+			}
+		});
+		int cachedIndices = 0;
+		for (Renderable renderable : renderables) {
+			MeshPart part = renderable.meshPart;
+			if (part.size == 0) continue; // Parts too large to merge with others leave an empty part behind.
+			check(!part.mesh.hasIntIndices(), "Cached mesh has int indices.");
+			int[] indices = new int[part.size];
+			part.mesh.getIndices(part.offset, part.size, indices, 0);
+			for (int index : indices)
+				check(index >= 0 && index < part.mesh.getNumVertices(), "Cached index out of range: " + index);
+			cachedIndices += part.size;
+		}
+		check(cachedIndices == levelIndices, "Cached " + cachedIndices + " indices, expected: " + levelIndices);
+		cache.dispose();
+		lodModel.dispose();
+	}
+
+	/** Checks the indices against the grid layout, and the bounds and radius calculated from them. */
+	private void checkMesh (Mesh mesh, int size) {
+		int count = (size - 1) * (size - 1) * 6;
+		check(mesh.getNumVertices() == size * size, "Wrong vertex count: " + mesh.getNumVertices());
+		check(mesh.getNumIndices() == count, "Wrong index count: " + mesh.getNumIndices());
+		int[] indices = new int[count];
+		mesh.getIndices(0, -1, indices, 0);
+		for (int i = 0, y = 1; y < size; y++) {
+			for (int x = 1; x < size; x++, i += 6) {
+				int expected = (y - 1) * size + x - 1; // The first corner of each rectangle.
+				check(indices[i] == expected, "Wrong index " + i + ": " + indices[i] + ", expected: " + expected);
+				check(indices[i + 2] == expected + size + 1, "Wrong index " + (i + 2) + ": " + indices[i + 2]);
+			}
+		}
+		BoundingBox bounds = mesh.calculateBoundingBox();
+		check(MathUtils.isEqual(bounds.min.x, -1) && MathUtils.isEqual(bounds.max.z, 1), "Wrong bounds: " + bounds);
+		check(MathUtils.isEqual(mesh.calculateRadius(0, 0, 0), (float)Math.sqrt(2), 0.01f), "Wrong radius.");
+	}
+
+	private void check (boolean condition, String message) {
+		if (!condition) throw new GdxRuntimeException(message);
+	}
+
+	@Override
+	public void render () {
+		inputController.update();
+
+		Gdx.gl.glViewport(0, 0, Gdx.graphics.getBackBufferWidth(), Gdx.graphics.getBackBufferHeight());
+		Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+
+		modelBatch.begin(cam);
+		modelBatch.render(instance, environment);
+		modelBatch.end();
+	}
+
+	@Override
+	public void resize (int width, int height) {
+		cam.viewportWidth = width;
+		cam.viewportHeight = height;
+		cam.update();
+	}
+
+	@Override
+	public void dispose () {
+		modelBatch.dispose();
+		model.dispose();
+	}
+}
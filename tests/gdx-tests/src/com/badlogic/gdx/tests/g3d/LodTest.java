@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright 2011 See AUTHORS file.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+
+package com.badlogic.gdx.tests.g3d;
+
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.graphics.g3d.utils.LodRenderableProvider;
+import com.badlogic.gdx.graphics.g3d.utils.ModelLod;
+import com.badlogic.gdx.scenes.scene2d.ui.CheckBox;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.StringBuilder;
+
+/** Renders a row of model instances at increasing distances, with levels of detail generated by {@link ModelLod}. */
+public class LodTest extends BaseG3dHudTest {
+	static final int COUNT = 12;
+
+	protected Environment environment;
+	protected CheckBox lodCheckBox;
+	protected final ObjectMap<Model, ModelLod> lods = new ObjectMap();
+	protected final Array<LodRenderableProvider> providers = new Array();
+	/** The triangles of the model at each level. */
+	protected int[] levelTriangles;
+	protected String currentlyLoading;
+
+	@Override
+	public void create () {
+		super.create();
+		environment = new Environment();
+		environment.set(new ColorAttribute(ColorAttribute.AmbientLight, 0.4f, 0.4f, 0.4f, 1.f));
+		environment.add(new DirectionalLight().set(0.8f, 0.8f, 0.8f, -0.5f, -1.0f, -0.8f));
+		showAxes = false;
+
+		lodCheckBox = new CheckBox("Levels of detail", skin);
+		lodCheckBox.setChecked(true);
+		lodCheckBox.setPosition(hudWidth - lodCheckBox.getWidth(), moveCheckBox.getTop());
+		hud.addActor(lodCheckBox);
+
+		onModelClicked("g3d/teapot.g3db");
+	}
+
+	@Override
+	protected void render (ModelBatch batch, Array<ModelInstance> instances) {
+		if (lodCheckBox.isChecked()) {
+			for (LodRenderableProvider provider : providers)
+				batch.render(provider, environment);
+		} else
+			batch.render(instances, environment);
+	}
+
+	@Override
+	protected void getStatus (StringBuilder stringBuilder) {
+		super.getStatus(stringBuilder);
+		if (levelTriangles == null) return;
+		int triangles = 0;
+		stringBuilder.append(" levels:");
+		for (LodRenderableProvider provider : providers) {
+			int level = lodCheckBox.isChecked() ? provider.level : 0;
+			stringBuilder.append(' ').append(level);
+			if (level >= 0) triangles += levelTriangles[level];
+		}
+		stringBuilder.append(" triangles: ").append(triangles);
+	}
+
+	@Override
+	protected void onModelClicked (final String name) {
+		if (name == null) return;
+		currentlyLoading = "data/" + name;
+		assets.load(currentlyLoading, Model.class);
+		loading = true;
+	}
+
+	@Override
+	protected void onLoaded () {
+		if (currentlyLoading == null) return;
+		Model model = assets.get(currentlyLoading, Model.class);
+		currentlyLoading = null;
+		// Assets are shared, so only generate the levels once per model.
+		ModelLod lod = lods.get(model);
+		if (lod == null) lods.put(model, lod = new ModelLod(model, 0.5f, 0.25f, 0.1f));
+
+		instances.clear();
+		providers.clear();
+		float spacing = lod.radius * 3;
+		for (int i = 0; i < COUNT; i++) {
+			ModelInstance instance = new ModelInstance(model);
+			instance.transform.setToTranslation(0, 0, -i * i * spacing * 0.5f).translate(-lod.center.x, -lod.center.y,
+				-lod.center.z);
+			instances.add(instance);
+			providers.add(new LodRenderableProvider(instance, lod, cam));
+		}
+
+		levelTriangles = new int[lod.getLevelCount()];
+		for (int level = 0; level < levelTriangles.length; level++)
+			for (Node node : model.nodes)
+				levelTriangles[level] += countTriangles(lod, node, level);
+
+		cam.position.set(spacing * 0.5f, lod.radius, spacing);
+		cam.up.set(0, 1, 0);
+		cam.lookAt(0, 0, -spacing);
+		cam.far = COUNT * COUNT * spacing;
+		cam.update();
+	}
+
+	private int countTriangles (ModelLod lod, Node node, int level) {
+		int triangles = 0;
+		for (NodePart nodePart : node.parts) {
+			MeshPart[] levels = lod.getLevels(nodePart.meshPart);
+			triangles += (levels != null ? levels[level] : nodePart.meshPart).size / 3;
+		}
+		for (Node child : node.getChildren())
+			triangles += countTriangles(lod, child, level);
+		return triangles;
+	}
+}
@@ -56,7 +56,9 @@ import com.badlogic.gdx.tests.g3d.Benchmark3DTest;
 import com.badlogic.gdx.tests.g3d.FogTest;
 import com.badlogic.gdx.tests.g3d.FrameBufferCubemapTest;
 import com.badlogic.gdx.tests.g3d.HeightMapTest;
+import com.badlogic.gdx.tests.g3d.IntIndicesTest;
 import com.badlogic.gdx.tests.g3d.LightsTest;
+import com.badlogic.gdx.tests.g3d.LodTest;
 import com.badlogic.gdx.tests.g3d.MaterialTest;
 import com.badlogic.gdx.tests.g3d.MaterialEmissiveTest;
 import com.badlogic.gdx.tests.g3d.MeshBuilderTest;
@@ -154,6 +156,7 @@ public class GdxTests {
 		IndexBufferObjectShaderTest.class,
 		InputTest.class,
 		IntegerBitmapFontTest.class,
+		IntIndicesTest.class,
 		InterpolationTest.class,
 		InverseKinematicsTest.class,
 		IsometricTileTest.class,
@@ -163,6 +166,7 @@ public class GdxTests {
 		LabelTest.class,
 		LifeCycleTest.class,
 		LightsTest.class,
+		LodTest.class,
 		MaterialTest.class,
 		MaterialEmissiveTest.class,
 		MatrixJNITest.class,
@@ -172,6 +176,7 @@ public class GdxTests {
 		ModelTest.class,
 		ModelCacheTest.class,
 		MoveSpriteExample.class,
+		MultiTextureSpriteBatchTest.class,
 		MultipleRenderTargetTest.class,
 		MultitouchTest.class,
 		MusicTest.class,
@@ -218,10 +223,12 @@ public class GdxTests {
 		SoftKeyboardTest.class,
 		SortedSpriteTest.class,
 		SoundTest.class,
+		SpatialIndexPerformanceTest.class,
 		SpriteBatchRotationTest.class,
 		SpriteBatchShaderTest.class,
 		SpriteBatchTest.class,
 		SpriteCacheOffsetTest.class,
+		SpriteCacheReservationTest.class,
 		SpriteCacheTest.class,
 		StageDebugTest.class,
 		StagePerformanceTest.class,